@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+#
+# Compares the results of a benchmark run (mvn -Pbenchmark test) with the baseline and fails if
+# the throughput of a benchmark dropped by more than the given threshold.
+#
+# Usage: benchmark/compare.sh [threshold-percent] [results-directory] [baseline-file]
+#
+#   threshold-percent  allowed throughput regression in percent (default: $BENCHMARK_THRESHOLD or 10)
+#   results-directory  directory with the *.csv results of the run (default: target/benchmark-results)
+#   baseline-file      csv file with "benchmark,size,ops_per_second" lines (default: benchmark/baseline.csv)
+#
+# Benchmarks missing in the baseline are reported but do not fail the comparison. To record a new
+# baseline run: benchmark/compare.sh --update
+
+set -euo pipefail
+
+script_dir="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+project_dir="$(dirname "${script_dir}")"
+
+if [[ "${1:-}" == "--update" ]]; then
+  results_dir="${2:-${project_dir}/target/benchmark-results}"
+  baseline="${3:-${script_dir}/baseline.csv}"
+  { echo "benchmark,size,ops_per_second"; cat "${results_dir}"/*.csv | sort -t, -k1,1 -k2,2n; } > "${baseline}"
+  echo "Baseline written to ${baseline}"
+  exit 0
+fi
+
+threshold="${1:-${BENCHMARK_THRESHOLD:-10}}"
+results_dir="${2:-${project_dir}/target/benchmark-results}"
+baseline="${3:-${script_dir}/baseline.csv}"
+
+if ! compgen -G "${results_dir}/*.csv" > /dev/null; then
+  echo "No benchmark results found in ${results_dir}, run 'mvn -Pbenchmark test' first" >&2
+  exit 2
+fi
+
+cat "${results_dir}"/*.csv | sort -t, -k1,1 -k2,2n | awk -F, -v threshold="${threshold}" '
+  NR == FNR {
+    if (FNR > 1) {
+      baseline[$1 "," $2] = $3
+    }
+    next
+  }
+  {
+    key = $1 "," $2
+    if (!(key in baseline)) {
+      printf "%-70s %8s %14s %14.2f %9s\n", $1, $2, "-", $3, "new"
+      next
+    }
+    change = ($3 - baseline[key]) / baseline[key] * 100
+    status = change < -threshold ? "REGRESSED" : "ok"
+    if (status == "REGRESSED") {
+      regressions++
+    }
+    printf "%-70s %8s %14.2f %14.2f %+8.1f%% %s\n", $1, $2, baseline[key], $3, change, status
+  }
+  END {
+    if (regressions > 0) {
+      printf "%d benchmark(s) regressed by more than %s%%\n", regressions, threshold
+      exit 1
+    }
+    printf "No benchmark regressed by more than %s%%\n", threshold
+  }
+' "${baseline}" -
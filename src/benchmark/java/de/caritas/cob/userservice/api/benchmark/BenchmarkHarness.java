@@ -0,0 +1,94 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal throughput harness modelled after JMH's throughput mode: the operation is called in a
+ * loop for a number of timed warmup and measurement iterations and the mean operations per second
+ * of the measurement iterations is reported and written to the results directory as
+ * "benchmark,size,ops_per_second".
+ */
+@Slf4j
+public class BenchmarkHarness {
+
+  private static volatile int sink;
+
+  private final int warmupIterations = Integer.getInteger("benchmark.warmup-iterations", 3);
+  private final int measurementIterations =
+      Integer.getInteger("benchmark.measurement-iterations", 5);
+  private final Duration iterationTime =
+      Duration.parse(System.getProperty("benchmark.iteration-time", "PT0.5S"));
+  private final Path resultsDirectory =
+      Path.of(System.getProperty("benchmark.results-directory", "target/benchmark-results"));
+
+  /**
+   * Measures the throughput of the given operation and records it under the given name and fixture
+   * size.
+   *
+   * @param name the benchmark name, e.g. "SessionMapper.toConsultantSessionDto"
+   * @param size the amount of sessions the fixture consists of
+   * @param operation the operation to measure, its result is consumed to prevent dead code
+   *     elimination
+   * @return the mean operations per second
+   */
+  public double measure(String name, int size, Callable<?> operation) {
+    for (var i = 0; i < warmupIterations; i++) {
+      runIteration(operation);
+    }
+    var opsPerSecond = 0.0;
+    for (var i = 0; i < measurementIterations; i++) {
+      opsPerSecond += runIteration(operation);
+    }
+    opsPerSecond /= measurementIterations;
+    log.info("{} [{}]: {} ops/s", name, size, format(opsPerSecond));
+    writeResult(name, size, opsPerSecond);
+    return opsPerSecond;
+  }
+
+  private double runIteration(Callable<?> operation) {
+    var operations = 0L;
+    var start = System.nanoTime();
+    var end = start + iterationTime.toNanos();
+    long now;
+    do {
+      consume(call(operation));
+      operations++;
+      now = System.nanoTime();
+    } while (now < end);
+    return operations / ((now - start) / 1_000_000_000.0);
+  }
+
+  private Object call(Callable<?> operation) {
+    try {
+      return operation.call();
+    } catch (Exception e) {
+      throw new IllegalStateException("Benchmark operation failed", e);
+    }
+  }
+
+  private static void consume(Object result) {
+    sink ^= System.identityHashCode(result);
+  }
+
+  private void writeResult(String name, int size, double opsPerSecond) {
+    try {
+      Files.createDirectories(resultsDirectory);
+      Files.writeString(
+          resultsDirectory.resolve(name + "-" + size + ".csv"),
+          String.join(",", name, String.valueOf(size), format(opsPerSecond)) + "\n");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String format(double opsPerSecond) {
+    return String.format(Locale.ROOT, "%.2f", opsPerSecond);
+  }
+}
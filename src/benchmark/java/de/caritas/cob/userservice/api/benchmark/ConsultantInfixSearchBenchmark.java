@@ -0,0 +1,219 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_MAX_GRAM_SIZE;
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_SUFFIX;
+import static de.caritas.cob.userservice.api.model.Consultant.SORT_SUFFIX;
+
+import de.caritas.cob.userservice.api.model.Consultant;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.core.KeywordTokenizerFactory;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramFilterFactory;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Compares the consultant infix search as a LIKE '%infix%' scan over all consultants, which is what
+ * the database does for the former repository query, with a term lookup in an index analyzed the
+ * same way as the n-gram fields of the consultant index. Both variants return the first page of ten
+ * consultants sorted by last name and the total number of matches.
+ */
+class ConsultantInfixSearchBenchmark {
+
+  private static final String INFIX = "berg-1";
+  private static final int PAGE_SIZE = 10;
+  private static final List<String> FIRST_NAMES =
+      List.of("Anna", "Ben", "Clara", "David", "Emma", "Felix", "Greta", "Hannes", "Ida", "Jonas");
+  private static final List<String> LAST_NAMES =
+      List.of(
+          "Müller",
+          "Schmidt",
+          "Schneider",
+          "Fischer",
+          "Weber",
+          "Meyer",
+          "Wagner",
+          "Becker",
+          "Schulz",
+          "Hoffmann",
+          "Koch",
+          "Richter",
+          "Klein",
+          "Wolf",
+          "Schröder",
+          "Neumann",
+          "Schwarz",
+          "Zimmermann",
+          "Braun",
+          "Krüger",
+          "Hofmann",
+          "Hartmann",
+          "Lange",
+          "Schmitt",
+          "Werner",
+          "Krause",
+          "Meier",
+          "Lehmann",
+          "Schmid",
+          "Schulze",
+          "Maier",
+          "Köhler",
+          "Herrmann",
+          "König",
+          "Walter",
+          "Mayer",
+          "Huber",
+          "Kaiser",
+          "Fuchs",
+          "Peters",
+          "Lang",
+          "Scholz",
+          "Möller",
+          "Weiß",
+          "Jung",
+          "Hahn",
+          "Schubert",
+          "Vogel",
+          "Friedrich",
+          "Rosenberg");
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+
+  @ParameterizedTest
+  @ValueSource(ints = {1_000, 50_000, 200_000})
+  void likeScan(int size) {
+    var consultants = consultants(size);
+    var upperCaseInfix = INFIX.toUpperCase(Locale.ROOT);
+
+    harness.measure(
+        "ConsultantInfixSearch.likeScan",
+        size,
+        () -> {
+          var matching =
+              consultants.stream()
+                  .filter(
+                      consultant ->
+                          consultant.getId().equalsIgnoreCase(INFIX)
+                              || contains(consultant.getFirstName(), upperCaseInfix)
+                              || contains(consultant.getLastName(), upperCaseInfix)
+                              || contains(consultant.getEmail(), upperCaseInfix))
+                  .collect(Collectors.toList());
+          var page =
+              matching.stream()
+                  .sorted(Comparator.comparing(Consultant::getLastName).reversed())
+                  .limit(PAGE_SIZE)
+                  .collect(Collectors.toList());
+          return Map.entry(matching.size(), page);
+        });
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1_000, 50_000, 200_000})
+  void ngramIndex(int size) throws IOException {
+    var searcher = new IndexSearcher(DirectoryReader.open(index(consultants(size))));
+    var lowerCaseInfix = INFIX.toLowerCase(Locale.ROOT);
+    var query =
+        new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("id", INFIX)), Occur.SHOULD)
+            .add(new TermQuery(new Term("firstName" + INFIX_SUFFIX, lowerCaseInfix)), Occur.SHOULD)
+            .add(new TermQuery(new Term("lastName" + INFIX_SUFFIX, lowerCaseInfix)), Occur.SHOULD)
+            .add(new TermQuery(new Term("email" + INFIX_SUFFIX, lowerCaseInfix)), Occur.SHOULD)
+            .build();
+    var sort = new Sort(new SortField("lastName" + SORT_SUFFIX, SortField.Type.STRING, true));
+
+    harness.measure(
+        "ConsultantInfixSearch.ngramIndex", size, () -> searcher.search(query, PAGE_SIZE, sort));
+  }
+
+  private static boolean contains(String value, String upperCaseInfix) {
+    return value.toUpperCase(Locale.ROOT).contains(upperCaseInfix);
+  }
+
+  private static List<Consultant> consultants(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(
+            number -> {
+              var consultant = new Consultant();
+              consultant.setId(String.format("%08x-0000-4000-8000-%012x", number, number));
+              consultant.setFirstName(FIRST_NAMES.get(number % FIRST_NAMES.size()));
+              consultant.setLastName(
+                  LAST_NAMES.get(number % LAST_NAMES.size()) + "-" + Integer.toString(number, 36));
+              consultant.setEmail(
+                  (consultant.getFirstName() + "." + consultant.getLastName())
+                          .toLowerCase(Locale.ROOT)
+                      + "@beratung.example.org");
+              return consultant;
+            })
+        .collect(Collectors.toList());
+  }
+
+  private static RAMDirectory index(List<Consultant> consultants) throws IOException {
+    var directory = new RAMDirectory();
+    try (var writer = new IndexWriter(directory, new IndexWriterConfig(analyzer()))) {
+      for (var consultant : consultants) {
+        var document = new Document();
+        document.add(new StringField("id", consultant.getId(), Store.YES));
+        addInfixField(document, "firstName", consultant.getFirstName());
+        addInfixField(document, "lastName", consultant.getLastName());
+        addInfixField(document, "email", consultant.getEmail());
+        writer.addDocument(document);
+      }
+    }
+    return directory;
+  }
+
+  private static void addInfixField(Document document, String name, String value) {
+    document.add(new TextField(name, value, Store.YES));
+    document.add(new TextField(name + INFIX_SUFFIX, value, Store.NO));
+    document.add(
+        new SortedDocValuesField(name + SORT_SUFFIX, new BytesRef(value.toLowerCase(Locale.ROOT))));
+  }
+
+  /** The analyzer chain of the n-gram fields of {@link Consultant}. */
+  private static Analyzer analyzer() throws IOException {
+    var infixAnalyzer =
+        CustomAnalyzer.builder()
+            .withTokenizer(KeywordTokenizerFactory.class)
+            .addTokenFilter(LowerCaseFilterFactory.class)
+            .addTokenFilter(
+                NGramFilterFactory.class,
+                "minGramSize",
+                "1",
+                "maxGramSize",
+                String.valueOf(INFIX_MAX_GRAM_SIZE))
+            .build();
+    return new PerFieldAnalyzerWrapper(
+        new KeywordAnalyzer(),
+        Map.of(
+            "firstName" + INFIX_SUFFIX, infixAnalyzer,
+            "lastName" + INFIX_SUFFIX, infixAnalyzer,
+            "email" + INFIX_SUFFIX, infixAnalyzer));
+  }
+}
@@ -0,0 +1,46 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.consultant;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.consultantSessions;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.decryptionService;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.roomInformation;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
+import de.caritas.cob.userservice.api.helper.SessionListAnalyser;
+import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.service.sessionlist.ConsultantSessionEnricher;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Measures the enrichment of a consultant session list with stubbed Rocket.Chat room data. */
+class ConsultantSessionEnricherBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void updateRequiredConsultantSessionValues(int size) {
+    var sessions = sessions(size);
+    var consultantSessions = consultantSessions(sessions);
+    var consultant = consultant();
+    var rocketChatRoomInformationProvider = mock(RocketChatRoomInformationProvider.class);
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(roomInformation(sessions));
+    var consultantSessionEnricher =
+        new ConsultantSessionEnricher(
+            new SessionListAnalyser(decryptionService()),
+            rocketChatRoomInformationProvider,
+            mock(ConsultingTypeManager.class));
+
+    harness.measure(
+        "ConsultantSessionEnricher.updateRequiredConsultantSessionValues",
+        size,
+        () ->
+            consultantSessionEnricher.updateRequiredConsultantSessionValues(
+                consultantSessions, "rcToken", consultant));
+  }
+}
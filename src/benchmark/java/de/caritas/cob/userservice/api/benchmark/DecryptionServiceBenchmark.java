@@ -0,0 +1,52 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.decryptionService;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.encryptedMessages;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.groupIdsOf;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+
+import de.caritas.cob.userservice.api.service.DecryptionService;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DecryptionServiceBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+  private final DecryptionService decryptionService = decryptionService();
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void decrypt(int size) {
+    var messages = givenMessages(size);
+
+    harness.measure(
+        "DecryptionService.decrypt",
+        size,
+        () -> {
+          var decrypted = new ArrayList<String>(messages.size());
+          for (var message : messages.entrySet()) {
+            decrypted.add(decryptionService.decrypt(message.getValue(), message.getKey()));
+          }
+          return decrypted;
+        });
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void decryptAll(int size) {
+    var messages = givenMessages(size);
+
+    harness.measure(
+        "DecryptionService.decryptAll", size, () -> decryptionService.decryptAll(messages));
+  }
+
+  private Map<String, String> givenMessages(int size) {
+    return encryptedMessages(
+        sessions(size).stream()
+            .flatMap(session -> groupIdsOf(session).stream())
+            .collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,214 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import com.neovisionaries.i18n.LanguageCode;
+import de.caritas.cob.userservice.api.adapters.rocketchat.dto.room.RoomsLastMessageDTO;
+import de.caritas.cob.userservice.api.adapters.rocketchat.dto.room.RoomsUpdateDTO;
+import de.caritas.cob.userservice.api.adapters.rocketchat.dto.user.RocketChatUserDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionResponseDTO;
+import de.caritas.cob.userservice.api.container.RocketChatRoomInformation;
+import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.RegistrationType;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
+import de.caritas.cob.userservice.api.model.SessionData;
+import de.caritas.cob.userservice.api.model.SessionData.SessionDataType;
+import de.caritas.cob.userservice.api.model.User;
+import de.caritas.cob.userservice.api.service.DecryptionService;
+import de.caritas.cob.userservice.api.service.session.SessionMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Synthetic, deterministic fixtures resembling the session list of a consultant: every session has
+ * an asker with an encoded username, registration data, a Rocket.Chat group with an encrypted last
+ * message and every second session a feedback group. Sessions are spread over one agency per 20
+ * sessions.
+ */
+public class SessionFixtures {
+
+  static final String APPLICATION_KEY = "benchmarkApplicationKey";
+  static final String MASTER_KEY = "benchmarkMasterKey";
+  static final String RC_USER_ID = "consultantRcId";
+
+  private static final LocalDateTime CREATE_DATE = LocalDateTime.of(2022, 3, 1, 9, 0);
+  private static final UsernameTranscoder USERNAME_TRANSCODER = new UsernameTranscoder();
+
+  private SessionFixtures() {}
+
+  static Consultant consultant() {
+    var consultant = new Consultant();
+    consultant.setId("consultantId");
+    consultant.setRocketChatId(RC_USER_ID);
+    consultant.setUsername("consultant");
+    consultant.setFirstName("Max");
+    consultant.setLastName("Mustermann");
+    return consultant;
+  }
+
+  static List<Session> sessions(int size) {
+    var consultant = consultant();
+    return IntStream.rangeClosed(1, size)
+        .mapToObj(number -> session(number, consultant))
+        .collect(Collectors.toList());
+  }
+
+  private static Session session(int number, Consultant consultant) {
+    var user = new User();
+    user.setUserId("userId-" + number);
+    user.setUsername(USERNAME_TRANSCODER.encodeUsername("asker-" + number));
+    user.setRcUserId("askerRcId-" + number);
+
+    var session = new Session();
+    session.setId((long) number);
+    session.setUser(user);
+    session.setConsultant(consultant);
+    session.setConsultingTypeId(number % 20);
+    session.setRegistrationType(RegistrationType.REGISTERED);
+    session.setPostcode("12345");
+    session.setAgencyId(agencyId(number));
+    session.setLanguageCode(LanguageCode.de);
+    session.setStatus(SessionStatus.IN_PROGRESS);
+    session.setEnquiryMessageDate(CREATE_DATE.plusMinutes(number));
+    session.setGroupId(groupId(number));
+    session.setFeedbackGroupId(number % 2 == 0 ? feedbackGroupId(number) : null);
+    session.setTeamSession(number % 2 == 0);
+    session.setCreateDate(CREATE_DATE.plusMinutes(number));
+    session.setMainTopicId((long) number % 10);
+    session.setSessionData(
+        List.of(
+            new SessionData(session, SessionDataType.REGISTRATION, "age", "25"),
+            new SessionData(session, SessionDataType.REGISTRATION, "state", "3"),
+            new SessionData(session, SessionDataType.REGISTRATION, "addictiveDrugs", "1,2")));
+    return session;
+  }
+
+  static List<AgencyDTO> agencies(List<Session> sessions) {
+    return sessions.stream()
+        .map(Session::getAgencyId)
+        .distinct()
+        .map(agencyId -> new AgencyDTO().id(agencyId).name("Agency " + agencyId).postcode("12345"))
+        .collect(Collectors.toList());
+  }
+
+  static List<ConsultantSessionResponseDTO> consultantSessions(List<Session> sessions) {
+    var sessionMapper = new SessionMapper();
+    return sessions.stream()
+        .map(sessionMapper::toConsultantSessionDto)
+        .collect(Collectors.toList());
+  }
+
+  /** Rocket.Chat room information as returned for the given sessions, all of them unread. */
+  static RocketChatRoomInformation roomInformation(List<Session> sessions) {
+    var groupIds =
+        sessions.stream()
+            .flatMap(session -> groupIdsOf(session).stream())
+            .collect(Collectors.toList());
+    var encryptedMessages = encryptedMessages(groupIds);
+    var lastMessages =
+        groupIds.stream()
+            .collect(
+                Collectors.toMap(
+                    Function.identity(),
+                    groupId -> lastMessage(groupId, encryptedMessages.get(groupId)),
+                    (first, second) -> first,
+                    LinkedHashMap::new));
+    return RocketChatRoomInformation.builder()
+        .readMessages(
+            groupIds.stream().collect(Collectors.toMap(Function.identity(), groupId -> false)))
+        .roomsForUpdate(
+            groupIds.stream()
+                .map(groupId -> roomUpdate(groupId, lastMessages.get(groupId)))
+                .collect(Collectors.toList()))
+        .userRooms(groupIds)
+        .lastMessagesRoom(lastMessages)
+        .groupIdToLastMessageFallbackDate(Map.of())
+        .build();
+  }
+
+  static DecryptionService decryptionService() {
+    var decryptionService = new DecryptionService();
+    ReflectionTestUtils.setField(decryptionService, "fragment_applicationKey", APPLICATION_KEY);
+    decryptionService.updateMasterKey(MASTER_KEY);
+    return decryptionService;
+  }
+
+  /** Encrypts a chat message for every given group the way the frontend does. */
+  static Map<String, String> encryptedMessages(List<String> groupIds) {
+    return groupIds.stream()
+        .collect(
+            Collectors.toMap(
+                Function.identity(),
+                groupId -> encrypt("Hallo, ich habe eine Frage zu " + groupId, groupId),
+                (first, second) -> first,
+                LinkedHashMap::new));
+  }
+
+  static List<String> groupIdsOf(Session session) {
+    return session.getFeedbackGroupId() == null
+        ? List.of(session.getGroupId())
+        : List.of(session.getGroupId(), session.getFeedbackGroupId());
+  }
+
+  private static RoomsLastMessageDTO lastMessage(String groupId, String encryptedMessage) {
+    var lastMessage = new RoomsLastMessageDTO();
+    lastMessage.setId("message-" + groupId);
+    lastMessage.setRoomId(groupId);
+    lastMessage.setTimestamp(new Date(1_646_125_200_000L + groupId.hashCode()));
+    lastMessage.setUser(new RocketChatUserDTO("askerRcId", "asker", null, null));
+    lastMessage.setMessage(encryptedMessage);
+    return lastMessage;
+  }
+
+  private static RoomsUpdateDTO roomUpdate(String groupId, RoomsLastMessageDTO lastMessage) {
+    var roomUpdate = new RoomsUpdateDTO();
+    roomUpdate.setId(groupId);
+    roomUpdate.setName(groupId);
+    roomUpdate.setRoomType("p");
+    roomUpdate.setLastMessage(lastMessage);
+    roomUpdate.setLastMessageDate(lastMessage.getTimestamp());
+    return roomUpdate;
+  }
+
+  private static String encrypt(String message, String secret) {
+    try {
+      var keyBytes =
+          MessageDigest.getInstance("SHA-1")
+              .digest((MASTER_KEY + secret + APPLICATION_KEY).getBytes(StandardCharsets.UTF_8));
+      var cipher = Cipher.getInstance("AES/ECB/PKCS5PADDING");
+      cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Arrays.copyOf(keyBytes, 16), "AES"));
+      return "enc:"
+          + Base64.getEncoder()
+              .encodeToString(cipher.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static long agencyId(int number) {
+    return (number - 1) / 20 + 1L;
+  }
+
+  private static String groupId(int number) {
+    return "group-" + number;
+  }
+
+  private static String feedbackGroupId(int number) {
+    return "feedback-" + number;
+  }
+}
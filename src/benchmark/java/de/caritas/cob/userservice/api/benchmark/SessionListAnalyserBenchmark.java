@@ -0,0 +1,48 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.RC_USER_ID;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.decryptionService;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.roomInformation;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+
+import de.caritas.cob.userservice.api.helper.SessionListAnalyser;
+import java.util.ArrayList;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SessionListAnalyserBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+  private final SessionListAnalyser sessionListAnalyser =
+      new SessionListAnalyser(decryptionService());
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void analyseSessionList(int size) {
+    var roomInformation = roomInformation(sessions(size));
+    var readMessages = roomInformation.getReadMessages();
+    var lastMessages = roomInformation.getLastMessagesRoom();
+
+    harness.measure(
+        "SessionListAnalyser.analyseSessionList",
+        size,
+        () -> {
+          var results = new ArrayList<>(lastMessages.size());
+          for (var groupId : roomInformation.getUserRooms()) {
+            results.add(
+                sessionListAnalyser.areMessagesForRocketChatGroupReadByUser(readMessages, groupId));
+            if (sessionListAnalyser.isLastMessageForRocketChatGroupIdAvailable(
+                lastMessages, groupId)) {
+              var lastMessage = lastMessages.get(groupId);
+              results.add(
+                  sessionListAnalyser.prepareMessageForSessionList(
+                      lastMessage.getMessage(), groupId));
+              results.add(
+                  sessionListAnalyser.getAttachmentFromRocketChatMessageIfAvailable(
+                      RC_USER_ID, lastMessage));
+            }
+          }
+          return results;
+        });
+  }
+}
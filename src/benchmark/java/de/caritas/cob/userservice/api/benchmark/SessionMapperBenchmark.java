@@ -0,0 +1,40 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+
+import de.caritas.cob.userservice.api.service.session.SessionMapper;
+import java.util.stream.Collectors;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SessionMapperBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+  private final SessionMapper sessionMapper = new SessionMapper();
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void toConsultantSessionDto(int size) {
+    var sessions = sessions(size);
+
+    harness.measure(
+        "SessionMapper.toConsultantSessionDto",
+        size,
+        () ->
+            sessions.stream()
+                .map(sessionMapper::toConsultantSessionDto)
+                .collect(Collectors.toList()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void convertToSessionDTO(int size) {
+    var sessions = sessions(size);
+
+    harness.measure(
+        "SessionMapper.convertToSessionDTO",
+        size,
+        () ->
+            sessions.stream().map(sessionMapper::convertToSessionDTO).collect(Collectors.toList()));
+  }
+}
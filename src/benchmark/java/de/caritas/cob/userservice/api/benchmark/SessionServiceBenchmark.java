@@ -0,0 +1,48 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.agencies;
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.service.ConsultantService;
+import de.caritas.cob.userservice.api.service.agency.AgencyService;
+import de.caritas.cob.userservice.api.service.session.SessionService;
+import de.caritas.cob.userservice.api.service.user.UserService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Measures SessionService.buildUserSessionDTO through getSessionsForUserId with the session
+ * repository and the agency service answering from memory.
+ */
+class SessionServiceBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void getSessionsForUserId(int size) {
+    var sessions = sessions(size);
+    var sessionRepository = mock(SessionRepository.class);
+    when(sessionRepository.findByUserUserId("userId")).thenReturn(sessions);
+    var agencyService = mock(AgencyService.class);
+    when(agencyService.getAgencies(anyList())).thenReturn(agencies(sessions));
+    var sessionService =
+        new SessionService(
+            sessionRepository,
+            agencyService,
+            mock(ConsultantService.class),
+            mock(UserService.class),
+            mock(ConsultingTypeManager.class),
+            null);
+
+    harness.measure(
+        "SessionService.buildUserSessionDTO",
+        size,
+        () -> sessionService.getSessionsForUserId("userId"));
+  }
+}
@@ -0,0 +1,48 @@
+package de.caritas.cob.userservice.api.benchmark;
+
+import static de.caritas.cob.userservice.api.benchmark.SessionFixtures.sessions;
+
+import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
+import java.util.stream.Collectors;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class UsernameTranscoderBenchmark {
+
+  private final BenchmarkHarness harness = new BenchmarkHarness();
+  private final UsernameTranscoder usernameTranscoder = new UsernameTranscoder();
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void decodeUsername(int size) {
+    var usernames =
+        sessions(size).stream()
+            .map(session -> session.getUser().getUsername())
+            .collect(Collectors.toList());
+
+    harness.measure(
+        "UsernameTranscoder.decodeUsername",
+        size,
+        () ->
+            usernames.stream()
+                .map(usernameTranscoder::decodeUsername)
+                .collect(Collectors.toList()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 1_000, 10_000})
+  void encodeUsername(int size) {
+    var usernames =
+        sessions(size).stream()
+            .map(session -> usernameTranscoder.decodeUsername(session.getUser().getUsername()))
+            .collect(Collectors.toList());
+
+    harness.measure(
+        "UsernameTranscoder.encodeUsername",
+        size,
+        () ->
+            usernames.stream()
+                .map(usernameTranscoder::encodeUsername)
+                .collect(Collectors.toList()));
+  }
+}
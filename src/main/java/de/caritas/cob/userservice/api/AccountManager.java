@@ -2,6 +2,7 @@ package de.caritas.cob.userservice.api;
 
 import static java.util.Objects.isNull;
 
+import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantInfixSearchService;
 import de.caritas.cob.userservice.api.admin.service.tenant.TenantService;
 import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
 import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
@@ -18,7 +19,9 @@ import de.caritas.cob.userservice.api.service.agency.AgencyService;
 import de.caritas.cob.userservice.api.service.appointment.AppointmentService;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -56,6 +59,8 @@ public class AccountManager implements AccountManaging {
 
   private final PatchConsultantSaga patchConsultantSaga;
 
+  private final ConsultantInfixSearchService consultantInfixSearchService;
+
   @Override
   public Optional<Map<String, Object>> findConsultant(String id) {
     var userMap = new HashMap<String, Object>();
@@ -85,6 +90,59 @@ public class AccountManager implements AccountManaging {
     return isNull(dbConsultant) ? Optional.empty() : Optional.of(findByDbConsultant(dbConsultant));
   }
 
+  /**
+   * Finds the consultants with the given usernames, like {@link #findConsultantByUsername(String)}
+   * but with one database query and one Rocket.Chat query for all of them.
+   *
+   * @param usernames the usernames, plain or encoded
+   * @return the found consultants by the requested username
+   */
+  @Override
+  public Map<String, Map<String, Object>> findConsultantsByUsernames(Collection<String> usernames) {
+    var consultants = new HashMap<String, Map<String, Object>>();
+    if (usernames.isEmpty()) {
+      return consultants;
+    }
+
+    var transformedUsernames = new HashMap<String, String>();
+    usernames.forEach(
+        username -> transformedUsernames.put(username, usernameTranscoder.transformedOf(username)));
+    var lookedUpUsernames = new HashSet<>(usernames);
+    lookedUpUsernames.addAll(transformedUsernames.values());
+
+    var dbConsultants = new HashMap<String, Consultant>();
+    consultantRepository
+        .findByUsernameInAndDeleteDateIsNull(lookedUpUsernames)
+        .forEach(dbConsultant -> dbConsultants.put(dbConsultant.getUsername(), dbConsultant));
+    var chatUserIds =
+        dbConsultants.values().stream()
+            .map(Consultant::getRocketChatId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    var chatUsers = messageClient.findUsers(chatUserIds);
+
+    usernames.forEach(
+        username -> {
+          var dbConsultant =
+              dbConsultants.getOrDefault(
+                  username, dbConsultants.get(transformedUsernames.get(username)));
+          if (isNull(dbConsultant)) {
+            return;
+          }
+          var chatUser = chatUsers.get(dbConsultant.getRocketChatId());
+          if (isNull(chatUser)) {
+            log.warn(
+                "User ({}) found in database but not in Rocket.Chat ({})",
+                dbConsultant.getId(),
+                dbConsultant.getRocketChatId());
+            return;
+          }
+          consultants.put(username, userServiceMapper.mapOf(dbConsultant, chatUser));
+        });
+
+    return consultants;
+  }
+
   public Map<String, Object> findConsultantsByInfix(
       String infix,
       boolean shouldFilterByAgencies,
@@ -98,10 +156,10 @@ public class AccountManager implements AccountManaging {
     var pageRequest = PageRequest.of(pageNumber, pageSize, direction, fieldName);
     Page<ConsultantBase> consultantPage;
     if (!shouldFilterByAgencies) {
-      consultantPage = consultantRepository.findAllByInfix(infix, pageRequest);
+      consultantPage = consultantInfixSearchService.findAllByInfix(infix, pageRequest);
     } else {
       consultantPage =
-          consultantRepository.findAllByInfixAndAgencyIds(
+          consultantInfixSearchService.findAllByInfixAndAgencyIds(
               infix, agenciesToFilterConsultants, pageRequest);
     }
 
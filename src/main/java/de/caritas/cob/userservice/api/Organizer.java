@@ -4,6 +4,7 @@ import de.caritas.cob.userservice.api.config.AppointmentConfig;
 import de.caritas.cob.userservice.api.port.in.Organizing;
 import de.caritas.cob.userservice.api.port.out.AppointmentRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import java.time.Clock;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
@@ -84,6 +85,7 @@ public class Organizer implements Organizing {
 
   @Profile("!testing")
   @Scheduled(cron = "#{appointmentConfig.deleteJobCron}")
+  @SchedulerLock(name = "deleteObsoleteAppointments")
   @Transactional
   @Override
   public void deleteObsoleteAppointments() {
@@ -1,10 +1,12 @@
 package de.caritas.cob.userservice.api.adapters.keycloak;
 
 import de.caritas.cob.userservice.api.adapters.keycloak.config.KeycloakConfig;
+import java.util.List;
 import lombok.NonNull;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -15,6 +17,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Component
 public class KeycloakClient {
@@ -85,6 +88,22 @@ public class KeycloakClient {
     return keycloak.realm(realm);
   }
 
+  /**
+   * Searches the users of the realm whose email address matches the given one exactly.
+   *
+   * @param email the email address
+   * @return the matching users
+   */
+  public List<UserRepresentation> findUsersByExactEmail(String email) {
+    var usersUri =
+        UriComponentsBuilder.fromHttpUrl(keycloakConfig.getAuthServerUrl())
+            .path("/admin/realms/{realm}/users")
+            .buildAndExpand(keycloakConfig.getRealm())
+            .encode()
+            .toUri();
+    return keycloak.proxy(UserSearchResource.class, usersUri).searchByEmail(email, true, true);
+  }
+
   public String getBearerToken() {
     return keycloak.tokenManager().getAccessTokenString();
   }
@@ -32,13 +32,14 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.core.Response;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
@@ -86,6 +87,7 @@ public class KeycloakService implements IdentityClient {
   private final @NonNull KeycloakClient keycloakClient;
   private final @NonNull KeycloakMapper keycloakMapper;
   private final @NonNull UserHelper userHelper;
+  private final @NonNull KeycloakUserRolesCache userRolesCache;
 
   private final UsernameTranscoder usernameTranscoder = new UsernameTranscoder();
 
@@ -259,7 +261,7 @@ public class KeycloakService implements IdentityClient {
 
   @Override
   public Map<String, String> findUserByEmail(String email) {
-    return keycloakClient.getUsersResource().search(email, 0, Integer.MAX_VALUE).stream()
+    return keycloakClient.findUsersByExactEmail(email).stream()
         .filter(userRepresentation -> userRepresentation.getEmail().equals(email))
         .findFirst()
         .map(keycloakMapper::mapOf)
@@ -382,23 +384,25 @@ public class KeycloakService implements IdentityClient {
    * @return true if does not exist, else false
    */
   public boolean isUsernameAvailable(String username) {
-    List<UserRepresentation> keycloakDecodedUserList =
-        findByUsername(usernameTranscoder.decodeUsername(username));
-    List<UserRepresentation> keycloakEncodedUserList =
-        findByUsername(usernameTranscoder.encodeUsername(username));
-
-    return Stream.concat(keycloakDecodedUserList.stream(), keycloakEncodedUserList.stream())
+    return Stream.of(
+            usernameTranscoder.decodeUsername(username),
+            usernameTranscoder.encodeUsername(username))
+        .distinct()
+        .flatMap(lookedUpUsername -> findByExactUsername(lookedUpUsername).stream())
         .noneMatch(user -> doesUsernameMatch(username, user));
   }
 
+  private List<UserRepresentation> findByExactUsername(String username) {
+    return keycloakClient.getUsersResource().search(username, true);
+  }
+
   private boolean doesUsernameMatch(String username, UserRepresentation user) {
     return user.getUsername().equalsIgnoreCase(usernameTranscoder.decodeUsername(username))
         || user.getUsername().equalsIgnoreCase(usernameTranscoder.encodeUsername(username));
   }
 
-  @Synchronized
   private boolean isEmailNotAvailable(String email) {
-    return keycloakClient.getUsersResource().search(email, 0, Integer.MAX_VALUE).stream()
+    return keycloakClient.findUsersByExactEmail(email).stream()
         .anyMatch(userRepresentation -> userRepresentation.getEmail().equals(email));
   }
 
@@ -499,6 +503,7 @@ public class KeycloakService implements IdentityClient {
           realmResource.roles().get(optionalRole.get()).toRepresentation();
       if (roleRepresentation != null) {
         user.roles().realmLevel().remove(Collections.singletonList(roleRepresentation));
+        userRolesCache.evict(userId);
       }
     }
   }
@@ -534,6 +539,7 @@ public class KeycloakService implements IdentityClient {
       roleRepresentation.setAttributes(new LinkedHashMap<>());
     }
     user.roles().realmLevel().add(Collections.singletonList(roleRepresentation));
+    userRolesCache.evict(userId);
 
     // Check if role has been assigned successfully
     List<RoleRepresentation> userRoles = user.roles().realmLevel().listAll();
@@ -547,6 +553,7 @@ public class KeycloakService implements IdentityClient {
     if (!isRoleUpdated) {
       throw new KeycloakException("Could not update user role");
     }
+    userRolesCache.put(userId, roleNamesOf(userRoles));
   }
 
   /**
@@ -656,6 +663,7 @@ public class KeycloakService implements IdentityClient {
    */
   public void deleteUser(String userId) {
     keycloakClient.getUsersResource().get(userId).remove();
+    userRolesCache.evict(userId);
   }
 
   /**
@@ -668,7 +676,7 @@ public class KeycloakService implements IdentityClient {
   public boolean userHasAuthority(String userId, String authority) {
     try {
       return getUserRoles(userId).stream()
-          .map(role -> UserRole.getRoleByValue(role.getName()))
+          .map(UserRole::getRoleByValue)
           .filter(Optional::isPresent)
           .map(Optional::get)
           .map(Authority::getAuthoritiesByUserRole)
@@ -690,7 +698,7 @@ public class KeycloakService implements IdentityClient {
   public boolean userHasRole(String userId, String userRole) {
     try {
       return getUserRoles(userId).stream()
-          .map(this::toUserRole)
+          .map(UserRole::getRoleByValue)
           .filter(Optional::isPresent)
           .map(Optional::get)
           .map(UserRole::getValue)
@@ -702,12 +710,19 @@ public class KeycloakService implements IdentityClient {
     }
   }
 
-  private Optional<UserRole> toUserRole(RoleRepresentation roleRepresentation) {
-    return UserRole.getRoleByValue(roleRepresentation.getName());
+  private List<String> getUserRoles(String userId) {
+    return userRolesCache.get(
+        userId,
+        () ->
+            roleNamesOf(
+                keycloakClient.getUsersResource().get(userId).roles().realmLevel().listAll()));
   }
 
-  private List<RoleRepresentation> getUserRoles(String userId) {
-    return keycloakClient.getUsersResource().get(userId).roles().realmLevel().listAll();
+  private List<String> roleNamesOf(List<RoleRepresentation> roles) {
+    return roles.stream()
+        .map(RoleRepresentation::getName)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 
   /**
@@ -0,0 +1,78 @@
+package de.caritas.cob.userservice.api.adapters.keycloak;
+
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.KEYCLOAK_USER_ROLES_CACHE;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short living cache of the realm role names per Keycloak user. Role changes made by this instance
+ * evict the user, role changes made elsewhere become visible after the time to live.
+ */
+@Component
+public class KeycloakUserRolesCache {
+
+  private final CacheManager cacheManager;
+
+  public KeycloakUserRolesCache(CacheManager cacheManager) {
+    this.cacheManager = requireNonNull(cacheManager);
+  }
+
+  /**
+   * Returns the cached realm role names of the given user or loads them with the given loader if
+   * absent.
+   *
+   * @param userId the Keycloak user id
+   * @param loader the loader to retrieve the role names from Keycloak
+   * @return the realm role names
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> get(String userId, Supplier<List<String>> loader) {
+    var cache = getCache();
+    if (cache == null) {
+      return loader.get();
+    }
+    try {
+      return cache.get(userId, loader::get);
+    } catch (ValueRetrievalException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Stores the realm role names of the given user, e.g. after they have been read anyway.
+   *
+   * @param userId the Keycloak user id
+   * @param roleNames the realm role names
+   */
+  public void put(String userId, List<String> roleNames) {
+    var cache = getCache();
+    if (cache != null) {
+      cache.put(userId, List.copyOf(roleNames));
+    }
+  }
+
+  /**
+   * Evicts the cached role names of the given user, e.g. after a role has been added or removed.
+   *
+   * @param userId the Keycloak user id
+   */
+  public void evict(String userId) {
+    var cache = getCache();
+    if (cache != null) {
+      cache.evict(userId);
+    }
+  }
+
+  private Cache getCache() {
+    return cacheManager.getCache(KEYCLOAK_USER_ROLES_CACHE);
+  }
+}
@@ -0,0 +1,22 @@
+package de.caritas.cob.userservice.api.adapters.keycloak;
+
+import java.util.List;
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import org.keycloak.representations.idm.UserRepresentation;
+
+/**
+ * User search of the Keycloak admin API with the {@code exact} parameter, which the {@link
+ * org.keycloak.admin.client.resource.UsersResource} of the admin client only offers for usernames.
+ */
+public interface UserSearchResource {
+
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  List<UserRepresentation> searchByEmail(
+      @QueryParam("email") String email,
+      @QueryParam("exact") Boolean exact,
+      @QueryParam("briefRepresentation") Boolean briefRepresentation);
+}
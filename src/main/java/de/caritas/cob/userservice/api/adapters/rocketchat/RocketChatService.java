@@ -1,6 +1,10 @@
 package de.caritas.cob.userservice.api.adapters.rocketchat;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Projections.include;
 import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
 import static java.util.Arrays.asList;
 import static java.util.Objects.isNull;
@@ -8,6 +12,7 @@ import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
 
 import com.google.common.collect.Lists;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import de.caritas.cob.userservice.api.adapters.rocketchat.config.RocketChatConfig;
 import de.caritas.cob.userservice.api.adapters.rocketchat.dto.StandardResponseDTO;
@@ -59,6 +64,9 @@ import de.caritas.cob.userservice.api.service.LogService;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -121,6 +129,8 @@ public class RocketChatService implements MessageClient {
 
   private static final String MONGO_DATABASE_NAME = "rocketchat";
   private static final String MONGO_COLLECTION_SUBSCRIPTION = "rocketchat_subscription";
+  private static final String MONGO_COLLECTION_USERS = "users";
+  private static final String PRESENCE_STATUS_OFFLINE = "offline";
 
   private static final String ERROR_MESSAGE =
       "Error during rollback: Rocket.Chat group with id " + "%s could not be deleted";
@@ -251,6 +261,38 @@ public class RocketChatService implements MessageClient {
     return getUserPresence(chatUserId).flatMap(presenceDTO -> Optional.of(presenceDTO.isPresent()));
   }
 
+  /**
+   * Finds the logged in users of the given Rocket.Chat users with a single query on the status
+   * field of the users collection.
+   *
+   * @param chatUserIds the Rocket.Chat user ids
+   * @return the ids of the users which are not offline
+   */
+  @Override
+  public Set<String> findLoggedInUserIds(Collection<String> chatUserIds) {
+    var loggedInUserIds = new HashSet<String>();
+    if (chatUserIds.isEmpty()) {
+      return loggedInUserIds;
+    }
+
+    var documents =
+        mongoClient
+            .getDatabase(MONGO_DATABASE_NAME)
+            .getCollection(MONGO_COLLECTION_USERS)
+            .find(and(in("_id", chatUserIds), ne("status", PRESENCE_STATUS_OFFLINE)))
+            .projection(include("_id"));
+
+    try (var cursor = documents.iterator()) {
+      while (cursor.hasNext()) {
+        loggedInUserIds.add(cursor.next().getString("_id"));
+      }
+    } catch (MongoException exception) {
+      log.error("Presence check failed.", exception);
+    }
+
+    return loggedInUserIds;
+  }
+
   @Override
   public Optional<Boolean> isAvailable(String chatUserId) {
     return getUserPresence(chatUserId)
@@ -314,6 +356,44 @@ public class RocketChatService implements MessageClient {
     return findUser(chatUserId);
   }
 
+  /**
+   * Finds the given Rocket.Chat users with a single query on the users collection.
+   *
+   * @param chatUserIds the Rocket.Chat user ids
+   * @return the id, username and display name of each found user by its Rocket.Chat user id
+   */
+  @Override
+  public Map<String, Map<String, Object>> findUsers(Collection<String> chatUserIds) {
+    var users = new HashMap<String, Map<String, Object>>();
+    if (chatUserIds.isEmpty()) {
+      return users;
+    }
+
+    var documents =
+        mongoClient
+            .getDatabase(MONGO_DATABASE_NAME)
+            .getCollection(MONGO_COLLECTION_USERS)
+            .find(in("_id", chatUserIds))
+            .projection(include("username", "name"));
+
+    try (var cursor = documents.iterator()) {
+      while (cursor.hasNext()) {
+        var document = cursor.next();
+        var user = new HashMap<String, Object>();
+        user.put("id", document.getString("_id"));
+        if (nonNull(document.getString("username"))) {
+          user.put("username", document.getString("username"));
+        }
+        if (nonNull(document.getString("name"))) {
+          user.put("displayName", document.getString("name"));
+        }
+        users.put(document.getString("_id"), user);
+      }
+    }
+
+    return users;
+  }
+
   @Override
   public Optional<Map<String, Object>> getChatInfo(String roomId) {
     var url = rocketChatConfig.getApiUrl(ENDPOINT_ROOM_INFO + roomId);
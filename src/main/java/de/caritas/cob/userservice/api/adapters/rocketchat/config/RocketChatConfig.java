@@ -11,12 +11,15 @@ import com.mongodb.client.MongoClients;
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatCredentials;
 import de.caritas.cob.userservice.api.exception.httpresponses.BadRequestException;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.NotBlank;
 import lombok.Data;
 import org.apache.logging.log4j.core.util.CronExpression;
 import org.hibernate.validator.constraints.URL;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
@@ -24,6 +27,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.client.RestTemplate;
@@ -66,6 +70,46 @@ public class RocketChatConfig {
         .build();
   }
 
+  /**
+   * Executor to fetch the subscriptions and rooms of a user in parallel. If all threads are busy
+   * the calling thread fetches on its own, so saturation degrades to sequential calls instead of
+   * queueing.
+   *
+   * @param poolSize the maximum number of parallel Rocket.Chat calls
+   * @return the {@link Executor}
+   */
+  @Bean("rocketChatRoomInformationExecutor")
+  public Executor rocketChatRoomInformationExecutor(
+      @Value("${rocket-chat.room-information.pool-size}") int poolSize) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(0);
+    executor.setThreadNamePrefix("RocketChatRoomInformation-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor to run the operations of the Rocket.Chat membership jobs. Operations of a job are
+   * queued, so the number of parallel Rocket.Chat calls stays bounded while the thread starting the
+   * job returns immediately.
+   *
+   * @param poolSize the maximum number of parallel Rocket.Chat calls
+   * @return the {@link Executor}
+   */
+  @Bean("rocketChatMembershipExecutor")
+  public Executor rocketChatMembershipExecutor(
+      @Value("${rocket-chat.membership.pool-size}") int poolSize) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setThreadNamePrefix("RocketChatMembership-");
+    executor.initialize();
+    return executor;
+  }
+
   @Bean
   public MongoClient mongoClient() {
     var connectionString = new ConnectionString(mongoUrl);
@@ -16,6 +16,7 @@ import de.caritas.cob.userservice.api.adapters.web.dto.CreateAdminDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantAgencyDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.PatchAdminDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.RootDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.SessionAdminResultDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.SessionFilter;
@@ -226,6 +227,18 @@ public class UserAdminController implements UseradminApi {
     return ResponseEntity.ok(resultDTO);
   }
 
+  /**
+   * POST /useradmin/consultants/reindex: Starts a rebuild of the consultant search index.
+   *
+   * @return {@link ResponseEntity} with status accepted, or conflict if a rebuild is running
+   */
+  @Override
+  public ResponseEntity<Void> reindexConsultants() {
+    return this.consultantAdminFacade.rebuildConsultantIndex()
+        ? new ResponseEntity<>(HttpStatus.ACCEPTED)
+        : new ResponseEntity<>(HttpStatus.CONFLICT);
+  }
+
   /**
    * GET /useradmin/agencies/{agencyId}/consultants: Returns all consultants for the agency.
    *
@@ -252,6 +265,21 @@ public class UserAdminController implements UseradminApi {
     return ResponseEntity.ok(consultantAgencies);
   }
 
+  /**
+   * GET /useradmin/consultants/{consultantId}/agencies/{agencyId}/rocketchatmembership: Returns the
+   * progress of adding the consultant to the Rocket.Chat groups of the agency.
+   *
+   * @param consultantId Consultant Id (required)
+   * @param agencyId Agency Id (required)
+   * @return {@link RocketChatMembershipJobDTO}
+   */
+  @Override
+  public ResponseEntity<RocketChatMembershipJobDTO> getRocketChatMembershipJob(
+      @PathVariable String consultantId, @PathVariable Long agencyId) {
+    return ResponseEntity.ok(
+        this.consultantAdminFacade.findRocketChatMembershipJob(consultantId, agencyId));
+  }
+
   /**
    * Entry point to handle consultant data when agency type changes.
    *
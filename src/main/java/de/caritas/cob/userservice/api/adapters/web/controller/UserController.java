@@ -73,10 +73,12 @@ import de.caritas.cob.userservice.api.facade.userdata.ConsultantDataFacade;
 import de.caritas.cob.userservice.api.facade.userdata.ConsultantDataProvider;
 import de.caritas.cob.userservice.api.facade.userdata.EmailNotificationMapper;
 import de.caritas.cob.userservice.api.facade.userdata.KeycloakUserDataProvider;
+import de.caritas.cob.userservice.api.facade.userdata.UserDataUpstreamCalls;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.model.Chat;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.EnquiryData;
+import de.caritas.cob.userservice.api.model.OtpInfoDTO;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.port.in.AccountManaging;
@@ -108,6 +110,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -169,6 +172,7 @@ public class UserController implements UsersApi {
   private final @NonNull AskerDataProvider askerDataProvider;
   private final @NonNull VideoChatConfig videoChatConfig;
   private final @NonNull KeycloakUserDataProvider keycloakUserDataProvider;
+  private final @NonNull UserDataUpstreamCalls userDataUpstreamCalls;
   private final @NotNull IdentityClient identityClient;
 
   private final @NotNull AdminUserFacade adminUserFacade;
@@ -472,26 +476,33 @@ public class UserController implements UsersApi {
    */
   @Override
   public ResponseEntity<UserDataResponseDTO> getUserData() {
+    var otpInfo = supplyOtpInfo();
     UserDataResponseDTO partialUserData;
     if (authenticatedUser.isConsultant()) {
       var consultant = userAccountProvider.retrieveValidatedConsultant();
+      var userId = authenticatedUser.getUserId();
+      var consultantMap =
+          userDataUpstreamCalls.supply(
+              "consultant",
+              () -> accountManager.findConsultant(userId),
+              Optional.<Map<String, Object>>empty());
+      var available =
+          userDataUpstreamCalls.supply(
+              "availability", () -> messenger.getAvailability(userId), false);
       partialUserData = consultantDataProvider.retrieveData(consultant);
-      accountManager
-          .findConsultant(authenticatedUser.getUserId())
+      consultantMap
+          .join()
           .ifPresent(
-              consultantMap ->
-                  partialUserData.setDisplayName(userDtoMapper.displayNameOf(consultantMap)));
-      partialUserData.setAvailable(messenger.getAvailability(authenticatedUser.getUserId()));
+              consultantData ->
+                  partialUserData.setDisplayName(userDtoMapper.displayNameOf(consultantData)));
+      partialUserData.setAvailable(available.join());
     } else if (isTenantAdmin() || isAgencyAdmin()) {
       partialUserData = keycloakUserDataProvider.retrieveAuthenticatedUserData();
     } else {
       var user = userAccountProvider.retrieveValidatedUser();
       partialUserData = askerDataProvider.retrieveData(user);
     }
-    var otpInfoDTO =
-        identityClientConfig.isOtpAllowed(authenticatedUser.getRoles())
-            ? identityManager.getOtpCredential(authenticatedUser.getUsername())
-            : null;
+    var otpInfoDTO = otpInfo.join();
 
     var fullUserData =
         userDtoMapper.userDataOf(
@@ -503,6 +514,15 @@ public class UserController implements UsersApi {
     return new ResponseEntity<>(fullUserData, HttpStatus.OK);
   }
 
+  private CompletableFuture<OtpInfoDTO> supplyOtpInfo() {
+    if (!identityClientConfig.isOtpAllowed(authenticatedUser.getRoles())) {
+      return CompletableFuture.completedFuture(null);
+    }
+    var username = authenticatedUser.getUsername();
+    return userDataUpstreamCalls.supply(
+        "otp", () -> identityManager.getOtpCredential(username), null);
+  }
+
   private boolean isAgencyAdmin() {
     return authenticatedUser.isAgencySuperAdmin() || authenticatedUser.isRestrictedAgencyAdmin();
   }
@@ -13,6 +13,7 @@ import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSearchResultDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantAgencyDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.Sort;
 import de.caritas.cob.userservice.api.adapters.web.dto.Sort.FieldEnum;
 import de.caritas.cob.userservice.api.adapters.web.dto.Sort.OrderEnum;
@@ -21,10 +22,13 @@ import de.caritas.cob.userservice.api.adapters.web.dto.UpdateConsultantDTO;
 import de.caritas.cob.userservice.api.admin.service.agency.ConsultantAgencyAdminService;
 import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantAdminFilterService;
 import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantAdminService;
+import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantReindexer;
 import de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrelation.ConsultantAgencyRelationCreatorService;
 import de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrelation.CreateConsultantAgencyDTOInputAdapter;
+import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatMembershipJobService;
 import de.caritas.cob.userservice.api.exception.httpresponses.BadRequestException;
 import de.caritas.cob.userservice.api.exception.httpresponses.ForbiddenException;
+import de.caritas.cob.userservice.api.exception.httpresponses.NotFoundException;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantAgency;
@@ -58,6 +62,10 @@ public class ConsultantAdminFacade {
 
   private final @NonNull AgencyService agencyService;
 
+  private final @NonNull ConsultantReindexer consultantReindexer;
+
+  private final @NonNull RocketChatMembershipJobService rocketChatMembershipJobService;
+
   @Value("${multitenancy.enabled}")
   private boolean multiTenancyEnabled;
 
@@ -71,6 +79,15 @@ public class ConsultantAdminFacade {
     return this.consultantAdminService.findConsultantById(consultantId);
   }
 
+  /**
+   * Starts a rebuild of the consultant search index in background.
+   *
+   * @return true if the rebuild has been started, false if a rebuild is already running
+   */
+  public boolean rebuildConsultantIndex() {
+    return this.consultantReindexer.rebuildConsultantIndex();
+  }
+
   /**
    * Searches for consultants by given {@link ConsultantFilter}, limits the result by perPage and
    * generates a {@link ConsultantSearchResultDTO} containing hal links.
@@ -155,6 +172,24 @@ public class ConsultantAdminFacade {
     return this.consultantAgencyAdminService.findConsultantAgencies(consultantId);
   }
 
+  /**
+   * Returns the progress of adding the consultant to the Rocket.Chat groups of the agency.
+   *
+   * @param consultantId the consultant id
+   * @param agencyId the agency id
+   * @return the generated {@link RocketChatMembershipJobDTO}
+   */
+  public RocketChatMembershipJobDTO findRocketChatMembershipJob(
+      String consultantId, Long agencyId) {
+    return this.rocketChatMembershipJobService
+        .findJobProgress(consultantId, agencyId)
+        .orElseThrow(
+            () ->
+                new NotFoundException(
+                    "No rocket chat membership job exists for consultant %s and agency %s",
+                    consultantId, agencyId));
+  }
+
   /**
    * Creates a new {@link ConsultantAgency} based on the consultantId and {@link
    * CreateConsultantAgencyDTO} input.
@@ -0,0 +1,46 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static java.util.Objects.nonNull;
+
+import de.caritas.cob.userservice.api.model.ConsultantAgency;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reindexes the owning consultant after a {@link ConsultantAgency} has been written.
+ *
+ * <p>The agency relations are usually saved with a detached consultant, so the {@code @ContainedIn}
+ * reindexing of Hibernate Search would index the stale agencies of that instance. The consultant is
+ * therefore reindexed from the database once the transaction has been committed.
+ */
+@RequiredArgsConstructor
+public class ConsultantAgencyIndexListener {
+
+  private final @NonNull ObjectProvider<ConsultantReindexer> consultantReindexer;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void reindexConsultantAfterCommit(ConsultantAgency consultantAgency) {
+    var consultant = consultantAgency.getConsultant();
+    if (nonNull(consultant) && TransactionSynchronizationManager.isSynchronizationActive()) {
+      var consultantId = consultant.getId();
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              var reindexer = consultantReindexer.getIfAvailable();
+              if (nonNull(reindexer)) {
+                reindexer.reindexConsultant(consultantId);
+              }
+            }
+          });
+    }
+  }
+}
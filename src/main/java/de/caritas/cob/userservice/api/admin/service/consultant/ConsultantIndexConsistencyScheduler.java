@@ -0,0 +1,19 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Scheduler to verify that the consultant search index is in sync with the database. */
+@Component
+@RequiredArgsConstructor
+public class ConsultantIndexConsistencyScheduler {
+
+  private final @NonNull ConsultantReindexer consultantReindexer;
+
+  @Scheduled(cron = "${consultant.search.index.consistency-check.cron}")
+  public void verifyConsultantIndex() {
+    consultantReindexer.verifyConsultantIndex();
+  }
+}
@@ -0,0 +1,156 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static de.caritas.cob.userservice.api.model.Consultant.SORT_SUFFIX;
+
+import de.caritas.cob.userservice.api.admin.service.consultant.querybuilder.ConsultantInfixQueryBuilder;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.Consultant.ConsultantBase;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class to search {@link Consultant} entities by an infix of their id, names or email.
+ *
+ * <p>The search runs against the n-gram fields of the consultant index instead of a LIKE query
+ * scanning the whole consultant table. Paging and sorting are served by the index as well, the
+ * index itself is kept in sync by Hibernate Search on every consultant and consultant agency write.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConsultantInfixSearchService {
+
+  private static final Set<String> STRING_SORT_FIELDS = Set.of("firstName", "lastName", "email");
+  private static final String TENANT_ID_SORT_FIELD = "tenantId";
+
+  private final @NonNull EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Searches for consultants matching the given infix.
+   *
+   * @param infix the infix to search for, "*" matches all consultants
+   * @param pageable the requested page and sort
+   * @return the requested page of matching consultants
+   */
+  public Page<ConsultantBase> findAllByInfix(String infix, Pageable pageable) {
+    return search(infix, null, pageable);
+  }
+
+  /**
+   * Searches for consultants matching the given infix and assigned to one of the given agencies.
+   *
+   * @param infix the infix to search for, "*" matches all consultants
+   * @param agencyIds the ids of the agencies the consultants have to be assigned to
+   * @param pageable the requested page and sort
+   * @return the requested page of matching consultants
+   */
+  public Page<ConsultantBase> findAllByInfixAndAgencyIds(
+      String infix, Collection<Long> agencyIds, Pageable pageable) {
+    if (agencyIds.isEmpty()) {
+      return Page.empty(pageable);
+    }
+    return search(infix, agencyIds, pageable);
+  }
+
+  private Page<ConsultantBase> search(String infix, Collection<Long> agencyIds, Pageable pageable) {
+    var fullTextEntityManager =
+        Search.getFullTextEntityManager(entityManagerFactory.createEntityManager());
+    try {
+      var queryBuilder = buildQueryBuilder(fullTextEntityManager);
+      var query =
+          ConsultantInfixQueryBuilder.getInstance(queryBuilder)
+              .onInfix(infix)
+              .onAgencyIds(agencyIds)
+              .buildQuery();
+
+      var fullTextQuery =
+          fullTextEntityManager.createFullTextQuery(
+              restrictQuery(query, queryBuilder), Consultant.class);
+      fullTextQuery.setProjection(ProjectionConstants.ID, "firstName", "lastName", "email");
+      fullTextQuery.setSort(buildSort(pageable));
+      if (pageable.isPaged()) {
+        fullTextQuery.setFirstResult((int) pageable.getOffset());
+        fullTextQuery.setMaxResults(pageable.getPageSize());
+      }
+
+      @SuppressWarnings("unchecked")
+      List<Object[]> rows = fullTextQuery.getResultList();
+      var consultants =
+          rows.stream()
+              .map(
+                  row ->
+                      new IndexedConsultant(
+                          (String) row[0], (String) row[1], (String) row[2], (String) row[3]))
+              .collect(Collectors.<ConsultantBase>toList());
+
+      return new PageImpl<>(consultants, pageable, fullTextQuery.getResultSize());
+    } finally {
+      fullTextEntityManager.close();
+    }
+  }
+
+  protected QueryBuilder buildQueryBuilder(FullTextEntityManager fullTextEntityManager) {
+    return fullTextEntityManager
+        .getSearchFactory()
+        .buildQueryBuilder()
+        .forEntity(Consultant.class)
+        .get();
+  }
+
+  /**
+   * Hook to restrict the search further, e.g. to the consultants of the current tenant.
+   *
+   * @param query the infix query
+   * @param queryBuilder the query builder of the consultant index
+   * @return the query to run
+   */
+  protected Query restrictQuery(Query query, QueryBuilder queryBuilder) {
+    return query;
+  }
+
+  private org.apache.lucene.search.Sort buildSort(Pageable pageable) {
+    var sortFields = new ArrayList<SortField>();
+    for (Order order : pageable.getSort()) {
+      sortFields.add(toSortField(order.getProperty(), order.isDescending()));
+    }
+    sortFields.add(SortField.FIELD_DOC);
+
+    return new org.apache.lucene.search.Sort(sortFields.toArray(SortField[]::new));
+  }
+
+  private SortField toSortField(String property, boolean reverse) {
+    if (STRING_SORT_FIELDS.contains(property)) {
+      return new SortField(property + SORT_SUFFIX, SortField.Type.STRING, reverse);
+    }
+    if (TENANT_ID_SORT_FIELD.equals(property)) {
+      return new SortField(property, SortField.Type.LONG, reverse);
+    }
+    throw new IllegalArgumentException("Consultants cannot be sorted by " + property);
+  }
+
+  @Value
+  private static class IndexedConsultant implements ConsultantBase {
+
+    String id;
+    String firstName;
+    String lastName;
+    String email;
+  }
+}
@@ -0,0 +1,40 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import javax.persistence.EntityManagerFactory;
+import lombok.NonNull;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/** Service class to search {@link Consultant} entities by infix based on tenant. */
+@Service
+@Primary
+@ConditionalOnExpression("${multitenancy.enabled:true}")
+public class ConsultantInfixSearchTenantAwareService extends ConsultantInfixSearchService {
+
+  protected static final String TENANT_ID_SEARCH_FIELD = "tenantId";
+
+  public ConsultantInfixSearchTenantAwareService(
+      @NonNull EntityManagerFactory entityManagerFactory) {
+    super(entityManagerFactory);
+  }
+
+  @Override
+  protected Query restrictQuery(Query query, QueryBuilder queryBuilder) {
+    if (TenantContext.isTechnicalOrSuperAdminContext()) {
+      return query;
+    }
+
+    var tenantQuery =
+        queryBuilder
+            .keyword()
+            .onField(TENANT_ID_SEARCH_FIELD)
+            .matching(TenantContext.getCurrentTenant())
+            .createQuery();
+    return queryBuilder.bool().must(tenantQuery).must(query).createQuery();
+  }
+}
@@ -1,21 +1,319 @@
 package de.caritas.cob.userservice.api.admin.service.consultant;
 
+import static java.util.Objects.nonNull;
+
+import de.caritas.cob.userservice.api.model.Admin;
+import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.service.LogService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManagerFactory;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.Directory;
+import org.hibernate.search.indexes.spi.DirectoryBasedIndexManager;
 import org.hibernate.search.jpa.FullTextEntityManager;
-import org.springframework.beans.factory.InitializingBean;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.spi.SearchIntegrator;
+import org.hibernate.search.spi.impl.PojoIndexedTypeIdentifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
-/** Reindexer class for all indexed entities. */
+/**
+ * Reindexer class for all indexed entities.
+ *
+ * <p>Changes of {@link Consultant} and their agencies are indexed incrementally by Hibernate Search
+ * after each commit. A full rebuild is only done on startup, on an explicit admin request or when
+ * the consistency check detects a diverged index. If the index is stored on disk, the startup only
+ * reindexes the entities changed since the database high-watermark of the previous startup.
+ */
+@Slf4j
 @RequiredArgsConstructor
-public class ConsultantReindexer implements InitializingBean {
+public class ConsultantReindexer {
+
+  private static final String STARTUP_METRIC = "search.index.startup";
+  private static final String SIZE_METRIC = "search.index.size";
+  private static final String FULL_MODE = "full";
+  private static final String DELTA_MODE = "delta";
+  private static final int REINDEX_BATCH_SIZE = 100;
+
+  private static final List<Class<?>> INDEXED_ENTITIES = List.of(Consultant.class, Admin.class);
+
+  private static final List<String> CHANGE_DATE_QUERIES =
+      List.of(
+          "SELECT MAX(c.createDate), MAX(c.updateDate), MAX(c.deleteDate) FROM Consultant c",
+          "SELECT MAX(ca.createDate), MAX(ca.updateDate), MAX(ca.deleteDate)"
+              + " FROM ConsultantAgency ca",
+          "SELECT MAX(a.createDate), MAX(a.updateDate) FROM Admin a",
+          "SELECT MAX(aa.createDate), MAX(aa.updateDate) FROM AdminAgency aa");
+
+  private static final Map<Class<?>, List<String>> CHANGED_ID_QUERIES =
+      Map.of(
+          Consultant.class,
+          List.of(
+              "SELECT c.id FROM Consultant c WHERE c.createDate > :since"
+                  + " OR c.updateDate > :since OR c.deleteDate > :since",
+              "SELECT ca.consultant.id FROM ConsultantAgency ca WHERE ca.createDate > :since"
+                  + " OR ca.updateDate > :since OR ca.deleteDate > :since"),
+          Admin.class,
+          List.of(
+              "SELECT a.id FROM Admin a WHERE a.createDate > :since OR a.updateDate > :since",
+              "SELECT aa.admin.id FROM AdminAgency aa WHERE aa.createDate > :since"
+                  + " OR aa.updateDate > :since"));
+
+  private final @NonNull EntityManagerFactory entityManagerFactory;
+  private final @NonNull MeterRegistry meterRegistry;
+  private final @NonNull SearchIndexWatermarkStore watermarkStore;
+  private final @NonNull Duration watermarkOverlap;
+
+  private final AtomicReference<Future<?>> runningRebuild = new AtomicReference<>();
+
+  /**
+   * Indexes all entity fields marked as indexed on startup, after all data initializers have run. A
+   * persistent index is only updated with the entities changed since the previous startup, as long
+   * as it is consistent with the database afterwards.
+   *
+   * @throws InterruptedException if the indexing has been interrupted
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void indexOnStartup() throws InterruptedException {
+    var startup = Timer.start(meterRegistry);
+    var highWatermark = findHighWatermark();
+    var storedWatermark = watermarkStore.read();
+
+    var mode = FULL_MODE;
+    if (storedWatermark.isPresent()
+        && reindexChangedSince(storedWatermark.get().minus(watermarkOverlap))) {
+      mode = DELTA_MODE;
+    } else {
+      LogService.logInfo("Going to index entities");
+      watermarkStore.clear();
+      var fullTextEntityManager = createFullTextEntityManager();
+      try {
+        fullTextEntityManager.createIndexer().startAndWait();
+      } finally {
+        fullTextEntityManager.close();
+      }
+    }
+    highWatermark.ifPresent(watermarkStore::write);
+
+    startup.stop(meterRegistry.timer(STARTUP_METRIC, "mode", mode));
+    registerIndexSizeGauges();
+  }
+
+  /**
+   * Starts a rebuild of the consultant index in the background, unless a rebuild is already
+   * running.
+   *
+   * @return true if a new rebuild has been started
+   */
+  public synchronized boolean rebuildConsultantIndex() {
+    var previousRebuild = runningRebuild.get();
+    if (previousRebuild != null && !previousRebuild.isDone()) {
+      return false;
+    }
+    LogService.logInfo("Going to rebuild the consultant index in background");
+    var fullTextEntityManager = createFullTextEntityManager();
+    try {
+      runningRebuild.set(fullTextEntityManager.createIndexer(Consultant.class).start());
+    } finally {
+      fullTextEntityManager.close();
+    }
+    return true;
+  }
+
+  /**
+   * Reindexes the consultant with the given id from its current database state, e.g. after one of
+   * its agency relations has changed.
+   *
+   * @param consultantId the id of the consultant
+   */
+  public void reindexConsultant(String consultantId) {
+    reindex(Consultant.class, List.of(consultantId));
+  }
+
+  /**
+   * Compares the number of indexed consultants with the number of consultants in the database and
+   * starts a background rebuild if they differ.
+   *
+   * @return true if the index is consistent with the database
+   */
+  public boolean verifyConsultantIndex() {
+    if (isIndexConsistent(Consultant.class)) {
+      return true;
+    }
+    rebuildConsultantIndex();
+    return false;
+  }
 
-  private final @NonNull FullTextEntityManager fullTextEntityManager;
+  private boolean isIndexConsistent(Class<?> entityClass) {
+    var fullTextEntityManager = createFullTextEntityManager();
+    try {
+      var indexedEntities =
+          fullTextEntityManager
+              .createFullTextQuery(new MatchAllDocsQuery(), entityClass)
+              .getResultSize();
+      var storedEntities =
+          fullTextEntityManager
+              .createQuery("SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e", Long.class)
+              .getSingleResult();
+      if (indexedEntities == storedEntities) {
+        return true;
+      }
+      log.warn(
+          "{} index contains {} documents but database contains {} entities",
+          entityClass.getSimpleName(),
+          indexedEntities,
+          storedEntities);
+      return false;
+    } finally {
+      fullTextEntityManager.close();
+    }
+  }
+
+  private Optional<LocalDateTime> findHighWatermark() {
+    var entityManager = entityManagerFactory.createEntityManager();
+    try {
+      return CHANGE_DATE_QUERIES.stream()
+          .map(query -> entityManager.createQuery(query, Object[].class).getSingleResult())
+          .flatMap(Arrays::stream)
+          .filter(LocalDateTime.class::isInstance)
+          .map(LocalDateTime.class::cast)
+          .max(LocalDateTime::compareTo);
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  private boolean reindexChangedSince(LocalDateTime since) {
+    for (var entityClass : INDEXED_ENTITIES) {
+      var changedIds = findChangedIds(CHANGED_ID_QUERIES.get(entityClass), since);
+      log.info(
+          "Going to reindex {} {} entities changed since {}",
+          changedIds.size(),
+          entityClass.getSimpleName(),
+          since);
+      reindex(entityClass, changedIds);
+    }
+    return INDEXED_ENTITIES.stream().allMatch(this::isIndexConsistent);
+  }
+
+  private Set<Serializable> findChangedIds(List<String> queries, LocalDateTime since) {
+    var entityManager = entityManagerFactory.createEntityManager();
+    try {
+      var changedIds = new LinkedHashSet<Serializable>();
+      queries.forEach(
+          query ->
+              changedIds.addAll(
+                  entityManager
+                      .createQuery(query, Serializable.class)
+                      .setParameter("since", since)
+                      .getResultList()));
+      return changedIds;
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  private void reindex(Class<?> entityClass, Collection<? extends Serializable> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    var fullTextEntityManager = createFullTextEntityManager();
+    try {
+      fullTextEntityManager.getTransaction().begin();
+      var reindexed = 0;
+      for (var id : ids) {
+        var entity = fullTextEntityManager.find(entityClass, id);
+        if (entity == null) {
+          fullTextEntityManager.purge(entityClass, id);
+        } else {
+          fullTextEntityManager.index(entity);
+        }
+        if (++reindexed % REINDEX_BATCH_SIZE == 0) {
+          fullTextEntityManager.flushToIndexes();
+          fullTextEntityManager.clear();
+        }
+      }
+      fullTextEntityManager.getTransaction().commit();
+    } finally {
+      fullTextEntityManager.close();
+    }
+  }
+
+  private void registerIndexSizeGauges() {
+    SearchIntegrator searchIntegrator;
+    var fullTextEntityManager = createFullTextEntityManager();
+    try {
+      searchIntegrator = fullTextEntityManager.getSearchFactory().unwrap(SearchIntegrator.class);
+    } finally {
+      fullTextEntityManager.close();
+    }
+    if (nonNull(searchIntegrator)) {
+      INDEXED_ENTITIES.forEach(
+          entityClass ->
+              Gauge.builder(
+                      SIZE_METRIC,
+                      searchIntegrator,
+                      integrator -> indexSizeInBytes(integrator, entityClass))
+                  .tag("entity", entityClass.getSimpleName())
+                  .baseUnit("bytes")
+                  .register(meterRegistry));
+    }
+  }
+
+  private static double indexSizeInBytes(SearchIntegrator searchIntegrator, Class<?> entityClass) {
+    var indexBinding = searchIntegrator.getIndexBinding(new PojoIndexedTypeIdentifier(entityClass));
+    if (indexBinding == null) {
+      return 0;
+    }
+    return indexBinding.getIndexManagerSelector().all().stream()
+        .filter(DirectoryBasedIndexManager.class::isInstance)
+        .map(DirectoryBasedIndexManager.class::cast)
+        .mapToLong(
+            indexManager -> directorySize(indexManager.getDirectoryProvider().getDirectory()))
+        .sum();
+  }
+
+  private static long directorySize(Directory directory) {
+    try {
+      var size = 0L;
+      for (var file : directory.listAll()) {
+        size += fileSize(directory, file);
+      }
+      return size;
+    } catch (IOException e) {
+      log.warn("Unable to determine the size of the search index: {}", e.getMessage());
+      return 0;
+    }
+  }
+
+  private static long fileSize(Directory directory, String file) {
+    try {
+      return directory.fileLength(file);
+    } catch (IOException e) {
+      // the file has been merged away since the directory has been listed
+      return 0;
+    }
+  }
 
-  /** Indexes all entity fields marked as indexed on startup. */
-  @Override
-  public void afterPropertiesSet() throws Exception {
-    LogService.logInfo("Going to index entities");
-    this.fullTextEntityManager.createIndexer().startAndWait();
+  private FullTextEntityManager createFullTextEntityManager() {
+    return Search.getFullTextEntityManager(entityManagerFactory.createEntityManager());
   }
 }
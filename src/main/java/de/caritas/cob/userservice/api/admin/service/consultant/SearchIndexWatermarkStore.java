@@ -0,0 +1,93 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Properties;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores the database high-watermark a persistent search index has been synchronized with, next to
+ * the index files. For the in-memory index nothing is stored, because it does not survive a
+ * restart.
+ */
+@RequiredArgsConstructor
+public class SearchIndexWatermarkStore {
+
+  static final String HEAP_DIRECTORY_PROVIDER = "local-heap";
+  static final String FILE_NAME = "index-watermark.properties";
+  private static final String WATERMARK_KEY = "watermark";
+
+  private final @NonNull String directoryProvider;
+  private final @NonNull Path indexBase;
+
+  /**
+   * Checks whether the index survives a restart.
+   *
+   * @return true if the index is stored on disk
+   */
+  public boolean isPersistent() {
+    return !HEAP_DIRECTORY_PROVIDER.equals(directoryProvider);
+  }
+
+  /**
+   * Reads the stored watermark.
+   *
+   * @return the watermark, empty if the index is not persistent or has not been completely built
+   */
+  public Optional<LocalDateTime> read() {
+    var file = indexBase.resolve(FILE_NAME);
+    if (!isPersistent() || !Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    var properties = new Properties();
+    try (var reader = Files.newBufferedReader(file)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Optional.ofNullable(properties.getProperty(WATERMARK_KEY)).map(LocalDateTime::parse);
+  }
+
+  /**
+   * Stores the watermark the index has been synchronized with.
+   *
+   * @param watermark the latest change date of all indexed entities
+   */
+  public void write(LocalDateTime watermark) {
+    if (!isPersistent()) {
+      return;
+    }
+    var properties = new Properties();
+    properties.setProperty(WATERMARK_KEY, watermark.toString());
+    try {
+      Files.createDirectories(indexBase);
+      var tempFile = Files.createTempFile(indexBase, FILE_NAME, ".tmp");
+      try (var writer = Files.newBufferedWriter(tempFile)) {
+        properties.store(writer, null);
+      }
+      Files.move(tempFile, indexBase.resolve(FILE_NAME), REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Removes the stored watermark, e.g. before the index is rebuilt completely. */
+  public void clear() {
+    if (!isPersistent()) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(indexBase.resolve(FILE_NAME));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -2,22 +2,23 @@ package de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrel
 
 import static de.caritas.cob.userservice.api.service.emailsupplier.EmailSupplier.TEMPLATE_FREE_TEXT;
 import static java.util.Arrays.asList;
+import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 
 import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
-import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatAddToGroupOperationService;
-import de.caritas.cob.userservice.api.facade.RocketChatFacade;
-import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatMembershipJobService;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantAgency;
 import de.caritas.cob.userservice.api.model.ConsultantAgencyStatus;
 import de.caritas.cob.userservice.api.model.ConsultantStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation;
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
-import de.caritas.cob.userservice.api.port.out.IdentityClient;
 import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.service.LogService;
 import de.caritas.cob.userservice.api.service.helper.MailService;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
 import de.caritas.cob.userservice.mailservice.generated.web.model.ErrorMailDTO;
@@ -30,62 +31,140 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RocketChatAsyncHelper {
 
-  private final @NonNull RocketChatFacade rocketChatFacade;
   private final @NonNull SessionRepository sessionRepository;
-  private final @NonNull IdentityClient identityClient;
-  private final @NonNull ConsultingTypeManager consultingTypeManager;
   private final @NonNull ConsultantRepository consultantRepository;
   private final @NonNull ConsultantAgencyRepository consultantAgencyRepository;
   private final @NonNull MailService mailService;
+  private final @NonNull RocketChatMembershipJobService rocketChatMembershipJobService;
 
   @Value("${app.base.url}")
   private String applicationBaseUrl;
 
+  /**
+   * Adds the consultant to the Rocket.Chat groups of the relevant sessions of the agency. The group
+   * memberships are stored as a {@link RocketChatMembershipJob} and executed in background, the
+   * consultant is set to {@link ConsultantStatus#ERROR} if any of them finally fails.
+   *
+   * @param consultant the consultant
+   * @param agency the newly assigned agency
+   * @param logMethod the method used for logging
+   * @param tenantId the id of the tenant
+   */
   @Async
-  @Transactional
   public void addConsultantToSessions(
       Consultant consultant, AgencyDTO agency, Consumer<String> logMethod, Long tenantId) {
     try {
       TenantContext.setCurrentTenant(tenantId);
       List<Session> relevantSessions = collectRelevantSessionsToAddConsultant(agency);
-      RocketChatAddToGroupOperationService.getInstance(
-              this.rocketChatFacade, identityClient, logMethod, consultingTypeManager)
-          .onSessions(relevantSessions)
-          .withConsultant(consultant)
-          .addToGroupsOrRollbackOnFailure();
-      updateConsultantStatus(consultant, agency);
+      var job =
+          rocketChatMembershipJobService.createJob(
+              consultant, agency.getId(), relevantSessions, tenantId);
+      executeMembershipJob(job, consultant, logMethod);
     } catch (Exception e) {
-      consultant.setStatus(ConsultantStatus.ERROR);
-      consultantRepository.save(consultant);
-      sendErrorEmail(consultant, e);
+      markConsultantAsFailed(consultant, e.getMessage());
       log.error("Error happened during rocket chat session assignments", e);
+    } finally {
+      TenantContext.clear();
+    }
+  }
+
+  /** Resumes the Rocket.Chat membership jobs interrupted e.g. by a restart of an instance. */
+  public void resumeInterruptedMembershipJobs() {
+    for (RocketChatMembershipJob job : rocketChatMembershipJobService.findInterruptedJobs()) {
+      try {
+        TenantContext.setCurrentTenant(job.getTenantId());
+        var consultant = consultantRepository.findByIdAndDeleteDateIsNull(job.getConsultantId());
+        if (consultant.isPresent()) {
+          log.info("Resuming rocket chat membership job {}", job.getId());
+          executeMembershipJob(job, consultant.get(), LogService::logInfo);
+        } else {
+          rocketChatMembershipJobService.cancel(job);
+        }
+      } catch (Exception e) {
+        log.error("Rocket chat membership job {} could not be resumed", job.getId(), e);
+      } finally {
+        TenantContext.clear();
+      }
+    }
+  }
+
+  private void executeMembershipJob(
+      RocketChatMembershipJob job, Consultant consultant, Consumer<String> logMethod) {
+    rocketChatMembershipJobService
+        .execute(job, consultant.getRocketChatId(), logMethod)
+        .whenComplete(
+            (failedOperations, throwable) ->
+                completeMembershipJob(job, failedOperations, throwable));
+  }
+
+  private void completeMembershipJob(
+      RocketChatMembershipJob job,
+      List<RocketChatMembershipOperation> failedOperations,
+      Throwable throwable) {
+    if (nonNull(throwable)) {
+      log.error(
+          "Rocket chat membership job {} has been interrupted and will be resumed",
+          job.getId(),
+          throwable);
+      return;
+    }
+    try {
+      TenantContext.setCurrentTenant(job.getTenantId());
+      consultantRepository
+          .findByIdAndDeleteDateIsNull(job.getConsultantId())
+          .ifPresent(
+              consultant -> {
+                if (failedOperations.isEmpty()) {
+                  updateConsultantStatus(consultant, job.getAgencyId());
+                } else {
+                  markConsultantAsFailed(
+                      consultant,
+                      String.format(
+                          "%d rocket chat groups of agency %d could not be joined, e.g. %s: %s",
+                          failedOperations.size(),
+                          job.getAgencyId(),
+                          failedOperations.get(0).getRcGroupId(),
+                          failedOperations.get(0).getLastError()));
+                }
+              });
+    } catch (Exception e) {
+      log.error("Rocket chat membership job {} could not be completed", job.getId(), e);
+    } finally {
+      TenantContext.clear();
     }
-    TenantContext.clear();
   }
 
-  private void updateConsultantStatus(Consultant consultant, AgencyDTO agencyDTO) {
+  private void updateConsultantStatus(Consultant consultant, Long agencyId) {
     ConsultantAgency consultantAgency =
         consultantAgencyRepository.findByConsultantIdAndAgencyIdAndStatusAndDeleteDateIsNull(
-            consultant.getId(), agencyDTO.getId(), ConsultantAgencyStatus.IN_PROGRESS);
+            consultant.getId(), agencyId, ConsultantAgencyStatus.IN_PROGRESS);
+    if (nonNull(consultantAgency)) {
+      consultantAgency.setStatus(ConsultantAgencyStatus.CREATED);
+      consultantAgencyRepository.save(consultantAgency);
+    }
 
-    consultantAgency.setStatus(ConsultantAgencyStatus.CREATED);
     List<ConsultantAgency> consultantAgencies =
         consultantAgencyRepository.findByConsultantIdAndStatusAndDeleteDateIsNull(
             consultant.getId(), ConsultantAgencyStatus.IN_PROGRESS);
-    if (consultantAgencies.size() == 0) {
+    if (consultantAgencies.isEmpty()) {
       consultant.setStatus(ConsultantStatus.CREATED);
       consultantRepository.save(consultant);
     }
   }
 
-  private void sendErrorEmail(Consultant consultant, Exception exception) {
+  private void markConsultantAsFailed(Consultant consultant, String errorMessage) {
+    consultant.setStatus(ConsultantStatus.ERROR);
+    consultantRepository.save(consultant);
+    sendErrorEmail(consultant, errorMessage);
+  }
+
+  private void sendErrorEmail(Consultant consultant, String errorMessage) {
     ErrorMailDTO errorMailDTO =
         new ErrorMailDTO()
             .template(TEMPLATE_FREE_TEXT)
@@ -95,15 +174,17 @@ public class RocketChatAsyncHelper {
                         .key("subject")
                         .value("RocketChat sessions assignment error"),
                     new TemplateDataDTO().key("url").value(this.applicationBaseUrl),
-                    new TemplateDataDTO().key("text").value(getEmailText(consultant, exception))));
+                    new TemplateDataDTO()
+                        .key("text")
+                        .value(getEmailText(consultant, errorMessage))));
     this.mailService.sendErrorEmailNotification(errorMailDTO);
   }
 
-  private String getEmailText(Consultant consultant, Exception exception) {
+  private String getEmailText(Consultant consultant, String errorMessage) {
     return "Error happened during rocket chat session assignments for consultant "
         + consultant.getUsername()
         + ". Error message: "
-        + exception.getMessage();
+        + errorMessage;
   }
 
   private List<Session> collectRelevantSessionsToAddConsultant(AgencyDTO agency) {
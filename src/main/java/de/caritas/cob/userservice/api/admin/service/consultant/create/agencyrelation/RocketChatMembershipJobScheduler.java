@@ -0,0 +1,21 @@
+package de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrelation;
+
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Scheduler to resume Rocket.Chat membership jobs which have been interrupted. */
+@Component
+@RequiredArgsConstructor
+public class RocketChatMembershipJobScheduler {
+
+  private final @NonNull RocketChatAsyncHelper rocketChatAsyncHelper;
+
+  @Scheduled(cron = "${rocket-chat.membership.resume.cron}")
+  @SchedulerLock(name = "resumeRocketChatMembershipJobs")
+  public void resumeInterruptedMembershipJobs() {
+    rocketChatAsyncHelper.resumeInterruptedMembershipJobs();
+  }
+}
@@ -0,0 +1,143 @@
+package de.caritas.cob.userservice.api.admin.service.consultant.querybuilder;
+
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_MAX_GRAM_SIZE;
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_SUFFIX;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import de.caritas.cob.userservice.api.admin.service.FilterQueryBuilder;
+import java.util.Collection;
+import java.util.Locale;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.query.dsl.BooleanJunction;
+import org.hibernate.search.query.dsl.QueryBuilder;
+
+/**
+ * Builder for the infix query used by hibernate search. Matches consultants whose id equals the
+ * infix or whose first name, last name or email contains it, ignoring case.
+ */
+public class ConsultantInfixQueryBuilder extends FilterQueryBuilder {
+
+  public static final String MATCH_ALL_INFIX = "*";
+
+  private static final String FIELD_ID = "id";
+  private static final String FIELD_AGENCY_IDS = "consultantAgencies.agencyId";
+  private static final String[] INFIX_FIELDS = {
+    "firstName" + INFIX_SUFFIX, "lastName" + INFIX_SUFFIX, "email" + INFIX_SUFFIX
+  };
+
+  private String infix;
+  private Collection<Long> agencyIds;
+
+  private ConsultantInfixQueryBuilder(QueryBuilder queryBuilder) {
+    super(queryBuilder);
+  }
+
+  /**
+   * Creates the {@link ConsultantInfixQueryBuilder} instance.
+   *
+   * @param queryBuilder the query builder to build the filters on
+   * @return the {@link ConsultantInfixQueryBuilder} instance
+   */
+  public static ConsultantInfixQueryBuilder getInstance(QueryBuilder queryBuilder) {
+    return new ConsultantInfixQueryBuilder(queryBuilder);
+  }
+
+  /**
+   * Sets the infix to search for, "*" matches all consultants.
+   *
+   * @param infix the infix
+   * @return the current {@link ConsultantInfixQueryBuilder}
+   */
+  public ConsultantInfixQueryBuilder onInfix(String infix) {
+    this.infix = infix;
+    return this;
+  }
+
+  /**
+   * Restricts the result to consultants assigned to at least one of the given agencies.
+   *
+   * @param agencyIds the ids of the agencies, must not be empty
+   * @return the current {@link ConsultantInfixQueryBuilder}
+   */
+  public ConsultantInfixQueryBuilder onAgencyIds(Collection<Long> agencyIds) {
+    this.agencyIds = agencyIds;
+    return this;
+  }
+
+  /**
+   * Builds the infix query for hibernate search. If neither an infix nor agencies are set, a
+   * unfiltered query will be returned.
+   *
+   * @return the created {@link Query}
+   */
+  public Query buildQuery() {
+    return isMatchAll() && isNull(this.agencyIds)
+        ? this.queryBuilder.all().createQuery()
+        : buildFilteredQuery();
+  }
+
+  protected Query buildFilteredQuery() {
+    BooleanJunction<BooleanJunction> junction = this.queryBuilder.bool();
+    if (!isMatchAll()) {
+      junction.must(buildInfixQuery());
+    }
+    if (nonNull(this.agencyIds)) {
+      BooleanJunction<BooleanJunction> agencyJunction = this.queryBuilder.bool();
+      this.agencyIds.forEach(
+          agencyId ->
+              agencyJunction.should(
+                  this.queryBuilder
+                      .keyword()
+                      .onField(FIELD_AGENCY_IDS)
+                      .matching(agencyId)
+                      .createQuery()));
+      junction.must(agencyJunction.createQuery());
+    }
+    return junction.createQuery();
+  }
+
+  private boolean isMatchAll() {
+    return isNull(this.infix) || MATCH_ALL_INFIX.equals(this.infix);
+  }
+
+  private Query buildInfixQuery() {
+    var lowerCaseInfix = this.infix.toLowerCase(Locale.ROOT);
+    BooleanJunction<BooleanJunction> junction = this.queryBuilder.bool();
+    junction.should(termQuery(FIELD_ID, this.infix));
+    if (!lowerCaseInfix.equals(this.infix)) {
+      junction.should(termQuery(FIELD_ID, lowerCaseInfix));
+    }
+    for (var field : INFIX_FIELDS) {
+      junction.should(gramQuery(field, lowerCaseInfix));
+    }
+    return junction.createQuery();
+  }
+
+  /**
+   * The infix fields contain every substring up to {@link
+   * de.caritas.cob.userservice.api.model.Consultant#INFIX_MAX_GRAM_SIZE} characters, so shorter
+   * infixes are a single term lookup. Longer infixes have to contain all of their overlapping
+   * n-grams of the maximum size.
+   */
+  private Query gramQuery(String field, String lowerCaseInfix) {
+    if (lowerCaseInfix.length() <= INFIX_MAX_GRAM_SIZE) {
+      return termQuery(field, lowerCaseInfix);
+    }
+    BooleanJunction<BooleanJunction> junction = this.queryBuilder.bool();
+    for (var start = 0; start + INFIX_MAX_GRAM_SIZE <= lowerCaseInfix.length(); start++) {
+      junction.must(termQuery(field, lowerCaseInfix.substring(start, start + INFIX_MAX_GRAM_SIZE)));
+    }
+    return junction.createQuery();
+  }
+
+  private Query termQuery(String field, String term) {
+    return this.queryBuilder
+        .keyword()
+        .onField(field)
+        .ignoreAnalyzer()
+        .ignoreFieldBridge()
+        .matching(term)
+        .createQuery();
+  }
+}
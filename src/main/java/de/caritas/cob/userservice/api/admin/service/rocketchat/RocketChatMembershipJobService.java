@@ -0,0 +1,322 @@
+package de.caritas.cob.userservice.api.admin.service.rocketchat;
+
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.abbreviate;
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipFailureDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipFailureDTO.GroupTypeEnum;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO.StatusEnum;
+import de.caritas.cob.userservice.api.facade.RocketChatFacade;
+import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob.JobStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.GroupType;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatusCount;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.port.out.IdentityClient;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipJobRepository;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipOperationRepository;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Adds consultants to the Rocket.Chat groups of sessions. All group memberships are stored as
+ * operations of a {@link RocketChatMembershipJob} first and then executed with bounded parallelism.
+ * Failed calls are retried with exponential backoff, so a single failing group does not stop the
+ * others. Jobs interrupted by a restart are resumed with their pending operations.
+ */
+@Service
+@Slf4j
+public class RocketChatMembershipJobService {
+
+  private static final int MAX_ERROR_LENGTH = 1024;
+
+  private final RocketChatMembershipJobRepository jobRepository;
+  private final RocketChatMembershipOperationRepository operationRepository;
+  private final RocketChatFacade rocketChatFacade;
+  private final IdentityClient identityClient;
+  private final ConsultingTypeManager consultingTypeManager;
+  private final Executor executor;
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final Duration staleAfter;
+
+  public RocketChatMembershipJobService(
+      RocketChatMembershipJobRepository jobRepository,
+      RocketChatMembershipOperationRepository operationRepository,
+      RocketChatFacade rocketChatFacade,
+      IdentityClient identityClient,
+      ConsultingTypeManager consultingTypeManager,
+      @Qualifier("rocketChatMembershipExecutor") Executor executor,
+      @Value("${rocket-chat.membership.max-attempts}") int maxAttempts,
+      @Value("${rocket-chat.membership.initial-backoff}") Duration initialBackoff,
+      @Value("${rocket-chat.membership.max-backoff}") Duration maxBackoff,
+      @Value("${rocket-chat.membership.resume.stale-after}") Duration staleAfter) {
+    this.jobRepository = jobRepository;
+    this.operationRepository = operationRepository;
+    this.rocketChatFacade = rocketChatFacade;
+    this.identityClient = identityClient;
+    this.consultingTypeManager = consultingTypeManager;
+    this.executor = executor;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.staleAfter = staleAfter;
+  }
+
+  /**
+   * Stores a new job with one operation for each Rocket.Chat group of the given sessions the
+   * consultant is allowed to join. A previous job of the consultant and agency is replaced.
+   *
+   * @param consultant the consultant to add to the groups
+   * @param agencyId the id of the agency the sessions belong to
+   * @param sessions the sessions to add the consultant to
+   * @param tenantId the id of the tenant
+   * @return the stored {@link RocketChatMembershipJob}
+   */
+  @Transactional
+  public RocketChatMembershipJob createJob(
+      Consultant consultant, Long agencyId, List<Session> sessions, Long tenantId) {
+    var now = nowInUtc();
+    var job =
+        jobRepository
+            .findByConsultantIdAndAgencyId(consultant.getId(), agencyId)
+            .orElseGet(
+                () ->
+                    RocketChatMembershipJob.builder()
+                        .consultantId(consultant.getId())
+                        .agencyId(agencyId)
+                        .createDate(now)
+                        .build());
+    if (nonNull(job.getId())) {
+      operationRepository.deleteByJobId(job.getId());
+    }
+    job.setTenantId(tenantId);
+    job.setStatus(JobStatus.RUNNING);
+    job.setUpdateDate(now);
+    var savedJob = jobRepository.save(job);
+
+    var operations = new ArrayList<RocketChatMembershipOperation>();
+    for (Session session : sessions) {
+      var conditionProvider =
+          new RocketChatOperationConditionProvider(
+              identityClient, session, consultant, consultingTypeManager);
+      if (nonNull(session.getGroupId()) && conditionProvider.canAddToRocketChatGroup()) {
+        operations.add(
+            buildOperation(savedJob, session, session.getGroupId(), GroupType.GROUP, now));
+      }
+      if (conditionProvider.canAddToRocketChatFeedbackGroup()) {
+        operations.add(
+            buildOperation(
+                savedJob, session, session.getFeedbackGroupId(), GroupType.FEEDBACK_GROUP, now));
+      }
+    }
+    operationRepository.saveAll(operations);
+    return savedJob;
+  }
+
+  private RocketChatMembershipOperation buildOperation(
+      RocketChatMembershipJob job,
+      Session session,
+      String rcGroupId,
+      GroupType groupType,
+      LocalDateTime now) {
+    return RocketChatMembershipOperation.builder()
+        .job(job)
+        .sessionId(session.getId())
+        .rcGroupId(rcGroupId)
+        .groupType(groupType)
+        .status(OperationStatus.PENDING)
+        .updateDate(now)
+        .build();
+  }
+
+  /**
+   * Executes the pending operations of the job on the membership executor. The returned future
+   * completes once every operation has either succeeded or failed its last attempt.
+   *
+   * @param job the job to execute
+   * @param rcUserId the Rocket.Chat user id of the consultant
+   * @param logMethod the method used to log each added group
+   * @return the future of the operations which finally failed
+   */
+  public CompletableFuture<List<RocketChatMembershipOperation>> execute(
+      RocketChatMembershipJob job, String rcUserId, Consumer<String> logMethod) {
+    jobRepository.refreshUpdateDate(job.getId(), nowInUtc());
+    var attempts =
+        operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.PENDING).stream()
+            .map(operation -> attempt(job, operation, rcUserId, logMethod, executor))
+            .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(attempts).thenApply(done -> completeJob(job));
+  }
+
+  private CompletableFuture<Void> attempt(
+      RocketChatMembershipJob job,
+      RocketChatMembershipOperation operation,
+      String rcUserId,
+      Consumer<String> logMethod,
+      Executor attemptExecutor) {
+    return CompletableFuture.runAsync(
+            () -> addToGroup(job, operation, rcUserId, logMethod), attemptExecutor)
+        .thenCompose(
+            done ->
+                OperationStatus.PENDING.equals(operation.getStatus())
+                    ? attempt(
+                        job,
+                        operation,
+                        rcUserId,
+                        logMethod,
+                        CompletableFuture.delayedExecutor(
+                            backoff(operation.getAttempts()).toMillis(),
+                            TimeUnit.MILLISECONDS,
+                            executor))
+                    : CompletableFuture.completedFuture(null));
+  }
+
+  private void addToGroup(
+      RocketChatMembershipJob job,
+      RocketChatMembershipOperation operation,
+      String rcUserId,
+      Consumer<String> logMethod) {
+    TenantContext.setCurrentTenant(job.getTenantId());
+    operation.setAttempts(operation.getAttempts() + 1);
+    try {
+      rocketChatFacade.addUserToRocketChatGroup(rcUserId, operation.getRcGroupId());
+      operation.setStatus(OperationStatus.SUCCEEDED);
+      operation.setLastError(null);
+    } catch (Exception e) {
+      operation.setLastError(
+          abbreviate(
+              defaultIfBlank(e.getMessage(), e.getClass().getSimpleName()), MAX_ERROR_LENGTH));
+      if (operation.getAttempts() >= maxAttempts) {
+        operation.setStatus(OperationStatus.FAILED);
+        log.warn(
+            "Consultant could not be added to rc group {} after {} attempts",
+            operation.getRcGroupId(),
+            operation.getAttempts(),
+            e);
+      }
+    } finally {
+      TenantContext.clear();
+    }
+    var now = nowInUtc();
+    operation.setUpdateDate(now);
+    operationRepository.updateResult(
+        operation.getId(),
+        operation.getStatus(),
+        operation.getAttempts(),
+        operation.getLastError(),
+        now);
+    jobRepository.refreshUpdateDate(job.getId(), now);
+    if (OperationStatus.SUCCEEDED.equals(operation.getStatus())) {
+      logMethod.accept(
+          String.format(
+              "Consultant added to rc %s %s of session %s.",
+              GroupType.GROUP.equals(operation.getGroupType()) ? "group" : "feedback group",
+              operation.getRcGroupId(),
+              operation.getSessionId()));
+    }
+  }
+
+  private Duration backoff(int attempts) {
+    var backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+
+  private List<RocketChatMembershipOperation> completeJob(RocketChatMembershipJob job) {
+    var failedOperations =
+        operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.FAILED);
+    job.setStatus(failedOperations.isEmpty() ? JobStatus.COMPLETED : JobStatus.FAILED);
+    job.setUpdateDate(nowInUtc());
+    jobRepository.save(job);
+    return failedOperations;
+  }
+
+  /**
+   * Marks a job as failed without executing its pending operations.
+   *
+   * @param job the job to cancel
+   */
+  public void cancel(RocketChatMembershipJob job) {
+    job.setStatus(JobStatus.FAILED);
+    job.setUpdateDate(nowInUtc());
+    jobRepository.save(job);
+  }
+
+  /**
+   * Returns the running jobs which have not made any progress for the configured period, e.g.
+   * because the executing instance has been stopped.
+   *
+   * @return the interrupted jobs
+   */
+  public List<RocketChatMembershipJob> findInterruptedJobs() {
+    return jobRepository.findByStatusAndUpdateDateBefore(
+        JobStatus.RUNNING, nowInUtc().minus(staleAfter));
+  }
+
+  /**
+   * Returns the progress of the job of the given consultant and agency.
+   *
+   * @param consultantId the consultant id
+   * @param agencyId the agency id
+   * @return the progress including all failed operations, empty if no job exists
+   */
+  public Optional<RocketChatMembershipJobDTO> findJobProgress(String consultantId, Long agencyId) {
+    return jobRepository
+        .findByConsultantIdAndAgencyId(consultantId, agencyId)
+        .map(this::buildJobProgress);
+  }
+
+  private RocketChatMembershipJobDTO buildJobProgress(RocketChatMembershipJob job) {
+    Map<OperationStatus, Long> amounts =
+        operationRepository.countByJobIdGroupByStatus(job.getId()).stream()
+            .collect(
+                Collectors.toMap(OperationStatusCount::getStatus, OperationStatusCount::getAmount));
+    var succeeded = amounts.getOrDefault(OperationStatus.SUCCEEDED, 0L);
+    var pending = amounts.getOrDefault(OperationStatus.PENDING, 0L);
+    var failed = amounts.getOrDefault(OperationStatus.FAILED, 0L);
+    var failures =
+        operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.FAILED).stream()
+            .map(this::buildFailure)
+            .collect(Collectors.toList());
+
+    return new RocketChatMembershipJobDTO()
+        .status(StatusEnum.fromValue(job.getStatus().name()))
+        .total(succeeded + pending + failed)
+        .succeeded(succeeded)
+        .pending(pending)
+        .failed(failed)
+        .failures(failures);
+  }
+
+  private RocketChatMembershipFailureDTO buildFailure(RocketChatMembershipOperation operation) {
+    return new RocketChatMembershipFailureDTO()
+        .sessionId(operation.getSessionId())
+        .groupId(operation.getRcGroupId())
+        .groupType(GroupTypeEnum.fromValue(operation.getGroupType().name()))
+        .attempts(operation.getAttempts())
+        .error(operation.getLastError());
+  }
+}
@@ -1,10 +1,18 @@
 package de.caritas.cob.userservice.api.config;
 
 import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantReindexer;
+import de.caritas.cob.userservice.api.admin.service.consultant.SearchIndexWatermarkStore;
+import de.caritas.cob.userservice.api.config.apiclient.UpstreamClientHttpRequestFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.persistence.EntityManagerFactory;
-import org.hibernate.search.jpa.FullTextEntityManager;
-import org.hibernate.search.jpa.Search;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +20,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.PropertySources;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.client.RestTemplate;
 
@@ -21,6 +30,8 @@ import org.springframework.web.client.RestTemplate;
 @PropertySources({@PropertySource("classpath:messages.properties")})
 public class AppConfig {
 
+  static final String EXECUTOR_REJECTED_METRIC = "executor.rejected";
+
   /**
    * Activate the messages.properties for validation messages
    *
@@ -34,23 +45,169 @@ public class AppConfig {
     return validatorFactoryBean;
   }
 
-  // RestTemplate Bean
+  /**
+   * RestTemplate used for the upstream services. Requests are sent through the connection pool of
+   * the respective upstream.
+   *
+   * @param builder the {@link RestTemplateBuilder}
+   * @param upstreamClientHttpRequestFactory the pooled {@link UpstreamClientHttpRequestFactory}
+   * @return the {@link RestTemplate}
+   */
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
-    return builder.build();
+  public RestTemplate restTemplate(
+      RestTemplateBuilder builder,
+      UpstreamClientHttpRequestFactory upstreamClientHttpRequestFactory) {
+    return builder.requestFactory(() -> upstreamClientHttpRequestFactory).build();
   }
 
   /**
    * Builds an indexer for hibernate search.
    *
    * @param entityManagerFactory the manager factory bean
-   * @return an {@link AgencyReindexer} used to reindex entities
+   * @param meterRegistry the registry for the startup time and index size metrics
+   * @param directoryProvider the hibernate search directory provider
+   * @param indexBase the versioned directory of a persistent index
+   * @param watermarkOverlap the period before the stored watermark reindexed on startup as well
+   * @return an {@link ConsultantReindexer} used to reindex entities
    */
   @Bean
-  public ConsultantReindexer consultantReindexer(EntityManagerFactory entityManagerFactory) {
-    FullTextEntityManager manager =
-        Search.getFullTextEntityManager(entityManagerFactory.createEntityManager());
-    return new ConsultantReindexer(manager);
+  public ConsultantReindexer consultantReindexer(
+      EntityManagerFactory entityManagerFactory,
+      MeterRegistry meterRegistry,
+      @Value("${search.index.directory-provider}") String directoryProvider,
+      @Value("${spring.jpa.properties.hibernate.search.default.indexBase}") Path indexBase,
+      @Value("${search.index.watermark-overlap}") Duration watermarkOverlap) {
+    return new ConsultantReindexer(
+        entityManagerFactory,
+        meterRegistry,
+        new SearchIndexWatermarkStore(directoryProvider, indexBase),
+        watermarkOverlap);
+  }
+
+  /**
+   * Executor to send the batches of the open enquiry notification mails in parallel. If all threads
+   * are busy the calling thread sends the next batch on its own, so the number of parallel calls to
+   * the MailService stays bounded.
+   *
+   * @param poolSize the maximum number of parallel MailService calls
+   * @return the {@link Executor}
+   */
+  @Bean("enquiryNotificationMailExecutor")
+  public Executor enquiryNotificationMailExecutor(
+      @Value("${enquiry.open.notification.mail.pool-size}") int poolSize) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(0);
+    executor.setThreadNamePrefix("EnquiryNotificationMail-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor to call the upstream services of the user data endpoint in parallel. The tenant,
+   * security and request context of the calling thread is handed over to the executing thread. If
+   * all threads are busy the calling thread runs the call on its own.
+   *
+   * @param poolSize the maximum number of parallel upstream calls
+   * @return the {@link Executor}
+   */
+  @Bean("userDataExecutor")
+  public Executor userDataExecutor(@Value("${user.data.executor.pool-size}") int poolSize) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(0);
+    executor.setThreadNamePrefix("UserData-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor to update the Rocket.Chat rooms of an assigned enquiry in the background. The tenant,
+   * security and request context of the calling thread is handed over to the executing thread. If
+   * all threads are busy and the queue is full the calling thread runs the update on its own, so
+   * assignments slow down instead of piling up. Queue depth, active threads and rejections are
+   * published as metrics with the tag name=assignEnquiry.
+   *
+   * @param poolSize the maximum number of parallel updates
+   * @param queueCapacity the maximum number of waiting updates
+   * @param meterRegistry the {@link MeterRegistry} to publish the metrics
+   * @return the {@link ThreadPoolTaskExecutor}
+   */
+  @Bean("assignEnquiryExecutor")
+  public ThreadPoolTaskExecutor assignEnquiryExecutor(
+      @Value("${assign.enquiry.executor.pool-size}") int poolSize,
+      @Value("${assign.enquiry.executor.queue-capacity}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("AssignEnquiry-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    var rejections = meterRegistry.counter(EXECUTOR_REJECTED_METRIC, "name", "assignEnquiry");
+    var callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+    executor.setRejectedExecutionHandler(
+        (task, threadPoolExecutor) -> {
+          rejections.increment();
+          callerRunsPolicy.rejectedExecution(task, threadPoolExecutor);
+        });
+    executor.initialize();
+    new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "assignEnquiry", Tags.empty())
+        .bindTo(meterRegistry);
+    return executor;
+  }
+
+  /**
+   * Executor to collect the mobile tokens of push notification recipients and send the
+   * notifications in the background. The tenant, security and request context of the calling thread
+   * is handed over to the executing thread. If all threads are busy and the queue is full the
+   * calling thread sends the notifications on its own.
+   *
+   * @param poolSize the maximum number of parallel push notification deliveries
+   * @param queueCapacity the maximum number of waiting push notification deliveries
+   * @return the {@link Executor}
+   */
+  @Bean("mobilePushExecutor")
+  public Executor mobilePushExecutor(
+      @Value("${firebase.configuration.push-notifications.pool-size}") int poolSize,
+      @Value("${firebase.configuration.push-notifications.queue-capacity}") int queueCapacity) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("MobilePush-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor to run the Keycloak and Rocket.Chat calls of the deactivation workflows in parallel.
+   * The tenant of the calling thread is handed over to the executing thread. If all threads are
+   * busy the calling thread runs the next call on its own, so the number of parallel calls stays
+   * bounded.
+   *
+   * @param poolSize the maximum number of parallel calls
+   * @return the {@link Executor}
+   */
+  @Bean("deactivateWorkflowExecutor")
+  public Executor deactivateWorkflowExecutor(
+      @Value("${deactivateworkflow.executor.pool-size}") int poolSize) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(0);
+    executor.setThreadNamePrefix("DeactivateWorkflow-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
   }
 
   @Bean
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Configuration;
 public class CacheManagerConfig {
 
   public static final String AGENCY_CACHE = "agencyCache";
+  public static final String AGENCIES_BY_CONSULTING_TYPE_CACHE = "agenciesByConsultingTypeCache";
   public static final String CONSULTING_TYPE_CACHE = "consultingTypeCache";
 
   public static final String APPLICATION_SETTINGS_CACHE = "applicationSettingsCache";
@@ -21,6 +22,9 @@ public class CacheManagerConfig {
   public static final String TOPICS_CACHE = "topicsCache";
 
   public static final String ROCKET_CHAT_USER_CACHE = "rocketChatUserCache";
+  public static final String ROCKET_CHAT_ROOM_INFORMATION_CACHE = "rocketChatRoomInformationCache";
+
+  public static final String KEYCLOAK_USER_ROLES_CACHE = "keycloakUserRolesCache";
 
   @Value("${cache.agencies.configuration.maxEntriesLocalHeap}")
   private long agenciesMaxEntriesLocalHeap;
@@ -34,6 +38,18 @@ public class CacheManagerConfig {
   @Value("${cache.agencies.configuration.timeToLiveSeconds}")
   private long agenciesTimeToLiveSeconds;
 
+  @Value("${cache.agencies.consultingtype.configuration.maxEntriesLocalHeap}")
+  private long agenciesByConsultingTypeMaxEntriesLocalHeap;
+
+  @Value("${cache.agencies.consultingtype.configuration.eternal}")
+  private boolean agenciesByConsultingTypeEternal;
+
+  @Value("${cache.agencies.consultingtype.configuration.timeToIdleSeconds}")
+  private long agenciesByConsultingTypeTimeToIdleSeconds;
+
+  @Value("${cache.agencies.consultingtype.configuration.timeToLiveSeconds}")
+  private long agenciesByConsultingTypeTimeToLiveSeconds;
+
   @Value("${cache.consulting.type.configuration.maxEntriesLocalHeap}")
   private long consultingTypeMaxEntriesLocalHeap;
 
@@ -94,6 +110,30 @@ public class CacheManagerConfig {
   @Value("${cache.rocketchat.configuration.timeToLiveSeconds}")
   private long rocketchatCacheTimeToLiveSeconds;
 
+  @Value("${cache.rocketchat.roominformation.configuration.maxEntriesLocalHeap}")
+  private long rocketchatRoomInformationMaxEntriesLocalHeap;
+
+  @Value("${cache.rocketchat.roominformation.configuration.eternal}")
+  private boolean rocketchatRoomInformationEternal;
+
+  @Value("${cache.rocketchat.roominformation.configuration.timeToIdleSeconds}")
+  private long rocketchatRoomInformationTimeToIdleSeconds;
+
+  @Value("${cache.rocketchat.roominformation.configuration.timeToLiveSeconds}")
+  private long rocketchatRoomInformationTimeToLiveSeconds;
+
+  @Value("${cache.keycloak.roles.configuration.maxEntriesLocalHeap}")
+  private long keycloakRolesMaxEntriesLocalHeap;
+
+  @Value("${cache.keycloak.roles.configuration.eternal}")
+  private boolean keycloakRolesEternal;
+
+  @Value("${cache.keycloak.roles.configuration.timeToIdleSeconds}")
+  private long keycloakRolesTimeToIdleSeconds;
+
+  @Value("${cache.keycloak.roles.configuration.timeToLiveSeconds}")
+  private long keycloakRolesTimeToLiveSeconds;
+
   @Bean
   public CacheManager cacheManager() {
     return new EhCacheCacheManager(ehCacheManager());
@@ -103,6 +143,7 @@ public class CacheManagerConfig {
   public net.sf.ehcache.CacheManager ehCacheManager() {
     var config = new net.sf.ehcache.config.Configuration();
     config.addCache(buildAgencyCacheConfiguration());
+    config.addCache(buildAgenciesByConsultingTypeCacheConfiguration());
     config.addCache(buildConsultingTypeCacheConfiguration());
     config.addCache(buildTenantCacheConfiguration());
     config.addCache(buildTenantAdminCacheConfiguration());
@@ -110,6 +151,8 @@ public class CacheManagerConfig {
     config.addCache(buildApplicationSettingsCacheConfiguration());
 
     config.addCache(buildRocketchatUserCacheConfiguration());
+    config.addCache(buildRocketchatRoomInformationCacheConfiguration());
+    config.addCache(buildKeycloakUserRolesCacheConfiguration());
     return net.sf.ehcache.CacheManager.newInstance(config);
   }
 
@@ -123,6 +166,19 @@ public class CacheManagerConfig {
     return agencyCacheConfiguration;
   }
 
+  private CacheConfiguration buildAgenciesByConsultingTypeCacheConfiguration() {
+    var agenciesByConsultingTypeCacheConfiguration = new CacheConfiguration();
+    agenciesByConsultingTypeCacheConfiguration.setName(AGENCIES_BY_CONSULTING_TYPE_CACHE);
+    agenciesByConsultingTypeCacheConfiguration.setMaxEntriesLocalHeap(
+        agenciesByConsultingTypeMaxEntriesLocalHeap);
+    agenciesByConsultingTypeCacheConfiguration.setEternal(agenciesByConsultingTypeEternal);
+    agenciesByConsultingTypeCacheConfiguration.setTimeToIdleSeconds(
+        agenciesByConsultingTypeTimeToIdleSeconds);
+    agenciesByConsultingTypeCacheConfiguration.setTimeToLiveSeconds(
+        agenciesByConsultingTypeTimeToLiveSeconds);
+    return agenciesByConsultingTypeCacheConfiguration;
+  }
+
   private CacheConfiguration buildConsultingTypeCacheConfiguration() {
     var consultingTypeCacheConfiguration = new CacheConfiguration();
     consultingTypeCacheConfiguration.setName(CONSULTING_TYPE_CACHE);
@@ -182,4 +238,27 @@ public class CacheManagerConfig {
     rocketchatCacheConfiguration.setTimeToLiveSeconds(rocketchatCacheTimeToLiveSeconds);
     return rocketchatCacheConfiguration;
   }
+
+  private CacheConfiguration buildRocketchatRoomInformationCacheConfiguration() {
+    var roomInformationCacheConfiguration = new CacheConfiguration();
+    roomInformationCacheConfiguration.setName(ROCKET_CHAT_ROOM_INFORMATION_CACHE);
+    roomInformationCacheConfiguration.setMaxEntriesLocalHeap(
+        rocketchatRoomInformationMaxEntriesLocalHeap);
+    roomInformationCacheConfiguration.setEternal(rocketchatRoomInformationEternal);
+    roomInformationCacheConfiguration.setTimeToIdleSeconds(
+        rocketchatRoomInformationTimeToIdleSeconds);
+    roomInformationCacheConfiguration.setTimeToLiveSeconds(
+        rocketchatRoomInformationTimeToLiveSeconds);
+    return roomInformationCacheConfiguration;
+  }
+
+  private CacheConfiguration buildKeycloakUserRolesCacheConfiguration() {
+    var keycloakRolesCacheConfiguration = new CacheConfiguration();
+    keycloakRolesCacheConfiguration.setName(KEYCLOAK_USER_ROLES_CACHE);
+    keycloakRolesCacheConfiguration.setMaxEntriesLocalHeap(keycloakRolesMaxEntriesLocalHeap);
+    keycloakRolesCacheConfiguration.setEternal(keycloakRolesEternal);
+    keycloakRolesCacheConfiguration.setTimeToIdleSeconds(keycloakRolesTimeToIdleSeconds);
+    keycloakRolesCacheConfiguration.setTimeToLiveSeconds(keycloakRolesTimeToLiveSeconds);
+    return keycloakRolesCacheConfiguration;
+  }
 }
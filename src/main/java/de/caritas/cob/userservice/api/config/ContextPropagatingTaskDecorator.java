@@ -0,0 +1,55 @@
+package de.caritas.cob.userservice.api.config;
+
+import static java.util.Objects.isNull;
+
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Hands the tenant, the security context, the logging context and the request attributes of the
+ * submitting thread over to the thread running the task, so request scoped beans like the
+ * authenticated user can be used there. The former context of the running thread is restored
+ * afterwards, because with a caller runs policy the task may be executed by the submitting thread
+ * itself.
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    var tenantData = TenantContext.getCurrentTenantData();
+    var securityContext = SecurityContextHolder.getContext();
+    var mdcContext = MDC.getCopyOfContextMap();
+    var requestAttributes = RequestContextHolder.getRequestAttributes();
+
+    return () -> {
+      var previousTenantData = TenantContext.getCurrentTenantData();
+      var previousSecurityContext = SecurityContextHolder.getContext();
+      var previousMdcContext = MDC.getCopyOfContextMap();
+      var previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+      try {
+        TenantContext.setCurrentTenantData(tenantData);
+        SecurityContextHolder.setContext(securityContext);
+        setMdcContext(mdcContext);
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        runnable.run();
+      } finally {
+        TenantContext.setCurrentTenantData(previousTenantData);
+        SecurityContextHolder.setContext(previousSecurityContext);
+        setMdcContext(previousMdcContext);
+        RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+      }
+    };
+  }
+
+  private static void setMdcContext(Map<String, String> mdcContext) {
+    if (isNull(mdcContext)) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(mdcContext);
+    }
+  }
+}
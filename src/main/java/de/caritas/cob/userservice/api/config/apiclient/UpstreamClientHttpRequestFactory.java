@@ -0,0 +1,198 @@
+package de.caritas.cob.userservice.api.config.apiclient;
+
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import de.caritas.cob.userservice.api.config.apiclient.UpstreamHttpClientConfig.PoolConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ClientHttpRequestFactory} routing each request to the pooled Apache HTTP client of its
+ * upstream, determined by the longest configured base url the request uri starts with. Pool usage
+ * and request latency are exposed per upstream.
+ */
+@Component
+public class UpstreamClientHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+
+  private static final String DEFAULT_UPSTREAM = "default";
+  private static final String METRIC_PREFIX = "upstream.http";
+  private static final String UPSTREAM_TAG = "upstream";
+
+  private final List<UpstreamPool> upstreamPools = new ArrayList<>();
+  private final UpstreamPool defaultPool;
+  private final MeterRegistry meterRegistry;
+
+  public UpstreamClientHttpRequestFactory(
+      UpstreamHttpClientConfig upstreamHttpClientConfig, MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    var defaults = upstreamHttpClientConfig.getDefaults();
+    upstreamHttpClientConfig.getServices().entrySet().stream()
+        .filter(service -> isNotBlank(service.getValue().getBaseUrl()))
+        .map(
+            service ->
+                new UpstreamPool(
+                    service.getKey(),
+                    service.getValue().getBaseUrl(),
+                    service.getValue().withDefaults(defaults)))
+        .sorted(Comparator.comparingInt((UpstreamPool pool) -> pool.baseUrl.length()).reversed())
+        .forEach(upstreamPools::add);
+    this.defaultPool = new UpstreamPool(DEFAULT_UPSTREAM, "", defaults);
+  }
+
+  @Override
+  public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+    var upstreamPool = resolvePool(uri);
+    return new InstrumentedClientHttpRequest(
+        upstreamPool.requestFactory.createRequest(uri, httpMethod), upstreamPool.name);
+  }
+
+  private UpstreamPool resolvePool(URI uri) {
+    var requestUrl = uri.toString();
+    return upstreamPools.stream()
+        .filter(pool -> requestUrl.startsWith(pool.baseUrl))
+        .findFirst()
+        .orElse(defaultPool);
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    for (UpstreamPool upstreamPool : upstreamPools) {
+      upstreamPool.httpClient.close();
+    }
+    defaultPool.httpClient.close();
+  }
+
+  private class UpstreamPool {
+
+    private final String name;
+    private final String baseUrl;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    private UpstreamPool(String name, String baseUrl, PoolConfig poolConfig) {
+      this.name = name;
+      this.baseUrl = baseUrl;
+      var connectionManager = new PoolingHttpClientConnectionManager();
+      connectionManager.setMaxTotal(poolConfig.getMaxTotal());
+      connectionManager.setDefaultMaxPerRoute(poolConfig.getMaxPerRoute());
+      var keepAliveMillis = poolConfig.getKeepAlive().toMillis();
+      this.httpClient =
+          HttpClientBuilder.create()
+              .setConnectionManager(connectionManager)
+              .setDefaultRequestConfig(
+                  RequestConfig.custom()
+                      .setConnectTimeout((int) poolConfig.getConnectTimeout().toMillis())
+                      .setSocketTimeout((int) poolConfig.getReadTimeout().toMillis())
+                      .setConnectionRequestTimeout(
+                          (int) poolConfig.getPoolAcquireTimeout().toMillis())
+                      .build())
+              .setKeepAliveStrategy(
+                  (response, context) -> {
+                    var serverKeepAlive =
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(
+                            response, context);
+                    return serverKeepAlive > 0
+                        ? Math.min(serverKeepAlive, keepAliveMillis)
+                        : keepAliveMillis;
+                  })
+              .evictExpiredConnections()
+              .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+              .useSystemProperties()
+              .build();
+      this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+      registerPoolGauge(name, "leased", connectionManager, PoolStats::getLeased);
+      registerPoolGauge(name, "pending", connectionManager, PoolStats::getPending);
+      registerPoolGauge(name, "available", connectionManager, PoolStats::getAvailable);
+      registerPoolGauge(name, "max", connectionManager, PoolStats::getMax);
+    }
+
+    private void registerPoolGauge(
+        String name,
+        String state,
+        PoolingHttpClientConnectionManager connectionManager,
+        ToDoubleFunction<PoolStats> value) {
+      Gauge.builder(
+              METRIC_PREFIX + ".pool.connections",
+              connectionManager,
+              manager -> value.applyAsDouble(manager.getTotalStats()))
+          .tag(UPSTREAM_TAG, name)
+          .tag("state", state)
+          .register(meterRegistry);
+    }
+  }
+
+  private class InstrumentedClientHttpRequest implements ClientHttpRequest {
+
+    private final ClientHttpRequest delegate;
+    private final String upstream;
+
+    private InstrumentedClientHttpRequest(ClientHttpRequest delegate, String upstream) {
+      this.delegate = delegate;
+      this.upstream = upstream;
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      var sample = Timer.start(meterRegistry);
+      var outcome = "IO_ERROR";
+      try {
+        var response = delegate.execute();
+        var series = HttpStatus.Series.resolve(response.getRawStatusCode());
+        outcome = nonNull(series) ? series.name() : "UNKNOWN";
+        return response;
+      } finally {
+        sample.stop(
+            Timer.builder(METRIC_PREFIX + ".requests")
+                .description("Latency of requests to upstream services")
+                .tag(UPSTREAM_TAG, upstream)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+      }
+    }
+
+    @Override
+    public OutputStream getBody() throws IOException {
+      return delegate.getBody();
+    }
+
+    @Override
+    public String getMethodValue() {
+      return delegate.getMethodValue();
+    }
+
+    @Override
+    public URI getURI() {
+      return delegate.getURI();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package de.caritas.cob.userservice.api.config.apiclient;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Connection pool configuration of the HTTP clients used for the upstream services. Each upstream
+ * is identified by its base url and gets its own pool, all other requests share the default pool.
+ */
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "upstream.http")
+public class UpstreamHttpClientConfig {
+
+  @Valid @NotNull private PoolConfig defaults = new PoolConfig();
+
+  @Valid @NotNull private Map<String, UpstreamConfig> services = new LinkedHashMap<>();
+
+  /** Pool and timeout settings of one upstream. */
+  @Data
+  public static class PoolConfig {
+
+    @Positive private Integer maxTotal;
+    @Positive private Integer maxPerRoute;
+    private Duration connectTimeout;
+    private Duration readTimeout;
+    private Duration poolAcquireTimeout;
+    private Duration keepAlive;
+
+    /**
+     * Returns a copy of this configuration with all unset values taken from the given defaults.
+     *
+     * @param defaults the default configuration
+     * @return the merged {@link PoolConfig}
+     */
+    public PoolConfig withDefaults(PoolConfig defaults) {
+      var merged = new PoolConfig();
+      merged.setMaxTotal(valueOrDefault(maxTotal, defaults.getMaxTotal()));
+      merged.setMaxPerRoute(valueOrDefault(maxPerRoute, defaults.getMaxPerRoute()));
+      merged.setConnectTimeout(valueOrDefault(connectTimeout, defaults.getConnectTimeout()));
+      merged.setReadTimeout(valueOrDefault(readTimeout, defaults.getReadTimeout()));
+      merged.setPoolAcquireTimeout(
+          valueOrDefault(poolAcquireTimeout, defaults.getPoolAcquireTimeout()));
+      merged.setKeepAlive(valueOrDefault(keepAlive, defaults.getKeepAlive()));
+      return merged;
+    }
+
+    private static <T> T valueOrDefault(T value, T defaultValue) {
+      return value != null ? value : defaultValue;
+    }
+  }
+
+  /** Pool and timeout settings of an upstream with the base url its requests are routed by. */
+  @Data
+  @EqualsAndHashCode(callSuper = true)
+  public static class UpstreamConfig extends PoolConfig {
+
+    private String baseUrl;
+  }
+}
@@ -1,65 +1,114 @@
 package de.caritas.cob.userservice.api.conversation.service.user.anonymous;
 
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
 import static java.lang.Integer.parseInt;
-import static java.util.Collections.sort;
 import static org.apache.commons.lang3.StringUtils.substringAfter;
 
 import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
+import de.caritas.cob.userservice.api.port.out.AnonymousUsernameAllocationRepository;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import de.caritas.cob.userservice.api.service.user.UserService;
-import java.util.LinkedList;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
-
-/** Registry to generate, hold and handle all current anonymous usernames. */
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Registry to generate and release anonymous usernames. The numbers of the usernames are allocated
+ * in the database, so every instance of the cluster hands out distinct names. Released numbers are
+ * handed out again, smallest first. New numbers are taken from blocks each instance reserves from a
+ * database sequence.
+ */
 @Component
-@RequiredArgsConstructor
 public class AnonymousUsernameRegistry {
 
-  private final @NonNull UserService userService;
-  private final @NonNull ConsultantService consultantService;
+  private static final int RELEASED_ID_CANDIDATES = 10;
+
+  private final UserService userService;
+  private final ConsultantService consultantService;
+  private final AnonymousUsernameAllocationRepository allocationRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int idBlockSize;
   private final UsernameTranscoder usernameTranscoder = new UsernameTranscoder();
+  private final AtomicReference<IdBlock> idBlock = new AtomicReference<>(IdBlock.EXHAUSTED);
 
   @Value("${anonymous.username.prefix}")
   private String usernamePrefix;
 
-  private static final LinkedList<Integer> ID_REGISTRY = new LinkedList<>();
+  public AnonymousUsernameRegistry(
+      UserService userService,
+      ConsultantService consultantService,
+      AnonymousUsernameAllocationRepository allocationRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${anonymous.username.id-block-size}") int idBlockSize) {
+    this.userService = userService;
+    this.consultantService = consultantService;
+    this.allocationRepository = allocationRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.idBlockSize = idBlockSize;
+  }
 
   /**
    * Generates an unique anonymous username.
    *
    * @return encoded unique anonymous username
    */
-  public synchronized String generateUniqueUsername() {
+  public String generateUniqueUsername() {
 
     String username;
     do {
-      username = generateUsername();
-      ID_REGISTRY.add(obtainUsernameId(username));
+      username = usernamePrefix + claimReleasedId().orElseGet(this::allocateNewId);
     } while (isUsernameOccupied(username));
 
     return usernameTranscoder.encodeUsername(username);
   }
 
-  private String generateUsername() {
-    return usernamePrefix + obtainSmallestPossibleId();
+  private Optional<Integer> claimReleasedId() {
+    var now = nowInUtc();
+    return allocationRepository.findReleasedIds(PageRequest.of(0, RELEASED_ID_CANDIDATES)).stream()
+        .filter(id -> inNewTransaction(() -> allocationRepository.claimReleased(id, now)) > 0)
+        .findFirst();
   }
 
-  private int obtainSmallestPossibleId() {
-
-    var smallestId = 1;
-    sort(ID_REGISTRY);
+  private int allocateNewId() {
+    while (true) {
+      var id = nextIdOfBlock();
+      try {
+        inNewTransaction(() -> allocationRepository.insert(id, false, nowInUtc()));
+        return id;
+      } catch (DataIntegrityViolationException e) {
+        // the number has been released before it was allocated by this registry
+      }
+    }
+  }
 
-    for (int i : ID_REGISTRY) {
-      if (smallestId < i) {
-        return smallestId;
+  private int nextIdOfBlock() {
+    while (true) {
+      var block = idBlock.get();
+      var id = block.next();
+      if (id.isPresent()) {
+        return id.get();
+      }
+      synchronized (idBlock) {
+        if (idBlock.get() == block) {
+          idBlock.set(reserveIdBlock());
+        }
       }
-      smallestId = i + 1;
     }
+  }
 
-    return smallestId;
+  private IdBlock reserveIdBlock() {
+    var blockNumber = allocationRepository.nextBlock().longValue();
+    var firstId = Math.toIntExact(blockNumber * idBlockSize + 1);
+    return new IdBlock(firstId, firstId + idBlockSize);
   }
 
   private boolean isUsernameOccupied(String username) {
@@ -72,17 +121,56 @@ public class AnonymousUsernameRegistry {
   }
 
   /**
-   * Removes a name from the registry.
+   * Releases the number of a username, so it can be handed out again.
    *
    * @param encodedUsername the encoded username to remove from the registry
    */
-  public synchronized void removeRegistryIdByUsername(String encodedUsername) {
+  public void removeRegistryIdByUsername(String encodedUsername) {
+    obtainRegistryId(encodedUsername).ifPresent(this::release);
+  }
+
+  private Optional<Integer> obtainRegistryId(String encodedUsername) {
     try {
       var decodedUsername = usernameTranscoder.decodeUsername(encodedUsername);
-      Integer usernameId = obtainUsernameId(decodedUsername);
-      ID_REGISTRY.remove(usernameId);
+      return Optional.of(obtainUsernameId(decodedUsername));
     } catch (Exception ex) {
-      // do nothing
+      return Optional.empty();
+    }
+  }
+
+  private void release(int id) {
+    var now = nowInUtc();
+    if (inNewTransaction(() -> allocationRepository.release(id, now)) > 0) {
+      return;
+    }
+    try {
+      inNewTransaction(() -> allocationRepository.insert(id, true, now));
+    } catch (DataIntegrityViolationException e) {
+      // the number is already released
+    }
+  }
+
+  private int inNewTransaction(Supplier<Integer> statement) {
+    var result = transactionTemplate.execute(status -> statement.get());
+    return result == null ? 0 : result;
+  }
+
+  /** Range of new username numbers reserved by this instance. */
+  private static class IdBlock {
+
+    private static final IdBlock EXHAUSTED = new IdBlock(0, 0);
+
+    private final AtomicInteger nextId;
+    private final int endExclusive;
+
+    private IdBlock(int firstId, int endExclusive) {
+      this.nextId = new AtomicInteger(firstId);
+      this.endExclusive = endExclusive;
+    }
+
+    private Optional<Integer> next() {
+      var id = nextId.getAndIncrement();
+      return id < endExclusive ? Optional.of(id) : Optional.empty();
     }
   }
 }
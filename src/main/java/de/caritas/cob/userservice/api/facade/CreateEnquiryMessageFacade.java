@@ -405,6 +405,7 @@ public class CreateEnquiryMessageFacade {
       }
       setSessionStatusInProgressIfConsultantIsAlreadyAssigned(session);
       sessionService.saveSession(session);
+      sessionService.updateLastMessageDate(rcGroupId);
     } catch (InternalServerErrorException exception) {
       throw new CreateEnquiryException(
           String.format(
@@ -12,15 +12,18 @@ import de.caritas.cob.userservice.api.exception.httpresponses.BadRequestExceptio
 import de.caritas.cob.userservice.api.exception.httpresponses.ForbiddenException;
 import de.caritas.cob.userservice.api.exception.httpresponses.NotFoundException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatGetGroupMembersException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.NotificationsAware;
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.User;
+import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
 import de.caritas.cob.userservice.api.port.out.IdentityClient;
 import de.caritas.cob.userservice.api.port.out.IdentityClientConfig;
 import de.caritas.cob.userservice.api.service.ConsultantAgencyService;
 import de.caritas.cob.userservice.api.service.ConsultantService;
+import de.caritas.cob.userservice.api.service.agency.AgencyService;
 import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggle;
 import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggleService;
 import de.caritas.cob.userservice.api.service.emailsupplier.AssignEnquiryEmailSupplier;
@@ -32,7 +35,7 @@ import de.caritas.cob.userservice.api.service.emailsupplier.NewMessageEmailSuppl
 import de.caritas.cob.userservice.api.service.emailsupplier.ReassignmentConfirmationEmailSupplier;
 import de.caritas.cob.userservice.api.service.emailsupplier.ReassignmentRequestEmailSupplier;
 import de.caritas.cob.userservice.api.service.emailsupplier.TenantTemplateSupplier;
-import de.caritas.cob.userservice.api.service.helper.MailService;
+import de.caritas.cob.userservice.api.service.helper.MailDispatcher;
 import de.caritas.cob.userservice.api.service.session.SessionService;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
 import de.caritas.cob.userservice.api.tenant.TenantData;
@@ -60,7 +63,7 @@ public class EmailNotificationFacade {
   @Value("${rocket.systemuser.id}")
   private String rocketChatSystemUserId;
 
-  private final @NonNull MailService mailService;
+  private final @NonNull MailDispatcher mailDispatcher;
   private final @NonNull SessionService sessionService;
   private final @NonNull ConsultantAgencyService consultantAgencyService;
   private final @NonNull ConsultantService consultantService;
@@ -68,10 +71,10 @@ public class EmailNotificationFacade {
   private final @NonNull ConsultingTypeManager consultingTypeManager;
   private final @NonNull IdentityClient identityClient;
   private final @NonNull IdentityClientConfig identityClientConfig;
-  private final @NonNull NewEnquiryEmailSupplier newEnquiryEmailSupplier;
-  private final @NonNull NewDirectEnquiryEmailSupplier newDirectEnquiryEmailSupplier;
-  private final @NonNull AssignEnquiryEmailSupplier assignEnquiryEmailSupplier;
+  private final @NonNull ConsultantAgencyRepository consultantAgencyRepository;
+  private final @NonNull AgencyService agencyService;
   private final @NonNull TenantTemplateSupplier tenantTemplateSupplier;
+  private final @NonNull RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   private final @NonNull ReleaseToggleService releaseToggleService;
 
@@ -94,7 +97,16 @@ public class EmailNotificationFacade {
             "Preparing to send NEW_ENQUIRY_EMAIL_NOTIFICATION email for session: {}",
             session.getId());
         TenantContext.setCurrentTenantData(tenantData);
-        newEnquiryEmailSupplier.setCurrentSession(session);
+        var newEnquiryEmailSupplier =
+            NewEnquiryEmailSupplier.builder()
+                .session(session)
+                .consultantAgencyRepository(consultantAgencyRepository)
+                .agencyService(agencyService)
+                .releaseToggleService(releaseToggleService)
+                .applicationBaseUrl(applicationBaseUrl)
+                .multiTenancyEnabled(multiTenancyEnabled)
+                .tenantTemplateSupplier(tenantTemplateSupplier)
+                .build();
         sendMailTasksToMailService(newEnquiryEmailSupplier);
         TenantContext.clear();
       } catch (Exception ex) {
@@ -117,9 +129,17 @@ public class EmailNotificationFacade {
 
     try {
       TenantContext.setCurrentTenantData(tenantData);
-      newDirectEnquiryEmailSupplier.setAgencyId(agencyId);
-      newDirectEnquiryEmailSupplier.setConsultantId(consultantId);
-      newDirectEnquiryEmailSupplier.setPostCode(postCode);
+      var newDirectEnquiryEmailSupplier =
+          NewDirectEnquiryEmailSupplier.builder()
+              .agencyId(agencyId)
+              .consultantId(consultantId)
+              .postCode(postCode)
+              .consultantAgencyRepository(consultantAgencyRepository)
+              .releaseToggleService(releaseToggleService)
+              .applicationBaseUrl(applicationBaseUrl)
+              .multiTenancyEnabled(multiTenancyEnabled)
+              .tenantTemplateSupplier(tenantTemplateSupplier)
+              .build();
       sendMailTasksToMailService(newDirectEnquiryEmailSupplier);
       TenantContext.clear();
     } catch (Exception ex) {
@@ -135,7 +155,7 @@ public class EmailNotificationFacade {
       log.info(
           "Sending email notifications with mailDTOs. MailSupplier class: {}",
           mailsToSend.getClass());
-      mailService.sendEmailNotification(mailsDTO);
+      mailDispatcher.dispatch(mailsDTO);
     }
   }
 
@@ -152,8 +172,10 @@ public class EmailNotificationFacade {
   public void sendNewMessageNotification(
       String rcGroupId, Set<String> roles, String userId, TenantData tenantData) {
     TenantContext.setCurrentTenantData(tenantData);
+    rocketChatRoomInformationProvider.evictRocketChatInformationOfRoom(rcGroupId);
     try {
       Session session = sessionService.getSessionByGroupIdAndUser(rcGroupId, userId, roles);
+      sessionService.updateLastMessageDate(rcGroupId);
       EmailSupplier newMessageMails =
           NewMessageEmailSupplier.builder()
               .session(session)
@@ -199,6 +221,7 @@ public class EmailNotificationFacade {
   public void sendNewFeedbackMessageNotification(
       String rcFeedbackGroupId, String userId, TenantData tenantData) {
     TenantContext.setCurrentTenantData(tenantData);
+    rocketChatRoomInformationProvider.evictRocketChatInformationOfRoom(rcFeedbackGroupId);
     try {
       Session session = sessionService.getSessionByFeedbackGroupId(rcFeedbackGroupId);
       EmailSupplier newFeedbackMessages =
@@ -239,9 +262,16 @@ public class EmailNotificationFacade {
     log.info(
         "Preparing to send ASSIGN_ENQUIRY_NOTIFICATION email to consultant: {}",
         receiverConsultant != null ? receiverConsultant.getId() : "No consultant selected");
-    assignEnquiryEmailSupplier.setReceiverConsultant(receiverConsultant);
-    assignEnquiryEmailSupplier.setSenderUserId(senderUserId);
-    assignEnquiryEmailSupplier.setAskerUserName(askerUserName);
+    var assignEnquiryEmailSupplier =
+        AssignEnquiryEmailSupplier.builder()
+            .receiverConsultant(receiverConsultant)
+            .senderUserId(senderUserId)
+            .askerUserName(askerUserName)
+            .consultantService(consultantService)
+            .applicationBaseUrl(applicationBaseUrl)
+            .multiTenancyEnabled(multiTenancyEnabled)
+            .tenantTemplateSupplier(tenantTemplateSupplier)
+            .build();
     try {
       sendMailTasksToMailService(assignEnquiryEmailSupplier);
     } catch (Exception exception) {
@@ -14,6 +14,7 @@ import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatLeaveFromGr
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatRemoveSystemMessagesException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatRemoveUserFromGroupException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatUserNotInitializedException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.service.LogService;
 import java.util.List;
 import lombok.NonNull;
@@ -26,6 +27,7 @@ import org.springframework.stereotype.Service;
 public class RocketChatFacade {
 
   private final @NonNull RocketChatService rocketChatService;
+  private final @NonNull RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   /**
    * Adds the provided user to the Rocket.Chat group with given groupId.
@@ -38,6 +40,7 @@ public class RocketChatFacade {
       addTechnicalUserToGroup(groupId);
       rocketChatService.addUserToGroup(rcUserId, groupId);
       leaveFromGroupAsTechnicalUser(groupId);
+      rocketChatRoomInformationProvider.evictRocketChatInformation(rcUserId);
     } catch (RocketChatAddUserToGroupException addUserEx) {
       var message =
           String.format(
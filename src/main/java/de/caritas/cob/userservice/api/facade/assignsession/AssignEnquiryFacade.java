@@ -3,7 +3,6 @@ package de.caritas.cob.userservice.api.facade.assignsession;
 import static de.caritas.cob.userservice.api.model.Session.SessionStatus.IN_PROGRESS;
 import static de.caritas.cob.userservice.api.model.Session.SessionStatus.NEW;
 import static java.util.Objects.nonNull;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import de.caritas.cob.userservice.api.adapters.rocketchat.dto.group.GroupMemberDTO;
 import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatRemoveFromGroupOperationService;
@@ -22,7 +21,6 @@ import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.statisticsservice.generated.web.model.UserRole;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
 import javax.servlet.http.HttpServletRequest;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +44,7 @@ public class AssignEnquiryFacade {
   private final @NonNull StatisticsService statisticsService;
   private final @NonNull TenantContextProvider tenantContextProvider;
   private final @NonNull HttpServletRequest httpServletRequest;
+  private final @NonNull AssignEnquiryTaskRunner assignEnquiryTaskRunner;
 
   /**
    * Assigns the given {@link Session} session to the given {@link Consultant}. Remove all other
@@ -69,7 +68,8 @@ public class AssignEnquiryFacade {
     var requestURI = httpServletRequest.getRequestURI();
     var requestReferer = httpServletRequest.getHeader(HttpHeaders.REFERER);
     assignEnquiry(session, consultant, skipConsultantAssignmentAndSessionInProgressCheck);
-    supplyAsync(updateRocketChatRooms(session, consultant, TenantContext.getCurrentTenant()))
+    assignEnquiryTaskRunner
+        .runAsync(updateRocketChatRooms(session, consultant, TenantContext.getCurrentTenant()))
         .thenRun(
             () -> {
               var event =
@@ -124,7 +124,7 @@ public class AssignEnquiryFacade {
     sessionService.updateConsultantAndStatusForSession(session, consultant, IN_PROGRESS);
   }
 
-  private Supplier<Object> updateRocketChatRooms(
+  private Runnable updateRocketChatRooms(
       Session session, Consultant consultant, Long currentTenantId) {
     return () -> {
       tenantContextProvider.setCurrentTenantContextIfMissing(currentTenantId);
@@ -132,7 +132,6 @@ public class AssignEnquiryFacade {
       if (session.hasFeedbackChat()) {
         updateRocketChatRooms(session.getFeedbackGroupId(), session, consultant);
       }
-      return null;
     };
   }
 
@@ -0,0 +1,74 @@
+package de.caritas.cob.userservice.api.facade.assignsession;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the Rocket.Chat updates of an enquiry assignment in the background on the dedicated assign
+ * enquiry executor. A task not finishing within the configured timeout is completed exceptionally
+ * and its thread is interrupted.
+ */
+@Slf4j
+@Component
+public class AssignEnquiryTaskRunner {
+
+  static final String TIMEOUT_METRIC = "assign.enquiry.task.timeout";
+
+  private final AsyncTaskExecutor assignEnquiryExecutor;
+  private final MeterRegistry meterRegistry;
+  private final Duration timeout;
+
+  public AssignEnquiryTaskRunner(
+      @Qualifier("assignEnquiryExecutor") AsyncTaskExecutor assignEnquiryExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${assign.enquiry.task.timeout}") Duration timeout) {
+    this.assignEnquiryExecutor = assignEnquiryExecutor;
+    this.meterRegistry = meterRegistry;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Starts the given task.
+   *
+   * @param task the task to run
+   * @return the future completing when the task has finished, exceptionally if it failed or timed
+   *     out
+   */
+  public CompletableFuture<Void> runAsync(Runnable task) {
+    var result = new CompletableFuture<Void>();
+    try {
+      var execution = assignEnquiryExecutor.submit(() -> run(task, result));
+      result
+          .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+          .whenComplete(
+              (ignored, exception) -> {
+                if (exception instanceof TimeoutException) {
+                  execution.cancel(true);
+                  meterRegistry.counter(TIMEOUT_METRIC).increment();
+                  log.warn("Assign enquiry task did not finish within {}", timeout);
+                }
+              });
+    } catch (TaskRejectedException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private void run(Runnable task, CompletableFuture<Void> result) {
+    try {
+      task.run();
+      result.complete(null);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package de.caritas.cob.userservice.api.facade.sessionlist;
+
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.ROCKET_CHAT_ROOM_INFORMATION_CACHE;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import de.caritas.cob.userservice.api.container.RocketChatRoomInformation;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import net.sf.ehcache.Ehcache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short living, tenant aware cache of the {@link RocketChatRoomInformation} per Rocket.Chat user.
+ */
+@Component
+public class RocketChatRoomInformationCache {
+
+  private static final String KEY_SEPARATOR = ":";
+
+  private final CacheManager cacheManager;
+
+  public RocketChatRoomInformationCache(CacheManager cacheManager) {
+    this.cacheManager = requireNonNull(cacheManager);
+  }
+
+  /**
+   * Returns the cached {@link RocketChatRoomInformation} of the given Rocket.Chat user or loads it
+   * with the given loader if absent.
+   *
+   * @param rcUserId the Rocket.Chat user id
+   * @param loader the loader to retrieve the information from Rocket.Chat
+   * @return the {@link RocketChatRoomInformation}
+   */
+  public RocketChatRoomInformation get(
+      String rcUserId, Supplier<RocketChatRoomInformation> loader) {
+    var cache = getCache();
+    if (cache == null) {
+      return loader.get();
+    }
+    try {
+      return cache.get(cacheKey(rcUserId), loader::get);
+    } catch (ValueRetrievalException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Evicts the cached information of the given Rocket.Chat user, e.g. after a room has been
+   * assigned.
+   *
+   * @param rcUserId the Rocket.Chat user id
+   */
+  public void evictUser(String rcUserId) {
+    if (nonNull(rcUserId)) {
+      evictIf(key -> key.endsWith(KEY_SEPARATOR + rcUserId), information -> true);
+    }
+  }
+
+  /**
+   * Evicts the cached information of all users who are members of the given Rocket.Chat room, e.g.
+   * after a message has been sent to the room.
+   *
+   * @param rcGroupId the Rocket.Chat group id
+   */
+  public void evictRoom(String rcGroupId) {
+    if (nonNull(rcGroupId)) {
+      evictIf(key -> true, information -> isMemberOfRoom(information, rcGroupId));
+    }
+  }
+
+  private boolean isMemberOfRoom(RocketChatRoomInformation information, String rcGroupId) {
+    return information.getUserRooms().contains(rcGroupId)
+        || information.getReadMessages().containsKey(rcGroupId);
+  }
+
+  private void evictIf(
+      Predicate<String> keyPredicate, Predicate<RocketChatRoomInformation> valuePredicate) {
+    var cache = getCache();
+    if (cache == null) {
+      return;
+    }
+    for (Object key : cachedKeys(cache)) {
+      var wrapper = cache.get(key);
+      if (keyPredicate.test(key.toString())
+          && nonNull(wrapper)
+          && wrapper.get() instanceof RocketChatRoomInformation
+          && valuePredicate.test((RocketChatRoomInformation) wrapper.get())) {
+        cache.evict(key);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> cachedKeys(Cache cache) {
+    var nativeCache = cache.getNativeCache();
+    if (nativeCache instanceof Ehcache) {
+      return ((Ehcache) nativeCache).getKeysWithExpiryCheck();
+    }
+    if (nativeCache instanceof Map) {
+      return new ArrayList<>(((Map<Object, Object>) nativeCache).keySet());
+    }
+    return emptyList();
+  }
+
+  private Cache getCache() {
+    return cacheManager.getCache(ROCKET_CHAT_ROOM_INFORMATION_CACHE);
+  }
+
+  private String cacheKey(String rcUserId) {
+    return TenantContext.getCurrentTenant() + KEY_SEPARATOR + rcUserId;
+  }
+}
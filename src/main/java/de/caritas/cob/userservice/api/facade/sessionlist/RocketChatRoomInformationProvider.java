@@ -2,8 +2,10 @@ package de.caritas.cob.userservice.api.facade.sessionlist;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatCredentials;
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
@@ -14,20 +16,32 @@ import de.caritas.cob.userservice.api.container.RocketChatRoomInformation;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RocketChatRoomInformationProvider {
 
   private final RocketChatService rocketChatService;
+  private final RocketChatRoomInformationCache rocketChatRoomInformationCache;
+  private final Executor rocketChatRoomInformationExecutor;
 
-  public RocketChatRoomInformationProvider(RocketChatService rocketChatService) {
+  public RocketChatRoomInformationProvider(
+      RocketChatService rocketChatService,
+      RocketChatRoomInformationCache rocketChatRoomInformationCache,
+      @Qualifier("rocketChatRoomInformationExecutor") Executor rocketChatRoomInformationExecutor) {
     this.rocketChatService = requireNonNull(rocketChatService);
+    this.rocketChatRoomInformationCache = requireNonNull(rocketChatRoomInformationCache);
+    this.rocketChatRoomInformationExecutor = requireNonNull(rocketChatRoomInformationExecutor);
   }
 
   /**
-   * Get room and update information from Rocket.Chat for a user.
+   * Get room and update information from Rocket.Chat for a user. The subscriptions and rooms are
+   * fetched in parallel and cached shortly per tenant and user.
    *
    * @param rocketChatCredentials the Rocket.Chat credentials of the user
    * @return an instance of {@link RocketChatRoomInformation}
@@ -35,13 +49,70 @@ public class RocketChatRoomInformationProvider {
   public RocketChatRoomInformation retrieveRocketChatInformation(
       RocketChatCredentials rocketChatCredentials) {
 
-    Map<String, Boolean> readMessages = emptyMap();
-    List<RoomsUpdateDTO> roomsForUpdate = emptyList();
+    if (isNull(rocketChatCredentials.getRocketChatUserId())) {
+      return buildRocketChatRoomInformation(emptyMap(), emptyList());
+    }
+
+    var credentials = detachedCopyOf(rocketChatCredentials);
+    return rocketChatRoomInformationCache.get(
+        credentials.getRocketChatUserId(), () -> fetchRocketChatInformation(credentials));
+  }
+
+  /**
+   * Evicts the cached room information of the given Rocket.Chat user.
+   *
+   * @param rcUserId the Rocket.Chat user id
+   */
+  public void evictRocketChatInformation(String rcUserId) {
+    rocketChatRoomInformationCache.evictUser(rcUserId);
+  }
 
-    if (nonNull(rocketChatCredentials.getRocketChatUserId())) {
-      readMessages = buildMessagesWithReadInfo(rocketChatCredentials);
-      roomsForUpdate = rocketChatService.getRoomsOfUser(rocketChatCredentials);
+  /**
+   * Evicts the cached room information of all users being member of the given Rocket.Chat group.
+   *
+   * @param rcGroupId the Rocket.Chat group id
+   */
+  public void evictRocketChatInformationOfRoom(String rcGroupId) {
+    rocketChatRoomInformationCache.evictRoom(rcGroupId);
+  }
+
+  /*
+   * The given credentials may be a request scoped proxy, which can not be resolved on another
+   * thread.
+   */
+  private RocketChatCredentials detachedCopyOf(RocketChatCredentials rocketChatCredentials) {
+    return RocketChatCredentials.builder()
+        .rocketChatToken(rocketChatCredentials.getRocketChatToken())
+        .rocketChatUserId(rocketChatCredentials.getRocketChatUserId())
+        .rocketChatUsername(rocketChatCredentials.getRocketChatUsername())
+        .timeStampCreated(rocketChatCredentials.getTimeStampCreated())
+        .build();
+  }
+
+  private RocketChatRoomInformation fetchRocketChatInformation(
+      RocketChatCredentials rocketChatCredentials) {
+    var readMessagesFuture =
+        supplyAsync(
+            () -> buildMessagesWithReadInfo(rocketChatCredentials),
+            rocketChatRoomInformationExecutor);
+    var roomsForUpdate = rocketChatService.getRoomsOfUser(rocketChatCredentials);
+
+    return buildRocketChatRoomInformation(join(readMessagesFuture), roomsForUpdate);
+  }
+
+  private Map<String, Boolean> join(CompletableFuture<Map<String, Boolean>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
     }
+  }
+
+  private RocketChatRoomInformation buildRocketChatRoomInformation(
+      Map<String, Boolean> readMessages, List<RoomsUpdateDTO> roomsForUpdate) {
 
     var userRooms = roomsForUpdate.stream().map(RoomsUpdateDTO::getId).collect(Collectors.toList());
     var lastMessagesRoom = getRcRoomLastMessages(roomsForUpdate);
@@ -218,6 +218,15 @@ public class SessionListFacade {
   public ConsultantSessionListResponseDTO retrieveSessionsDtoForAuthenticatedConsultant(
       Consultant consultant, SessionListQueryParameter sessionListQueryParameter) {
 
+    /* Pages of sessions in progress are cut by the database, the feedback filter needs the
+     * enriched Rocket.Chat data of all sessions and is still applied on the complete list.
+     */
+    if (SessionStatus.isStatusValueInProgress(sessionListQueryParameter.getSessionStatus())
+        && !isFeedbackFilter(sessionListQueryParameter)) {
+      return consultantSessionListService.retrieveActiveSessionsPageForAuthenticatedConsultant(
+          consultant, sessionListQueryParameter);
+    }
+
     List<ConsultantSessionResponseDTO> consultantSessions =
         consultantSessionListService.retrieveSessionsForAuthenticatedConsultant(
             consultant, sessionListQueryParameter);
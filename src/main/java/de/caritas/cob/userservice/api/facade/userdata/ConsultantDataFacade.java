@@ -6,16 +6,23 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import de.caritas.cob.userservice.api.adapters.web.dto.AbsenceDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.GroupSessionConsultantDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.GroupSessionListResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.GroupSessionResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.SessionConsultantForConsultantDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.SessionConsultantForUserDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UserSessionListResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.UserSessionResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.mapping.UserDtoMapper;
 import de.caritas.cob.userservice.api.helper.Helper;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.port.in.AccountManaging;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,55 +54,56 @@ public class ConsultantDataFacade {
   }
 
   public void addConsultantDisplayNameToSessionList(GroupSessionListResponseDTO groupSessionList) {
-    groupSessionList
-        .getSessions()
-        .forEach(
-            session -> {
-              var consultant = session.getConsultant();
-              if (nonNull(consultant) && nonNull(consultant.getUsername())) {
-                accountManager
-                    .findConsultantByUsername(consultant.getUsername())
-                    .ifPresent(
-                        consultantMap ->
-                            consultant.setDisplayName(userDtoMapper.displayNameOf(consultantMap)));
-              }
-            });
+    addDisplayNames(
+        groupSessionList.getSessions().stream().map(GroupSessionResponseDTO::getConsultant),
+        GroupSessionConsultantDTO::getUsername,
+        GroupSessionConsultantDTO::setDisplayName);
   }
 
   public void addConsultantDisplayNameToSessionList(UserSessionListResponseDTO userSessionsDTO) {
-    userSessionsDTO
-        .getSessions()
-        .forEach(
-            session -> {
-              var consultant = session.getConsultant();
-              if (nonNull(consultant) && nonNull(consultant.getUsername())) {
-                accountManager
-                    .findConsultantByUsername(consultant.getUsername())
-                    .ifPresent(
-                        consultantMap ->
-                            consultant.setDisplayName(userDtoMapper.displayNameOf(consultantMap)));
-              }
-            });
+    addDisplayNames(
+        userSessionsDTO.getSessions().stream().map(UserSessionResponseDTO::getConsultant),
+        SessionConsultantForUserDTO::getUsername,
+        SessionConsultantForUserDTO::setDisplayName);
   }
 
   public void addConsultantDisplayNameToSessionList(
       List<ConsultantSessionResponseDTO> consultantSessionResponseDTOs) {
-    consultantSessionResponseDTOs.stream()
-        .forEach(
-            session -> {
-              var chatOwner = session.getConsultant();
-              if (nonNull(chatOwner) && nonNull(chatOwner.getUsername())) {
-                try {
-                  Optional<Map<String, Object>> consultantByUsername =
-                      accountManager.findConsultantByUsername(chatOwner.getUsername());
-                  if (consultantByUsername.isPresent()) {
-                    chatOwner.setDisplayName(
-                        userDtoMapper.displayNameOf(consultantByUsername.get()));
-                  }
-                } catch (Exception e) {
-                  log.error("Error while fetching consultant by username: {}", e.getMessage());
-                }
-              }
-            });
+    try {
+      addDisplayNames(
+          consultantSessionResponseDTOs.stream().map(ConsultantSessionResponseDTO::getConsultant),
+          SessionConsultantForConsultantDTO::getUsername,
+          SessionConsultantForConsultantDTO::setDisplayName);
+    } catch (Exception e) {
+      log.error("Error while fetching consultants by username: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Resolves the display names of all consultants of a session list at once, instead of looking up
+   * each consultant on its own.
+   */
+  private <T> void addDisplayNames(
+      Stream<T> consultants,
+      Function<T, String> usernameOf,
+      BiConsumer<T, String> displayNameSetter) {
+    var consultantsWithUsername =
+        consultants
+            .filter(consultant -> nonNull(consultant) && nonNull(usernameOf.apply(consultant)))
+            .collect(Collectors.toList());
+    if (consultantsWithUsername.isEmpty()) {
+      return;
+    }
+
+    var usernames = consultantsWithUsername.stream().map(usernameOf).collect(Collectors.toSet());
+    var consultantMaps = accountManager.findConsultantsByUsernames(usernames);
+
+    consultantsWithUsername.forEach(
+        consultant -> {
+          var consultantMap = consultantMaps.get(usernameOf.apply(consultant));
+          if (nonNull(consultantMap)) {
+            displayNameSetter.accept(consultant, userDtoMapper.displayNameOf(consultantMap));
+          }
+        });
   }
 }
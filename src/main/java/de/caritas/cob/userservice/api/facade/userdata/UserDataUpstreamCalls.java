@@ -0,0 +1,85 @@
+package de.caritas.cob.userservice.api.facade.userdata;
+
+import static java.util.Objects.nonNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the independent upstream calls of the user data endpoint in parallel. Each call is bounded
+ * by a timeout. A call that fails or times out completes with a fallback value, so the user data
+ * can still be returned without the affected part.
+ */
+@Slf4j
+@Component
+public class UserDataUpstreamCalls {
+
+  static final String CALL_METRIC = "user.data.upstream.call";
+  static final String TIMEOUT_METRIC = "user.data.upstream.timeout";
+
+  private final Executor userDataExecutor;
+  private final MeterRegistry meterRegistry;
+  private final Duration timeout;
+
+  public UserDataUpstreamCalls(
+      @Qualifier("userDataExecutor") Executor userDataExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${user.data.upstream-call.timeout}") Duration timeout) {
+    this.userDataExecutor = userDataExecutor;
+    this.meterRegistry = meterRegistry;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Starts the given upstream call.
+   *
+   * @param call the name of the call used for logging and metrics
+   * @param supplier the upstream call
+   * @param fallback the result if the call fails or times out
+   * @param <T> the result type
+   * @return the future result of the call, never completing exceptionally
+   */
+  public <T> CompletableFuture<T> supply(String call, Supplier<T> supplier, T fallback) {
+    return CompletableFuture.supplyAsync(() -> timed(call, supplier), userDataExecutor)
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .exceptionally(exception -> fallback(call, exception, fallback));
+  }
+
+  private <T> T timed(String call, Supplier<T> supplier) {
+    var sample = Timer.start(meterRegistry);
+    var outcome = "success";
+    try {
+      return supplier.get();
+    } catch (RuntimeException exception) {
+      outcome = "error";
+      throw exception;
+    } finally {
+      sample.stop(meterRegistry.timer(CALL_METRIC, "call", call, "outcome", outcome));
+    }
+  }
+
+  private <T> T fallback(String call, Throwable exception, T fallback) {
+    var cause =
+        exception instanceof CompletionException && nonNull(exception.getCause())
+            ? exception.getCause()
+            : exception;
+    if (cause instanceof TimeoutException) {
+      meterRegistry.counter(TIMEOUT_METRIC, "call", call).increment();
+      log.warn("User data call {} did not respond within {}", call, timeout);
+    } else {
+      log.warn("User data call {} failed: {}", call, cause.getMessage());
+    }
+    return fallback;
+  }
+}
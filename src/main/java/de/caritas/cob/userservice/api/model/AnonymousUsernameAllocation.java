@@ -0,0 +1,37 @@
+package de.caritas.cob.userservice.api.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents a number of an anonymous username which has been handed out. Released numbers are
+ * handed out again before new ones are allocated.
+ */
+@Entity
+@Table(
+    name = "anonymous_username_allocation",
+    indexes = {@Index(columnList = "released, id", name = "released_id")})
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AnonymousUsernameAllocation {
+
+  @Id
+  @Column(name = "id", updatable = false, nullable = false)
+  private Integer id;
+
+  @Column(name = "released", nullable = false, columnDefinition = "tinyint")
+  private boolean released;
+
+  @Column(name = "update_date", nullable = false)
+  private LocalDateTime updateDate;
+}
@@ -1,6 +1,10 @@
 package de.caritas.cob.userservice.api.model;
 
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
 import static de.caritas.cob.userservice.api.model.Consultant.EMAIL_ANALYZER;
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_ANALYZER;
+import static de.caritas.cob.userservice.api.model.Consultant.INFIX_MAX_GRAM_SIZE;
+import static de.caritas.cob.userservice.api.model.Consultant.SORT_NORMALIZER;
 import static java.util.Objects.isNull;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -20,6 +24,7 @@ import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.OneToMany;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import javax.validation.constraints.Size;
@@ -29,18 +34,28 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
+import org.apache.lucene.analysis.core.KeywordTokenizerFactory;
 import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.ngram.NGramFilterFactory;
 import org.apache.lucene.analysis.standard.ClassicTokenizerFactory;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.Where;
+import org.hibernate.search.annotations.Analyze;
 import org.hibernate.search.annotations.Analyzer;
 import org.hibernate.search.annotations.AnalyzerDef;
+import org.hibernate.search.annotations.AnalyzerDefs;
 import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Fields;
 import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.annotations.IndexedEmbedded;
+import org.hibernate.search.annotations.Normalizer;
+import org.hibernate.search.annotations.NormalizerDef;
+import org.hibernate.search.annotations.Parameter;
 import org.hibernate.search.annotations.SortableField;
+import org.hibernate.search.annotations.SortableFields;
+import org.hibernate.search.annotations.Store;
 import org.hibernate.search.annotations.TokenFilterDef;
 import org.hibernate.search.annotations.TokenizerDef;
 import org.springframework.lang.Nullable;
@@ -61,9 +76,28 @@ import org.springframework.lang.Nullable;
 @Setter
 @Builder
 @Indexed
-@AnalyzerDef(
-    name = EMAIL_ANALYZER,
-    tokenizer = @TokenizerDef(factory = ClassicTokenizerFactory.class),
+@AnalyzerDefs({
+  @AnalyzerDef(
+      name = EMAIL_ANALYZER,
+      tokenizer = @TokenizerDef(factory = ClassicTokenizerFactory.class),
+      filters = {
+        @TokenFilterDef(factory = LowerCaseFilterFactory.class),
+      }),
+  @AnalyzerDef(
+      name = INFIX_ANALYZER,
+      tokenizer = @TokenizerDef(factory = KeywordTokenizerFactory.class),
+      filters = {
+        @TokenFilterDef(factory = LowerCaseFilterFactory.class),
+        @TokenFilterDef(
+            factory = NGramFilterFactory.class,
+            params = {
+              @Parameter(name = "minGramSize", value = "1"),
+              @Parameter(name = "maxGramSize", value = "" + INFIX_MAX_GRAM_SIZE)
+            }),
+      })
+})
+@NormalizerDef(
+    name = SORT_NORMALIZER,
     filters = {
       @TokenFilterDef(factory = LowerCaseFilterFactory.class),
     })
@@ -74,6 +108,17 @@ import org.springframework.lang.Nullable;
 public class Consultant implements TenantAware, NotificationsAware {
 
   protected static final String EMAIL_ANALYZER = "emailAnalyzer";
+  protected static final String INFIX_ANALYZER = "infixAnalyzer";
+  protected static final String SORT_NORMALIZER = "sortNormalizer";
+
+  /**
+   * Longest n-gram indexed in the infix fields, i.e. the "...Infix" fields contain every substring
+   * of the lower cased value up to this length.
+   */
+  public static final int INFIX_MAX_GRAM_SIZE = 20;
+
+  public static final String INFIX_SUFFIX = "Infix";
+  public static final String SORT_SUFFIX = "Sort";
 
   @Id
   @Column(name = "consultant_id", updatable = false, nullable = false)
@@ -96,23 +141,52 @@ public class Consultant implements TenantAware, NotificationsAware {
   @Column(name = "first_name", nullable = false)
   @Size(max = 255)
   @NonNull
-  @Field
-  @SortableField
+  @Fields({
+    @Field(store = Store.YES),
+    @Field(name = "firstName" + INFIX_SUFFIX, analyzer = @Analyzer(definition = INFIX_ANALYZER)),
+    @Field(
+        name = "firstName" + SORT_SUFFIX,
+        analyze = Analyze.NO,
+        normalizer = @Normalizer(definition = SORT_NORMALIZER))
+  })
+  @SortableFields({
+    @SortableField(forField = "firstName"),
+    @SortableField(forField = "firstName" + SORT_SUFFIX)
+  })
   private String firstName;
 
   @Column(name = "last_name", nullable = false)
   @Size(max = 255)
   @NonNull
-  @Field
-  @SortableField
+  @Fields({
+    @Field(store = Store.YES),
+    @Field(name = "lastName" + INFIX_SUFFIX, analyzer = @Analyzer(definition = INFIX_ANALYZER)),
+    @Field(
+        name = "lastName" + SORT_SUFFIX,
+        analyze = Analyze.NO,
+        normalizer = @Normalizer(definition = SORT_NORMALIZER))
+  })
+  @SortableFields({
+    @SortableField(forField = "lastName"),
+    @SortableField(forField = "lastName" + SORT_SUFFIX)
+  })
   private String lastName;
 
   @Column(name = "email", nullable = false)
   @Size(max = 255)
   @NonNull
-  @Field
-  @Analyzer(definition = EMAIL_ANALYZER)
-  @SortableField
+  @Fields({
+    @Field(store = Store.YES, analyzer = @Analyzer(definition = EMAIL_ANALYZER)),
+    @Field(name = "email" + INFIX_SUFFIX, analyzer = @Analyzer(definition = INFIX_ANALYZER)),
+    @Field(
+        name = "email" + SORT_SUFFIX,
+        analyze = Analyze.NO,
+        normalizer = @Normalizer(definition = SORT_NORMALIZER))
+  })
+  @SortableFields({
+    @SortableField(forField = "email"),
+    @SortableField(forField = "email" + SORT_SUFFIX)
+  })
   private String email;
 
   @Column(name = "is_absent", nullable = false, columnDefinition = "tinyint")
@@ -179,6 +253,7 @@ public class Consultant implements TenantAware, NotificationsAware {
 
   @Column(name = "tenant_id")
   @Field
+  @SortableField
   private Long tenantId;
 
   @OneToMany(mappedBy = "consultant", cascade = CascadeType.ALL)
@@ -208,6 +283,12 @@ public class Consultant implements TenantAware, NotificationsAware {
   @Column(name = "notifications_settings")
   private String notificationsSettings;
 
+  /** Marks every change, the search index reindexes changed entities by this date on startup. */
+  @PreUpdate
+  void touchUpdateDate() {
+    this.updateDate = nowInUtc();
+  }
+
   @JsonIgnore
   public String getFullName() {
     return (this.firstName + " " + this.lastName).trim();
@@ -1,9 +1,13 @@
 package de.caritas.cob.userservice.api.model;
 
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
+
+import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantAgencyIndexListener;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
@@ -11,6 +15,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PreUpdate;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -21,6 +26,7 @@ import lombok.Setter;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
+import org.hibernate.search.annotations.ContainedIn;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.FieldBridge;
 import org.hibernate.search.bridge.builtin.LongBridge;
@@ -28,6 +34,7 @@ import org.hibernate.search.bridge.builtin.LongBridge;
 /** Represents the relation between consultant and agency */
 @Entity
 @Table(name = "consultant_agency")
+@EntityListeners(ConsultantAgencyIndexListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -50,6 +57,7 @@ public class ConsultantAgency implements TenantAware {
 
   @ManyToOne
   @JoinColumn(name = "consultant_id", nullable = false)
+  @ContainedIn
   private Consultant consultant;
 
   @Column(name = "agency_id")
@@ -74,6 +82,12 @@ public class ConsultantAgency implements TenantAware {
   @Field
   private ConsultantAgencyStatus status = ConsultantAgencyStatus.IN_PROGRESS;
 
+  /** Marks every change, the search index reindexes changed entities by this date on startup. */
+  @PreUpdate
+  void touchUpdateDate() {
+    this.updateDate = nowInUtc();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
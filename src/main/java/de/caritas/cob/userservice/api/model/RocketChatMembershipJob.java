@@ -0,0 +1,66 @@
+package de.caritas.cob.userservice.api.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the job adding a consultant to the Rocket.Chat groups of the sessions of a newly
+ * assigned agency. The single group memberships are stored as {@link
+ * RocketChatMembershipOperation}.
+ */
+@Entity
+@Table(name = "rocket_chat_membership_job")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class RocketChatMembershipJob {
+
+  @Id
+  @SequenceGenerator(
+      name = "id_seq",
+      allocationSize = 1,
+      sequenceName = "sequence_rocket_chat_membership_job")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "id_seq")
+  @Column(name = "id", updatable = false, nullable = false)
+  private Long id;
+
+  @Column(name = "consultant_id", length = 36, nullable = false)
+  private String consultantId;
+
+  @Column(name = "agency_id", nullable = false)
+  private Long agencyId;
+
+  @Column(name = "tenant_id")
+  private Long tenantId;
+
+  @Column(name = "status", length = 9, nullable = false)
+  @Enumerated(EnumType.STRING)
+  private JobStatus status;
+
+  @Column(name = "create_date", nullable = false)
+  private LocalDateTime createDate;
+
+  @Column(name = "update_date", nullable = false)
+  private LocalDateTime updateDate;
+
+  public enum JobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+}
@@ -0,0 +1,85 @@
+package de.caritas.cob.userservice.api.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Represents a single pending or executed Rocket.Chat group membership of a consultant. */
+@Entity
+@Table(name = "rocket_chat_membership_operation")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class RocketChatMembershipOperation {
+
+  @Id
+  @SequenceGenerator(
+      name = "id_seq",
+      allocationSize = 1,
+      sequenceName = "sequence_rocket_chat_membership_operation")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "id_seq")
+  @Column(name = "id", updatable = false, nullable = false)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "job_id", nullable = false, updatable = false)
+  private RocketChatMembershipJob job;
+
+  @Column(name = "session_id", nullable = false)
+  private Long sessionId;
+
+  @Column(name = "rc_group_id", nullable = false)
+  private String rcGroupId;
+
+  @Column(name = "group_type", length = 14, nullable = false)
+  @Enumerated(EnumType.STRING)
+  private GroupType groupType;
+
+  @Column(name = "status", length = 9, nullable = false)
+  @Enumerated(EnumType.STRING)
+  private OperationStatus status;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "last_error", length = 1024)
+  private String lastError;
+
+  @Column(name = "update_date", nullable = false)
+  private LocalDateTime updateDate;
+
+  public enum GroupType {
+    GROUP,
+    FEEDBACK_GROUP
+  }
+
+  public enum OperationStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED
+  }
+
+  public interface OperationStatusCount {
+
+    OperationStatus getStatus();
+
+    long getAmount();
+  }
+}
@@ -0,0 +1,34 @@
+package de.caritas.cob.userservice.api.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Represents the cluster wide lease of a scheduled job. */
+@Entity
+@Table(name = "scheduler_lease")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class SchedulerLease {
+
+  @Id
+  @Column(name = "name", length = 64, updatable = false, nullable = false)
+  private String name;
+
+  @Column(name = "locked_until", nullable = false)
+  private LocalDateTime lockedUntil;
+
+  @Column(name = "locked_at", nullable = false)
+  private LocalDateTime lockedAt;
+
+  @Column(name = "locked_by", nullable = false)
+  private String lockedBy;
+}
@@ -38,6 +38,8 @@ import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 import org.hibernate.annotations.ParamDef;
 import org.springframework.lang.Nullable;
 
@@ -151,6 +153,20 @@ public class Session implements TenantAware {
   @Nullable
   private LocalDateTime enquiryMessageDate;
 
+  /**
+   * Date of the latest message in the Rocket.Chat group of the session. Initialized by the database
+   * on insert and only changed via {@link
+   * de.caritas.cob.userservice.api.port.out.SessionRepository#updateLastMessageDate}, so that
+   * saving a stale entity never resets it.
+   */
+  @Column(
+      name = "last_message_date",
+      insertable = false,
+      updatable = false,
+      columnDefinition = "datetime not null default current_timestamp")
+  @Generated(GenerationTime.INSERT)
+  private LocalDateTime lastMessageDate;
+
   @Column(name = "rc_group_id")
   private String groupId;
 
@@ -237,4 +253,14 @@ public class Session implements TenantAware {
   public boolean isAdvised(String adviceSeekerId) {
     return nonNull(user) && nonNull(adviceSeekerId) && adviceSeekerId.equals(user.getUserId());
   }
+
+  /** Aggregated open enquiries of one agency. */
+  public interface OpenEnquiriesOfAgency {
+
+    Long getAgencyId();
+
+    Long getAmountOfOpenEnquiries();
+
+    LocalDateTime getOldestEnquiryMessageDate();
+  }
 }
@@ -17,6 +17,8 @@ public interface AccountManaging {
 
   Optional<Map<String, Object>> findConsultantByUsername(String username);
 
+  Map<String, Map<String, Object>> findConsultantsByUsernames(Collection<String> usernames);
+
   Map<String, Object> findConsultantsByInfix(
       String infix,
       boolean shouldFilterByAgencies,
@@ -0,0 +1,69 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import de.caritas.cob.userservice.api.model.AnonymousUsernameAllocation;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface AnonymousUsernameAllocationRepository
+    extends CrudRepository<AnonymousUsernameAllocation, Integer> {
+
+  /**
+   * Reserves the next block of new username numbers for the calling instance.
+   *
+   * @return the number of the block, starting with 0
+   */
+  @Query(value = "SELECT NEXT VALUE FOR sequence_anonymous_username_block", nativeQuery = true)
+  Number nextBlock();
+
+  /**
+   * Finds the smallest released username numbers.
+   *
+   * @return the released numbers in ascending order
+   */
+  @Query("SELECT a.id FROM AnonymousUsernameAllocation a WHERE a.released = true ORDER BY a.id ASC")
+  List<Integer> findReleasedIds(Pageable pageable);
+
+  /**
+   * Hands out a released username number again.
+   *
+   * @return the number of updated allocations, 0 if another instance has been faster
+   */
+  @Modifying
+  @Query(
+      "UPDATE AnonymousUsernameAllocation a SET a.released = false, a.updateDate = :now "
+          + "WHERE a.id = :id AND a.released = true")
+  int claimReleased(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+  /**
+   * Releases a username number which has been handed out.
+   *
+   * @return the number of updated allocations, 0 if the number is unknown or already released
+   */
+  @Modifying
+  @Query(
+      "UPDATE AnonymousUsernameAllocation a SET a.released = true, a.updateDate = :now "
+          + "WHERE a.id = :id AND a.released = false")
+  int release(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+  /**
+   * Creates a new allocation. Fails with a constraint violation if the number has already been
+   * allocated.
+   *
+   * @return the number of created allocations
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO anonymous_username_allocation (id, released, update_date) "
+              + "VALUES (:id, :released, :now)",
+      nativeQuery = true)
+  int insert(
+      @Param("id") Integer id,
+      @Param("released") boolean released,
+      @Param("now") LocalDateTime now);
+}
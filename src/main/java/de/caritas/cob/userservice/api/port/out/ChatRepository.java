@@ -2,9 +2,11 @@ package de.caritas.cob.userservice.api.port.out;
 
 import de.caritas.cob.userservice.api.model.Chat;
 import de.caritas.cob.userservice.api.model.Consultant;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -45,5 +47,24 @@ public interface ChatRepository extends CrudRepository<Chat, Long> {
 
   List<Chat> findByChatOwner(Consultant chatOwner);
 
-  List<Chat> findAllByActiveIsTrue();
+  /**
+   * Finds the ids of the active chats whose duration has passed before the given date. The ids are
+   * ordered and start after the given id, so all chats can be read page by page.
+   *
+   * @param deactivationDate the date the end of the chats has to be before
+   * @param afterId the id the returned ids have to be greater than
+   * @param pageable the maximum number of ids
+   * @return the ids of the matching chats
+   */
+  @Query(
+      value =
+          "SELECT c.id FROM chat c WHERE c.is_active = true "
+              + "AND c.update_date < :deactivation_date "
+              + "AND TIMESTAMPADD(MINUTE, c.duration, c.update_date) < :deactivation_date "
+              + "AND c.id > :after_id ORDER BY c.id",
+      nativeQuery = true)
+  List<Number> findIdsOfActiveChatsEndedBefore(
+      @Param(value = "deactivation_date") LocalDateTime deactivationDate,
+      @Param(value = "after_id") long afterId,
+      Pageable pageable);
 }
@@ -6,6 +6,7 @@ import de.caritas.cob.userservice.api.model.ConsultantAgencyStatus;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 
 public interface ConsultantAgencyRepository extends CrudRepository<ConsultantAgency, Long> {
@@ -32,6 +33,10 @@ public interface ConsultantAgencyRepository extends CrudRepository<ConsultantAge
 
   List<ConsultantAgency> findByAgencyIdInAndDeleteDateIsNull(Collection<Long> agencyIds);
 
+  @EntityGraph(attributePaths = "consultant")
+  List<ConsultantAgency> findWithConsultantByAgencyIdInAndDeleteDateIsNull(
+      Collection<Long> agencyIds);
+
   List<ConsultantAgency> findByConsultantIdIn(Set<String> consultantIds);
 
   List<ConsultantAgency> findByConsultantIdInAndDeleteDateIsNull(Set<String> consultantIds);
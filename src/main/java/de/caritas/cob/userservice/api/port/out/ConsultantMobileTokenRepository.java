@@ -1,11 +1,26 @@
 package de.caritas.cob.userservice.api.port.out;
 
 import de.caritas.cob.userservice.api.model.ConsultantMobileToken;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ConsultantMobileTokenRepository
     extends CrudRepository<ConsultantMobileToken, Long> {
 
   Optional<ConsultantMobileToken> findByMobileAppToken(String mobileAppToken);
+
+  @Query(
+      "SELECT t.mobileAppToken FROM ConsultantMobileToken t "
+          + "WHERE t.consultant.id IN ?1 AND t.consultant.deleteDate IS NULL")
+  List<String> findMobileAppTokensByConsultantIds(Collection<String> consultantIds);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM ConsultantMobileToken t WHERE t.mobileAppToken IN ?1")
+  int deleteByMobileAppTokens(Collection<String> mobileAppTokens);
 }
@@ -17,10 +17,14 @@ public interface ConsultantRepository extends CrudRepository<Consultant, String>
 
   Optional<Consultant> findByRocketChatIdAndDeleteDateIsNull(String id);
 
+  List<Consultant> findByRocketChatIdInAndDeleteDateIsNull(Collection<String> ids);
+
   Optional<Consultant> findByEmailAndDeleteDateIsNull(String email);
 
   Optional<Consultant> findByUsernameAndDeleteDateIsNull(String username);
 
+  List<Consultant> findByUsernameInAndDeleteDateIsNull(Collection<String> usernames);
+
   List<Consultant> findByConsultantAgenciesAgencyIdInAndDeleteDateIsNull(List<Long> agencyIds);
 
   List<Consultant> findByConsultantAgenciesAgencyIdAndDeleteDateIsNull(Long agencyId);
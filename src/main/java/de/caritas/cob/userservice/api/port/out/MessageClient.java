@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.port.out;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +20,8 @@ public interface MessageClient {
 
   Optional<Boolean> isLoggedIn(String chatUserId);
 
+  Set<String> findLoggedInUserIds(Collection<String> chatUserIds);
+
   Set<String> findAllAvailableUserIds();
 
   Optional<Boolean> isAvailable(String chatUserId);
@@ -29,6 +32,8 @@ public interface MessageClient {
 
   Optional<Map<String, Object>> findUserAndAddToCache(String chatUserId);
 
+  Map<String, Map<String, Object>> findUsers(Collection<String> chatUserIds);
+
   Optional<List<Map<String, String>>> findAllChats(String chatUserId);
 
   boolean updateChatE2eKey(String chatUserId, String roomId, String key);
@@ -0,0 +1,32 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob.JobStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RocketChatMembershipJobRepository
+    extends CrudRepository<RocketChatMembershipJob, Long> {
+
+  Optional<RocketChatMembershipJob> findByConsultantIdAndAgencyId(
+      String consultantId, Long agencyId);
+
+  List<RocketChatMembershipJob> findByStatusAndUpdateDateBefore(
+      JobStatus status, LocalDateTime updateDate);
+
+  /**
+   * Marks a job as alive, so it is not resumed by another instance.
+   *
+   * @return the number of updated jobs
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE RocketChatMembershipJob j SET j.updateDate = :updateDate WHERE j.id = :id")
+  int refreshUpdateDate(@Param("id") Long id, @Param("updateDate") LocalDateTime updateDate);
+}
@@ -0,0 +1,44 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatusCount;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RocketChatMembershipOperationRepository
+    extends CrudRepository<RocketChatMembershipOperation, Long> {
+
+  List<RocketChatMembershipOperation> findByJobIdAndStatus(Long jobId, OperationStatus status);
+
+  @Query(
+      "SELECT o.status AS status, COUNT(o) AS amount FROM RocketChatMembershipOperation o "
+          + "WHERE o.job.id = :jobId GROUP BY o.status")
+  List<OperationStatusCount> countByJobIdGroupByStatus(@Param("jobId") Long jobId);
+
+  /**
+   * Stores the outcome of an attempt to execute the operation.
+   *
+   * @return the number of updated operations
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE RocketChatMembershipOperation o SET o.status = :status, o.attempts = :attempts, "
+          + "o.lastError = :lastError, o.updateDate = :updateDate WHERE o.id = :id")
+  int updateResult(
+      @Param("id") Long id,
+      @Param("status") OperationStatus status,
+      @Param("attempts") int attempts,
+      @Param("lastError") String lastError,
+      @Param("updateDate") LocalDateTime updateDate);
+
+  @Modifying
+  @Query("DELETE FROM RocketChatMembershipOperation o WHERE o.job.id = :jobId")
+  void deleteByJobId(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,59 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import de.caritas.cob.userservice.api.model.SchedulerLease;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface SchedulerLeaseRepository extends CrudRepository<SchedulerLease, String> {
+
+  /**
+   * Creates a new lease. Fails with a constraint violation if the lease has been created by another
+   * instance in the meantime.
+   *
+   * @return the number of created leases
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO scheduler_lease (name, locked_until, locked_at, locked_by) "
+              + "VALUES (:name, :lockedUntil, :now, :lockedBy)",
+      nativeQuery = true)
+  int insert(
+      @Param("name") String name,
+      @Param("lockedBy") String lockedBy,
+      @Param("now") LocalDateTime now,
+      @Param("lockedUntil") LocalDateTime lockedUntil);
+
+  /**
+   * Takes over an existing lease which has expired.
+   *
+   * @return the number of updated leases, 1 if the lease has been acquired
+   */
+  @Modifying
+  @Query(
+      "UPDATE SchedulerLease l SET l.lockedUntil = :lockedUntil, l.lockedAt = :now, "
+          + "l.lockedBy = :lockedBy WHERE l.name = :name AND l.lockedUntil <= :now")
+  int acquireExpired(
+      @Param("name") String name,
+      @Param("lockedBy") String lockedBy,
+      @Param("now") LocalDateTime now,
+      @Param("lockedUntil") LocalDateTime lockedUntil);
+
+  /**
+   * Moves the end of a lease held by the given holder.
+   *
+   * @return the number of updated leases, 0 if the lease is not held by the holder anymore
+   */
+  @Modifying
+  @Query(
+      "UPDATE SchedulerLease l SET l.lockedUntil = :lockedUntil "
+          + "WHERE l.name = :name AND l.lockedBy = :lockedBy AND l.lockedAt = :lockedAt")
+  int updateLockedUntil(
+      @Param("name") String name,
+      @Param("lockedBy") String lockedBy,
+      @Param("lockedAt") LocalDateTime lockedAt,
+      @Param("lockedUntil") LocalDateTime lockedUntil);
+}
@@ -2,14 +2,17 @@ package de.caritas.cob.userservice.api.port.out;
 
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.OpenEnquiriesOfAgency;
 import de.caritas.cob.userservice.api.model.Session.RegistrationType;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -34,6 +37,74 @@ public interface SessionRepository extends CrudRepository<Session, Long> {
    */
   List<Session> findByConsultantAndStatusIn(Consultant consultant, List<SessionStatus> statuses);
 
+  /**
+   * Find the first page of {@link Session}s of a consultant with the given statuses ordered by the
+   * date of the latest message descending. Together with {@link
+   * #findByConsultantAndStatusInBefore(Consultant, List, LocalDateTime, Long, Pageable)} this
+   * implements a keyset pagination backed by the index on (consultant_id, status,
+   * last_message_date, id).
+   *
+   * @param consultant {@link Consultant}
+   * @param statuses the {@link SessionStatus}es
+   * @param pageable the pagination object, only the page size is considered
+   * @return the first page of {@link Session}s
+   */
+  @Query(
+      "SELECT s FROM Session s WHERE s.consultant = :consultant AND s.status IN :statuses "
+          + "ORDER BY s.lastMessageDate DESC, s.id DESC")
+  List<Session> findByConsultantAndStatusInOrderByLastMessage(
+      @Param("consultant") Consultant consultant,
+      @Param("statuses") List<SessionStatus> statuses,
+      Pageable pageable);
+
+  /**
+   * Find the page of {@link Session}s of a consultant with the given statuses following the given
+   * keyset (last message date and id of the last session of the previous page) ordered by the date
+   * of the latest message descending.
+   *
+   * @param consultant {@link Consultant}
+   * @param statuses the {@link SessionStatus}es
+   * @param lastMessageDate the last message date of the last session of the previous page
+   * @param id the id of the last session of the previous page
+   * @param pageable the pagination object, only the page size is considered
+   * @return the next page of {@link Session}s
+   */
+  @Query(
+      "SELECT s FROM Session s WHERE s.consultant = :consultant AND s.status IN :statuses "
+          + "AND (s.lastMessageDate < :lastMessageDate "
+          + "OR (s.lastMessageDate = :lastMessageDate AND s.id < :id)) "
+          + "ORDER BY s.lastMessageDate DESC, s.id DESC")
+  List<Session> findByConsultantAndStatusInBefore(
+      @Param("consultant") Consultant consultant,
+      @Param("statuses") List<SessionStatus> statuses,
+      @Param("lastMessageDate") LocalDateTime lastMessageDate,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  /**
+   * Count the {@link Session}s of a consultant with the given statuses.
+   *
+   * @param consultant {@link Consultant}
+   * @param statuses the {@link SessionStatus}es
+   * @return the count
+   */
+  long countByConsultantAndStatusIn(Consultant consultant, List<SessionStatus> statuses);
+
+  /**
+   * Sets the date of the latest message of the session with the given Rocket.Chat group id, if the
+   * given date is newer than the stored one.
+   *
+   * @param groupId the Rocket.Chat group id
+   * @param lastMessageDate the date of the latest message
+   * @return the number of updated sessions
+   */
+  @Modifying
+  @Query(
+      "UPDATE Session s SET s.lastMessageDate = :lastMessageDate "
+          + "WHERE s.groupId = :groupId AND s.lastMessageDate < :lastMessageDate")
+  int updateLastMessageDate(
+      @Param("groupId") String groupId, @Param("lastMessageDate") LocalDateTime lastMessageDate);
+
   /**
    * Find a {@link Session} list by a consultant and a session status ordered by update date desc.
    *
@@ -198,9 +269,73 @@ public interface SessionRepository extends CrudRepository<Session, Long> {
   /** Find all sessions by a given {@link SessionStatus}. */
   List<Session> findByStatus(SessionStatus status);
 
-  /** Find all sessions by a given {@link SessionStatus} and {@link RegistrationType}. */
-  List<Session> findByStatusInAndRegistrationType(
-      Set<SessionStatus> status, RegistrationType registrationType);
+  /**
+   * Counts the sessions with the given {@link SessionStatus} and an enquiry message written before
+   * the given date per agency.
+   *
+   * @param status the {@link SessionStatus} to search for
+   * @param enquiryMessageDate the date the enquiry message has to be written before
+   * @return the {@link OpenEnquiriesOfAgency} of all agencies with matching sessions
+   */
+  @Query(
+      "SELECT s.agencyId AS agencyId, COUNT(s) AS amountOfOpenEnquiries, "
+          + "MIN(s.enquiryMessageDate) AS oldestEnquiryMessageDate FROM Session s "
+          + "WHERE s.status = :status AND s.enquiryMessageDate < :enquiryMessageDate "
+          + "GROUP BY s.agencyId")
+  List<OpenEnquiriesOfAgency> countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId(
+      @Param("status") SessionStatus status,
+      @Param("enquiryMessageDate") LocalDateTime enquiryMessageDate);
+
+  /**
+   * Finds the ids of the sessions with one of the given {@link SessionStatus}es and the given
+   * {@link RegistrationType} which have not been updated since the given date. The ids are ordered
+   * and start after the given id, so all sessions can be read page by page.
+   *
+   * @param statuses the {@link SessionStatus}es to search for
+   * @param registrationType the {@link RegistrationType} to search for
+   * @param updateDate the date the sessions have to be updated before
+   * @param afterId the id the returned ids have to be greater than
+   * @param pageable the maximum number of ids
+   * @return the ids of the matching sessions
+   */
+  @Query(
+      "SELECT s.id FROM Session s WHERE s.status IN :statuses "
+          + "AND s.registrationType = :registrationType AND s.updateDate < :updateDate "
+          + "AND s.id > :afterId ORDER BY s.id")
+  List<Long> findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+      @Param("statuses") Set<SessionStatus> statuses,
+      @Param("registrationType") RegistrationType registrationType,
+      @Param("updateDate") LocalDateTime updateDate,
+      @Param("afterId") long afterId,
+      Pageable pageable);
+
+  /**
+   * Finds the sessions with the given ids together with their users and consultants.
+   *
+   * @param ids the ids of the sessions
+   * @return the found {@link Session}s
+   */
+  @Query(
+      "SELECT s FROM Session s JOIN FETCH s.user LEFT JOIN FETCH s.consultant WHERE s.id IN :ids")
+  List<Session> findAllWithUserByIdIn(@Param("ids") List<Long> ids);
+
+  /**
+   * Sets the status of the sessions with the given ids, as long as they are still in one of the
+   * expected statuses.
+   *
+   * @param ids the ids of the sessions
+   * @param expectedStatuses the {@link SessionStatus}es the sessions have to be in
+   * @param status the new {@link SessionStatus}
+   * @return the number of updated sessions
+   */
+  @Modifying
+  @Query(
+      "UPDATE Session s SET s.status = :status "
+          + "WHERE s.id IN :ids AND s.status IN :expectedStatuses")
+  int updateStatus(
+      @Param("ids") List<Long> ids,
+      @Param("expectedStatuses") Set<SessionStatus> expectedStatuses,
+      @Param("status") SessionStatus status);
 
   /**
    * Count session by consultant, status and registration type.
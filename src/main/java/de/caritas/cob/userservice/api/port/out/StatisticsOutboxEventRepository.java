@@ -0,0 +1,27 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import de.caritas.cob.userservice.api.model.StatisticsOutboxEvent;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface StatisticsOutboxEventRepository
+    extends CrudRepository<StatisticsOutboxEvent, Long> {
+
+  List<StatisticsOutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+
+  /**
+   * Removes events which have been sent to the statistics queue.
+   *
+   * @return the number of removed events
+   */
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM StatisticsOutboxEvent e WHERE e.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,25 @@
 package de.caritas.cob.userservice.api.port.out;
 
 import de.caritas.cob.userservice.api.model.UserMobileToken;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserMobileTokenRepository extends CrudRepository<UserMobileToken, Long> {
 
   Optional<UserMobileToken> findByMobileAppToken(String mobileAppToken);
+
+  @Query(
+      "SELECT t.mobileAppToken FROM UserMobileToken t "
+          + "WHERE t.user.userId IN ?1 AND t.user.deleteDate IS NULL")
+  List<String> findMobileAppTokensByUserIds(Collection<String> userIds);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM UserMobileToken t WHERE t.mobileAppToken IN ?1")
+  int deleteByMobileAppTokens(Collection<String> mobileAppTokens);
 }
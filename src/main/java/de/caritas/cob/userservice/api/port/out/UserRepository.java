@@ -1,12 +1,17 @@
 package de.caritas.cob.userservice.api.port.out;
 
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends CrudRepository<User, String> {
 
@@ -16,8 +21,20 @@ public interface UserRepository extends CrudRepository<User, String> {
 
   Optional<User> findByRcUserIdAndDeleteDateIsNull(String rcUserId);
 
+  List<User> findByRcUserIdInAndDeleteDateIsNull(Collection<String> rcUserIds);
+
   List<User> findAllByDeleteDateNotNull();
 
+  @Query(
+      "SELECT u.mobileToken FROM User u "
+          + "WHERE u.userId IN ?1 AND u.deleteDate IS NULL AND u.mobileToken IS NOT NULL")
+  List<String> findMobileTokensByUserIds(Collection<String> userIds);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE User u SET u.mobileToken = NULL WHERE u.mobileToken IN ?1")
+  int clearMobileTokens(Collection<String> mobileTokens);
+
   Optional<User> findByUsernameInAndDeleteDateIsNull(Collection<String> usernames);
 
   /**
@@ -57,4 +74,40 @@ public interface UserRepository extends CrudRepository<User, String> {
               + "    AND s3.createDate >= ?1"
               + ")")
   List<User> findAllByDeleteDateNullAndNoRunningSessionsAndCreateDateOlderThan(LocalDateTime date);
+
+  /**
+   * Finds the ids of users having sessions which all have the given status and have not been
+   * updated since the given date. The ids are ordered and start after the given id, so they can be
+   * read in chunks.
+   *
+   * @param status the status of all sessions
+   * @param updateDate the date before which all sessions have been updated
+   * @param afterUserId the id after which the ids start
+   * @param pageable the size of the chunk
+   * @return the user ids in ascending order
+   */
+  @Query(
+      "SELECT u.userId FROM User u "
+          + "WHERE u.userId > :afterUserId "
+          + "  AND EXISTS (SELECT 1 FROM Session s1 WHERE u = s1.user) "
+          + "  AND NOT EXISTS ( "
+          + "    SELECT 1 FROM Session s2 "
+          + "    WHERE u = s2.user "
+          + "      AND (s2.status <> :status "
+          + "        OR s2.updateDate IS NULL "
+          + "        OR s2.updateDate >= :updateDate) "
+          + "  ) "
+          + "ORDER BY u.userId")
+  List<String> findUserIdsWithAllSessionsInStatusUpdatedBefore(
+      @Param("status") SessionStatus status,
+      @Param("updateDate") LocalDateTime updateDate,
+      @Param("afterUserId") String afterUserId,
+      Pageable pageable);
+
+  @Query(
+      "SELECT DISTINCT u FROM User u "
+          + "LEFT JOIN FETCH u.sessions s "
+          + "LEFT JOIN FETCH s.consultant "
+          + "WHERE u.userId IN :userIds")
+  List<User> findAllWithSessionsByUserIdIn(@Param("userIds") Collection<String> userIds);
 }
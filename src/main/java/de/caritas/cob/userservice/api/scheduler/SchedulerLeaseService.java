@@ -0,0 +1,160 @@
+package de.caritas.cob.userservice.api.scheduler;
+
+import de.caritas.cob.userservice.api.port.out.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs jobs under a database backed lease, so that a job is executed by only one instance of the
+ * cluster at a time. The lease of a running job is renewed periodically and expires after
+ * lock-at-most-for if the holding instance stops renewing it.
+ */
+@Slf4j
+@Service
+public class SchedulerLeaseService {
+
+  private static final String METRIC_PREFIX = "scheduler.lease";
+  private static final String JOB_TAG = "job";
+
+  private final SchedulerLeaseRepository schedulerLeaseRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
+  private final Duration heartbeatInterval;
+  private final String instanceId;
+  private final ScheduledExecutorService heartbeatExecutor;
+
+  public SchedulerLeaseService(
+      SchedulerLeaseRepository schedulerLeaseRepository,
+      PlatformTransactionManager transactionManager,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${scheduler.lease.heartbeat-interval}") Duration heartbeatInterval) {
+    this.schedulerLeaseRepository = schedulerLeaseRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.clock = clock;
+    this.meterRegistry = meterRegistry;
+    this.heartbeatInterval = heartbeatInterval;
+    this.instanceId = buildInstanceId();
+    this.heartbeatExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              var thread = new Thread(runnable, "SchedulerLeaseHeartbeat");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Runs the given job if the lease with the given name can be acquired, otherwise skips it.
+   *
+   * @param name the name of the lease
+   * @param lockAtMostFor the duration after which the lease expires if it is not renewed
+   * @param lockAtLeastFor the minimum duration the lease is held after the start of the job
+   * @param job the job to run
+   * @return true if the job has been run, false if the lease is held by another instance
+   */
+  public boolean runLocked(
+      String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+    var lockedAt = now();
+    if (!acquire(name, lockedAt, lockAtMostFor)) {
+      log.info("Skipping scheduler {}, lease is held by another instance", name);
+      meterRegistry.counter(METRIC_PREFIX + ".skipped", JOB_TAG, name).increment();
+      return false;
+    }
+    meterRegistry.counter(METRIC_PREFIX + ".acquired", JOB_TAG, name).increment();
+
+    var heartbeat =
+        heartbeatExecutor.scheduleAtFixedRate(
+            () -> renew(name, lockedAt, lockAtMostFor),
+            heartbeatInterval.toMillis(),
+            heartbeatInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    var sample = Timer.start(meterRegistry);
+    try {
+      job.run();
+      return true;
+    } finally {
+      sample.stop(meterRegistry.timer(METRIC_PREFIX + ".duration", JOB_TAG, name));
+      heartbeat.cancel(false);
+      release(name, lockedAt, lockAtLeastFor);
+    }
+  }
+
+  private boolean acquire(String name, LocalDateTime now, Duration lockAtMostFor) {
+    var lockedUntil = now.plus(lockAtMostFor);
+    try {
+      return Boolean.TRUE.equals(
+          transactionTemplate.execute(
+              status ->
+                  schedulerLeaseRepository.acquireExpired(name, instanceId, now, lockedUntil) > 0
+                      || (!schedulerLeaseRepository.existsById(name)
+                          && schedulerLeaseRepository.insert(name, instanceId, now, lockedUntil)
+                              > 0)));
+    } catch (DataIntegrityViolationException e) {
+      return false;
+    }
+  }
+
+  private void renew(String name, LocalDateTime lockedAt, Duration lockAtMostFor) {
+    try {
+      var renewed =
+          transactionTemplate.execute(
+              status ->
+                  schedulerLeaseRepository.updateLockedUntil(
+                      name, instanceId, lockedAt, now().plus(lockAtMostFor)));
+      if (renewed == null || renewed == 0) {
+        log.warn("Lease of scheduler {} has been taken over by another instance", name);
+      }
+    } catch (RuntimeException e) {
+      log.error("Could not renew lease of scheduler {}", name, e);
+    }
+  }
+
+  private void release(String name, LocalDateTime lockedAt, Duration lockAtLeastFor) {
+    var minimumLockedUntil = lockedAt.plus(lockAtLeastFor);
+    var now = now();
+    var lockedUntil = minimumLockedUntil.isAfter(now) ? minimumLockedUntil : now;
+    try {
+      transactionTemplate.execute(
+          status ->
+              schedulerLeaseRepository.updateLockedUntil(name, instanceId, lockedAt, lockedUntil));
+    } catch (RuntimeException e) {
+      log.error("Could not release lease of scheduler {}", name, e);
+    }
+  }
+
+  private LocalDateTime now() {
+    return LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS);
+  }
+
+  private static String buildInstanceId() {
+    var hostname = System.getenv("HOSTNAME");
+    var uuid = UUID.randomUUID().toString();
+    return StringUtils.isBlank(hostname) ? uuid : hostname + ":" + uuid;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    heartbeatExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,31 @@
+package de.caritas.cob.userservice.api.scheduler;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a scheduled method to run on only one instance of the cluster at a time. Instances which do
+ * not get the lease skip the execution.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SchedulerLock {
+
+  /** Unique name of the lease. */
+  String name();
+
+  /**
+   * Duration in ISO-8601 format after which the lease expires if the holding instance stops
+   * renewing it, e.g. because it crashed. Defaults to scheduler.lease.lock-at-most-for.
+   */
+  String lockAtMostFor() default "";
+
+  /**
+   * Minimum duration in ISO-8601 format the lease is held after the start of the job, to prevent
+   * instances with a slightly different clock from running the job again. Defaults to
+   * scheduler.lease.lock-at-least-for.
+   */
+  String lockAtLeastFor() default "";
+}
@@ -0,0 +1,59 @@
+package de.caritas.cob.userservice.api.scheduler;
+
+import java.time.Duration;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs methods annotated with {@link SchedulerLock} under the cluster wide lease of the annotation
+ * name. The lease is acquired before any transaction of the method is started.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SchedulerLockAspect {
+
+  private final @NonNull SchedulerLeaseService schedulerLeaseService;
+
+  @Value("${scheduler.lease.lock-at-most-for}")
+  private Duration defaultLockAtMostFor;
+
+  @Value("${scheduler.lease.lock-at-least-for}")
+  private Duration defaultLockAtLeastFor;
+
+  @Around("@annotation(de.caritas.cob.userservice.api.scheduler.SchedulerLock)")
+  public Object runLocked(ProceedingJoinPoint joinPoint) {
+    var method =
+        AopUtils.getMostSpecificMethod(
+            ((MethodSignature) joinPoint.getSignature()).getMethod(),
+            joinPoint.getTarget().getClass());
+    var schedulerLock = AnnotationUtils.findAnnotation(method, SchedulerLock.class);
+    schedulerLeaseService.runLocked(
+        schedulerLock.name(),
+        durationOrDefault(schedulerLock.lockAtMostFor(), defaultLockAtMostFor),
+        durationOrDefault(schedulerLock.lockAtLeastFor(), defaultLockAtLeastFor),
+        () -> proceed(joinPoint));
+    return null;
+  }
+
+  @SneakyThrows
+  private void proceed(ProceedingJoinPoint joinPoint) {
+    joinPoint.proceed();
+  }
+
+  private Duration durationOrDefault(String duration, Duration defaultDuration) {
+    return duration.isEmpty() ? defaultDuration : Duration.parse(duration);
+  }
+}
@@ -62,6 +62,17 @@ public class ConsultantAgencyService {
     return consultantAgencyRepository.findByAgencyIdInAndDeleteDateIsNull(agencyIds);
   }
 
+  /**
+   * Returns a {@link List} of {@link ConsultantAgency} for the provided agency IDs with their
+   * {@link Consultant} fetched by the same query.
+   *
+   * @param agencyIds list of agency Ids
+   * @return {@link List} of {@link ConsultantAgency}
+   */
+  public List<ConsultantAgency> getConsultantAgenciesWithConsultants(Collection<Long> agencyIds) {
+    return consultantAgencyRepository.findWithConsultantByAgencyIdInAndDeleteDateIsNull(agencyIds);
+  }
+
   /**
    * Returns an alphabetically sorted list of {@link ConsultantResponseDTO} depending on the
    * provided agencyId.
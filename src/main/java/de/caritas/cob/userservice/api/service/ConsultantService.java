@@ -10,6 +10,7 @@ import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantMobileToken;
 import de.caritas.cob.userservice.api.port.out.ConsultantMobileTokenRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -55,6 +56,16 @@ public class ConsultantService {
     return consultantRepository.findByRocketChatIdAndDeleteDateIsNull(rcUserId);
   }
 
+  /**
+   * Returns the {@link Consultant}s with the provided Rocket.Chat user IDs.
+   *
+   * @param rcUserIds Rocket.Chat user IDs
+   * @return the found {@link Consultant}s
+   */
+  public List<Consultant> findConsultantsByRcUserIds(Collection<String> rcUserIds) {
+    return consultantRepository.findByRocketChatIdInAndDeleteDateIsNull(rcUserIds);
+  }
+
   /**
    * Returns a {@link Consultant} by the provided email address.
    *
@@ -7,8 +7,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,8 +32,15 @@ public class DecryptionService {
   @Value("${service.encryption.appkey}")
   private String fragment_applicationKey;
 
+  @Value("${service.encryption.key-cache.max-entries}")
+  private int keyCacheMaxEntries = 10000;
+
   private String fragment_masterKey = INITIAL_MASTER_KEY;
 
+  private volatile SecretKeyCache secretKeyCache = new SecretKeyCache(INITIAL_MASTER_KEY);
+
+  private final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(this::createCipher);
+
   /**
    * Updates the master key fragment
    *
@@ -38,6 +48,7 @@ public class DecryptionService {
    */
   public void updateMasterKey(String masterKey) {
     this.fragment_masterKey = masterKey;
+    this.secretKeyCache = new SecretKeyCache(masterKey);
   }
 
   /**
@@ -61,19 +72,20 @@ public class DecryptionService {
   /**
    * Prepares the SecretKeySpec for a given key
    *
+   * @param masterKey the master key fragment
    * @param secret the key for the generation
    * @return The SecretKeySpec based on the key or <null> in case of an error
    * @throws NoSuchAlgorithmException
    * @throws UnsupportedEncodingException
    */
-  private SecretKeySpec generateSecretKeySpec(String secret)
+  private SecretKeySpec generateSecretKeySpec(String masterKey, String secret)
       throws UnsupportedEncodingException, NoSuchAlgorithmException {
 
-    if (getMasterKey().equals(INITIAL_MASTER_KEY)) {
+    if (masterKey.equals(INITIAL_MASTER_KEY)) {
       throw new NoMasterKeyException("No MasterKey found - please provide a MasterKey!");
     }
 
-    byte[] keyByte = (getMasterKey() + secret + getApplicationKey()).getBytes("UTF-8");
+    byte[] keyByte = (masterKey + secret + getApplicationKey()).getBytes("UTF-8");
     MessageDigest sha = MessageDigest.getInstance(MESSAGE_DIGEST_METHOD);
     keyByte = sha.digest(keyByte);
     keyByte = Arrays.copyOf(keyByte, 16);
@@ -96,10 +108,10 @@ public class DecryptionService {
     messageToDecrypt = messageToDecrypt.substring(ENCRYPTED_MESSAGE_FLAG.length());
 
     try {
-      SecretKeySpec keySpec = generateSecretKeySpec(secret);
-      Cipher cipher = Cipher.getInstance(CIPHER_METHODS);
-      cipher.init(Cipher.DECRYPT_MODE, keySpec);
-      return new String(cipher.doFinal(Base64.getDecoder().decode(messageToDecrypt)));
+      SecretKeySpec keySpec = secretKeyCache.get(secret);
+      Cipher threadCipher = cipher.get();
+      threadCipher.init(Cipher.DECRYPT_MODE, keySpec);
+      return new String(threadCipher.doFinal(Base64.getDecoder().decode(messageToDecrypt)));
     } catch (BadPaddingException e) {
       log.error("Encryption service error - possible bad key error: ", e);
       throw new CustomCryptoException(e);
@@ -108,4 +120,64 @@ public class DecryptionService {
       throw new CustomCryptoException(e);
     }
   }
+
+  /**
+   * Decrypts the given messages, each one with the id of its room as secret.
+   *
+   * @param messagesByRoomId the messages to decrypt by their room id
+   * @return the decrypted messages by their room id in the order of the given map
+   * @throws CustomCryptoException if one of the messages could not be decrypted
+   */
+  public Map<String, String> decryptAll(Map<String, String> messagesByRoomId)
+      throws CustomCryptoException {
+    var decryptedMessages = new LinkedHashMap<String, String>();
+    for (Map.Entry<String, String> message : messagesByRoomId.entrySet()) {
+      decryptedMessages.put(message.getKey(), decrypt(message.getValue(), message.getKey()));
+    }
+    return decryptedMessages;
+  }
+
+  private Cipher createCipher() {
+    try {
+      return Cipher.getInstance(CIPHER_METHODS);
+    } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+      throw new IllegalStateException("Cipher " + CIPHER_METHODS + " is not available", e);
+    }
+  }
+
+  /**
+   * Bounded cache of the keys derived for one master key. A new cache is created on every master
+   * key update, so keys of an outdated master key are never used.
+   */
+  private class SecretKeyCache {
+
+    private final String masterKey;
+    private final Map<String, SecretKeySpec> keys;
+
+    private SecretKeyCache(String masterKey) {
+      this.masterKey = masterKey;
+      this.keys =
+          new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SecretKeySpec> eldest) {
+              return size() > keyCacheMaxEntries;
+            }
+          };
+    }
+
+    private SecretKeySpec get(String secret)
+        throws UnsupportedEncodingException, NoSuchAlgorithmException {
+      synchronized (keys) {
+        var keySpec = keys.get(secret);
+        if (keySpec != null) {
+          return keySpec;
+        }
+      }
+      var keySpec = generateSecretKeySpec(masterKey, secret);
+      synchronized (keys) {
+        keys.put(secret, keySpec);
+      }
+      return keySpec;
+    }
+  }
 }
@@ -0,0 +1,135 @@
+package de.caritas.cob.userservice.api.service.agency;
+
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.AGENCIES_BY_CONSULTING_TYPE_CACHE;
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.AGENCY_CACHE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tenant aware cache of single {@link AgencyDTO} objects keyed by tenant and agency id. Missing
+ * agencies of a request are loaded with one call, so overlapping id lists share their entries.
+ */
+@Component
+public class AgencyCache {
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String METRIC_PREFIX = "agency.cache";
+
+  private final CacheManager cacheManager;
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Timer loadTimer;
+
+  public AgencyCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+    this.cacheManager = cacheManager;
+    this.hitCounter = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "hit");
+    this.missCounter = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "miss");
+    this.loadTimer = meterRegistry.timer(METRIC_PREFIX + ".load");
+  }
+
+  /**
+   * Returns the agencies of the given ids in the order of the ids. Agencies not cached yet are
+   * retrieved with a single call of the given loader. Duplicate ids are returned once, ids unknown
+   * to the loader are skipped.
+   *
+   * @param agencyIds the agency ids
+   * @param loader the loader to retrieve all missing agencies at once
+   * @return the agencies in the order of the given ids
+   */
+  public List<AgencyDTO> getAll(
+      List<Long> agencyIds, Function<List<Long>, List<AgencyDTO>> loader) {
+    var distinctIds = new LinkedHashSet<>(agencyIds);
+    var cache = cacheManager.getCache(AGENCY_CACHE);
+    var agencies = new HashMap<Long, AgencyDTO>();
+    var missingIds = new ArrayList<Long>();
+    for (Long agencyId : distinctIds) {
+      var cachedAgency = isNull(cache) ? null : cache.get(tenantKey(agencyId), AgencyDTO.class);
+      if (nonNull(cachedAgency)) {
+        agencies.put(agencyId, cachedAgency);
+      } else {
+        missingIds.add(agencyId);
+      }
+    }
+    hitCounter.increment(agencies.size());
+    missCounter.increment(missingIds.size());
+
+    if (!missingIds.isEmpty()) {
+      loadAndCache(missingIds, loader, cache, agencies);
+    }
+
+    return distinctIds.stream()
+        .map(agencies::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the agencies of the given consulting type. The ids of the agencies are cached per
+   * consulting type while the agencies themselves are shared with {@link #getAll(List, Function)}.
+   *
+   * @param consultingTypeId the consulting type id
+   * @param loader the loader to retrieve the agencies of the consulting type
+   * @return the agencies of the consulting type
+   */
+  public List<AgencyDTO> getByConsultingType(
+      int consultingTypeId, Supplier<List<AgencyDTO>> loader) {
+    var consultingTypeCache = cacheManager.getCache(AGENCIES_BY_CONSULTING_TYPE_CACHE);
+    var key = tenantKey(consultingTypeId);
+    var cachedIds = isNull(consultingTypeCache) ? null : consultingTypeCache.get(key, List.class);
+    if (nonNull(cachedIds)) {
+      @SuppressWarnings("unchecked")
+      List<Long> agencyIds = cachedIds;
+      return getAll(agencyIds, ids -> loader.get());
+    }
+
+    missCounter.increment();
+    var agencies = loadTimer.record(loader);
+    var agencyCache = cacheManager.getCache(AGENCY_CACHE);
+    agencies.forEach(agency -> putAgency(agencyCache, agency));
+    if (nonNull(consultingTypeCache)) {
+      consultingTypeCache.put(
+          key, agencies.stream().map(AgencyDTO::getId).collect(Collectors.toList()));
+    }
+    return agencies;
+  }
+
+  private void loadAndCache(
+      List<Long> missingIds,
+      Function<List<Long>, List<AgencyDTO>> loader,
+      Cache cache,
+      Map<Long, AgencyDTO> agencies) {
+    List<AgencyDTO> loadedAgencies = loadTimer.record(() -> loader.apply(missingIds));
+    for (AgencyDTO agency : loadedAgencies) {
+      agencies.put(agency.getId(), agency);
+      putAgency(cache, agency);
+    }
+  }
+
+  private void putAgency(Cache cache, AgencyDTO agency) {
+    if (nonNull(cache) && nonNull(agency.getId())) {
+      cache.put(tenantKey(agency.getId()), agency);
+    }
+  }
+
+  private String tenantKey(Object id) {
+    return TenantContext.getCurrentTenant() + KEY_SEPARATOR + id;
+  }
+}
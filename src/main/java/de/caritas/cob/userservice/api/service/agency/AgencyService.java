@@ -1,25 +1,22 @@
 package de.caritas.cob.userservice.api.service.agency;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.caritas.cob.userservice.agencyserivce.generated.ApiClient;
 import de.caritas.cob.userservice.agencyserivce.generated.web.AgencyControllerApi;
 import de.caritas.cob.userservice.agencyserivce.generated.web.model.AgencyResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
-import de.caritas.cob.userservice.api.config.CacheManagerConfig;
 import de.caritas.cob.userservice.api.config.apiclient.AgencyServiceApiControllerFactory;
-import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
 import de.caritas.cob.userservice.api.service.httpheader.SecurityHeaderSupplier;
 import de.caritas.cob.userservice.api.service.httpheader.TenantHeaderSupplier;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 /** Service class to communicate with the AgencyService. */
@@ -30,6 +27,8 @@ public class AgencyService {
   private final @NonNull SecurityHeaderSupplier securityHeaderSupplier;
   private final @NonNull TenantHeaderSupplier tenantHeaderSupplier;
   private final @NonNull AgencyServiceApiControllerFactory agencyServiceApiControllerFactory;
+  private final @NonNull AgencyCache agencyCache;
+
   /**
    * Returns the {@link AgencyDTO} for the provided agencyId. Agency will be cached for further
    * requests.
@@ -37,9 +36,8 @@ public class AgencyService {
    * @param agencyId {@link AgencyDTO#getId()}
    * @return AgencyDTO {@link AgencyDTO}
    */
-  @Cacheable(value = CacheManagerConfig.AGENCY_CACHE, key = "#agencyId")
   public AgencyDTO getAgency(Long agencyId) {
-    return getAgenciesFromAgencyService(Collections.singletonList(agencyId)).iterator().next();
+    return getAgencies(Collections.singletonList(agencyId)).iterator().next();
   }
 
   /**
@@ -54,15 +52,18 @@ public class AgencyService {
   }
 
   /**
-   * Returns List of {@link AgencyDTO} for provided agencyIds. Agencies will be cached for further
-   * requests.
+   * Returns List of {@link AgencyDTO} for provided agencyIds in the order of the ids. Agencies are
+   * cached one by one for further requests, only agencies not cached yet are requested from the
+   * AgencyService.
    *
    * @param agencyIds List of {@link AgencyDTO#getId()}
    * @return List<AgencyDTO> List of {@link AgencyDTO}
    */
-  @Cacheable(value = CacheManagerConfig.AGENCY_CACHE, key = "#agencyIds")
   public List<AgencyDTO> getAgencies(List<Long> agencyIds) {
-    return getAgenciesFromAgencyService(agencyIds);
+    if (isNotEmpty(agencyIds)) {
+      return agencyCache.getAll(agencyIds, this::getAgenciesFromAgencyService);
+    }
+    return emptyList();
   }
 
   public List<AgencyDTO> getAgenciesNotCached(List<Long> agencyIds) {
@@ -91,12 +92,18 @@ public class AgencyService {
   }
 
   /**
-   * Returns a list of {@link AgencyDTO} for the provided consulting type.
+   * Returns a list of {@link AgencyDTO} for the provided consulting type. Agencies will be cached
+   * for further requests.
    *
-   * @param consultingTypeId
+   * @param consultingTypeId the consulting type id
    * @return List of {@link AgencyDTO}
    */
   public List<AgencyDTO> getAgenciesByConsultingType(int consultingTypeId) {
+    return agencyCache.getByConsultingType(
+        consultingTypeId, () -> getAgenciesByConsultingTypeFromAgencyService(consultingTypeId));
+  }
+
+  private List<AgencyDTO> getAgenciesByConsultingTypeFromAgencyService(int consultingTypeId) {
     var agencyControllerApi = getAgencyControllerApi();
     addDefaultHeaders(agencyControllerApi.getApiClient());
     return agencyControllerApi.getAgenciesByConsultingType(consultingTypeId).stream()
@@ -111,15 +118,20 @@ public class AgencyService {
   }
 
   private AgencyDTO fromOriginalAgency(AgencyResponseDTO agencyResponseDTO) {
-    var objectMapper = new ObjectMapper();
-    try {
-      return objectMapper.readValue(
-          objectMapper.writeValueAsString(agencyResponseDTO), AgencyDTO.class);
-    } catch (JsonProcessingException e) {
-      throw new InternalServerErrorException(
-          "Model definition of agency in userservice does not "
-              + "match the definition of agencyservice");
-    }
+    return new AgencyDTO()
+        .id(agencyResponseDTO.getId())
+        .name(agencyResponseDTO.getName())
+        .postcode(agencyResponseDTO.getPostcode())
+        .city(agencyResponseDTO.getCity())
+        .description(agencyResponseDTO.getDescription())
+        .teamAgency(agencyResponseDTO.getTeamAgency())
+        .offline(agencyResponseDTO.getOffline())
+        .consultingType(agencyResponseDTO.getConsultingType())
+        .tenantId(agencyResponseDTO.getTenantId())
+        .topicIds(
+            isNull(agencyResponseDTO.getTopicIds())
+                ? null
+                : new ArrayList<>(agencyResponseDTO.getTopicIds()));
   }
 
   /**
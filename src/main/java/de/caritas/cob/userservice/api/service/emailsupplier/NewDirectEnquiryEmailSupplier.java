@@ -17,47 +17,29 @@ import de.caritas.cob.userservice.mailservice.generated.web.model.TemplateDataDT
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import javax.transaction.Transactional;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
-import lombok.Setter;
+import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
-import org.springframework.context.annotation.Scope;
-import org.springframework.stereotype.Service;
 
 /** Supplier to provide mails to be sent when a new direct enquiry was created. */
-@RequiredArgsConstructor
-@Service
 @Slf4j
-@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+@Builder
 public class NewDirectEnquiryEmailSupplier implements EmailSupplier {
 
-  private final @NonNull ConsultantAgencyRepository consultantAgencyRepository;
+  private final Long agencyId;
+  private final String postCode;
+  private final String consultantId;
+  private final ConsultantAgencyRepository consultantAgencyRepository;
+  private final ReleaseToggleService releaseToggleService;
+  private final String applicationBaseUrl;
+  private final boolean multiTenancyEnabled;
   private final TenantTemplateSupplier tenantTemplateSupplier;
 
-  @Value("${app.base.url}")
-  private String applicationBaseUrl;
-
-  @Value("${multitenancy.enabled}")
-  private boolean multiTenancyEnabled;
-
-  @Setter private Long agencyId;
-
-  @Setter private String postCode;
-
-  @Setter private String consultantId;
-
-  private final @NonNull ReleaseToggleService releaseToggleService;
-
   /**
    * Generates a direct-enquiry email and sends it to the set consultant.
    *
    * @return a list of the generated {@link MailDTO}
    */
   @Override
-  @Transactional
   public List<MailDTO> generateEmails() {
     log.info("Generating email for new direct enquiry...");
 
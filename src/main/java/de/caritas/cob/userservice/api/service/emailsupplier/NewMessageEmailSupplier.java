@@ -6,7 +6,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
-import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -32,7 +32,9 @@ import de.caritas.cob.userservice.mailservice.generated.web.model.Dialect;
 import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
 import de.caritas.cob.userservice.mailservice.generated.web.model.TemplateDataDTO;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -104,24 +106,46 @@ public class NewMessageEmailSupplier implements EmailSupplier {
 
   private List<MailDTO> buildMailsForSession() {
     List<ConsultantAgency> consultantList = retrieveDependentConsultantAgencies();
-    if (isNotEmpty(consultantList)) {
-      return consultantList.stream()
-          .filter(agency -> !agency.getConsultant().getEmail().isEmpty())
-          .filter(agency -> wantsToReceiveNotifications(agency.getConsultant()))
-          .filter(isConsultantLoggedOut())
-          .map(this::toNewConsultantMessageMailDTO)
-          .collect(Collectors.toList());
+    if (isEmpty(consultantList)) {
+      return emptyList();
     }
-    return emptyList();
-  }
 
-  private boolean wantsToReceiveNotifications(Consultant consultant) {
+    var notificationPreference = consultantNotificationPreference();
+    var recipients =
+        consultantList.stream()
+            .filter(agency -> !agency.getConsultant().getEmail().isEmpty())
+            .filter(agency -> notificationPreference.test(agency.getConsultant()))
+            .collect(Collectors.toList());
+    var loggedInChatUserIds = findLoggedInChatUserIds(recipients);
+
+    return recipients.stream()
+        .filter(agency -> !loggedInChatUserIds.contains(agency.getConsultant().getRocketChatId()))
+        .map(this::toNewConsultantMessageMailDTO)
+        .collect(Collectors.toList());
+  }
 
-    if (isNewNotificationToggleEnabled()) {
-      return wantsToReceiveNotificationsAboutNewMessage(consultant);
-    } else {
-      return consultant.getNotifyNewChatMessageFromAdviceSeeker();
+  private Predicate<Consultant> consultantNotificationPreference() {
+    if (!isNewNotificationToggleEnabled()) {
+      return Consultant::getNotifyNewChatMessageFromAdviceSeeker;
     }
+    // consultants of an agency mostly share the same settings, so each variant is parsed once
+    var parsedSettings = new HashMap<String, NotificationSettings>();
+    return consultant ->
+        consultant.isNotificationsEnabled()
+            && parsedSettings
+                .computeIfAbsent(
+                    String.valueOf(consultant.getNotificationsSettings()),
+                    settings -> deserializeNotificationSettingsOrDefaultIfNull(consultant))
+                .isNewChatMessageNotificationEnabled();
+  }
+
+  private Set<String> findLoggedInChatUserIds(List<ConsultantAgency> recipients) {
+    var chatUserIds =
+        recipients.stream()
+            .map(agency -> agency.getConsultant().getRocketChatId())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    return chatUserIds.isEmpty() ? Set.of() : messageClient.findLoggedInUserIds(chatUserIds);
   }
 
   private boolean isNewNotificationToggleEnabled() {
@@ -154,11 +178,13 @@ public class NewMessageEmailSupplier implements EmailSupplier {
   }
 
   private boolean shouldInformAllConsultantsOfTeamSession() {
+    if (!session.isTeamSession()) {
+      return false;
+    }
     var extendedConsultingTypeResponseDTO =
         consultingTypeManager.getConsultingTypeSettings(session.getConsultingTypeId());
-    return session.isTeamSession()
-        && retrieveCheckedAllTeamConsultantsProperty(
-            extendedConsultingTypeResponseDTO.getNotifications());
+    return retrieveCheckedAllTeamConsultantsProperty(
+        extendedConsultingTypeResponseDTO.getNotifications());
   }
 
   private boolean retrieveCheckedAllTeamConsultantsProperty(NotificationsDTO notificationsDTO) {
@@ -210,11 +236,6 @@ public class NewMessageEmailSupplier implements EmailSupplier {
     return emptyList();
   }
 
-  private Predicate<ConsultantAgency> isConsultantLoggedOut() {
-    return agency ->
-        !messageClient.isLoggedIn(agency.getConsultant().getRocketChatId()).orElse(false);
-  }
-
   private boolean isAdviceSeekerLoggedOut() {
     return !messageClient.isLoggedIn(session.getUser().getRcUserId()).orElse(false);
   }
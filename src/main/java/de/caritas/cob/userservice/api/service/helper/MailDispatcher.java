@@ -0,0 +1,175 @@
+package de.caritas.cob.userservice.api.service.helper;
+
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailsDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends notification mails to the MailService in the background. The mails are queued and the
+ * configured number of workers sends them in batches, a batch is sent as soon as it is full or the
+ * flush window of its first mail has passed. If the queue is full the calling thread sends the
+ * mails on its own.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+  static final String METRIC_PREFIX = "mail.dispatch";
+  private static final Duration IDLE_POLL_INTERVAL = Duration.ofMillis(500);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+  private final MailService mailService;
+  private final MeterRegistry meterRegistry;
+  private final int batchSize;
+  private final Duration flushWindow;
+  private final BlockingQueue<QueuedMail> queue;
+  private final ExecutorService workers;
+  private final Timer latency;
+  private volatile boolean running = true;
+
+  public MailDispatcher(
+      MailService mailService,
+      MeterRegistry meterRegistry,
+      @Value("${mail.dispatch.workers}") int workerCount,
+      @Value("${mail.dispatch.queue-capacity}") int queueCapacity,
+      @Value("${mail.dispatch.batch-size}") int batchSize,
+      @Value("${mail.dispatch.flush-window}") Duration flushWindow) {
+    this.mailService = mailService;
+    this.meterRegistry = meterRegistry;
+    this.batchSize = batchSize;
+    this.flushWindow = flushWindow;
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.latency = meterRegistry.timer(METRIC_PREFIX + ".latency");
+    Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size)
+        .register(meterRegistry);
+
+    var threadNumber = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            workerCount,
+            runnable -> {
+              var thread = new Thread(runnable, "MailDispatcher-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    for (var i = 0; i < workerCount; i++) {
+      workers.execute(this::work);
+    }
+  }
+
+  /**
+   * Queues the given mails to be sent to the MailService.
+   *
+   * @param mailsDTO the mails to send
+   */
+  public void dispatch(MailsDTO mailsDTO) {
+    var enqueuedAt = System.nanoTime();
+    var rejectedMails = new ArrayList<QueuedMail>();
+    for (var mail : mailsDTO.getMails()) {
+      var queuedMail = new QueuedMail(mail, enqueuedAt);
+      if (!running || !queue.offer(queuedMail)) {
+        rejectedMails.add(queuedMail);
+      }
+    }
+    if (!running) {
+      // the workers may already have stopped, so nothing may be left behind in the queue
+      queue.drainTo(rejectedMails);
+    }
+    if (!rejectedMails.isEmpty()) {
+      meterRegistry.counter(METRIC_PREFIX + ".rejected").increment(rejectedMails.size());
+      send(rejectedMails);
+    }
+  }
+
+  private void work() {
+    var batch = new ArrayList<QueuedMail>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        collectBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      }
+      if (!batch.isEmpty()) {
+        send(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private void collectBatch(List<QueuedMail> batch) throws InterruptedException {
+    var first = queue.poll(IDLE_POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+    var flushAt = System.nanoTime() + flushWindow.toNanos();
+    while (batch.size() < batchSize) {
+      var remaining = flushAt - System.nanoTime();
+      if (remaining <= 0) {
+        return;
+      }
+      var next =
+          queue.poll(Math.min(remaining, IDLE_POLL_INTERVAL.toNanos()), TimeUnit.NANOSECONDS);
+      if (next != null) {
+        batch.add(next);
+      } else if (!running) {
+        return;
+      }
+    }
+  }
+
+  private void send(List<QueuedMail> batch) {
+    var mails = batch.stream().map(QueuedMail::getMail).collect(Collectors.toList());
+    try {
+      mailService.sendEmailNotification(new MailsDTO().mails(mails));
+    } catch (RuntimeException e) {
+      log.error("MailDispatcher error: Failed to send {} mails", mails.size(), e);
+    }
+    var sentAt = System.nanoTime();
+    batch.forEach(
+        queuedMail -> latency.record(sentAt - queuedMail.getEnqueuedAt(), TimeUnit.NANOSECONDS));
+  }
+
+  /** Sends the queued mails and stops the workers. */
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("MailDispatcher warning: Workers did not stop within {}", SHUTDOWN_TIMEOUT);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    var remainingMails = new ArrayList<QueuedMail>();
+    queue.drainTo(remainingMails);
+    if (!remainingMails.isEmpty()) {
+      send(remainingMails);
+    }
+  }
+
+  @lombok.Value
+  private static class QueuedMail {
+
+    MailDTO mail;
+    long enqueuedAt;
+  }
+}
@@ -0,0 +1,162 @@
+package de.caritas.cob.userservice.api.service.liveevents;
+
+import de.caritas.cob.userservice.api.config.apiclient.LiveServiceApiControllerFactory;
+import de.caritas.cob.userservice.liveservice.generated.ApiException;
+import de.caritas.cob.userservice.liveservice.generated.web.model.EventType;
+import de.caritas.cob.userservice.liveservice.generated.web.model.LiveEventMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends live events to the live service in the background. Events of the same type and content
+ * arriving within the coalescing window are merged into one event, so every recipient receives it
+ * only once. If more recipients are pending than the configured capacity, the calling thread sends
+ * the event on its own.
+ */
+@Slf4j
+@Component
+public class LiveEventDispatcher {
+
+  static final String METRIC_PREFIX = "live.event";
+
+  private final LiveServiceApiControllerFactory liveServiceApiControllerFactory;
+  private final MeterRegistry meterRegistry;
+  private final Duration coalescingWindow;
+  private final int capacity;
+  private final Map<EventKey, Set<String>> pendingRecipients = new HashMap<>();
+  private final ScheduledExecutorService dispatchExecutor;
+  private int pendingCount;
+
+  public LiveEventDispatcher(
+      LiveServiceApiControllerFactory liveServiceApiControllerFactory,
+      MeterRegistry meterRegistry,
+      @Value("${live.event.coalescing-window}") Duration coalescingWindow,
+      @Value("${live.event.queue-capacity}") int capacity) {
+    this.liveServiceApiControllerFactory = liveServiceApiControllerFactory;
+    this.meterRegistry = meterRegistry;
+    this.coalescingWindow = coalescingWindow;
+    this.capacity = capacity;
+    this.dispatchExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              var thread = new Thread(runnable, "LiveEventDispatcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    Gauge.builder(METRIC_PREFIX + ".pending", this, LiveEventDispatcher::pendingCount)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Queues the given live event.
+   *
+   * @param liveEventMessage the live event to send
+   */
+  public void dispatch(LiveEventMessage liveEventMessage) {
+    var key = new EventKey(liveEventMessage.getEventType(), liveEventMessage.getEventContent());
+    var userIds = liveEventMessage.getUserIds();
+    synchronized (pendingRecipients) {
+      if (pendingCount + userIds.size() <= capacity && enqueue(key, userIds)) {
+        return;
+      }
+    }
+    meterRegistry.counter(METRIC_PREFIX + ".rejected").increment();
+    send(liveEventMessage);
+  }
+
+  private boolean enqueue(EventKey key, List<String> userIds) {
+    var recipients = pendingRecipients.get(key);
+    if (recipients == null) {
+      try {
+        dispatchExecutor.schedule(
+            () -> flush(key), coalescingWindow.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        return false;
+      }
+      recipients = new LinkedHashSet<>();
+      pendingRecipients.put(key, recipients);
+    }
+    var coalesced = 0;
+    for (var userId : userIds) {
+      if (recipients.add(userId)) {
+        pendingCount++;
+      } else {
+        coalesced++;
+      }
+    }
+    meterRegistry.counter(METRIC_PREFIX + ".coalesced").increment(coalesced);
+    return true;
+  }
+
+  private void flush(EventKey key) {
+    Set<String> recipients;
+    synchronized (pendingRecipients) {
+      recipients = pendingRecipients.remove(key);
+      pendingCount -= recipients.size();
+    }
+    send(
+        new LiveEventMessage()
+            .eventType(key.getEventType())
+            .eventContent(key.getEventContent())
+            .userIds(new ArrayList<>(recipients)));
+  }
+
+  private void send(LiveEventMessage liveEventMessage) {
+    var sample = Timer.start(meterRegistry);
+    var outcome = "success";
+    try {
+      this.liveServiceApiControllerFactory.createControllerApi().sendLiveEvent(liveEventMessage);
+    } catch (ApiException | RuntimeException e) {
+      outcome = "error";
+      log.error(
+          "Internal Server Error: {}",
+          String.format(
+              "Unable to trigger %s live event message for %s recipients",
+              liveEventMessage.getEventType(), liveEventMessage.getUserIds().size()),
+          e);
+    } finally {
+      sample.stop(
+          meterRegistry.timer(
+              METRIC_PREFIX + ".sent",
+              "type",
+              String.valueOf(liveEventMessage.getEventType()),
+              "outcome",
+              outcome));
+    }
+  }
+
+  private int pendingCount() {
+    synchronized (pendingRecipients) {
+      return pendingCount;
+    }
+  }
+
+  /** Sends the pending events and stops the background thread. */
+  @PreDestroy
+  public void shutdown() {
+    dispatchExecutor.shutdown();
+  }
+
+  @lombok.Value
+  private static class EventKey {
+
+    EventType eventType;
+    Object eventContent;
+  }
+}
@@ -8,35 +8,27 @@ import static java.util.Collections.singletonList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
-import de.caritas.cob.userservice.api.config.apiclient.LiveServiceApiControllerFactory;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.service.mobilepushmessage.MobilePushNotificationService;
-import de.caritas.cob.userservice.liveservice.generated.ApiException;
 import de.caritas.cob.userservice.liveservice.generated.web.model.LiveEventMessage;
 import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource;
 import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource.FinishConversationPhaseEnum;
 import java.util.List;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 /** Service class to provide live event triggers to the live service. */
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LiveEventNotificationService {
 
-  private final @NonNull LiveServiceApiControllerFactory liveServiceApiControllerFactory;
+  private final @NonNull LiveEventDispatcher liveEventDispatcher;
   private final @NonNull UserIdsProviderFactory userIdsProviderFactory;
   private final @NonNull AuthenticatedUser authenticatedUser;
   private final @NonNull MobilePushNotificationService mobilePushNotificationService;
 
-  private static final String RC_GROUP_ID_MESSAGE_TEMPLATE = "Rocket.Chat group ID: %s";
-  private static final String NEW_ANONYMOUS_ENQUIRY_MESSAGE_TEMPLATE = "Anonymous Enquiry ID: %s";
-
   /**
    * Sends a anonymous enquiry accepted event to the live service,
    *
@@ -51,18 +43,7 @@ public class LiveEventNotificationService {
   }
 
   private void sendLiveEventMessage(LiveEventMessage liveEventMessage) {
-    sendLiveEventMessage(
-        liveEventMessage,
-        () -> String.format("Unable to trigger live event message %s", liveEventMessage));
-  }
-
-  private void sendLiveEventMessage(
-      LiveEventMessage liveEventMessage, Supplier<String> errorMessageSupplier) {
-    try {
-      this.liveServiceApiControllerFactory.createControllerApi().sendLiveEvent(liveEventMessage);
-    } catch (ApiException e) {
-      log.error("Internal Server Error: {}", errorMessageSupplier.get(), e);
-    }
+    this.liveEventDispatcher.dispatch(liveEventMessage);
   }
 
   /**
@@ -81,7 +62,7 @@ public class LiveEventNotificationService {
               .filter(this::notInitiatingUser)
               .collect(Collectors.toList());
 
-      triggerDirectMessageLiveEvent(userIds, rcGroupId);
+      triggerDirectMessageLiveEvent(userIds);
       this.mobilePushNotificationService.triggerMobilePushNotification(userIds);
     }
   }
@@ -90,26 +71,12 @@ public class LiveEventNotificationService {
     return !userId.equals(this.authenticatedUser.getUserId());
   }
 
-  private void triggerDirectMessageLiveEvent(List<String> userIds, String rcGroupId) {
+  private void triggerDirectMessageLiveEvent(List<String> userIds) {
     if (isNotEmpty(userIds)) {
-      var liveEventMessage = new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(userIds);
-
-      sendLiveEventMessage(
-          liveEventMessage,
-          () -> {
-            var rcMessage = String.format(RC_GROUP_ID_MESSAGE_TEMPLATE, rcGroupId);
-            return makeUserIdsEventTypeMessage(liveEventMessage, rcMessage);
-          });
+      sendLiveEventMessage(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(userIds));
     }
   }
 
-  private String makeUserIdsEventTypeMessage(
-      LiveEventMessage triggeredLiveEventMessage, String withMessage) {
-    return String.format(
-        "Unable to trigger %s live event message %s",
-        triggeredLiveEventMessage.getEventType(), withMessage);
-  }
-
   /**
    * Sends a new anonymous enquiry live event to the provided user IDs.
    *
@@ -118,15 +85,7 @@ public class LiveEventNotificationService {
    */
   public void sendLiveNewAnonymousEnquiryEventToUsers(List<String> userIds, Long sessionId) {
     if (isNotEmpty(userIds)) {
-      var liveEventMessage = new LiveEventMessage().eventType(NEWANONYMOUSENQUIRY).userIds(userIds);
-
-      sendLiveEventMessage(
-          liveEventMessage,
-          () -> {
-            var anonymousEnquiryMessage =
-                String.format(NEW_ANONYMOUS_ENQUIRY_MESSAGE_TEMPLATE, sessionId);
-            return makeUserIdsEventTypeMessage(liveEventMessage, anonymousEnquiryMessage);
-          });
+      sendLiveEventMessage(new LiveEventMessage().eventType(NEWANONYMOUSENQUIRY).userIds(userIds));
     }
   }
 
@@ -1,5 +1,8 @@
 package de.caritas.cob.userservice.api.service.liveevents;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
 import de.caritas.cob.userservice.api.adapters.rocketchat.dto.group.GroupMemberDTO;
 import de.caritas.cob.userservice.api.model.Consultant;
@@ -7,6 +10,7 @@ import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import de.caritas.cob.userservice.api.service.user.UserService;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.NonNull;
@@ -25,28 +29,48 @@ public class RelevantUserAccountIdsByChatProvider implements UserIdsProvider {
   private final @NonNull ConsultantService consultantService;
 
   /**
-   * Collects all relevant user ids of a chat.
+   * Collects all relevant user ids of a chat. The chat members are resolved with one query for
+   * users and one for the remaining consultants.
    *
    * @param rcGroupId the rocket chat group id used to lookup chat members
    * @return a {@link List} containing all user ids to be notified
    */
   @Override
   public List<String> collectUserIds(String rcGroupId) {
-    return this.rocketChatService.getChatUsers(rcGroupId).parallelStream()
-        .map(GroupMemberDTO::get_id)
-        .map(this::toUserAccountId)
+    var rcUserIds =
+        this.rocketChatService.getChatUsers(rcGroupId).stream()
+            .map(GroupMemberDTO::get_id)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+    if (rcUserIds.isEmpty()) {
+      return emptyList();
+    }
+
+    var userIds =
+        this.userService.findUsersByRcUserIds(rcUserIds).stream()
+            .collect(
+                Collectors.toMap(User::getRcUserId, User::getUserId, (first, second) -> first));
+    var consultantIds = findConsultantIds(rcUserIds, userIds);
+
+    return rcUserIds.stream()
+        .map(rcUserId -> userIds.getOrDefault(rcUserId, consultantIds.get(rcUserId)))
         .filter(Objects::nonNull)
         .collect(Collectors.toList());
   }
 
-  private String toUserAccountId(String rcUserId) {
-    return this.userService
-        .findUserByRcUserId(rcUserId)
-        .map(User::getUserId)
-        .orElse(
-            this.consultantService
-                .getConsultantByRcUserId(rcUserId)
-                .map(Consultant::getId)
-                .orElse(null));
+  private Map<String, String> findConsultantIds(
+      List<String> rcUserIds, Map<String, String> userIds) {
+    var remainingRcUserIds =
+        rcUserIds.stream()
+            .filter(rcUserId -> !userIds.containsKey(rcUserId))
+            .collect(Collectors.toList());
+    if (remainingRcUserIds.isEmpty()) {
+      return emptyMap();
+    }
+    return this.consultantService.findConsultantsByRcUserIds(remainingRcUserIds).stream()
+        .collect(
+            Collectors.toMap(
+                Consultant::getRocketChatId, Consultant::getId, (first, second) -> first));
   }
 }
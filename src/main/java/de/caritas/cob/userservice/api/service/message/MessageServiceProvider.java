@@ -11,6 +11,7 @@ import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostFurther
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostMessageException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostWelcomeMessageException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatUserNotInitializedException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.service.httpheader.SecurityHeaderSupplier;
@@ -41,6 +42,7 @@ public class MessageServiceProvider {
   private final @NonNull RocketChatCredentialsProvider rocketChatCredentialsProvider;
   private final @NonNull SecurityHeaderSupplier securityHeaderSupplier;
   private final @NonNull TenantHeaderSupplier tenantHeaderSupplier;
+  private final @NonNull RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   /**
    * Posts an enquiry message via the MessageService to the given Rocket.Chat group ID.
@@ -55,7 +57,10 @@ public class MessageServiceProvider {
       throws RocketChatPostMessageException {
 
     try {
-      return this.postMessage(rocketChatData);
+      var messageResponse = this.postMessage(rocketChatData);
+      rocketChatRoomInformationProvider.evictRocketChatInformation(
+          rocketChatData.getRocketChatCredentials().getRocketChatUserId());
+      return messageResponse;
     } catch (RestClientException exception) {
       throw new RocketChatPostMessageException(
           String.format(
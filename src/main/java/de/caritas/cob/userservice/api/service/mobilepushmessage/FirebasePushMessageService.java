@@ -1,15 +1,27 @@
 package de.caritas.cob.userservice.api.service.mobilepushmessage;
 
+import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
+
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
 import de.caritas.cob.userservice.api.service.LogService;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.SneakyThrows;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.io.FileUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -20,6 +32,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class FirebasePushMessageService {
 
+  static final int MULTICAST_TOKEN_LIMIT = 500;
+  private static final Set<MessagingErrorCode> INVALID_TOKEN_ERROR_CODES =
+      EnumSet.of(MessagingErrorCode.UNREGISTERED, MessagingErrorCode.INVALID_ARGUMENT);
+
   @Value("${firebase.configuration.push-notifications.enabled}")
   private boolean isEnabled;
 
@@ -52,24 +68,53 @@ public class FirebasePushMessageService {
   }
 
   /**
-   * Sends a push notification message to mobile device with given registration token.
+   * Checks whether push notifications are enabled.
    *
-   * @param registrationToken the mobile device identifier
+   * @return true if push notifications are sent
    */
-  public void pushNewMessageEvent(String registrationToken) {
+  public boolean isEnabled() {
+    return this.isEnabled;
+  }
+
+  /**
+   * Sends a push notification message to the mobile devices with the given registration tokens. The
+   * tokens are sent in multicast batches of at most 500 tokens.
+   *
+   * @param registrationTokens the mobile device identifiers
+   * @return the registration tokens Firebase rejected as no longer valid
+   */
+  public List<String> pushNewMessageEvent(List<String> registrationTokens) {
     if (!this.isEnabled) {
-      return;
+      return emptyList();
     }
+    var invalidTokens = new ArrayList<String>();
+    ListUtils.partition(registrationTokens, MULTICAST_TOKEN_LIMIT)
+        .forEach(batch -> invalidTokens.addAll(pushNewMessageEventBatch(batch)));
+    return invalidTokens;
+  }
+
+  private List<String> pushNewMessageEventBatch(List<String> registrationTokens) {
     var message =
-        Message.builder()
+        MulticastMessage.builder()
             .setNotification(Notification.builder().setBody(this.pushNotificationMessage).build())
-            .setToken(registrationToken)
+            .addAllTokens(registrationTokens)
             .build();
 
     try {
-      this.firebaseMessaging.send(message);
+      var responses = this.firebaseMessaging.sendMulticast(message).getResponses();
+      return IntStream.range(0, responses.size())
+          .filter(index -> isInvalidToken(responses.get(index)))
+          .mapToObj(registrationTokens::get)
+          .collect(Collectors.toList());
     } catch (FirebaseMessagingException e) {
       LogService.logWarn(e);
+      return emptyList();
     }
   }
+
+  private boolean isInvalidToken(SendResponse response) {
+    return !response.isSuccessful()
+        && nonNull(response.getException())
+        && INVALID_TOKEN_ERROR_CODES.contains(response.getException().getMessagingErrorCode());
+  }
 }
@@ -1,67 +1,97 @@
 package de.caritas.cob.userservice.api.service.mobilepushmessage;
 
-import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 
-import de.caritas.cob.userservice.api.model.Consultant;
-import de.caritas.cob.userservice.api.model.ConsultantMobileToken;
-import de.caritas.cob.userservice.api.model.User;
-import de.caritas.cob.userservice.api.model.UserMobileToken;
-import de.caritas.cob.userservice.api.service.ConsultantService;
-import de.caritas.cob.userservice.api.service.user.UserService;
+import de.caritas.cob.userservice.api.port.out.ConsultantMobileTokenRepository;
+import de.caritas.cob.userservice.api.port.out.UserMobileTokenRepository;
+import de.caritas.cob.userservice.api.port.out.UserRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Stream;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
  * Collects all relevant mobile tokens and fires push notifications via the {@link
- * FirebasePushMessageService}.
+ * FirebasePushMessageService}. The tokens are collected and sent in the background, tokens Firebase
+ * reports as no longer valid are removed afterwards.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class MobilePushNotificationService {
 
-  private final @NonNull UserService userService;
-  private final @NonNull ConsultantService consultantService;
-  private final @NonNull FirebasePushMessageService firebasePushMessageService;
+  static final int QUERY_CHUNK_SIZE = 1000;
+
+  private final UserRepository userRepository;
+  private final UserMobileTokenRepository userMobileTokenRepository;
+  private final ConsultantMobileTokenRepository consultantMobileTokenRepository;
+  private final FirebasePushMessageService firebasePushMessageService;
+  private final Executor mobilePushExecutor;
+
+  public MobilePushNotificationService(
+      UserRepository userRepository,
+      UserMobileTokenRepository userMobileTokenRepository,
+      ConsultantMobileTokenRepository consultantMobileTokenRepository,
+      FirebasePushMessageService firebasePushMessageService,
+      @Qualifier("mobilePushExecutor") Executor mobilePushExecutor) {
+    this.userRepository = userRepository;
+    this.userMobileTokenRepository = userMobileTokenRepository;
+    this.consultantMobileTokenRepository = consultantMobileTokenRepository;
+    this.firebasePushMessageService = firebasePushMessageService;
+    this.mobilePushExecutor = mobilePushExecutor;
+  }
 
   /**
-   * Triggers mobile push notifications to users who have a mobile device identifier.
+   * Triggers mobile push notifications to users and consultants who have a mobile device
+   * identifier.
    *
-   * @param userIds user ids to send push notifications
+   * @param userIds user or consultant ids to send push notifications
    */
   public void triggerMobilePushNotification(List<String> userIds) {
-    userIds.forEach(this::sendPushNotificationForUser);
-  }
-
-  private void sendPushNotificationForUser(String userId) {
-    this.userService.getUser(userId).ifPresent(this::sendPushNotificationIfUserHasMobileTokens);
-    this.consultantService
-        .getConsultant(userId)
-        .ifPresent(this::sendPushNotificationIfConsultantHasMobileTokens);
+    if (isEmpty(userIds) || !this.firebasePushMessageService.isEnabled()) {
+      return;
+    }
+    var distinctUserIds = userIds.stream().distinct().collect(Collectors.toList());
+    this.mobilePushExecutor.execute(() -> sendPushNotifications(distinctUserIds));
   }
 
-  private void sendPushNotificationIfUserHasMobileTokens(User user) {
-    Stream.concat(Stream.of(user.getMobileToken()), extractMobileAppTokens(user))
-        .filter(StringUtils::isNotBlank)
-        .forEach(this.firebasePushMessageService::pushNewMessageEvent);
-  }
+  private void sendPushNotifications(List<String> userIds) {
+    var mobileTokens = new LinkedHashSet<String>();
+    ListUtils.partition(userIds, QUERY_CHUNK_SIZE)
+        .forEach(
+            chunk -> {
+              mobileTokens.addAll(this.userRepository.findMobileTokensByUserIds(chunk));
+              mobileTokens.addAll(
+                  this.userMobileTokenRepository.findMobileAppTokensByUserIds(chunk));
+              mobileTokens.addAll(
+                  this.consultantMobileTokenRepository.findMobileAppTokensByConsultantIds(chunk));
+            });
+    mobileTokens.removeIf(StringUtils::isBlank);
+    if (mobileTokens.isEmpty()) {
+      return;
+    }
 
-  private Stream<String> extractMobileAppTokens(User user) {
-    if (isNotEmpty(user.getUserMobileTokens())) {
-      return user.getUserMobileTokens().stream().map(UserMobileToken::getMobileAppToken);
+    var invalidTokens =
+        this.firebasePushMessageService.pushNewMessageEvent(new ArrayList<>(mobileTokens));
+    if (!invalidTokens.isEmpty()) {
+      removeMobileTokens(invalidTokens);
     }
-    return Stream.empty();
   }
 
-  private void sendPushNotificationIfConsultantHasMobileTokens(Consultant consultant) {
-    if (isNotEmpty(consultant.getConsultantMobileTokens())) {
-      consultant.getConsultantMobileTokens().stream()
-          .map(ConsultantMobileToken::getMobileAppToken)
-          .filter(StringUtils::isNotBlank)
-          .forEach(this.firebasePushMessageService::pushNewMessageEvent);
-    }
+  private void removeMobileTokens(List<String> mobileTokens) {
+    ListUtils.partition(mobileTokens, QUERY_CHUNK_SIZE)
+        .forEach(
+            chunk -> {
+              this.userRepository.clearMobileTokens(chunk);
+              this.userMobileTokenRepository.deleteByMobileAppTokens(chunk);
+              this.consultantMobileTokenRepository.deleteByMobileAppTokens(chunk);
+            });
+    log.info(
+        "Removed {} mobile tokens no longer valid for push notifications", mobileTokens.size());
   }
 }
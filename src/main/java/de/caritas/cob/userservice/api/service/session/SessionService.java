@@ -51,8 +51,10 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Service for sessions */
 @Service
@@ -67,6 +69,9 @@ public class SessionService {
   private final @NonNull ConsultingTypeManager consultingTypeManager;
   private final @Nullable ConsultantSessionTopicEnrichmentService sessionTopicEnrichmentService;
 
+  private static final List<SessionStatus> ACTIVE_AND_DONE_STATUSES =
+      List.of(SessionStatus.IN_PROGRESS, SessionStatus.DONE);
+
   @Value("${feature.topics.enabled}")
   private boolean topicsFeatureEnabled;
 
@@ -342,6 +347,51 @@ public class SessionService {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Retrieves the active and done sessions of given {@link Consultant} with the most recent
+   * messages, ordered by the date of the latest message descending. Only the requested amount of
+   * sessions is loaded from the database.
+   *
+   * @param consultant the consultant
+   * @param limit the maximum number of sessions to load
+   * @return the related {@link ConsultantSessionResponseDTO}s
+   */
+  public List<ConsultantSessionResponseDTO> getLatestActiveAndDoneSessionsForConsultant(
+      Consultant consultant, int limit) {
+    if (limit <= 0) {
+      return emptyList();
+    }
+    return sessionRepository
+        .findByConsultantAndStatusInOrderByLastMessage(
+            consultant, ACTIVE_AND_DONE_STATUSES, PageRequest.of(0, limit))
+        .stream()
+        .map(session -> new SessionMapper().toConsultantSessionDto(session))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Counts the active and done sessions of given {@link Consultant}.
+   *
+   * @param consultant the consultant
+   * @return the number of sessions
+   */
+  public long countActiveAndDoneSessionsForConsultant(Consultant consultant) {
+    return sessionRepository.countByConsultantAndStatusIn(consultant, ACTIVE_AND_DONE_STATUSES);
+  }
+
+  /**
+   * Stores the current date as date of the latest message of the session with the given Rocket.Chat
+   * group id.
+   *
+   * @param rcGroupId the Rocket.Chat group id
+   */
+  @Transactional
+  public void updateLastMessageDate(String rcGroupId) {
+    if (nonNull(rcGroupId)) {
+      sessionRepository.updateLastMessageDate(rcGroupId, nowInUtc());
+    }
+  }
+
   private List<Session> getSessionsForConsultantByStatus(
       Consultant consultant, SessionStatus sessionStatus) {
     return sessionRepository.findByConsultantAndStatus(consultant, sessionStatus);
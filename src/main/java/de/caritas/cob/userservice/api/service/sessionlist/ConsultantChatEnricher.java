@@ -46,6 +46,23 @@ public class ConsultantChatEnricher {
                 .rocketChatUserId(consultant.getRocketChatId())
                 .build());
 
+    return updateRequiredConsultantChatValues(
+        consultantSessionResponseDTOs, rocketChatRoomInformation, consultant);
+  }
+
+  /**
+   * Enriches the given chats with the already retrieved Rocket.Chat room information.
+   *
+   * @param consultantSessionResponseDTOs the session list to be enriched
+   * @param rocketChatRoomInformation the {@link RocketChatRoomInformation} of the consultant
+   * @param consultant the {@link Consultant}
+   * @return the enriched {@link ConsultantSessionResponseDTO}s
+   */
+  public List<ConsultantSessionResponseDTO> updateRequiredConsultantChatValues(
+      List<ConsultantSessionResponseDTO> consultantSessionResponseDTOs,
+      RocketChatRoomInformation rocketChatRoomInformation,
+      Consultant consultant) {
+
     consultantSessionResponseDTOs.forEach(
         consultantSessionResponseDTO ->
             updateRequiredChatValues(
@@ -42,6 +42,23 @@ public class ConsultantSessionEnricher {
                 .rocketChatUserId(consultant.getRocketChatId())
                 .build());
 
+    return updateRequiredConsultantSessionValues(
+        consultantSessionResponseDTOs, rocketChatRoomInformation, consultant);
+  }
+
+  /**
+   * Enriches the given sessions with the already retrieved Rocket.Chat room information.
+   *
+   * @param consultantSessionResponseDTOs the session list to be enriched
+   * @param rocketChatRoomInformation the {@link RocketChatRoomInformation} of the consultant
+   * @param consultant the {@link Consultant}
+   * @return the enriched {@link ConsultantSessionResponseDTO}s
+   */
+  public List<ConsultantSessionResponseDTO> updateRequiredConsultantSessionValues(
+      List<ConsultantSessionResponseDTO> consultantSessionResponseDTOs,
+      RocketChatRoomInformation rocketChatRoomInformation,
+      Consultant consultant) {
+
     consultantSessionResponseDTOs.forEach(
         consultantSessionResponseDTO ->
             this.enrichConsultantSession(
@@ -2,6 +2,7 @@ package de.caritas.cob.userservice.api.service.sessionlist;
 
 import static java.util.Collections.emptyList;
 import static java.util.Objects.nonNull;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 
@@ -10,6 +11,7 @@ import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionListResp
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionResponseDTO;
 import de.caritas.cob.userservice.api.container.SessionListQueryParameter;
 import de.caritas.cob.userservice.api.exception.httpresponses.BadRequestException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.service.ChatService;
@@ -33,6 +35,7 @@ public class ConsultantSessionListService {
   private final @NonNull ChatService chatService;
   private final @NonNull ConsultantSessionEnricher consultantSessionEnricher;
   private final @NonNull ConsultantChatEnricher consultantChatEnricher;
+  private final @NonNull RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
   private final RocketChatCredentials rocketChatCredentials;
 
   /**
@@ -101,6 +104,37 @@ public class ConsultantSessionListService {
     return mergeConsultantSessionsAndChats(consultant, sessions, chats);
   }
 
+  /**
+   * Returns the requested page of active sessions and chats for the specified consultant sorted by
+   * the latest message descending. Only the sessions with the most recent messages needed to build
+   * the page are loaded from the database and enriched with Rocket.Chat data.
+   *
+   * @param consultant {@link Consultant}
+   * @param sessionListQueryParameter session list query parameters as {@link
+   *     SessionListQueryParameter}
+   * @return the response dto
+   */
+  public ConsultantSessionListResponseDTO retrieveActiveSessionsPageForAuthenticatedConsultant(
+      Consultant consultant, SessionListQueryParameter sessionListQueryParameter) {
+    int offset = sessionListQueryParameter.getOffset();
+    int count = sessionListQueryParameter.getCount();
+
+    var sessions =
+        sessionService.getLatestActiveAndDoneSessionsForConsultant(consultant, offset + count);
+    var chats = chatService.getChatsForConsultant(consultant);
+    var allSessions = mergeConsultantSessionsAndChats(consultant, sessions, chats);
+    sortSessionsByLastMessageDateDesc(allSessions);
+
+    var sessionsPage = allSessions.stream().skip(offset).limit(count).collect(Collectors.toList());
+    var total = sessionService.countActiveAndDoneSessionsForConsultant(consultant) + chats.size();
+
+    return new ConsultantSessionListResponseDTO()
+        .sessions(sessionsPage)
+        .offset(offset)
+        .count(sessionsPage.size())
+        .total(Math.toIntExact(total));
+  }
+
   private List<ConsultantSessionResponseDTO> retrieveSessionsForStatus(
       Consultant consultant, Integer status) {
     var sessionStatus = getVerifiedSessionStatus(status);
@@ -153,14 +187,27 @@ public class ConsultantSessionListService {
       List<ConsultantSessionResponseDTO> sessions,
       List<ConsultantSessionResponseDTO> chats) {
     List<ConsultantSessionResponseDTO> allSessions = new ArrayList<>();
+    if (isEmpty(sessions) && isEmpty(chats)) {
+      return allSessions;
+    }
+
+    var rocketChatRoomInformation =
+        rocketChatRoomInformationProvider.retrieveRocketChatInformation(
+            RocketChatCredentials.builder()
+                .rocketChatToken(rocketChatCredentials.getRocketChatToken())
+                .rocketChatUserId(consultant.getRocketChatId())
+                .build());
 
-    var rcAuthToken = rocketChatCredentials.getRocketChatToken();
     if (isNotEmpty(sessions)) {
-      allSessions.addAll(updateConsultantSessionValues(sessions, rcAuthToken, consultant));
+      allSessions.addAll(
+          consultantSessionEnricher.updateRequiredConsultantSessionValues(
+              sessions, rocketChatRoomInformation, consultant));
     }
 
     if (isNotEmpty(chats)) {
-      allSessions.addAll(updateConsultantChatValues(chats, rcAuthToken, consultant));
+      allSessions.addAll(
+          consultantChatEnricher.updateRequiredConsultantChatValues(
+              chats, rocketChatRoomInformation, consultant));
     }
     return allSessions;
   }
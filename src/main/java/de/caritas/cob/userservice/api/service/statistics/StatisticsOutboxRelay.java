@@ -0,0 +1,132 @@
+package de.caritas.cob.userservice.api.service.statistics;
+
+import de.caritas.cob.userservice.api.model.StatisticsOutboxEvent;
+import de.caritas.cob.userservice.api.port.out.StatisticsOutboxEventRepository;
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Sends the statistics events stored in the outbox to the statistics queue. The events are sent in
+ * batches on one channel and removed from the outbox after the broker has confirmed them. If the
+ * broker is not available the events stay in the outbox and sending is retried with an exponential
+ * back-off.
+ */
+@Slf4j
+@Component
+public class StatisticsOutboxRelay {
+
+  static final String METRIC_PREFIX = "statistics.outbox";
+
+  private final StatisticsOutboxEventRepository statisticsOutboxEventRepository;
+  private final RabbitTemplate rabbitTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Clock clock;
+  private final ExponentialBackOff backOff;
+
+  @Value("${statistics.enabled}")
+  private Boolean statisticsEnabled;
+
+  @Value("${statistics.rabbitmq.exchange.name}")
+  private String rabbitMqExchangeName;
+
+  @Value("${statistics.outbox.batch-size}")
+  private int batchSize;
+
+  @Value("${statistics.outbox.confirm-timeout}")
+  private Duration confirmTimeout;
+
+  private BackOffExecution backOffExecution;
+  private Instant retryAt = Instant.MIN;
+
+  public StatisticsOutboxRelay(
+      StatisticsOutboxEventRepository statisticsOutboxEventRepository,
+      RabbitTemplate rabbitTemplate,
+      MeterRegistry meterRegistry,
+      Clock clock,
+      @Value("${statistics.outbox.back-off.initial-interval}") Duration initialBackOff,
+      @Value("${statistics.outbox.back-off.max-interval}") Duration maxBackOff) {
+    this.statisticsOutboxEventRepository = statisticsOutboxEventRepository;
+    this.rabbitTemplate = rabbitTemplate;
+    this.meterRegistry = meterRegistry;
+    this.clock = clock;
+    this.backOff = new ExponentialBackOff(initialBackOff.toMillis(), 2);
+    this.backOff.setMaxInterval(maxBackOff.toMillis());
+  }
+
+  /** Sends all events of the outbox, unless sending is backing off after a broker failure. */
+  @Scheduled(fixedDelayString = "${statistics.outbox.relay-interval}")
+  @SchedulerLock(name = "relayStatisticsEvents", lockAtLeastFor = "PT0S")
+  public void relayEvents() {
+    if (!statisticsEnabled || clock.instant().isBefore(retryAt)) {
+      return;
+    }
+
+    List<StatisticsOutboxEvent> events;
+    do {
+      events = statisticsOutboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+      if (events.isEmpty()) {
+        return;
+      }
+      try {
+        publish(events);
+      } catch (AmqpException e) {
+        backOff(events.size(), e);
+        return;
+      }
+      statisticsOutboxEventRepository.deleteByIds(
+          events.stream().map(StatisticsOutboxEvent::getId).collect(Collectors.toList()));
+      meterRegistry.counter(METRIC_PREFIX + ".relayed").increment(events.size());
+      backOffExecution = null;
+    } while (events.size() == batchSize);
+  }
+
+  private void publish(List<StatisticsOutboxEvent> events) {
+    rabbitTemplate.invoke(
+        operations -> {
+          events.forEach(
+              event ->
+                  operations.send(rabbitMqExchangeName, event.getEventType(), messageOf(event)));
+          operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+          return null;
+        });
+  }
+
+  private Message messageOf(StatisticsOutboxEvent event) {
+    return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+        .setMessageId(event.getMessageId())
+        .build();
+  }
+
+  private void backOff(int pendingEvents, AmqpException e) {
+    if (backOffExecution == null) {
+      backOffExecution = backOff.start();
+    }
+    var interval = Duration.ofMillis(backOffExecution.nextBackOff());
+    retryAt = clock.instant().plus(interval);
+    meterRegistry.counter(METRIC_PREFIX + ".failed").increment(pendingEvents);
+    log.warn(
+        "StatisticsEventProcessing warning: Could not send {} statistics events, retrying in {}",
+        pendingEvents,
+        interval,
+        e);
+  }
+}
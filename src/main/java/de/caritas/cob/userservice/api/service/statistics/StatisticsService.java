@@ -1,17 +1,16 @@
 package de.caritas.cob.userservice.api.service.statistics;
 
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
 import static java.util.Objects.nonNull;
 
+import de.caritas.cob.userservice.api.model.StatisticsOutboxEvent;
+import de.caritas.cob.userservice.api.port.out.StatisticsOutboxEventRepository;
 import de.caritas.cob.userservice.api.service.statistics.event.StatisticsEvent;
-import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 import javax.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.AmqpTemplate;
-import org.springframework.amqp.core.MessageBuilder;
-import org.springframework.amqp.core.MessageProperties;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /** Service class for the processing of statistical events. */
@@ -20,20 +19,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class StatisticsService {
 
-  private final @NotNull AmqpTemplate amqpTemplate;
+  private final @NotNull StatisticsOutboxEventRepository statisticsOutboxEventRepository;
 
   @Value("${statistics.enabled}")
   private Boolean statisticsEnabled;
 
-  @Value("${statistics.rabbitmq.exchange.name}")
-  private String rabbitMqExchangeName;
-
   /**
-   * Entry point to write statistics event data to the statistics queue.
+   * Entry point to write statistics event data to the statistics queue. The event is stored in the
+   * outbox within the transaction of the caller and sent by the {@link StatisticsOutboxRelay}.
    *
    * @param statisticsEvent the concrete {@link StatisticsEvent}
    */
-  @Async
   public void fireEvent(StatisticsEvent statisticsEvent) {
 
     if (statisticsEnabled && nonNull(statisticsEvent)) {
@@ -41,11 +37,12 @@ public class StatisticsService {
           .getPayload()
           .ifPresentOrElse(
               payload ->
-                  amqpTemplate.convertAndSend(
-                      rabbitMqExchangeName,
-                      statisticsEvent.getEventType().toString(),
-                      MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8))
-                          .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                  statisticsOutboxEventRepository.save(
+                      StatisticsOutboxEvent.builder()
+                          .messageId(UUID.randomUUID().toString())
+                          .eventType(statisticsEvent.getEventType().toString())
+                          .payload(payload)
+                          .createDate(nowInUtc())
                           .build()),
               () ->
                   log.warn(
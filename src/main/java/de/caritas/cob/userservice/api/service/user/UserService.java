@@ -12,6 +12,7 @@ import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.model.UserMobileToken;
 import de.caritas.cob.userservice.api.port.out.UserMobileTokenRepository;
 import de.caritas.cob.userservice.api.port.out.UserRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.NonNull;
@@ -120,6 +121,16 @@ public class UserService {
     return userRepository.findByRcUserIdAndDeleteDateIsNull(rcUserId);
   }
 
+  /**
+   * Finds the users with the given rocket chat user ids.
+   *
+   * @param rcUserIds the rocket chat user ids to search for
+   * @return the found users
+   */
+  public List<User> findUsersByRcUserIds(Collection<String> rcUserIds) {
+    return userRepository.findByRcUserIdInAndDeleteDateIsNull(rcUserIds);
+  }
+
   /**
    * Finds an user by the given username (searches for encoded and decoded version of it).
    *
@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.scheduler;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.api.workflow.deactivate.service.DeactivateAnonymousUserService;
 import lombok.NonNull;
@@ -15,6 +16,7 @@ public class DeactivateAnonymousUserScheduler {
   private final @NonNull TenantContextProvider tenantContextProvider;
 
   @Scheduled(cron = "${user.anonymous.deactivateworkflow.cron}")
+  @SchedulerLock(name = "deactivateAnonymousUser")
   public void performDeactivationWorkflow() {
     tenantContextProvider.setTechnicalContextIfMultiTenancyIsEnabled();
     deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
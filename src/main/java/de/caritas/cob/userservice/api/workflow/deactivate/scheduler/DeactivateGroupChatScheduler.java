@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.scheduler;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.api.workflow.deactivate.service.DeactivateGroupChatService;
 import lombok.NonNull;
@@ -15,6 +16,7 @@ public class DeactivateGroupChatScheduler {
   private final @NonNull TenantContextProvider tenantContextProvider;
 
   @Scheduled(cron = "${group.chat.deactivateworkflow.cron}")
+  @SchedulerLock(name = "deactivateGroupChat")
   public void performDeactivationWorkflow() {
     tenantContextProvider.setTechnicalContextIfMultiTenancyIsEnabled();
     deactivateGroupChatService.deactivateStaleGroupChats();
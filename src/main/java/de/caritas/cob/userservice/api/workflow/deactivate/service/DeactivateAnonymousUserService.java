@@ -1,86 +1,148 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.service;
 
 import static de.caritas.cob.userservice.api.model.Session.RegistrationType.ANONYMOUS;
+import static de.caritas.cob.userservice.api.model.Session.SessionStatus.DONE;
 import static de.caritas.cob.userservice.api.model.Session.SessionStatus.IN_PROGRESS;
 import static de.caritas.cob.userservice.api.model.Session.SessionStatus.NEW;
+import static java.util.concurrent.CompletableFuture.runAsync;
 
+import de.caritas.cob.userservice.api.actions.registry.ActionContainer;
 import de.caritas.cob.userservice.api.actions.registry.ActionsRegistry;
-import de.caritas.cob.userservice.api.actions.session.DeactivateSessionActionCommand;
 import de.caritas.cob.userservice.api.actions.session.PostConversationFinishedAliasMessageActionCommand;
 import de.caritas.cob.userservice.api.actions.session.SendFinishedAnonymousConversationEventActionCommand;
 import de.caritas.cob.userservice.api.actions.session.SetRocketChatRoomReadOnlyActionCommand;
 import de.caritas.cob.userservice.api.actions.user.DeactivateKeycloakUserActionCommand;
 import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.port.out.SessionRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Predicate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
-import javax.transaction.Transactional;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Service to trigger deletion of anonymous users. */
+/**
+ * Service to deactivate stale anonymous users. The stale sessions are read in chunks of session ids
+ * and the status of every chunk is set to done in its own transaction. Afterwards the users are
+ * deactivated in Keycloak and the Rocket.Chat rooms of the sessions are closed in parallel.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class DeactivateAnonymousUserService {
 
-  private final @NonNull SessionRepository sessionRepository;
-  private final @NonNull ActionsRegistry actionsRegistry;
+  private static final Set<SessionStatus> ACTIVE_STATUSES = Set.of(NEW, IN_PROGRESS);
+
+  private final SessionRepository sessionRepository;
+  private final ActionsRegistry actionsRegistry;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor deactivateWorkflowExecutor;
+  private final int chunkSize;
 
   @Value("${user.anonymous.deactivateworkflow.periodMinutes}")
   private long deactivatePeriodMinutes;
 
-  /** Deletes all anonymous users with special constraints. */
-  @Transactional
+  public DeactivateAnonymousUserService(
+      SessionRepository sessionRepository,
+      ActionsRegistry actionsRegistry,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("deactivateWorkflowExecutor") Executor deactivateWorkflowExecutor,
+      @Value("${user.anonymous.deactivateworkflow.chunk-size}") int chunkSize) {
+    this.sessionRepository = sessionRepository;
+    this.actionsRegistry = actionsRegistry;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.deactivateWorkflowExecutor = deactivateWorkflowExecutor;
+    this.chunkSize = chunkSize;
+  }
+
+  /** Deactivates all anonymous users whose sessions have not been updated for too long. */
   public void deactivateStaleAnonymousUsers() {
     LocalDateTime deactivationTime = LocalDateTime.now().minusMinutes(deactivatePeriodMinutes);
-    List<Session> anonymousSessions =
-        this.sessionRepository.findByStatusInAndRegistrationType(
-            Set.of(NEW, IN_PROGRESS), ANONYMOUS);
 
-    Set<Session> staleAnonymousSessions =
-        anonymousSessions.stream()
-            .filter(isSessionOutsideOfDeactivationTime(deactivationTime))
-            .collect(Collectors.toSet());
-
-    deactivateAnonymousUsersAndSessions(staleAnonymousSessions);
+    List<Long> sessionIds;
+    var lastSessionId = 0L;
+    do {
+      sessionIds =
+          this.sessionRepository.findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+              ACTIVE_STATUSES,
+              ANONYMOUS,
+              deactivationTime,
+              lastSessionId,
+              PageRequest.of(0, chunkSize));
+      if (sessionIds.isEmpty()) {
+        break;
+      }
+      var chunk = sessionIds;
+      var deactivatedSessions = transactionTemplate.execute(status -> deactivateSessions(chunk));
+      performDeactivationActions(deactivatedSessions);
+      lastSessionId = sessionIds.get(sessionIds.size() - 1);
+    } while (sessionIds.size() == chunkSize);
   }
 
-  private Predicate<Session> isSessionOutsideOfDeactivationTime(LocalDateTime deactivationTime) {
-    return session -> session.getUpdateDate().isBefore(deactivationTime);
+  private List<Session> deactivateSessions(List<Long> sessionIds) {
+    var staleSessions =
+        this.sessionRepository.findAllWithUserByIdIn(sessionIds).stream()
+            .filter(session -> ACTIVE_STATUSES.contains(session.getStatus()))
+            .collect(Collectors.toList());
+    if (!staleSessions.isEmpty()) {
+      this.sessionRepository.updateStatus(
+          staleSessions.stream().map(Session::getId).collect(Collectors.toList()),
+          ACTIVE_STATUSES,
+          DONE);
+    }
+    return staleSessions;
   }
 
-  private void deactivateAnonymousUsersAndSessions(Set<Session> staleSessions) {
-    Set<User> usersToDeactivate =
-        staleSessions.stream().map(Session::getUser).collect(Collectors.toSet());
-
-    this.performUserDeactivationActions(usersToDeactivate);
-    this.performSessionDeactivationActions(staleSessions);
-  }
+  private void performDeactivationActions(List<Session> deactivatedSessions) {
+    var userDeactivationActions =
+        this.actionsRegistry
+            .buildContainerForType(User.class)
+            .addActionToExecute(DeactivateKeycloakUserActionCommand.class);
+    var sessionDeactivationActions =
+        this.actionsRegistry
+            .buildContainerForType(Session.class)
+            .addActionToExecute(PostConversationFinishedAliasMessageActionCommand.class)
+            .addActionToExecute(SetRocketChatRoomReadOnlyActionCommand.class)
+            .addActionToExecute(SendFinishedAnonymousConversationEventActionCommand.class);
+    deactivatedSessions.forEach(session -> session.setStatus(DONE));
 
-  private void performUserDeactivationActions(Set<User> usersToDeactivate) {
-    var userDeactivationActions = this.actionsRegistry.buildContainerForType(User.class);
-    usersToDeactivate.forEach(
-        userToDeactivate ->
-            userDeactivationActions
-                .addActionToExecute(DeactivateKeycloakUserActionCommand.class)
-                .executeActions(userToDeactivate));
+    var actions =
+        Stream.concat(
+                deactivatedSessions.stream()
+                    .map(Session::getUser)
+                    .distinct()
+                    .map(
+                        user ->
+                            executeInParallel(
+                                userDeactivationActions, user, "user " + user.getUserId())),
+                deactivatedSessions.stream()
+                    .map(
+                        session ->
+                            executeInParallel(
+                                sessionDeactivationActions, session, "session " + session.getId())))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(actions).join();
   }
 
-  private void performSessionDeactivationActions(Set<Session> staleAnonymousSessions) {
-    var sessionDeactivationActions = this.actionsRegistry.buildContainerForType(Session.class);
-    staleAnonymousSessions.forEach(
-        staleSession ->
-            sessionDeactivationActions
-                .addActionToExecute(DeactivateSessionActionCommand.class)
-                .addActionToExecute(PostConversationFinishedAliasMessageActionCommand.class)
-                .addActionToExecute(SetRocketChatRoomReadOnlyActionCommand.class)
-                .addActionToExecute(SendFinishedAnonymousConversationEventActionCommand.class)
-                .executeActions(staleSession));
+  private <T> CompletableFuture<Void> executeInParallel(
+      ActionContainer<T> actionContainer, T executionTarget, String targetDescription) {
+    return runAsync(
+        () -> {
+          try {
+            actionContainer.executeActions(executionTarget);
+          } catch (RuntimeException e) {
+            log.error("Unable to perform deactivation actions for {}", targetDescription, e);
+          }
+        },
+        deactivateWorkflowExecutor);
   }
 }
@@ -1,39 +1,91 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.service;
 
+import static java.util.concurrent.CompletableFuture.runAsync;
+
 import de.caritas.cob.userservice.api.actions.chat.StopChatActionCommand;
 import de.caritas.cob.userservice.api.actions.registry.ActionsRegistry;
 import de.caritas.cob.userservice.api.model.Chat;
 import de.caritas.cob.userservice.api.port.out.ChatRepository;
 import java.time.LocalDateTime;
-import java.util.function.Predicate;
-import javax.transaction.Transactional;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Service to trigger stopping of group chats. */
+/**
+ * Service to trigger stopping of group chats. The stale chats are read in chunks of chat ids and
+ * stopped in parallel, every chat in its own transaction.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class DeactivateGroupChatService {
 
-  private final @NonNull ChatRepository chatRepository;
-  private final @NonNull ActionsRegistry actionsRegistry;
+  private final ChatRepository chatRepository;
+  private final ActionsRegistry actionsRegistry;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor deactivateWorkflowExecutor;
+  private final int chunkSize;
 
   @Value("${group.chat.deactivateworkflow.periodMinutes}")
   private long deactivatePeriodMinutes;
 
-  /** Stops all still open group chats with special constraints. */
-  @Transactional
+  public DeactivateGroupChatService(
+      ChatRepository chatRepository,
+      ActionsRegistry actionsRegistry,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("deactivateWorkflowExecutor") Executor deactivateWorkflowExecutor,
+      @Value("${group.chat.deactivateworkflow.chunk-size}") int chunkSize) {
+    this.chatRepository = chatRepository;
+    this.actionsRegistry = actionsRegistry;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.deactivateWorkflowExecutor = deactivateWorkflowExecutor;
+    this.chunkSize = chunkSize;
+  }
+
+  /** Stops all still open group chats whose duration has passed for too long. */
   public void deactivateStaleGroupChats() {
     var deactivationTime = LocalDateTime.now().minusMinutes(deactivatePeriodMinutes);
-    this.chatRepository.findAllByActiveIsTrue().stream()
-        .filter(isChatOutsideOfDeactivationTime(deactivationTime))
-        .forEach(this::deactivateStaleActiveChat);
+
+    List<Long> chatIds;
+    var lastChatId = 0L;
+    do {
+      chatIds =
+          this.chatRepository
+              .findIdsOfActiveChatsEndedBefore(
+                  deactivationTime, lastChatId, PageRequest.of(0, chunkSize))
+              .stream()
+              .map(Number::longValue)
+              .collect(Collectors.toList());
+      if (chatIds.isEmpty()) {
+        break;
+      }
+      var stops =
+          chatIds.stream()
+              .map(chatId -> runAsync(() -> stopChat(chatId), deactivateWorkflowExecutor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(stops).join();
+      lastChatId = chatIds.get(chatIds.size() - 1);
+    } while (chatIds.size() == chunkSize);
   }
 
-  private Predicate<Chat> isChatOutsideOfDeactivationTime(LocalDateTime deactivationTime) {
-    return chat -> chat.getUpdateDate().isBefore(deactivationTime.minusMinutes(chat.getDuration()));
+  private void stopChat(Long chatId) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status ->
+              this.chatRepository
+                  .findById(chatId)
+                  .filter(Chat::isActive)
+                  .ifPresent(this::deactivateStaleActiveChat));
+    } catch (RuntimeException e) {
+      log.error("Unable to stop group chat with id {}", chatId, e);
+    }
   }
 
   private void deactivateStaleActiveChat(Chat staleChat) {
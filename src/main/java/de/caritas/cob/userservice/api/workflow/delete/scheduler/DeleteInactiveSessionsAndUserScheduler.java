@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.workflow.delete.scheduler;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.api.workflow.delete.service.DeleteInactiveSessionsAndUserService;
 import lombok.NonNull;
@@ -21,6 +22,7 @@ public class DeleteInactiveSessionsAndUserScheduler {
 
   /** Entry method to perform deletion workflow. */
   @Scheduled(cron = "${session.inactive.deleteWorkflow.cron}")
+  @SchedulerLock(name = "deleteInactiveSessionsAndUser")
   public void performDeletionWorkflow() {
     tenantContextProvider.setTechnicalContextIfMultiTenancyIsEnabled();
     if (sessionInactiveDeleteWorkflowEnabled) {
@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.workflow.delete.scheduler;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.api.workflow.delete.service.DeleteUserAccountService;
 import lombok.NonNull;
@@ -17,6 +18,7 @@ public class DeleteUserAccountScheduler {
 
   /** Entry method to perform deletion workflow. */
   @Scheduled(cron = "${user.account.deleteworkflow.cron}")
+  @SchedulerLock(name = "deleteUserAccount")
   public void performDeletionWorkflow() {
     tenantContextProvider.setTechnicalContextIfMultiTenancyIsEnabled();
     this.deleteUserAccountService.deleteUserAccounts();
@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.workflow.delete.scheduler;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.api.workflow.delete.service.DeleteUsersRegisteredOnlyService;
 import lombok.NonNull;
@@ -24,6 +25,7 @@ public class DeleteUsersRegisteredOnlyScheduler {
 
   /** Entry method to perform deletion workflow. */
   @Scheduled(cron = "${user.registeredonly.deleteWorkflow.cron}")
+  @SchedulerLock(name = "deleteUsersRegisteredOnly")
   public void performDeletionWorkflow() {
     tenantContextProvider.setTechnicalContextIfMultiTenancyIsEnabled();
     if (userRegisteredOnlyDeleteWorkflowEnabled) {
@@ -5,35 +5,61 @@ import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
-import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.port.out.UserRepository;
 import de.caritas.cob.userservice.api.workflow.delete.model.DeletionWorkflowError;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import javax.transaction.Transactional;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Service to trigger deletion of anonymous users. */
+/**
+ * Service to trigger deletion of anonymous users. The users are read in chunks of user ids, every
+ * chunk is deleted in its own transaction and the persistence context is cleared afterwards.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class DeleteUserAnonymousService {
 
-  private final @NonNull SessionRepository sessionRepository;
-  private final @NonNull DeleteUserAccountService deleteUserAccountService;
-  private final @NonNull WorkflowErrorMailService workflowErrorMailService;
+  static final String METRIC_PREFIX = "user.anonymous.deletion";
+
+  private final UserRepository userRepository;
+  private final DeleteUserAccountService deleteUserAccountService;
+  private final WorkflowErrorMailService workflowErrorMailService;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManager entityManager;
+  private final MeterRegistry meterRegistry;
+  private final int chunkSize;
 
   @Value("${user.anonymous.deleteworkflow.periodMinutes}")
   private int deletionPeriodMinutes;
 
+  public DeleteUserAnonymousService(
+      UserRepository userRepository,
+      DeleteUserAccountService deleteUserAccountService,
+      WorkflowErrorMailService workflowErrorMailService,
+      PlatformTransactionManager transactionManager,
+      EntityManager entityManager,
+      MeterRegistry meterRegistry,
+      @Value("${user.anonymous.deleteworkflow.chunk-size}") int chunkSize) {
+    this.userRepository = userRepository;
+    this.deleteUserAccountService = deleteUserAccountService;
+    this.workflowErrorMailService = workflowErrorMailService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.entityManager = entityManager;
+    this.meterRegistry = meterRegistry;
+    this.chunkSize = chunkSize;
+  }
+
   /** Deletes all anonymous users with special constraints. */
-  @Transactional
   public void deleteInactiveAnonymousUsers() {
     List<DeletionWorkflowError> workflowErrors = deleteAnonymousUsersWithOverdueSessions();
 
@@ -43,29 +69,56 @@ public class DeleteUserAnonymousService {
   }
 
   private List<DeletionWorkflowError> deleteAnonymousUsersWithOverdueSessions() {
-    List<Session> doneSessions = this.sessionRepository.findByStatus(SessionStatus.DONE);
     LocalDateTime deletionTime = LocalDateTime.now().minusMinutes(deletionPeriodMinutes);
+    var workflowErrors = new ArrayList<DeletionWorkflowError>();
+    var chunkTimer = meterRegistry.timer(METRIC_PREFIX + ".chunk");
 
-    Set<User> usersWithoutOpenSessions =
-        doneSessions.stream()
-            .filter(sessionUsersHavingAllSessionsDoneAndOverdue(deletionTime))
-            .map(Session::getUser)
-            .collect(Collectors.toSet());
+    List<String> userIds;
+    var lastUserId = "";
+    do {
+      userIds =
+          userRepository.findUserIdsWithAllSessionsInStatusUpdatedBefore(
+              SessionStatus.DONE, deletionTime, lastUserId, PageRequest.of(0, chunkSize));
+      if (userIds.isEmpty()) {
+        break;
+      }
+      var chunk = userIds;
+      workflowErrors.addAll(
+          chunkTimer.record(
+              () -> transactionTemplate.execute(status -> deleteChunk(chunk, deletionTime))));
+      lastUserId = userIds.get(userIds.size() - 1);
+    } while (userIds.size() == chunkSize);
 
-    return usersWithoutOpenSessions.stream()
-        .map(deleteUserAccountService::performUserDeletion)
-        .flatMap(Collection::stream)
-        .collect(Collectors.toList());
+    return workflowErrors;
+  }
+
+  private List<DeletionWorkflowError> deleteChunk(
+      List<String> userIds, LocalDateTime deletionTime) {
+    var workflowErrors = new ArrayList<DeletionWorkflowError>();
+    for (User user : userRepository.findAllWithSessionsByUserIdIn(userIds)) {
+      if (!hasAllSessionsDoneAndOverdue(user, deletionTime)) {
+        continue;
+      }
+      var userErrors = deleteUserAccountService.performUserDeletion(user);
+      workflowErrors.addAll(userErrors);
+      meterRegistry
+          .counter(METRIC_PREFIX + ".users", "result", userErrors.isEmpty() ? "deleted" : "failed")
+          .increment();
+    }
+    entityManager.flush();
+    entityManager.clear();
+    log.info(
+        "Anonymous user deletion: processed {} users up to id {}",
+        userIds.size(),
+        userIds.get(userIds.size() - 1));
+    return workflowErrors;
   }
 
-  private Predicate<Session> sessionUsersHavingAllSessionsDoneAndOverdue(
-      LocalDateTime deletionTime) {
-    return session -> {
-      Set<Session> userSessions = session.getUser().getSessions();
-      return CollectionUtils.isEmpty(userSessions)
-          || (allSessionsAreDone(userSessions)
-              && allSessionsAreBeforeDeletionTime(deletionTime, userSessions));
-    };
+  private boolean hasAllSessionsDoneAndOverdue(User user, LocalDateTime deletionTime) {
+    Set<Session> userSessions = user.getSessions();
+    return CollectionUtils.isEmpty(userSessions)
+        || (allSessionsAreDone(userSessions)
+            && allSessionsAreBeforeDeletionTime(deletionTime, userSessions));
   }
 
   private boolean allSessionsAreDone(Set<Session> sessions) {
@@ -2,6 +2,7 @@ package de.caritas.cob.userservice.api.workflow.enquirynotification.scheduler;
 
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 
+import de.caritas.cob.userservice.api.scheduler.SchedulerLock;
 import de.caritas.cob.userservice.api.workflow.enquirynotification.service.EnquiryNotificationService;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,7 @@ public class EnquiryNotificationScheduler {
 
   /** Entry method to build and send email notifications. */
   @Scheduled(cron = "${enquiry.open.notification.cron}")
+  @SchedulerLock(name = "enquiryNotification")
   public void sendEmailNotificationsForOpenEnquiries() {
     if (isTrue(enquiryNotificationsEnabled)) {
       enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
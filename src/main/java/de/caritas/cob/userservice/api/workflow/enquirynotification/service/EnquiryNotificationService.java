@@ -4,14 +4,15 @@ import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc
 import static de.caritas.cob.userservice.api.helper.EmailNotificationUtils.deserializeNotificationSettingsOrDefaultIfNull;
 import static de.caritas.cob.userservice.api.service.emailsupplier.EmailSupplier.TEMPLATE_DAILY_ENQUIRY_NOTIFICATION;
 import static java.util.Arrays.asList;
-import static java.util.Objects.nonNull;
-import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.runAsync;
 
+import com.google.common.collect.Lists;
 import com.neovisionaries.i18n.LanguageCode;
 import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantAgency;
-import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.OpenEnquiriesOfAgency;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.port.out.SessionRepository;
 import de.caritas.cob.userservice.api.service.ConsultantAgencyService;
@@ -23,102 +24,106 @@ import de.caritas.cob.userservice.api.workflow.enquirynotification.model.Enquiri
 import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
 import de.caritas.cob.userservice.mailservice.generated.web.model.MailsDTO;
 import de.caritas.cob.userservice.mailservice.generated.web.model.TemplateDataDTO;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /** Service to build and send email notifications for open enquiries. */
 @Service
-@RequiredArgsConstructor
 public class EnquiryNotificationService {
 
   private static final String MAIL_SUBJECT = "Online-Beratung | Unbeantwortete Erstanfragen";
   private static final String UNKNOWN_AGENCY = "Unbekannte Beratungsstelle";
 
-  private final @NonNull MailService mailService;
-  private final @NonNull SessionRepository sessionRepository;
-  private final @NonNull ConsultantAgencyService consultantAgencyService;
-  private final @NonNull AgencyService agencyService;
-
-  private final @NonNull ReleaseToggleService releaseToggleService;
+  private final MailService mailService;
+  private final SessionRepository sessionRepository;
+  private final ConsultantAgencyService consultantAgencyService;
+  private final AgencyService agencyService;
+  private final ReleaseToggleService releaseToggleService;
+  private final Executor enquiryNotificationMailExecutor;
 
   @Value("${enquiry.open.notification.check.hours}")
   private Long openEnquiryCheckHours;
 
+  @Value("${enquiry.open.notification.mail.batch-size}")
+  private int mailBatchSize;
+
   @Value("${app.base.url}")
   private String applicationBaseUrl;
 
-  /** Entry method to build and send email notifications. */
-  public void sendEmailNotificationsForOpenEnquiries() {
-    var agencyIdsWithOpenEnquiries = findAgencyIdsWithOpenEnquiries();
-    var agenciesWithOpenEnquiries =
-        agencyService.getAgencies(new ArrayList<>(agencyIdsWithOpenEnquiries.keySet()));
-    var agencyIdToAgency =
-        agenciesWithOpenEnquiries.stream()
-            .collect(Collectors.toMap(AgencyDTO::getId, Function.identity()));
-    var mailsContentForAgencies =
-        createMailsContentForAgencies(agencyIdsWithOpenEnquiries, agencyIdToAgency);
-
-    mailsContentForAgencies.forEach(this::buildAndSendEnquiryNotificationMails);
-  }
-
-  private Map<Long, Long> findAgencyIdsWithOpenEnquiries() {
-    return sessionRepository.findByStatus(SessionStatus.NEW).stream()
-        .filter(this::longerOpenThanCheckHours)
-        .map(Session::getAgencyId)
-        .collect(Collectors.groupingBy(e -> e, Collectors.counting()));
+  public EnquiryNotificationService(
+      @NonNull MailService mailService,
+      @NonNull SessionRepository sessionRepository,
+      @NonNull ConsultantAgencyService consultantAgencyService,
+      @NonNull AgencyService agencyService,
+      @NonNull ReleaseToggleService releaseToggleService,
+      @Qualifier("enquiryNotificationMailExecutor") @NonNull
+          Executor enquiryNotificationMailExecutor) {
+    this.mailService = mailService;
+    this.sessionRepository = sessionRepository;
+    this.consultantAgencyService = consultantAgencyService;
+    this.agencyService = agencyService;
+    this.releaseToggleService = releaseToggleService;
+    this.enquiryNotificationMailExecutor = enquiryNotificationMailExecutor;
   }
 
-  private boolean longerOpenThanCheckHours(Session session) {
-    var rightNow = nowInUtc();
-    var enquiryMessageDate = session.getEnquiryMessageDate();
-
-    if (nonNull(enquiryMessageDate)) {
-      return rightNow.minusHours(openEnquiryCheckHours).isAfter(enquiryMessageDate);
+  /**
+   * Entry method to build and send email notifications. The open enquiries are counted per agency
+   * by the database and the consultants of all notified agencies are loaded at once.
+   */
+  public void sendEmailNotificationsForOpenEnquiries() {
+    var openEnquiriesOfAgencies =
+        sessionRepository.countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId(
+            SessionStatus.NEW, nowInUtc().minusHours(openEnquiryCheckHours));
+    if (openEnquiriesOfAgencies.isEmpty()) {
+      return;
     }
-    return false;
-  }
-
-  private Collection<EnquiriesNotificationMailContent> createMailsContentForAgencies(
-      Map<Long, Long> agencyIdsWithOpenEnquiries, Map<Long, AgencyDTO> agencyIdToAgency) {
-    return agencyIdsWithOpenEnquiries.entrySet().stream()
-        .map(toMailContent(agencyIdToAgency))
-        .collect(Collectors.toSet());
-  }
 
-  private Function<Entry<Long, Long>, EnquiriesNotificationMailContent> toMailContent(
-      Map<Long, AgencyDTO> agencyIdToAgency) {
-    return agencyIdEnquiriesEntry -> {
-      var agencyId = agencyIdEnquiriesEntry.getKey();
-      var openEnquiries = agencyIdEnquiriesEntry.getValue();
-      AgencyDTO agency = agencyIdToAgency.get(agencyId);
-      var agencyName = agency == null ? UNKNOWN_AGENCY : agency.getName();
-      return EnquiriesNotificationMailContent.builder()
-          .agencyId(agencyId)
-          .amountOfOpenEnquiries(openEnquiries)
-          .agencyName(agencyName)
-          .build();
-    };
-  }
+    var agencyIds =
+        openEnquiriesOfAgencies.stream()
+            .map(OpenEnquiriesOfAgency::getAgencyId)
+            .collect(Collectors.toList());
+    var agencyIdToAgency =
+        agencyService.getAgencies(agencyIds).stream()
+            .collect(Collectors.toMap(AgencyDTO::getId, Function.identity()));
+    var agencyIdToConsultants =
+        consultantAgencyService.getConsultantAgenciesWithConsultants(agencyIds).stream()
+            .collect(
+                Collectors.groupingBy(
+                    ConsultantAgency::getAgencyId,
+                    Collectors.mapping(ConsultantAgency::getConsultant, Collectors.toList())));
 
-  private void buildAndSendEnquiryNotificationMails(
-      EnquiriesNotificationMailContent enquiryMailContent) {
     var mailDTOs =
-        consultantAgencyService.findConsultantsByAgencyId(enquiryMailContent.getAgencyId()).stream()
-            .map(ConsultantAgency::getConsultant)
-            .filter(c -> wantsToReceiveNotifications(c))
-            .map(consultant -> buildMailTO(consultant, enquiryMailContent))
+        openEnquiriesOfAgencies.stream()
+            .map(openEnquiries -> toMailContent(openEnquiries, agencyIdToAgency))
+            .flatMap(
+                mailContent ->
+                    agencyIdToConsultants
+                        .getOrDefault(mailContent.getAgencyId(), emptyList())
+                        .stream()
+                        .filter(this::wantsToReceiveNotifications)
+                        .map(consultant -> buildMailTO(consultant, mailContent)))
             .collect(Collectors.toList());
 
-    buildAndSendNotificationEmail(mailDTOs);
+    sendNotificationEmailsInBatches(mailDTOs);
+  }
+
+  private EnquiriesNotificationMailContent toMailContent(
+      OpenEnquiriesOfAgency openEnquiries, Map<Long, AgencyDTO> agencyIdToAgency) {
+    var agency = agencyIdToAgency.get(openEnquiries.getAgencyId());
+    var agencyName = agency == null ? UNKNOWN_AGENCY : agency.getName();
+    return EnquiriesNotificationMailContent.builder()
+        .agencyId(openEnquiries.getAgencyId())
+        .amountOfOpenEnquiries(openEnquiries.getAmountOfOpenEnquiries())
+        .agencyName(agencyName)
+        .build();
   }
 
   private boolean wantsToReceiveNotifications(Consultant consultant) {
@@ -150,11 +155,16 @@ public class EnquiryNotificationService {
                     .value(String.valueOf(enquiryNotificationContent.getAmountOfOpenEnquiries()))));
   }
 
-  private void buildAndSendNotificationEmail(List<MailDTO> mailsToSend) {
-    if (isNotEmpty(mailsToSend)) {
-      var mailsDTO = new MailsDTO().mails(mailsToSend);
-      mailService.sendEmailNotification(mailsDTO);
-    }
+  private void sendNotificationEmailsInBatches(List<MailDTO> mailsToSend) {
+    var batches =
+        Lists.partition(mailsToSend, mailBatchSize).stream()
+            .map(
+                batch ->
+                    runAsync(
+                        () -> mailService.sendEmailNotification(new MailsDTO().mails(batch)),
+                        enquiryNotificationMailExecutor))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(batches).join();
   }
 
   private static de.caritas.cob.userservice.mailservice.generated.web.model.LanguageCode languageOf(
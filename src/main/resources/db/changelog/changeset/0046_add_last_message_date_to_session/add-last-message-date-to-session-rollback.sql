@@ -0,0 +1,3 @@
+DROP INDEX `idx_session_consultant_status_last_message` ON `userservice`.`session`;
+ALTER TABLE `userservice`.`session`
+    DROP COLUMN `last_message_date`;
@@ -0,0 +1,8 @@
+ALTER TABLE `userservice`.`session`
+    ADD COLUMN `last_message_date` datetime NULL DEFAULT NULL AFTER `message_date`;
+UPDATE `userservice`.`session`
+    SET `last_message_date` = COALESCE(`update_date`, `message_date`, `create_date`, UTC_TIMESTAMP);
+ALTER TABLE `userservice`.`session`
+    MODIFY COLUMN `last_message_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP);
+CREATE INDEX `idx_session_consultant_status_last_message` ON `userservice`.`session`
+    (`consultant_id`, `status`, `last_message_date`, `Id`);
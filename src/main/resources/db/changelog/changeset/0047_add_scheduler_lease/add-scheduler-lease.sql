@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS `userservice`.`scheduler_lease` (
+    `name` varchar(64) COLLATE utf8_unicode_ci NOT NULL,
+    `locked_until` datetime(3) NOT NULL,
+    `locked_at` datetime(3) NOT NULL,
+    `locked_by` varchar(255) COLLATE utf8_unicode_ci NOT NULL,
+PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_unicode_ci;
@@ -0,0 +1 @@
+DROP INDEX `idx_session_status_message_date_agency` ON `userservice`.`session`;
@@ -0,0 +1,2 @@
+CREATE INDEX `idx_session_status_message_date_agency` ON `userservice`.`session`
+    (`status`, `message_date`, `agency_id`);
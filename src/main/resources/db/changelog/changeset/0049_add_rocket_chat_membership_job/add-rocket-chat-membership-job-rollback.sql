@@ -0,0 +1,4 @@
+DROP TABLE IF EXISTS `userservice`.`rocket_chat_membership_operation`;
+DROP SEQUENCE IF EXISTS `userservice`.`sequence_rocket_chat_membership_operation`;
+DROP TABLE IF EXISTS `userservice`.`rocket_chat_membership_job`;
+DROP SEQUENCE IF EXISTS `userservice`.`sequence_rocket_chat_membership_job`;
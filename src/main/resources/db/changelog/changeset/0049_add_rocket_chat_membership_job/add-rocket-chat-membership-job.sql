@@ -0,0 +1,39 @@
+CREATE TABLE IF NOT EXISTS `userservice`.`rocket_chat_membership_job` (
+    `id` bigint(21) unsigned NOT NULL,
+    `consultant_id` varchar(36) COLLATE utf8_unicode_ci NOT NULL,
+    `agency_id` bigint(21) unsigned NOT NULL,
+    `tenant_id` bigint(21) NULL DEFAULT NULL,
+    `status` varchar(9) COLLATE utf8_unicode_ci NOT NULL,
+    `create_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP),
+    `update_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP),
+PRIMARY KEY (`id`),
+UNIQUE KEY `consultant_agency` (`consultant_id`, `agency_id`),
+KEY `status_update_date` (`status`, `update_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_unicode_ci;
+CREATE SEQUENCE IF NOT EXISTS `userservice`.`sequence_rocket_chat_membership_job`
+    INCREMENT BY 1
+    MINVALUE = 0
+NOMAXVALUE
+START WITH 0
+CACHE 10;
+
+CREATE TABLE IF NOT EXISTS `userservice`.`rocket_chat_membership_operation` (
+    `id` bigint(21) unsigned NOT NULL,
+    `job_id` bigint(21) unsigned NOT NULL,
+    `session_id` bigint(21) unsigned NOT NULL,
+    `rc_group_id` varchar(255) COLLATE utf8_unicode_ci NOT NULL,
+    `group_type` varchar(14) COLLATE utf8_unicode_ci NOT NULL,
+    `status` varchar(9) COLLATE utf8_unicode_ci NOT NULL,
+    `attempts` int(11) NOT NULL DEFAULT 0,
+    `last_error` varchar(1024) COLLATE utf8_unicode_ci NULL DEFAULT NULL,
+    `update_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP),
+PRIMARY KEY (`id`),
+KEY `job_status` (`job_id`, `status`),
+CONSTRAINT `rocket_chat_membership_operation_ibfk_1` FOREIGN KEY (`job_id`) REFERENCES `rocket_chat_membership_job` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_unicode_ci;
+CREATE SEQUENCE IF NOT EXISTS `userservice`.`sequence_rocket_chat_membership_operation`
+    INCREMENT BY 1
+    MINVALUE = 0
+NOMAXVALUE
+START WITH 0
+CACHE 10;
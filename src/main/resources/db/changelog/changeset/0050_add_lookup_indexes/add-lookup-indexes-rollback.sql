@@ -0,0 +1,11 @@
+DROP INDEX `idx_consultant_agency_consultant_status` ON `userservice`.`consultant_agency`;
+DROP INDEX `idx_consultant_agency_agency_delete_date` ON `userservice`.`consultant_agency`;
+DROP INDEX `idx_user_agency_user_agency` ON `userservice`.`user_agency`;
+DROP INDEX `idx_chat_agency_agency_chat` ON `userservice`.`chat_agency`;
+DROP INDEX `idx_chat_is_active` ON `userservice`.`chat`;
+DROP INDEX `idx_chat_rc_group_id` ON `userservice`.`chat`;
+DROP INDEX `idx_session_consulting_type_registration_status` ON `userservice`.`session`;
+DROP INDEX `idx_session_status_registration_type` ON `userservice`.`session`;
+DROP INDEX `idx_session_agency_status_consultant` ON `userservice`.`session`;
+DROP INDEX `idx_session_rc_feedback_group_id` ON `userservice`.`session`;
+DROP INDEX `idx_session_rc_group_id` ON `userservice`.`session`;
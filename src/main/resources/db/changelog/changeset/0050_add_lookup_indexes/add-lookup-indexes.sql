@@ -0,0 +1,22 @@
+CREATE INDEX `idx_session_rc_group_id` ON `userservice`.`session`
+    (`rc_group_id`);
+CREATE INDEX `idx_session_rc_feedback_group_id` ON `userservice`.`session`
+    (`rc_feedback_group_id`);
+CREATE INDEX `idx_session_agency_status_consultant` ON `userservice`.`session`
+    (`agency_id`, `status`, `consultant_id`);
+CREATE INDEX `idx_session_status_registration_type` ON `userservice`.`session`
+    (`status`, `registration_type`);
+CREATE INDEX `idx_session_consulting_type_registration_status` ON `userservice`.`session`
+    (`consulting_type`, `registration_type`, `status`, `create_date`);
+CREATE INDEX `idx_chat_rc_group_id` ON `userservice`.`chat`
+    (`rc_group_id`);
+CREATE INDEX `idx_chat_is_active` ON `userservice`.`chat`
+    (`is_active`);
+CREATE INDEX `idx_chat_agency_agency_chat` ON `userservice`.`chat_agency`
+    (`agency_id`, `chat_id`);
+CREATE INDEX `idx_user_agency_user_agency` ON `userservice`.`user_agency`
+    (`user_id`, `agency_id`);
+CREATE INDEX `idx_consultant_agency_agency_delete_date` ON `userservice`.`consultant_agency`
+    (`agency_id`, `delete_date`);
+CREATE INDEX `idx_consultant_agency_consultant_status` ON `userservice`.`consultant_agency`
+    (`consultant_id`, `status`, `delete_date`);
@@ -0,0 +1,2 @@
+DROP TABLE IF EXISTS `userservice`.`anonymous_username_allocation`;
+DROP SEQUENCE IF EXISTS `userservice`.`sequence_anonymous_username_block`;
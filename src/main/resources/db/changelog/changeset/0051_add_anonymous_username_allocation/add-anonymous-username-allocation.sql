@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS `userservice`.`anonymous_username_allocation` (
+    `id` int(11) unsigned NOT NULL,
+    `released` tinyint(4) NOT NULL DEFAULT 0,
+    `update_date` datetime NOT NULL DEFAULT (UTC_TIMESTAMP),
+PRIMARY KEY (`id`),
+KEY `released_id` (`released`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_unicode_ci;
+CREATE SEQUENCE IF NOT EXISTS `userservice`.`sequence_anonymous_username_block`
+    INCREMENT BY 1
+    MINVALUE = 0
+NOMAXVALUE
+START WITH 0
+CACHE 10;
@@ -0,0 +1,2 @@
+DROP INDEX `idx_consultant_rc_user_id` ON `userservice`.`consultant`;
+DROP INDEX `idx_user_rc_user_id` ON `userservice`.`user`;
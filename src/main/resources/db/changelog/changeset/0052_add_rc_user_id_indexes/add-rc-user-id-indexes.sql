@@ -0,0 +1,4 @@
+CREATE INDEX `idx_user_rc_user_id` ON `userservice`.`user`
+    (`rc_user_id`);
+CREATE INDEX `idx_consultant_rc_user_id` ON `userservice`.`consultant`
+    (`rc_user_id`);
@@ -0,0 +1,2 @@
+DROP TABLE IF EXISTS `userservice`.`statistics_outbox_event`;
+DROP SEQUENCE IF EXISTS `userservice`.`sequence_statistics_outbox_event`;
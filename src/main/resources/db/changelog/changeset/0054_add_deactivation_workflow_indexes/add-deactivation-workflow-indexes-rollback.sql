@@ -0,0 +1,6 @@
+CREATE INDEX `idx_chat_is_active` ON `userservice`.`chat`
+    (`is_active`);
+DROP INDEX `idx_chat_is_active_update_date` ON `userservice`.`chat`;
+CREATE INDEX `idx_session_status_registration_type` ON `userservice`.`session`
+    (`status`, `registration_type`);
+DROP INDEX `idx_session_status_registration_type_update_date` ON `userservice`.`session`;
@@ -1,13 +1,27 @@
 package de.caritas.cob.userservice.api;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import com.google.common.collect.Lists;
+import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantInfixSearchService;
 import de.caritas.cob.userservice.api.admin.service.tenant.TenantService;
+import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
+import de.caritas.cob.userservice.api.port.out.MessageClient;
 import de.caritas.cob.userservice.api.service.agency.AgencyService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -22,6 +36,8 @@ class AccountManagerTest {
 
   @Mock ConsultantRepository consultantRepository;
 
+  @Mock ConsultantInfixSearchService consultantInfixSearchService;
+
   @Mock ConsultantAgencyRepository consultantAgencyRepository;
 
   @Mock UserServiceMapper userServiceMapper;
@@ -32,11 +48,15 @@ class AccountManagerTest {
 
   @Mock Page<Consultant.ConsultantBase> page;
 
+  @Mock MessageClient messageClient;
+
+  @Mock UsernameTranscoder usernameTranscoder;
+
   @Test
   void findConsultantsByInfix_Should_NotFilterByAgenciesIfAgencyListIsEmpty() {
     // given
     Mockito.when(
-            consultantRepository.findAllByInfix(
+            consultantInfixSearchService.findAllByInfix(
                 Mockito.eq("infix"), Mockito.any(PageRequest.class)))
         .thenReturn(page);
 
@@ -45,7 +65,7 @@ class AccountManagerTest {
         "infix", false, Lists.newArrayList(), 1, 10, "email", true);
 
     // then
-    Mockito.verify(consultantRepository)
+    Mockito.verify(consultantInfixSearchService)
         .findAllByInfix(Mockito.eq("infix"), Mockito.any(PageRequest.class));
   }
 
@@ -53,7 +73,7 @@ class AccountManagerTest {
   void findConsultantsByInfix_Should_FilterByAgenciesIfAgencyListIsNotEmpty() {
     // given
     Mockito.when(
-            consultantRepository.findAllByInfixAndAgencyIds(
+            consultantInfixSearchService.findAllByInfixAndAgencyIds(
                 Mockito.eq("infix"), Mockito.anyCollection(), Mockito.any(PageRequest.class)))
         .thenReturn(page);
 
@@ -62,10 +82,66 @@ class AccountManagerTest {
         "infix", true, Lists.newArrayList(1L), 1, 10, "email", true);
 
     // then
-    Mockito.verify(consultantRepository)
+    Mockito.verify(consultantInfixSearchService)
         .findAllByInfixAndAgencyIds(
             Mockito.eq("infix"),
             Mockito.eq(Lists.newArrayList(1L)),
             Mockito.any(PageRequest.class));
   }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 50, 500})
+  void findConsultantsByUsernames_Should_QueryDatabaseAndRocketChatOnce(int numberOfConsultants) {
+    // given
+    var usernames = new HashSet<String>();
+    var dbConsultants = new ArrayList<Consultant>();
+    var chatUsers = new HashMap<String, Map<String, Object>>();
+    for (var i = 0; i < numberOfConsultants; i++) {
+      var consultant = new Consultant();
+      consultant.setId("id-" + i);
+      consultant.setUsername("enc.username-" + i);
+      consultant.setRocketChatId("chat-" + i);
+      dbConsultants.add(consultant);
+      usernames.add("username-" + i);
+      chatUsers.put("chat-" + i, Map.of("displayName", "Display " + i));
+    }
+    Mockito.when(usernameTranscoder.transformedOf(Mockito.anyString()))
+        .thenAnswer(invocation -> "enc." + invocation.getArgument(0));
+    Mockito.when(consultantRepository.findByUsernameInAndDeleteDateIsNull(Mockito.anyCollection()))
+        .thenReturn(dbConsultants);
+    Mockito.when(messageClient.findUsers(Mockito.anyCollection())).thenReturn(chatUsers);
+    Mockito.when(userServiceMapper.mapOf(Mockito.any(Consultant.class), Mockito.anyMap()))
+        .thenAnswer(invocation -> Map.of("id", invocation.<Consultant>getArgument(0).getId()));
+
+    // when
+    var consultants = accountManager.findConsultantsByUsernames(usernames);
+
+    // then
+    Mockito.verify(consultantRepository)
+        .findByUsernameInAndDeleteDateIsNull(Mockito.anyCollection());
+    Mockito.verify(consultantRepository, Mockito.never())
+        .findByUsernameAndDeleteDateIsNull(Mockito.anyString());
+    Mockito.verify(messageClient).findUsers(chatUsers.keySet());
+    Mockito.verify(messageClient, Mockito.never()).findUserAndAddToCache(Mockito.anyString());
+    assertEquals(numberOfConsultants, consultants.size());
+    assertEquals(Map.of("id", "id-0"), consultants.get("username-0"));
+  }
+
+  @Test
+  void findConsultantsByUsernames_Should_SkipConsultantsMissingInRocketChat() {
+    // given
+    var consultant = new Consultant();
+    consultant.setUsername("username");
+    consultant.setRocketChatId("chatUserId");
+    Mockito.when(usernameTranscoder.transformedOf("username")).thenReturn("enc.username");
+    Mockito.when(consultantRepository.findByUsernameInAndDeleteDateIsNull(Mockito.anyCollection()))
+        .thenReturn(List.of(consultant));
+    Mockito.when(messageClient.findUsers(Set.of("chatUserId"))).thenReturn(Map.of());
+
+    // when
+    var consultants = accountManager.findConsultantsByUsernames(List.of("username", "unknown"));
+
+    // then
+    assertTrue(consultants.isEmpty());
+  }
 }
@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.adapters.keycloak;
 
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.KEYCLOAK_USER_ROLES_CACHE;
 import static de.caritas.cob.userservice.api.exception.httpresponses.customheader.HttpStatusExceptionReason.EMAIL_NOT_AVAILABLE;
 import static de.caritas.cob.userservice.api.exception.httpresponses.customheader.HttpStatusExceptionReason.USERNAME_NOT_AVAILABLE;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.OTP_INFO_DTO;
@@ -40,8 +41,14 @@ import de.caritas.cob.userservice.api.helper.UserHelper;
 import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
 import de.caritas.cob.userservice.api.port.out.IdentityClientConfig;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -69,6 +76,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.slf4j.Logger;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
@@ -102,6 +110,10 @@ public class KeycloakServiceTest {
   @Mock private UsernameTranscoder usernameTranscoder;
   @Mock private UserHelper userHelper;
 
+  @Mock
+  @SuppressWarnings("unused")
+  private KeycloakUserRolesCache userRolesCache;
+
   @Mock UsersResource usersResource;
 
   EasyRandom easyRandom = new EasyRandom();
@@ -113,6 +125,10 @@ public class KeycloakServiceTest {
     setField(keycloakService, "keycloakClientId", "app");
     setField(keycloakService, "usernameTranscoder", usernameTranscoder);
     setField(keycloakService, "multiTenancyEnabled", false);
+    setField(
+        keycloakService,
+        "userRolesCache",
+        new KeycloakUserRolesCache(new ConcurrentMapCacheManager(KEYCLOAK_USER_ROLES_CACHE)));
     setInternalState(KeycloakService.class, "log", logger);
   }
 
@@ -244,7 +260,6 @@ public class KeycloakServiceTest {
   private UsersResource givenUsersResource(UserResource userResource) {
     var usersResource = mock(UsersResource.class);
     when(usersResource.get("userId")).thenReturn(userResource);
-    when(usersResource.search(anyString(), eq(0), eq(Integer.MAX_VALUE))).thenReturn(List.of());
     return usersResource;
   }
 
@@ -265,7 +280,6 @@ public class KeycloakServiceTest {
         givenUserRepresentationWithFilledEmail(RandomStringUtils.randomAlphanumeric(8));
     when(userResource.toRepresentation()).thenReturn(userRepresentation);
     when(usersResource.get(userId)).thenReturn(userResource);
-    when(usersResource.search(anyString(), eq(0), eq(Integer.MAX_VALUE))).thenReturn(List.of());
     when(keycloakClient.getUsersResource()).thenReturn(usersResource);
 
     keycloakService.deleteEmailAddress();
@@ -480,7 +494,7 @@ public class KeycloakServiceTest {
     when(userMock.getUsername()).thenReturn("Unique");
     List<UserRepresentation> userRepresentations = singletonList(userMock);
     UsersResource usersResource = mock(UsersResource.class);
-    when(usersResource.search(any())).thenReturn(userRepresentations);
+    when(usersResource.search(any(), eq(true))).thenReturn(userRepresentations);
     when(keycloakClient.getUsersResource()).thenReturn(usersResource);
 
     boolean isAvailable = this.keycloakService.isUsernameAvailable("username");
@@ -497,7 +511,7 @@ public class KeycloakServiceTest {
     List<UserRepresentation> encodedUserRepresentations =
         singletonList(easyRandom.nextObject(UserRepresentation.class));
     UsersResource usersResource = mock(UsersResource.class);
-    when(usersResource.search(any()))
+    when(usersResource.search(any(), eq(true)))
         .thenReturn(decodedUserRepresentations)
         .thenReturn(encodedUserRepresentations);
     when(keycloakClient.getUsersResource()).thenReturn(usersResource);
@@ -517,7 +531,7 @@ public class KeycloakServiceTest {
         singletonList(easyRandom.nextObject(UserRepresentation.class));
     List<UserRepresentation> encodedUserRepresentations = singletonList(userMock);
     UsersResource usersResource = mock(UsersResource.class);
-    when(usersResource.search(any()))
+    when(usersResource.search(any(), eq(true)))
         .thenReturn(decodedUserRepresentations)
         .thenReturn(encodedUserRepresentations);
     when(keycloakClient.getUsersResource()).thenReturn(usersResource);
@@ -728,7 +742,7 @@ public class KeycloakServiceTest {
     UserRepresentation otherUserRepresentation = givenUserRepresentation("newemail");
     UserResource userResource = givenUserResourceWithRepresentation(userRepresentation);
     UsersResource usersResource = givenUsersResourceWithAnyUserId(userResource);
-    when(usersResource.search(any(), any(), any()))
+    when(keycloakClient.findUsersByExactEmail("newemail"))
         .thenReturn(singletonList(otherUserRepresentation));
     when(keycloakClient.getUsersResource()).thenReturn(usersResource);
     UserDTO userDTO = new UserDTO();
@@ -815,6 +829,93 @@ public class KeycloakServiceTest {
     assertThat(hasAuthority, is(false));
   }
 
+  @Test
+  public void userHasRole_Should_readRolesFromKeycloakOnlyOnce_When_askedRepeatedly() {
+    var roleScopeResource = givenRealmRoles("user");
+
+    assertTrue(keycloakService.userHasRole("userId", UserRole.USER.getValue()));
+    assertTrue(keycloakService.userHasAuthority("userId", AuthorityValue.USER_DEFAULT));
+    assertFalse(keycloakService.userHasRole("userId", UserRole.CONSULTANT.getValue()));
+
+    verify(roleScopeResource, times(1)).listAll();
+  }
+
+  @Test
+  public void removeRoleIfPresent_Should_readRolesFromKeycloakAgain_When_roleHasBeenRemoved() {
+    var roleScopeResource = givenRealmRoles("user");
+    var usersResource = keycloakClient.getUsersResource();
+    var realmResource = mock(RealmResource.class);
+    when(realmResource.users()).thenReturn(usersResource);
+    var rolesResource = mock(RolesResource.class);
+    var roleResource = mock(RoleResource.class);
+    when(roleResource.toRepresentation()).thenReturn(new RoleRepresentation());
+    when(rolesResource.get(any())).thenReturn(roleResource);
+    when(realmResource.roles()).thenReturn(rolesResource);
+    when(keycloakClient.getRealmResource()).thenReturn(realmResource);
+    keycloakService.userHasRole("userId", UserRole.USER.getValue());
+
+    keycloakService.removeRoleIfPresent("userId", "user");
+    when(roleScopeResource.listAll()).thenReturn(List.of());
+
+    assertFalse(keycloakService.userHasRole("userId", UserRole.USER.getValue()));
+  }
+
+  @Test
+  public void updateUserData_Should_notSerializeEmailAvailabilityChecks() {
+    var userResource = givenUserResourceWithRepresentation(givenUserRepresentation("email"));
+    var usersResource = givenUsersResourceWithAnyUserId(userResource);
+    when(keycloakClient.getUsersResource()).thenReturn(usersResource);
+    when(keycloakClient.findUsersByExactEmail(anyString()))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(200);
+              return List.of();
+            });
+    var registrations = 8;
+    var executor = Executors.newFixedThreadPool(registrations);
+    var start = System.nanoTime();
+
+    var updates =
+        IntStream.range(0, registrations)
+            .mapToObj(
+                number ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          var userDTO = new UserDTO();
+                          userDTO.setEmail("new" + number + "@example.org");
+                          keycloakService.updateUserData("userId", userDTO, "first", "last");
+                        },
+                        executor))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(updates).join();
+    executor.shutdown();
+
+    var elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+    assertTrue(elapsedMillis < registrations * 200 / 2, "checks took " + elapsedMillis + " ms");
+    verify(userResource, times(registrations)).update(any());
+  }
+
+  private RoleScopeResource givenRealmRoles(String... roleNames) {
+    var roles =
+        Stream.of(roleNames)
+            .map(
+                roleName -> {
+                  var role = new RoleRepresentation();
+                  role.setName(roleName);
+                  return role;
+                })
+            .collect(Collectors.toList());
+    var roleScopeResource = mock(RoleScopeResource.class);
+    when(roleScopeResource.listAll()).thenReturn(roles);
+    var roleMappingResource = mock(RoleMappingResource.class);
+    when(roleMappingResource.realmLevel()).thenReturn(roleScopeResource);
+    var userResource = mock(UserResource.class);
+    when(userResource.roles()).thenReturn(roleMappingResource);
+    var usersResource = givenUsersResourceWithAnyUserId(userResource);
+    when(keycloakClient.getUsersResource()).thenReturn(usersResource);
+    return roleScopeResource;
+  }
+
   @Test
   public void closeSession_Should_deleteSession() {
     RealmResource realmResource = mock(RealmResource.class);
@@ -21,6 +21,7 @@ import de.caritas.cob.userservice.api.adapters.web.dto.CreateAdminAgencyRelation
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateAdminDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantAgencyDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UpdateAdminConsultantDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UpdateAgencyAdminDTO;
 import de.caritas.cob.userservice.api.adapters.web.mapping.AdminDtoMapper;
@@ -32,6 +33,7 @@ import de.caritas.cob.userservice.api.admin.service.session.SessionAdminService;
 import de.caritas.cob.userservice.api.config.auth.RoleAuthorizationAuthorityMapper;
 import de.caritas.cob.userservice.api.exception.httpresponses.ForbiddenException;
 import de.caritas.cob.userservice.api.exception.httpresponses.NoContentException;
+import de.caritas.cob.userservice.api.exception.httpresponses.NotFoundException;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.service.appointment.AppointmentService;
 import java.util.ArrayList;
@@ -60,9 +62,12 @@ class UserAdminControllerIT {
   protected static final String REPORT_PATH = ROOT_PATH + "/report";
   protected static final String FILTERED_CONSULTANTS_PATH = ROOT_PATH + "/consultants";
   protected static final String CONSULTANT_PATH = ROOT_PATH + "/consultants/";
+  protected static final String REINDEX_CONSULTANTS_PATH = ROOT_PATH + "/consultants/reindex";
   protected static final String DELETE_CONSULTANT_PATH = CONSULTANT_PATH + "1234";
   protected static final String DELETE_ASKER_PATH = ROOT_PATH + "/askers/1234";
   protected static final String CONSULTANT_AGENCIES_PATH = ROOT_PATH + "/consultants/%s/agencies";
+  protected static final String ROCKET_CHAT_MEMBERSHIP_PATH =
+      CONSULTANT_AGENCIES_PATH + "/%s/rocketchatmembership";
   protected static final String CONSULTANT_AGENCY_PATH = ROOT_PATH + "/consultants/%s/agencies";
   protected static final String AGENCY_CONSULTANT_PATH = ROOT_PATH + "/agencies/%s/consultants";
   protected static final String DELETE_CONSULTANT_AGENCY_PATH =
@@ -157,6 +162,30 @@ class UserAdminControllerIT {
     verify(this.consultantAdminFacade, times(1)).findConsultantAgencies(consultantId);
   }
 
+  @Test
+  void getRocketChatMembershipJob_Should_returnOk_When_jobExists() throws Exception {
+    String consultantId = "1da238c6-cd46-4162-80f1-bff74eafeAAA";
+    when(this.consultantAdminFacade.findRocketChatMembershipJob(consultantId, 1L))
+        .thenReturn(new RocketChatMembershipJobDTO());
+
+    this.mvc
+        .perform(get(String.format(ROCKET_CHAT_MEMBERSHIP_PATH, consultantId, 1L)))
+        .andExpect(status().isOk());
+
+    verify(this.consultantAdminFacade, times(1)).findRocketChatMembershipJob(consultantId, 1L);
+  }
+
+  @Test
+  void getRocketChatMembershipJob_Should_returnNotFound_When_noJobExists() throws Exception {
+    String consultantId = "1da238c6-cd46-4162-80f1-bff74eafeAAA";
+    when(this.consultantAdminFacade.findRocketChatMembershipJob(consultantId, 1L))
+        .thenThrow(new NotFoundException("No job"));
+
+    this.mvc
+        .perform(get(String.format(ROCKET_CHAT_MEMBERSHIP_PATH, consultantId, 1L)))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void generateReport_Should_returnOk() throws Exception {
     this.mvc.perform(get(REPORT_PATH)).andExpect(status().isOk());
@@ -164,6 +193,20 @@ class UserAdminControllerIT {
     verify(this.violationReportGenerator, times(1)).generateReport();
   }
 
+  @Test
+  void reindexConsultants_Should_returnAccepted_When_rebuildHasBeenStarted() throws Exception {
+    when(this.consultantAdminFacade.rebuildConsultantIndex()).thenReturn(true);
+
+    this.mvc.perform(post(REINDEX_CONSULTANTS_PATH)).andExpect(status().isAccepted());
+  }
+
+  @Test
+  void reindexConsultants_Should_returnConflict_When_rebuildIsAlreadyRunning() throws Exception {
+    when(this.consultantAdminFacade.rebuildConsultantIndex()).thenReturn(false);
+
+    this.mvc.perform(post(REINDEX_CONSULTANTS_PATH)).andExpect(status().isConflict());
+  }
+
   @Test
   void getConsultants_Should_returnBadRequest_When_requiredPaginationParamsAreMissing()
       throws Exception {
@@ -5,7 +5,6 @@ import static java.util.Objects.nonNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.ArgumentMatchers.eq;
@@ -19,6 +18,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.caritas.cob.userservice.api.adapters.keycloak.UserSearchResource;
 import de.caritas.cob.userservice.api.adapters.web.dto.EmailDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.OneTimePasswordDTO;
 import de.caritas.cob.userservice.api.config.VideoChatConfig;
@@ -43,6 +43,7 @@ import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
 import de.caritas.cob.userservice.api.port.out.UserAgencyRepository;
 import de.caritas.cob.userservice.api.port.out.UserRepository;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -767,12 +768,7 @@ class UserController2faE2EIT {
     userRepresentation.setEmail(emailDTO.getEmail().toLowerCase());
     var userRepresentationList = new ArrayList<UserRepresentation>(1);
     userRepresentationList.add(userRepresentation);
-    var usersResource = mock(UsersResource.class);
-    when(usersResource.search(eq(emailDTO.getEmail().toLowerCase()), anyInt(), anyInt()))
-        .thenReturn(userRepresentationList);
-    var realmResource = mock(RealmResource.class);
-    when(realmResource.users()).thenReturn(usersResource);
-    when(keycloak.realm(anyString())).thenReturn(realmResource);
+    givenKeycloakFoundUsersByEmail(emailDTO.getEmail().toLowerCase(), userRepresentationList);
   }
 
   private void givenKeycloakFoundOwnEmailInUse() {
@@ -783,22 +779,20 @@ class UserController2faE2EIT {
     userRepresentation.setEmail(emailDTO.getEmail());
     var userRepresentationList = new ArrayList<UserRepresentation>(1);
     userRepresentationList.add(userRepresentation);
-    var usersResource = mock(UsersResource.class);
-    when(usersResource.search(eq(emailDTO.getEmail()), anyInt(), anyInt()))
-        .thenReturn(userRepresentationList);
-    var realmResource = mock(RealmResource.class);
-    when(realmResource.users()).thenReturn(usersResource);
-    when(keycloak.realm(anyString())).thenReturn(realmResource);
+    givenKeycloakFoundUsersByEmail(emailDTO.getEmail(), userRepresentationList);
   }
 
   private void givenKeycloakFoundNoEmailInUse() {
     var userRepresentationList = new ArrayList<UserRepresentation>(0);
-    var usersResource = mock(UsersResource.class);
-    when(usersResource.search(eq(emailDTO.getEmail()), anyInt(), anyInt()))
-        .thenReturn(userRepresentationList);
-    var realmResource = mock(RealmResource.class);
-    when(realmResource.users()).thenReturn(usersResource);
-    when(keycloak.realm(anyString())).thenReturn(realmResource);
+    givenKeycloakFoundUsersByEmail(emailDTO.getEmail(), userRepresentationList);
+  }
+
+  private void givenKeycloakFoundUsersByEmail(
+      String email, List<UserRepresentation> userRepresentationList) {
+    var userSearchResource = mock(UserSearchResource.class);
+    when(userSearchResource.searchByEmail(email, true, true)).thenReturn(userRepresentationList);
+    when(keycloak.proxy(eq(UserSearchResource.class), any(URI.class)))
+        .thenReturn(userSearchResource);
   }
 
   private void givenAKeycloakSetupEmailOtpAnotherOtpConfigActiveErrorResponse() {
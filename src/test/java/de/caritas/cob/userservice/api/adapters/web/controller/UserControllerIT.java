@@ -339,6 +339,10 @@ class UserControllerIT {
   @SuppressWarnings("unused")
   private KeycloakUserDataProvider keycloakUserDataProvider;
 
+  @MockBean
+  @SuppressWarnings("unused")
+  private UserDataUpstreamCalls userDataUpstreamCalls;
+
   @MockBean
   @SuppressWarnings("unused")
   private VideoChatConfig videoChatConfig;
@@ -123,6 +123,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -178,6 +179,8 @@ class UserControllerSessionE2EIT {
 
   @Autowired private IdentityConfig identityConfig;
 
+  @Autowired private CacheManager cacheManager;
+
   @MockBean private AuthenticatedUser authenticatedUser;
 
   @MockBean private RocketChatCredentialsProvider rocketChatCredentialsProvider;
@@ -270,6 +273,7 @@ class UserControllerSessionE2EIT {
     subscriptionsGetResponse = null;
     identityConfig.setDisplayNameAllowedForConsultants(false);
     consultantToAssign = null;
+    cacheManager.getCache("rocketChatRoomInformationCache").clear();
   }
 
   @BeforeEach
@@ -2,7 +2,9 @@ package de.caritas.cob.userservice.api.admin.facade;
 
 import static de.caritas.cob.userservice.api.adapters.web.dto.AgencyTypeDTO.AgencyTypeEnum.DEFAULT_AGENCY;
 import static de.caritas.cob.userservice.api.adapters.web.dto.AgencyTypeDTO.AgencyTypeEnum.TEAM_AGENCY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -16,18 +18,23 @@ import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantAdminResponseDT
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantFilter;
 import de.caritas.cob.userservice.api.adapters.web.dto.CreateConsultantAgencyDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.Sort;
 import de.caritas.cob.userservice.api.adapters.web.dto.Sort.FieldEnum;
 import de.caritas.cob.userservice.api.admin.service.agency.ConsultantAgencyAdminService;
 import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantAdminFilterService;
 import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantAdminService;
+import de.caritas.cob.userservice.api.admin.service.consultant.ConsultantReindexer;
 import de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrelation.ConsultantAgencyRelationCreatorService;
+import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatMembershipJobService;
 import de.caritas.cob.userservice.api.exception.httpresponses.BadRequestException;
 import de.caritas.cob.userservice.api.exception.httpresponses.ForbiddenException;
+import de.caritas.cob.userservice.api.exception.httpresponses.NotFoundException;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.service.agency.AgencyService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -57,6 +64,10 @@ class ConsultantAdminFacadeTest {
 
   @Mock private AgencyService agencyService;
 
+  @Mock private ConsultantReindexer consultantReindexer;
+
+  @Mock private RocketChatMembershipJobService rocketChatMembershipJobService;
+
   @Test
   void findConsultant_Should_useConsultantAdminService() {
     this.consultantAdminFacade.findConsultant("");
@@ -64,6 +75,33 @@ class ConsultantAdminFacadeTest {
     verify(this.consultantAdminService).findConsultantById(any());
   }
 
+  @Test
+  void rebuildConsultantIndex_Should_useConsultantReindexer() {
+    when(this.consultantReindexer.rebuildConsultantIndex()).thenReturn(true);
+
+    assertTrue(this.consultantAdminFacade.rebuildConsultantIndex());
+  }
+
+  @Test
+  void findRocketChatMembershipJob_Should_returnProgress_When_jobExists() {
+    var progress = new RocketChatMembershipJobDTO();
+    when(this.rocketChatMembershipJobService.findJobProgress("consultantId", 1L))
+        .thenReturn(Optional.of(progress));
+
+    assertEquals(
+        progress, this.consultantAdminFacade.findRocketChatMembershipJob("consultantId", 1L));
+  }
+
+  @Test
+  void findRocketChatMembershipJob_Should_throwNotFoundException_When_noJobExists() {
+    when(this.rocketChatMembershipJobService.findJobProgress("consultantId", 1L))
+        .thenReturn(Optional.empty());
+
+    assertThrows(
+        NotFoundException.class,
+        () -> this.consultantAdminFacade.findRocketChatMembershipJob("consultantId", 1L));
+  }
+
   @Test
   void findFilteredConsultants_Should_useConsultantAdminFilterService() {
     this.consultantAdminFacade.findFilteredConsultants(
@@ -0,0 +1,70 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantFilter;
+import de.caritas.cob.userservice.api.adapters.web.dto.Sort;
+import de.caritas.cob.userservice.api.model.Consultant;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultantAdminFilterServiceTest {
+
+  private static final int SEARCHES = 1000;
+
+  @InjectMocks private ConsultantAdminFilterService consultantAdminFilterService;
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+
+  @Mock private EntityManager entityManager;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private FullTextEntityManager fullTextEntityManager;
+
+  @Mock private FullTextQuery fullTextQuery;
+
+  @Test
+  void findFilteredConsultants_Should_neverRebuildTheIndex_When_searching() {
+    when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+    when(fullTextEntityManager.createFullTextQuery(any(Query.class), eq(Consultant.class)))
+        .thenReturn(fullTextQuery);
+    when(fullTextQuery.getResultStream()).thenAnswer(invocation -> Stream.empty());
+
+    try (var search = mockStatic(Search.class)) {
+      search
+          .when(() -> Search.getFullTextEntityManager(entityManager))
+          .thenReturn(fullTextEntityManager);
+
+      for (int i = 0; i < SEARCHES; i++) {
+        var result =
+            consultantAdminFilterService.findFilteredConsultants(
+                1, 10, new ConsultantFilter(), new Sort());
+        assertThat(result.getTotal(), is(0));
+      }
+    }
+
+    verify(fullTextEntityManager, never()).createIndexer(any());
+    verify(fullTextEntityManager, never()).createIndexer();
+    verify(fullTextEntityManager, times(SEARCHES)).close();
+  }
+}
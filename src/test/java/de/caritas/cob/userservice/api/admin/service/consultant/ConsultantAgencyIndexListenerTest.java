@@ -0,0 +1,60 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.ConsultantAgency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultantAgencyIndexListenerTest {
+
+  @InjectMocks private ConsultantAgencyIndexListener consultantAgencyIndexListener;
+
+  @Mock private ObjectProvider<ConsultantReindexer> consultantReindexerProvider;
+
+  @Mock private ConsultantReindexer consultantReindexer;
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void reindexConsultantAfterCommit_Should_reindexConsultantOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    when(consultantReindexerProvider.getIfAvailable()).thenReturn(consultantReindexer);
+
+    consultantAgencyIndexListener.reindexConsultantAfterCommit(aConsultantAgency());
+
+    verifyNoInteractions(consultantReindexer);
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(consultantReindexer).reindexConsultant("consultantId");
+  }
+
+  @Test
+  void reindexConsultantAfterCommit_Should_doNothing_When_noTransactionIsActive() {
+    consultantAgencyIndexListener.reindexConsultantAfterCommit(aConsultantAgency());
+
+    verifyNoInteractions(consultantReindexerProvider);
+  }
+
+  private ConsultantAgency aConsultantAgency() {
+    var consultant = new Consultant();
+    consultant.setId("consultantId");
+    return ConsultantAgency.builder().consultant(consultant).agencyId(1L).build();
+  }
+}
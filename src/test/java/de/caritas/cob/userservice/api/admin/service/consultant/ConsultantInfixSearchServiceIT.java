@@ -0,0 +1,212 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.caritas.cob.userservice.api.Organizer;
+import de.caritas.cob.userservice.api.UserServiceApplication;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.Consultant.ConsultantBase;
+import de.caritas.cob.userservice.api.model.ConsultantAgency;
+import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
+import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(classes = UserServiceApplication.class)
+@TestPropertySource(properties = "spring.profiles.active=testing")
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+class ConsultantInfixSearchServiceIT {
+
+  @Autowired private ConsultantInfixSearchService consultantInfixSearchService;
+
+  @Autowired private ConsultantRepository consultantRepository;
+
+  @Autowired private ConsultantAgencyRepository consultantAgencyRepository;
+
+  @MockBean
+  @SuppressWarnings("unused")
+  private Organizer organizer;
+
+  private String infix;
+
+  private List<Consultant> createdConsultants = new ArrayList<>();
+
+  private List<ConsultantAgency> createdConsultantAgencies = new ArrayList<>();
+
+  @BeforeEach
+  void givenAnInfix() {
+    infix = RandomStringUtils.randomAlphabetic(6) + "Ö" + RandomStringUtils.randomAlphabetic(6);
+  }
+
+  @AfterEach
+  void deleteCreatedConsultants() {
+    consultantAgencyRepository.deleteAll(createdConsultantAgencies);
+    createdConsultants.forEach(consultant -> consultantRepository.deleteById(consultant.getId()));
+    createdConsultantAgencies = new ArrayList<>();
+    createdConsultants = new ArrayList<>();
+  }
+
+  @Test
+  void findAllByInfix_Should_findConsultantsContainingTheInfixInNamesOrEmail() {
+    givenAConsultant("a" + infix + "b", "Lastname", "first@example.com");
+    givenAConsultant("Firstname", infix + "c", "last@example.com");
+    givenAConsultant("Firstname", "Lastname", "d" + infix + "@example.com");
+    givenAConsultant("Firstname", "Lastname", "none@example.com");
+
+    var page = consultantInfixSearchService.findAllByInfix(infix, Pageable.unpaged());
+
+    assertEquals(3, page.getTotalElements());
+    assertEquals(
+        createdConsultants.subList(0, 3).stream()
+            .map(Consultant::getId)
+            .collect(Collectors.toSet()),
+        page.stream().map(ConsultantBase::getId).collect(Collectors.toSet()));
+  }
+
+  @Test
+  void findAllByInfix_Should_searchCaseInsensitive() {
+    givenAConsultant("a" + infix.toUpperCase(Locale.ROOT), "Lastname", "first@example.com");
+
+    var page =
+        consultantInfixSearchService.findAllByInfix(
+            infix.toLowerCase(Locale.ROOT), Pageable.unpaged());
+
+    assertEquals(1, page.getTotalElements());
+    assertEquals(createdConsultants.get(0).getId(), page.getContent().get(0).getId());
+  }
+
+  @Test
+  void findAllByInfix_Should_findConsultantsByInfixLongerThanTheIndexedGrams() {
+    var email = infix + RandomStringUtils.randomAlphabetic(20) + "@example.com";
+    givenAConsultant("Firstname", "Lastname", email);
+    givenAConsultant("Firstname", "Lastname", infix + "@example.com");
+
+    var page = consultantInfixSearchService.findAllByInfix(email, Pageable.unpaged());
+
+    assertEquals(1, page.getTotalElements());
+    assertEquals(email, page.getContent().get(0).getEmail());
+  }
+
+  @Test
+  void findAllByInfix_Should_findConsultantById() {
+    var consultant = givenAConsultant("Firstname", "Lastname", "first@example.com");
+
+    var page = consultantInfixSearchService.findAllByInfix(consultant.getId(), Pageable.unpaged());
+
+    assertEquals(1, page.getTotalElements());
+    var foundConsultant = page.getContent().get(0);
+    assertEquals(consultant.getId(), foundConsultant.getId());
+    assertEquals(consultant.getFirstName(), foundConsultant.getFirstName());
+    assertEquals(consultant.getLastName(), foundConsultant.getLastName());
+    assertEquals(consultant.getEmail(), foundConsultant.getEmail());
+  }
+
+  @Test
+  void findAllByInfix_Should_findChangedConsultantsAfterSaving() {
+    var consultant = givenAConsultant("Firstname", "Lastname", "first@example.com");
+
+    consultant.setLastName("b" + infix);
+    consultantRepository.save(consultant);
+
+    var page = consultantInfixSearchService.findAllByInfix(infix, Pageable.unpaged());
+    assertEquals(1, page.getTotalElements());
+    assertEquals(consultant.getId(), page.getContent().get(0).getId());
+  }
+
+  @Test
+  void findAllByInfix_Should_returnSortedPagesOfTheIndex() {
+    givenAConsultant("Firstname", "c" + infix, "first@example.com");
+    givenAConsultant("Firstname", "A" + infix, "first@example.com");
+    givenAConsultant("Firstname", "b" + infix, "first@example.com");
+
+    var sort = Sort.by("lastName").descending();
+    var firstPage = consultantInfixSearchService.findAllByInfix(infix, PageRequest.of(0, 2, sort));
+    var secondPage = consultantInfixSearchService.findAllByInfix(infix, PageRequest.of(1, 2, sort));
+
+    assertEquals(3, firstPage.getTotalElements());
+    assertEquals(2, firstPage.getTotalPages());
+    assertEquals(
+        List.of("c" + infix, "b" + infix),
+        firstPage.stream().map(ConsultantBase::getLastName).collect(Collectors.toList()));
+    assertEquals(
+        List.of("A" + infix),
+        secondPage.stream().map(ConsultantBase::getLastName).collect(Collectors.toList()));
+  }
+
+  @Test
+  void findAllByInfixAndAgencyIds_Should_findOnlyConsultantsOfTheGivenAgencies() {
+    var consultantOfAgency = givenAConsultant("Firstname", infix, "first@example.com");
+    givenAnAgencyAssignment(consultantOfAgency, 1L);
+    var consultantOfOtherAgency = givenAConsultant("Firstname", infix, "first@example.com");
+    givenAnAgencyAssignment(consultantOfOtherAgency, 2L);
+
+    var page =
+        consultantInfixSearchService.findAllByInfixAndAgencyIds(
+            infix, List.of(1L, 3L), Pageable.unpaged());
+
+    assertEquals(1, page.getTotalElements());
+    assertEquals(consultantOfAgency.getId(), page.getContent().get(0).getId());
+  }
+
+  @Test
+  void findAllByInfixAndAgencyIds_Should_findNothing_When_agencyListIsEmpty() {
+    givenAConsultant("Firstname", infix, "first@example.com");
+
+    var page =
+        consultantInfixSearchService.findAllByInfixAndAgencyIds(
+            infix, List.of(), PageRequest.of(0, 10));
+
+    assertTrue(page.isEmpty());
+  }
+
+  @Test
+  void findAllByInfix_Should_findAllConsultants_When_infixIsStar() {
+    givenAConsultant("Firstname", infix, "first@example.com");
+
+    var page = consultantInfixSearchService.findAllByInfix("*", Pageable.unpaged());
+
+    assertEquals(consultantRepository.count(), page.getTotalElements());
+  }
+
+  private Consultant givenAConsultant(String firstName, String lastName, String email) {
+    var consultant = new Consultant();
+    BeanUtils.copyProperties(consultantRepository.findAll().iterator().next(), consultant);
+    consultant.setId(UUID.randomUUID().toString());
+    consultant.setUsername(RandomStringUtils.randomAlphabetic(8));
+    consultant.setRocketChatId(RandomStringUtils.randomAlphabetic(8));
+    consultant.setFirstName(firstName);
+    consultant.setLastName(lastName);
+    consultant.setEmail(email);
+    consultant.setConsultantAgencies(null);
+    consultant.setDeleteDate(null);
+    createdConsultants.add(consultantRepository.save(consultant));
+    return consultant;
+  }
+
+  private void givenAnAgencyAssignment(Consultant consultant, long agencyId) {
+    var consultantAgency =
+        ConsultantAgency.builder()
+            .consultant(consultantRepository.findById(consultant.getId()).orElseThrow())
+            .agencyId(agencyId)
+            .build();
+    createdConsultantAgencies.add(consultantAgencyRepository.save(consultantAgency));
+  }
+}
@@ -0,0 +1,74 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import de.caritas.cob.userservice.api.UserServiceApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ConsultantReindexerIT {
+
+  private static final String CONSULTANT_ID = "0b3b1cc6-be98-4787-aa56-212259d811b9";
+
+  @TempDir Path indexBase;
+
+  @Test
+  void indexOnStartup_Should_onlyReindexChangedEntities_When_contextIsRestarted() {
+    try (var context = startContext("create", "always")) {
+      assertEquals(1, startupTimer(context, "full").count());
+      context
+          .getBean(JdbcTemplate.class)
+          .update(
+              "UPDATE consultant SET last_name = ?, update_date = ? WHERE consultant_id = ?",
+              "Restarted",
+              nowInUtc(),
+              CONSULTANT_ID);
+    }
+
+    try (var context = startContext("none", "never")) {
+      assertEquals(1, startupTimer(context, "delta").count());
+      assertNull(
+          context
+              .getBean(MeterRegistry.class)
+              .find("search.index.startup")
+              .tag("mode", "full")
+              .timer());
+
+      var page =
+          context
+              .getBean(ConsultantInfixSearchService.class)
+              .findAllByInfix("Restarted", Pageable.unpaged());
+      assertEquals(1, page.getTotalElements());
+      assertEquals(CONSULTANT_ID, page.getContent().get(0).getId());
+    }
+  }
+
+  private ConfigurableApplicationContext startContext(String ddlAuto, String sqlInitMode) {
+    return new SpringApplicationBuilder(UserServiceApplication.class)
+        .run(
+            "--spring.profiles.active=testing",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:reindexer;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+            "--spring.sql.init.mode=" + sqlInitMode,
+            "--search.index.directory-provider=filesystem",
+            "--search.index.base-dir=" + indexBase);
+  }
+
+  private Timer startupTimer(ConfigurableApplicationContext context, String mode) {
+    return context
+        .getBean(MeterRegistry.class)
+        .get("search.index.startup")
+        .tag("mode", mode)
+        .timer();
+  }
+}
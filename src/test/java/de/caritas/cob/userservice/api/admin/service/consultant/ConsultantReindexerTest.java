@@ -0,0 +1,261 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.model.Admin;
+import de.caritas.cob.userservice.api.model.Consultant;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.MassIndexer;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.spi.SearchIntegrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultantReindexerTest {
+
+  private static final LocalDateTime WATERMARK = LocalDateTime.of(2022, 5, 3, 10, 15);
+
+  private ConsultantReindexer consultantReindexer;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+
+  @Mock private SearchIndexWatermarkStore watermarkStore;
+
+  @Mock private EntityManager entityManager;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private FullTextEntityManager fullTextEntityManager;
+
+  @Mock private FullTextQuery fullTextQuery;
+
+  @Mock private MassIndexer massIndexer;
+
+  @Mock private Future<Void> rebuild;
+
+  @Mock private TypedQuery<Object[]> changeDateQuery;
+
+  @Mock private TypedQuery<Serializable> changedConsultantsQuery;
+
+  @Mock private TypedQuery<Serializable> changedAdminsQuery;
+
+  @Mock private SearchIntegrator searchIntegrator;
+
+  private MockedStatic<Search> search;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    consultantReindexer =
+        new ConsultantReindexer(
+            entityManagerFactory, meterRegistry, watermarkStore, Duration.ofMinutes(5));
+    when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+    search = mockStatic(Search.class);
+    search
+        .when(() -> Search.getFullTextEntityManager(entityManager))
+        .thenReturn(fullTextEntityManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    search.close();
+  }
+
+  @Test
+  void indexOnStartup_Should_indexAllEntities_When_noWatermarkIsStored()
+      throws InterruptedException {
+    givenAHighWatermark();
+    givenASearchIntegrator();
+    when(watermarkStore.read()).thenReturn(Optional.empty());
+    when(fullTextEntityManager.createIndexer()).thenReturn(massIndexer);
+
+    consultantReindexer.indexOnStartup();
+
+    verify(watermarkStore).clear();
+    verify(massIndexer).startAndWait();
+    verify(watermarkStore).write(WATERMARK);
+    assertEquals(1, startupTimer("full").count());
+    assertNull(meterRegistry.find("search.index.startup").tag("mode", "delta").timer());
+  }
+
+  @Test
+  void indexOnStartup_Should_onlyReindexChangedEntities_When_indexIsConsistentAfterwards()
+      throws InterruptedException {
+    givenAHighWatermark();
+    givenASearchIntegrator();
+    givenChangedEntities();
+    var consultant = new Consultant();
+    when(fullTextEntityManager.find(Consultant.class, "consultantId")).thenReturn(consultant);
+    givenIndexedAndStoredConsultants(39, 39L);
+    givenIndexedAndStoredAdmins(3, 3L);
+
+    consultantReindexer.indexOnStartup();
+
+    verify(changedConsultantsQuery, times(2)).setParameter("since", WATERMARK.minusMinutes(5));
+    verify(fullTextEntityManager).index(consultant);
+    verify(fullTextEntityManager, never()).createIndexer();
+    verify(watermarkStore, never()).clear();
+    verify(watermarkStore).write(WATERMARK);
+    assertEquals(1, startupTimer("delta").count());
+    assertNull(meterRegistry.find("search.index.startup").tag("mode", "full").timer());
+    assertEquals(
+        1, meterRegistry.find("search.index.size").tag("entity", "Consultant").gauges().size());
+  }
+
+  @Test
+  void indexOnStartup_Should_indexAllEntities_When_indexDivergesAfterReindexingChangedEntities()
+      throws InterruptedException {
+    givenAHighWatermark();
+    givenASearchIntegrator();
+    givenChangedEntities();
+    givenIndexedAndStoredConsultants(38, 39L);
+    when(fullTextEntityManager.createIndexer()).thenReturn(massIndexer);
+
+    consultantReindexer.indexOnStartup();
+
+    verify(watermarkStore).clear();
+    verify(massIndexer).startAndWait();
+    verify(watermarkStore).write(WATERMARK);
+    assertEquals(1, startupTimer("full").count());
+  }
+
+  @Test
+  void verifyConsultantIndex_Should_notRebuildIndex_When_documentCountMatchesDatabase() {
+    givenIndexedAndStoredConsultants(39, 39L);
+
+    assertTrue(consultantReindexer.verifyConsultantIndex());
+
+    verify(fullTextEntityManager, never()).createIndexer(any());
+  }
+
+  @Test
+  void verifyConsultantIndex_Should_rebuildIndexInBackground_When_documentCountDiffers() {
+    givenIndexedAndStoredConsultants(38, 39L);
+    givenAMassIndexer();
+
+    assertFalse(consultantReindexer.verifyConsultantIndex());
+
+    verify(massIndexer).start();
+  }
+
+  @Test
+  void rebuildConsultantIndex_Should_notStartSecondRebuild_When_rebuildIsStillRunning() {
+    givenAMassIndexer();
+    when(rebuild.isDone()).thenReturn(false);
+
+    assertTrue(consultantReindexer.rebuildConsultantIndex());
+    assertFalse(consultantReindexer.rebuildConsultantIndex());
+
+    verify(massIndexer).start();
+  }
+
+  @Test
+  void reindexConsultant_Should_indexTheStoredConsultant() {
+    var consultant = new Consultant();
+    when(fullTextEntityManager.find(Consultant.class, "consultantId")).thenReturn(consultant);
+
+    consultantReindexer.reindexConsultant("consultantId");
+
+    verify(fullTextEntityManager).index(consultant);
+    verify(fullTextEntityManager.getTransaction()).commit();
+    verify(fullTextEntityManager).close();
+  }
+
+  @Test
+  void reindexConsultant_Should_purgeTheDocument_When_consultantDoesNotExistAnymore() {
+    consultantReindexer.reindexConsultant("consultantId");
+
+    verify(fullTextEntityManager).purge(Consultant.class, "consultantId");
+    verify(fullTextEntityManager, never()).index(any());
+  }
+
+  private void givenIndexedAndStoredConsultants(int indexed, long stored) {
+    when(fullTextEntityManager.createFullTextQuery(any(Query.class), eq(Consultant.class)))
+        .thenReturn(fullTextQuery);
+    when(fullTextQuery.getResultSize()).thenReturn(indexed);
+    when(fullTextEntityManager
+            .createQuery("SELECT COUNT(e) FROM Consultant e", Long.class)
+            .getSingleResult())
+        .thenReturn(stored);
+  }
+
+  private void givenIndexedAndStoredAdmins(int indexed, long stored) {
+    var adminQuery = mock(FullTextQuery.class);
+    when(fullTextEntityManager.createFullTextQuery(any(Query.class), eq(Admin.class)))
+        .thenReturn(adminQuery);
+    when(adminQuery.getResultSize()).thenReturn(indexed);
+    when(fullTextEntityManager
+            .createQuery("SELECT COUNT(e) FROM Admin e", Long.class)
+            .getSingleResult())
+        .thenReturn(stored);
+  }
+
+  private void givenAHighWatermark() {
+    when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(changeDateQuery);
+    when(changeDateQuery.getSingleResult())
+        .thenReturn(new Object[] {WATERMARK.minusDays(1), null, WATERMARK})
+        .thenReturn(new Object[] {null, null, null});
+  }
+
+  private void givenChangedEntities() {
+    when(watermarkStore.read()).thenReturn(Optional.of(WATERMARK));
+    when(entityManager.createQuery(startsWith("SELECT c"), eq(Serializable.class)))
+        .thenReturn(changedConsultantsQuery);
+    when(changedConsultantsQuery.setParameter(anyString(), any()))
+        .thenReturn(changedConsultantsQuery);
+    when(changedConsultantsQuery.getResultList()).thenReturn(List.of("consultantId"));
+    when(entityManager.createQuery(startsWith("SELECT a"), eq(Serializable.class)))
+        .thenReturn(changedAdminsQuery);
+    when(changedAdminsQuery.setParameter(anyString(), any())).thenReturn(changedAdminsQuery);
+    when(changedAdminsQuery.getResultList()).thenReturn(List.of());
+  }
+
+  private void givenASearchIntegrator() {
+    when(fullTextEntityManager.getSearchFactory().unwrap(SearchIntegrator.class))
+        .thenReturn(searchIntegrator);
+  }
+
+  private Timer startupTimer(String mode) {
+    return meterRegistry.get("search.index.startup").tag("mode", mode).timer();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void givenAMassIndexer() {
+    when(fullTextEntityManager.createIndexer(Consultant.class)).thenReturn(massIndexer);
+    when(massIndexer.start()).thenReturn((Future) rebuild);
+  }
+}
@@ -0,0 +1,51 @@
+package de.caritas.cob.userservice.api.admin.service.consultant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearchIndexWatermarkStoreTest {
+
+  private static final LocalDateTime WATERMARK = LocalDateTime.of(2022, 5, 3, 10, 15, 30);
+
+  @TempDir Path indexBase;
+
+  @Test
+  void read_Should_returnTheWrittenWatermark() {
+    var watermarkStore = new SearchIndexWatermarkStore("filesystem", indexBase.resolve("v1"));
+
+    watermarkStore.write(WATERMARK.minusDays(1));
+    watermarkStore.write(WATERMARK);
+
+    assertTrue(watermarkStore.isPersistent());
+    assertEquals(Optional.of(WATERMARK), watermarkStore.read());
+  }
+
+  @Test
+  void read_Should_returnNothing_When_watermarkHasBeenCleared() {
+    var watermarkStore = new SearchIndexWatermarkStore("filesystem", indexBase);
+    watermarkStore.write(WATERMARK);
+
+    watermarkStore.clear();
+
+    assertEquals(Optional.empty(), watermarkStore.read());
+  }
+
+  @Test
+  void write_Should_storeNothing_When_indexIsKeptInHeap() {
+    var watermarkStore = new SearchIndexWatermarkStore("local-heap", indexBase);
+
+    watermarkStore.write(WATERMARK);
+
+    assertFalse(watermarkStore.isPersistent());
+    assertFalse(Files.exists(indexBase.resolve(SearchIndexWatermarkStore.FILE_NAME)));
+    assertEquals(Optional.empty(), watermarkStore.read());
+  }
+}
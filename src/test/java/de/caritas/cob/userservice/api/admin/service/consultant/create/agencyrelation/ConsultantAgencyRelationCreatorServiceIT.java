@@ -264,6 +264,8 @@ public class ConsultantAgencyRelationCreatorServiceIT {
     session.setConsultant(null);
     session.setUser(user);
     session.setAgencyId(agencyId);
+    session.setGroupId("rcGroupId");
+    session.setFeedbackGroupId("rcFeedbackGroupId");
     session.setLanguageCode(LanguageCode.de);
     session.setTeamSession(true);
     session.setSessionTopics(Lists.newArrayList());
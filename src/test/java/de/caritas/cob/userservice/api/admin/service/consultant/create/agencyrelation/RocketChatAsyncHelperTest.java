@@ -0,0 +1,151 @@
+package de.caritas.cob.userservice.api.admin.service.consultant.create.agencyrelation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
+import de.caritas.cob.userservice.api.admin.service.rocketchat.RocketChatMembershipJobService;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.ConsultantAgency;
+import de.caritas.cob.userservice.api.model.ConsultantAgencyStatus;
+import de.caritas.cob.userservice.api.model.ConsultantStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
+import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
+import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
+import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.service.helper.MailService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RocketChatAsyncHelperTest {
+
+  @InjectMocks private RocketChatAsyncHelper rocketChatAsyncHelper;
+
+  @Mock private SessionRepository sessionRepository;
+
+  @Mock private ConsultantRepository consultantRepository;
+
+  @Mock private ConsultantAgencyRepository consultantAgencyRepository;
+
+  @Mock private MailService mailService;
+
+  @Mock private RocketChatMembershipJobService rocketChatMembershipJobService;
+
+  @Mock private Consumer<String> logMethod;
+
+  private final Consultant consultant = givenConsultant();
+
+  private final RocketChatMembershipJob job =
+      RocketChatMembershipJob.builder().id(1L).consultantId("consultantId").agencyId(2L).build();
+
+  @Test
+  void addConsultantToSessions_Should_setConsultantCreated_When_allGroupsHaveBeenJoined() {
+    givenJobResult(List.of());
+    var consultantAgency = new ConsultantAgency();
+    consultantAgency.setStatus(ConsultantAgencyStatus.IN_PROGRESS);
+    when(consultantAgencyRepository.findByConsultantIdAndAgencyIdAndStatusAndDeleteDateIsNull(
+            "consultantId", 2L, ConsultantAgencyStatus.IN_PROGRESS))
+        .thenReturn(consultantAgency);
+    when(consultantAgencyRepository.findByConsultantIdAndStatusAndDeleteDateIsNull(
+            "consultantId", ConsultantAgencyStatus.IN_PROGRESS))
+        .thenReturn(List.of());
+
+    rocketChatAsyncHelper.addConsultantToSessions(consultant, givenAgency(), logMethod, 3L);
+
+    assertThat(consultantAgency.getStatus()).isEqualTo(ConsultantAgencyStatus.CREATED);
+    verify(consultantAgencyRepository).save(consultantAgency);
+    assertThat(consultant.getStatus()).isEqualTo(ConsultantStatus.CREATED);
+    verify(mailService, never()).sendErrorEmailNotification(any());
+  }
+
+  @Test
+  void addConsultantToSessions_Should_setConsultantError_When_groupsCouldNotBeJoined() {
+    var failedOperation =
+        RocketChatMembershipOperation.builder().rcGroupId("rcGroupId").lastError("error").build();
+    givenJobResult(List.of(failedOperation));
+
+    rocketChatAsyncHelper.addConsultantToSessions(consultant, givenAgency(), logMethod, 3L);
+
+    assertThat(consultant.getStatus()).isEqualTo(ConsultantStatus.ERROR);
+    verify(consultantRepository).save(consultant);
+    verify(mailService).sendErrorEmailNotification(any());
+  }
+
+  @Test
+  void addConsultantToSessions_Should_setConsultantError_When_jobCouldNotBeCreated() {
+    when(sessionRepository.findByAgencyIdAndStatusAndConsultantIsNull(2L, SessionStatus.NEW))
+        .thenReturn(new ArrayList<>());
+    when(rocketChatMembershipJobService.createJob(eq(consultant), eq(2L), anyList(), eq(3L)))
+        .thenThrow(new IllegalStateException("database unavailable"));
+
+    rocketChatAsyncHelper.addConsultantToSessions(consultant, givenAgency(), logMethod, 3L);
+
+    assertThat(consultant.getStatus()).isEqualTo(ConsultantStatus.ERROR);
+    verify(mailService).sendErrorEmailNotification(any());
+    verify(rocketChatMembershipJobService, never()).execute(any(), any(), any());
+  }
+
+  @Test
+  void resumeInterruptedMembershipJobs_Should_executeJob_When_consultantExists() {
+    when(rocketChatMembershipJobService.findInterruptedJobs()).thenReturn(List.of(job));
+    when(consultantRepository.findByIdAndDeleteDateIsNull("consultantId"))
+        .thenReturn(Optional.of(consultant));
+    when(rocketChatMembershipJobService.execute(eq(job), eq("rcUserId"), any()))
+        .thenReturn(new CompletableFuture<>());
+
+    rocketChatAsyncHelper.resumeInterruptedMembershipJobs();
+
+    verify(rocketChatMembershipJobService).execute(eq(job), eq("rcUserId"), any());
+  }
+
+  @Test
+  void resumeInterruptedMembershipJobs_Should_cancelJob_When_consultantHasBeenDeleted() {
+    when(rocketChatMembershipJobService.findInterruptedJobs()).thenReturn(List.of(job));
+    when(consultantRepository.findByIdAndDeleteDateIsNull("consultantId"))
+        .thenReturn(Optional.empty());
+
+    rocketChatAsyncHelper.resumeInterruptedMembershipJobs();
+
+    verify(rocketChatMembershipJobService).cancel(job);
+    verify(rocketChatMembershipJobService, never()).execute(any(), any(), any());
+  }
+
+  private void givenJobResult(List<RocketChatMembershipOperation> failedOperations) {
+    when(sessionRepository.findByAgencyIdAndStatusAndConsultantIsNull(2L, SessionStatus.NEW))
+        .thenReturn(new ArrayList<>());
+    when(rocketChatMembershipJobService.createJob(eq(consultant), eq(2L), anyList(), eq(3L)))
+        .thenReturn(job);
+    when(rocketChatMembershipJobService.execute(job, "rcUserId", logMethod))
+        .thenReturn(CompletableFuture.completedFuture(failedOperations));
+    when(consultantRepository.findByIdAndDeleteDateIsNull("consultantId"))
+        .thenReturn(Optional.of(consultant));
+  }
+
+  private AgencyDTO givenAgency() {
+    return new AgencyDTO().id(2L).teamAgency(false);
+  }
+
+  private static Consultant givenConsultant() {
+    var consultant = new Consultant();
+    consultant.setId("consultantId");
+    consultant.setRocketChatId("rcUserId");
+    consultant.setStatus(ConsultantStatus.IN_PROGRESS);
+    return consultant;
+  }
+}
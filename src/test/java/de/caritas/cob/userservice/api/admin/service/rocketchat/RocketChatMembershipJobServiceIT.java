@@ -0,0 +1,220 @@
+package de.caritas.cob.userservice.api.admin.service.rocketchat;
+
+import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO.StatusEnum;
+import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
+import de.caritas.cob.userservice.api.facade.RocketChatFacade;
+import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob.JobStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatus;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
+import de.caritas.cob.userservice.api.port.out.IdentityClient;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipJobRepository;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipOperationRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs membership jobs against a Rocket.Chat stand-in which answers slowly and fails for some
+ * groups temporarily or permanently.
+ */
+@DataJpaTest
+@TestPropertySource(
+    properties = {
+      "spring.profiles.active=testing",
+      "rocket-chat.membership.max-attempts=3",
+      "rocket-chat.membership.initial-backoff=PT0.005S",
+      "rocket-chat.membership.max-backoff=PT0.02S",
+      "rocket-chat.membership.resume.stale-after=PT10M"
+    })
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+  RocketChatMembershipJobService.class,
+  RocketChatMembershipJobServiceIT.ExecutorConfig.class
+})
+class RocketChatMembershipJobServiceIT {
+
+  private static final String RC_USER_ID = "rcUserId";
+  private static final long AGENCY_ID = 1L;
+
+  @Autowired private RocketChatMembershipJobService rocketChatMembershipJobService;
+
+  @Autowired private RocketChatMembershipJobRepository jobRepository;
+
+  @Autowired private RocketChatMembershipOperationRepository operationRepository;
+
+  @MockBean private RocketChatFacade rocketChatFacade;
+
+  @MockBean private IdentityClient identityClient;
+
+  @MockBean private ConsultingTypeManager consultingTypeManager;
+
+  private final Map<String, AtomicInteger> callsPerGroup = new ConcurrentHashMap<>();
+
+  @AfterEach
+  void cleanDatabase() {
+    operationRepository.deleteAll();
+    jobRepository.deleteAll();
+  }
+
+  @Test
+  void execute_Should_storeProgressAndFailures_When_rocketChatFailsForSomeGroups() {
+    givenRocketChat();
+    var job =
+        rocketChatMembershipJobService.createJob(
+            givenConsultant(), AGENCY_ID, givenEnquiries(30), null);
+
+    var failedOperations =
+        rocketChatMembershipJobService.execute(job, RC_USER_ID, message -> {}).join();
+
+    assertThat(failedOperations)
+        .extracting(operation -> operation.getRcGroupId())
+        .containsExactlyInAnyOrder("group-10", "group-20", "group-30");
+    var progress =
+        rocketChatMembershipJobService.findJobProgress("consultantId", AGENCY_ID).orElseThrow();
+    assertThat(progress.getStatus()).isEqualTo(StatusEnum.FAILED);
+    assertThat(progress.getTotal()).isEqualTo(60);
+    assertThat(progress.getSucceeded()).isEqualTo(57);
+    assertThat(progress.getPending()).isZero();
+    assertThat(progress.getFailed()).isEqualTo(3);
+    assertThat(progress.getFailures())
+        .allSatisfy(
+            failure -> {
+              assertThat(failure.getAttempts()).isEqualTo(3);
+              assertThat(failure.getError()).isEqualTo("group not found");
+            });
+    assertThat(callsPerGroup.get("group-3")).hasValue(2);
+  }
+
+  @Test
+  void execute_Should_executeOnlyPendingOperations_When_interruptedJobIsResumed() {
+    givenRocketChat();
+    var job =
+        rocketChatMembershipJobService.createJob(
+            givenConsultant(), AGENCY_ID, givenEnquiries(4), null);
+    var executedOperations =
+        operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.PENDING).stream()
+            .filter(operation -> operation.getSessionId() <= 2)
+            .collect(Collectors.toList());
+    executedOperations.forEach(
+        operation ->
+            operationRepository.updateResult(
+                operation.getId(), OperationStatus.SUCCEEDED, 1, null, nowInUtc()));
+    jobRepository.refreshUpdateDate(job.getId(), nowInUtc().minusHours(1));
+
+    var interruptedJobs = rocketChatMembershipJobService.findInterruptedJobs();
+    assertThat(interruptedJobs).hasSize(1);
+    rocketChatMembershipJobService.execute(interruptedJobs.get(0), RC_USER_ID, m -> {}).join();
+
+    verify(rocketChatFacade, never()).addUserToRocketChatGroup(RC_USER_ID, "group-1");
+    verify(rocketChatFacade, never()).addUserToRocketChatGroup(RC_USER_ID, "feedback-2");
+    verify(rocketChatFacade).addUserToRocketChatGroup(RC_USER_ID, "group-4");
+    assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus())
+        .isEqualTo(JobStatus.COMPLETED);
+    assertThat(rocketChatMembershipJobService.findInterruptedJobs()).isEmpty();
+  }
+
+  @Test
+  void createJob_Should_replacePreviousJob_When_agencyIsAssignedAgain() {
+    var firstJob =
+        rocketChatMembershipJobService.createJob(
+            givenConsultant(), AGENCY_ID, givenEnquiries(3), null);
+
+    var secondJob =
+        rocketChatMembershipJobService.createJob(
+            givenConsultant(), AGENCY_ID, givenEnquiries(1), null);
+
+    assertThat(secondJob.getId()).isEqualTo(firstJob.getId());
+    assertThat(jobRepository.count()).isEqualTo(1);
+    assertThat(operationRepository.count()).isEqualTo(2);
+  }
+
+  /**
+   * Every call takes a few milliseconds, every third group fails on its first call and every tenth
+   * group does not exist.
+   */
+  private void givenRocketChat() {
+    doAnswer(
+            invocation -> {
+              String groupId = invocation.getArgument(1);
+              var calls =
+                  callsPerGroup
+                      .computeIfAbsent(groupId, key -> new AtomicInteger())
+                      .incrementAndGet();
+              Thread.sleep(5);
+              var number = Integer.parseInt(groupId.substring(groupId.indexOf('-') + 1));
+              if (groupId.startsWith("group") && number % 10 == 0) {
+                throw new InternalServerErrorException("group not found");
+              }
+              if (number % 3 == 0 && calls == 1) {
+                throw new InternalServerErrorException("timeout");
+              }
+              return null;
+            })
+        .when(rocketChatFacade)
+        .addUserToRocketChatGroup(eq(RC_USER_ID), anyString());
+  }
+
+  private Consultant givenConsultant() {
+    var consultant = new Consultant();
+    consultant.setId("consultantId");
+    consultant.setRocketChatId(RC_USER_ID);
+    return consultant;
+  }
+
+  private List<Session> givenEnquiries(int amount) {
+    return LongStream.rangeClosed(1, amount)
+        .mapToObj(
+            id -> {
+              var session = new Session();
+              session.setId(id);
+              session.setStatus(SessionStatus.NEW);
+              session.setGroupId("group-" + id);
+              session.setFeedbackGroupId("feedback-" + id);
+              return session;
+            })
+        .collect(Collectors.toList());
+  }
+
+  @TestConfiguration
+  static class ExecutorConfig {
+
+    @Bean("rocketChatMembershipExecutor")
+    Executor rocketChatMembershipExecutor() {
+      var executor = new ThreadPoolTaskExecutor();
+      executor.setCorePoolSize(4);
+      executor.setMaxPoolSize(4);
+      executor.initialize();
+      return executor;
+    }
+  }
+}
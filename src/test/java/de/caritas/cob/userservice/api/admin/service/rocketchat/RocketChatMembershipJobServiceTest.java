@@ -0,0 +1,341 @@
+package de.caritas.cob.userservice.api.admin.service.rocketchat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipFailureDTO.GroupTypeEnum;
+import de.caritas.cob.userservice.api.adapters.web.dto.RocketChatMembershipJobDTO.StatusEnum;
+import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
+import de.caritas.cob.userservice.api.facade.RocketChatFacade;
+import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipJob.JobStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.GroupType;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatus;
+import de.caritas.cob.userservice.api.model.RocketChatMembershipOperation.OperationStatusCount;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
+import de.caritas.cob.userservice.api.port.out.IdentityClient;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipJobRepository;
+import de.caritas.cob.userservice.api.port.out.RocketChatMembershipOperationRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@ExtendWith(MockitoExtension.class)
+class RocketChatMembershipJobServiceTest {
+
+  private static final String RC_USER_ID = "rcUserId";
+  private static final int MAX_ATTEMPTS = 3;
+
+  @Mock private RocketChatMembershipJobRepository jobRepository;
+
+  @Mock private RocketChatMembershipOperationRepository operationRepository;
+
+  @Mock private RocketChatFacade rocketChatFacade;
+
+  @Mock private IdentityClient identityClient;
+
+  @Mock private ConsultingTypeManager consultingTypeManager;
+
+  @Mock private Consumer<String> logMethod;
+
+  private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+  @AfterEach
+  void shutdownExecutor() {
+    if (threadPoolTaskExecutor != null) {
+      threadPoolTaskExecutor.shutdown();
+    }
+  }
+
+  @Test
+  void createJob_Should_storeOperationsForGroupAndFeedbackGroup_When_sessionIsEnquiry() {
+    var service = givenService(Runnable::run);
+    var job = givenJob();
+    when(jobRepository.findByConsultantIdAndAgencyId("consultantId", 1L))
+        .thenReturn(Optional.empty());
+    when(jobRepository.save(any())).thenReturn(job);
+
+    service.createJob(givenConsultant(), 1L, List.of(givenEnquiry(1L), givenEnquiry(2L)), 2L);
+
+    var operations = captureSavedOperations();
+    assertThat(operations).hasSize(4);
+    assertThat(operations)
+        .extracting(RocketChatMembershipOperation::getRcGroupId)
+        .containsExactly("group-1", "feedback-1", "group-2", "feedback-2");
+    assertThat(operations)
+        .allMatch(operation -> OperationStatus.PENDING.equals(operation.getStatus()));
+    verify(operationRepository, never()).deleteByJobId(any());
+  }
+
+  @Test
+  void createJob_Should_replaceOperationsOfPreviousJob_When_jobOfConsultantAndAgencyExists() {
+    var service = givenService(Runnable::run);
+    var previousJob = givenJob();
+    previousJob.setStatus(JobStatus.FAILED);
+    when(jobRepository.findByConsultantIdAndAgencyId("consultantId", 1L))
+        .thenReturn(Optional.of(previousJob));
+    when(jobRepository.save(previousJob)).thenReturn(previousJob);
+
+    var job = service.createJob(givenConsultant(), 1L, List.of(givenEnquiry(1L)), 2L);
+
+    verify(operationRepository).deleteByJobId(previousJob.getId());
+    assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+    assertThat(job.getTenantId()).isEqualTo(2L);
+  }
+
+  @Test
+  void createJob_Should_skipGroupWithoutId_When_sessionHasNoRocketChatGroupYet() {
+    var service = givenService(Runnable::run);
+    when(jobRepository.findByConsultantIdAndAgencyId("consultantId", 1L))
+        .thenReturn(Optional.empty());
+    when(jobRepository.save(any())).thenReturn(givenJob());
+    var session = givenEnquiry(1L);
+    session.setGroupId(null);
+    session.setFeedbackGroupId(null);
+
+    service.createJob(givenConsultant(), 1L, List.of(session), 2L);
+
+    assertThat(captureSavedOperations()).isEmpty();
+  }
+
+  @Test
+  void execute_Should_retryCall_When_rocketChatFailsTemporarily() {
+    var service = givenService(Runnable::run);
+    var job = givenJob();
+    var operation = givenOperation(1L, "group-1");
+    when(operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.PENDING))
+        .thenReturn(List.of(operation));
+    doThrow(new InternalServerErrorException("unavailable"))
+        .doThrow(new InternalServerErrorException("unavailable"))
+        .doNothing()
+        .when(rocketChatFacade)
+        .addUserToRocketChatGroup(RC_USER_ID, "group-1");
+
+    var failedOperations = service.execute(job, RC_USER_ID, logMethod).join();
+
+    assertThat(failedOperations).isEmpty();
+    verify(rocketChatFacade, times(3)).addUserToRocketChatGroup(RC_USER_ID, "group-1");
+    verify(operationRepository, times(2))
+        .updateResult(eq(1L), eq(OperationStatus.PENDING), anyInt(), eq("unavailable"), any());
+    verify(operationRepository)
+        .updateResult(eq(1L), eq(OperationStatus.SUCCEEDED), eq(3), isNull(), any());
+    verify(logMethod).accept(anyString());
+    assertThat(job.getStatus()).isEqualTo(JobStatus.COMPLETED);
+  }
+
+  @Test
+  void execute_Should_failOnlyAffectedOperation_When_maxAttemptsAreReached() {
+    var service = givenService(Runnable::run);
+    var job = givenJob();
+    var failingOperation = givenOperation(1L, "group-1");
+    var operation = givenOperation(2L, "group-2");
+    when(operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.PENDING))
+        .thenReturn(List.of(failingOperation, operation));
+    when(operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.FAILED))
+        .thenReturn(List.of(failingOperation));
+    doThrow(new InternalServerErrorException("forbidden"))
+        .when(rocketChatFacade)
+        .addUserToRocketChatGroup(RC_USER_ID, "group-1");
+
+    var failedOperations = service.execute(job, RC_USER_ID, logMethod).join();
+
+    assertThat(failedOperations).containsExactly(failingOperation);
+    verify(rocketChatFacade, times(MAX_ATTEMPTS)).addUserToRocketChatGroup(RC_USER_ID, "group-1");
+    verify(rocketChatFacade).addUserToRocketChatGroup(RC_USER_ID, "group-2");
+    verify(operationRepository)
+        .updateResult(eq(1L), eq(OperationStatus.FAILED), eq(MAX_ATTEMPTS), eq("forbidden"), any());
+    assertThat(operation.getStatus()).isEqualTo(OperationStatus.SUCCEEDED);
+    assertThat(job.getStatus()).isEqualTo(JobStatus.FAILED);
+  }
+
+  @Test
+  void execute_Should_limitParallelCallsToPoolSize_When_rocketChatRespondsSlowly() {
+    var service = givenService(givenThreadPool(4));
+    var job = givenJob();
+    var operations =
+        IntStream.rangeClosed(1, 40)
+            .mapToObj(id -> givenOperation((long) id, "group-" + id))
+            .collect(Collectors.toList());
+    when(operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.PENDING))
+        .thenReturn(operations);
+    var parallelCalls = new AtomicInteger();
+    var maxParallelCalls = new AtomicInteger();
+    var calls = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              var running = parallelCalls.incrementAndGet();
+              maxParallelCalls.accumulateAndGet(running, Math::max);
+              try {
+                Thread.sleep(20);
+                if (calls.incrementAndGet() % 5 == 0) {
+                  throw new InternalServerErrorException("timeout");
+                }
+              } finally {
+                parallelCalls.decrementAndGet();
+              }
+              return null;
+            })
+        .when(rocketChatFacade)
+        .addUserToRocketChatGroup(eq(RC_USER_ID), anyString());
+
+    var failedOperations = service.execute(job, RC_USER_ID, logMethod).join();
+
+    assertThat(failedOperations).isEmpty();
+    assertThat(operations)
+        .allMatch(operation -> OperationStatus.SUCCEEDED.equals(operation.getStatus()));
+    assertThat(maxParallelCalls.get()).isBetween(2, 4);
+    assertThat(calls.get()).isGreaterThan(operations.size());
+  }
+
+  @Test
+  void findJobProgress_Should_returnAmountsAndFailures_When_jobExists() {
+    var service = givenService(Runnable::run);
+    var job = givenJob();
+    job.setStatus(JobStatus.FAILED);
+    var failedOperation = givenOperation(1L, "feedback-1");
+    failedOperation.setGroupType(GroupType.FEEDBACK_GROUP);
+    failedOperation.setStatus(OperationStatus.FAILED);
+    failedOperation.setAttempts(MAX_ATTEMPTS);
+    failedOperation.setLastError("forbidden");
+    when(jobRepository.findByConsultantIdAndAgencyId("consultantId", 1L))
+        .thenReturn(Optional.of(job));
+    when(operationRepository.countByJobIdGroupByStatus(job.getId()))
+        .thenReturn(
+            List.of(
+                statusCount(OperationStatus.SUCCEEDED, 7), statusCount(OperationStatus.FAILED, 1)));
+    when(operationRepository.findByJobIdAndStatus(job.getId(), OperationStatus.FAILED))
+        .thenReturn(List.of(failedOperation));
+
+    var progress = service.findJobProgress("consultantId", 1L).orElseThrow();
+
+    assertThat(progress.getStatus()).isEqualTo(StatusEnum.FAILED);
+    assertThat(progress.getTotal()).isEqualTo(8);
+    assertThat(progress.getSucceeded()).isEqualTo(7);
+    assertThat(progress.getPending()).isZero();
+    assertThat(progress.getFailed()).isEqualTo(1);
+    assertThat(progress.getFailures()).hasSize(1);
+    var failure = progress.getFailures().get(0);
+    assertThat(failure.getGroupId()).isEqualTo("feedback-1");
+    assertThat(failure.getGroupType()).isEqualTo(GroupTypeEnum.FEEDBACK_GROUP);
+    assertThat(failure.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    assertThat(failure.getError()).isEqualTo("forbidden");
+  }
+
+  @Test
+  void findJobProgress_Should_returnEmpty_When_noJobExists() {
+    var service = givenService(Runnable::run);
+    when(jobRepository.findByConsultantIdAndAgencyId("consultantId", 1L))
+        .thenReturn(Optional.empty());
+
+    assertThat(service.findJobProgress("consultantId", 1L)).isEmpty();
+  }
+
+  private RocketChatMembershipJobService givenService(Executor executor) {
+    return new RocketChatMembershipJobService(
+        jobRepository,
+        operationRepository,
+        rocketChatFacade,
+        identityClient,
+        consultingTypeManager,
+        executor,
+        MAX_ATTEMPTS,
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        Duration.ofMinutes(10));
+  }
+
+  private Executor givenThreadPool(int poolSize) {
+    threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(poolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(poolSize);
+    threadPoolTaskExecutor.initialize();
+    return threadPoolTaskExecutor;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<RocketChatMembershipOperation> captureSavedOperations() {
+    ArgumentCaptor<Iterable<RocketChatMembershipOperation>> captor =
+        ArgumentCaptor.forClass(Iterable.class);
+    verify(operationRepository).saveAll(captor.capture());
+    var operations = new ArrayList<RocketChatMembershipOperation>();
+    captor.getValue().forEach(operations::add);
+    return operations;
+  }
+
+  private Consultant givenConsultant() {
+    var consultant = new Consultant();
+    consultant.setId("consultantId");
+    consultant.setRocketChatId(RC_USER_ID);
+    return consultant;
+  }
+
+  private Session givenEnquiry(Long id) {
+    var session = new Session();
+    session.setId(id);
+    session.setStatus(SessionStatus.NEW);
+    session.setGroupId("group-" + id);
+    session.setFeedbackGroupId("feedback-" + id);
+    return session;
+  }
+
+  private RocketChatMembershipJob givenJob() {
+    return RocketChatMembershipJob.builder()
+        .id(1L)
+        .consultantId("consultantId")
+        .agencyId(1L)
+        .tenantId(2L)
+        .status(JobStatus.RUNNING)
+        .build();
+  }
+
+  private RocketChatMembershipOperation givenOperation(Long id, String rcGroupId) {
+    return RocketChatMembershipOperation.builder()
+        .id(id)
+        .sessionId(id)
+        .rcGroupId(rcGroupId)
+        .groupType(GroupType.GROUP)
+        .status(OperationStatus.PENDING)
+        .build();
+  }
+
+  private OperationStatusCount statusCount(OperationStatus status, long amount) {
+    return new OperationStatusCount() {
+      @Override
+      public OperationStatus getStatus() {
+        return status;
+      }
+
+      @Override
+      public long getAmount() {
+        return amount;
+      }
+    };
+  }
+}
@@ -5,219 +5,205 @@ import static de.caritas.cob.userservice.api.testHelper.TestConstants.USER;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import static org.powermock.reflect.internal.WhiteboxImpl.getInternalState;
-import static org.powermock.reflect.internal.WhiteboxImpl.setInternalState;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import de.caritas.cob.userservice.api.conversation.service.user.anonymous.AnonymousUsernameRegistry;
 import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
+import de.caritas.cob.userservice.api.port.out.AnonymousUsernameAllocationRepository;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import de.caritas.cob.userservice.api.service.user.UserService;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoSettings;
-import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
-@RunWith(PowerMockRunner.class)
 @MockitoSettings(strictness = org.mockito.quality.Strictness.LENIENT)
 class AnonymousUsernameRegistryTest {
 
-  @InjectMocks private AnonymousUsernameRegistry anonymousUsernameRegistry;
+  private static final int ID_BLOCK_SIZE = 3;
+
+  private AnonymousUsernameRegistry anonymousUsernameRegistry;
   @Mock private UserService userService;
   @Mock private ConsultantService consultantService;
+  @Mock private AnonymousUsernameAllocationRepository allocationRepository;
+  @Mock private PlatformTransactionManager transactionManager;
   @Mock private UsernameTranscoder usernameTranscoder;
 
   @BeforeEach
   void setUp() {
+    anonymousUsernameRegistry =
+        new AnonymousUsernameRegistry(
+            userService,
+            consultantService,
+            allocationRepository,
+            transactionManager,
+            ID_BLOCK_SIZE);
     setField(anonymousUsernameRegistry, "usernameTranscoder", usernameTranscoder);
     setField(anonymousUsernameRegistry, "usernamePrefix", "Ratsuchende_r ");
+    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
+    when(consultantService.getConsultantByUsername(any())).thenReturn(Optional.empty());
+    when(allocationRepository.findReleasedIds(any())).thenReturn(List.of());
+    when(allocationRepository.nextBlock()).thenReturn(0L, 1L);
   }
 
   @Test
-  void
-      generateUniqueUsername_Should_GenerateUsernameWithMissingIdOfList_When_MissingUserIdNotExistingInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
+  void generateUniqueUsername_Should_GenerateUsernameWithSmallestReleasedId_When_ItCanBeClaimed() {
+    when(allocationRepository.findReleasedIds(any())).thenReturn(List.of(3, 5));
+    when(allocationRepository.claimReleased(eq(3), any())).thenReturn(1);
 
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 3"));
-  }
-
-  private void setIdRegistryField(LinkedList<Integer> idRegistryListWithoutThree) {
-    setInternalState(AnonymousUsernameRegistry.class, "ID_REGISTRY", idRegistryListWithoutThree);
+    assertThat(encodedUsername(), is("Ratsuchende_r 3"));
+    verify(allocationRepository, never()).nextBlock();
   }
 
   @Test
   void
-      generateUniqueUsername_Should_GenerateUsernameWithSecondMissingIdOfList_When_FirstMissingUserIdIsExistingInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 6));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername("Ratsuchende_r 3")).thenReturn(Optional.of(USER));
-    when(userService.findUserByUsername("Ratsuchende_r 5")).thenReturn(Optional.empty());
+      generateUniqueUsername_Should_GenerateUsernameWithNextReleasedId_When_SmallestHasBeenClaimedByAnotherInstance() {
+    when(allocationRepository.findReleasedIds(any())).thenReturn(List.of(3, 5));
+    when(allocationRepository.claimReleased(eq(3), any())).thenReturn(0);
+    when(allocationRepository.claimReleased(eq(5), any())).thenReturn(1);
 
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 5"));
+    assertThat(encodedUsername(), is("Ratsuchende_r 5"));
   }
 
   @Test
-  void
-      generateUniqueUsername_Should_GenerateUsernameWithIdOne_When_ListIsEmptyAndUserNotExistingInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>();
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-
+  void generateUniqueUsername_Should_GenerateUsernameWithIdOne_When_NoIdHasBeenAllocatedYet() {
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 1"));
+    assertThat(encodedUsername(), is("Ratsuchende_r 1"));
+    verify(allocationRepository).insert(eq(1), eq(false), any());
   }
 
   @Test
-  void
-      generateUniqueUsername_Should_GenerateUsernameWithIdGreaterThanBiggestListId_When_ListContainsContiguousIdsAndUserNotExistingInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 3, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
+  void generateUniqueUsername_Should_ReserveNextIdBlock_When_CurrentBlockIsExhausted() {
+    for (var i = 0; i < ID_BLOCK_SIZE + 1; i++) {
+      anonymousUsernameRegistry.generateUniqueUsername();
+    }
+
+    var usernameCaptor = ArgumentCaptor.forClass(String.class);
+    verify(usernameTranscoder, times(ID_BLOCK_SIZE + 1)).encodeUsername(usernameCaptor.capture());
+    assertThat(
+        usernameCaptor.getAllValues(),
+        is(List.of("Ratsuchende_r 1", "Ratsuchende_r 2", "Ratsuchende_r 3", "Ratsuchende_r 4")));
+    verify(allocationRepository, times(2)).nextBlock();
+  }
+
+  @Test
+  void generateUniqueUsername_Should_SkipNewId_When_IdHasAlreadyBeenReleasedBefore() {
+    when(allocationRepository.insert(eq(1), eq(false), any()))
+        .thenThrow(new DataIntegrityViolationException("duplicate"));
 
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 6"));
+    assertThat(encodedUsername(), is("Ratsuchende_r 2"));
   }
 
   @Test
-  void
-      generateUniqueUsername_Should_GenerateUsernameWithIdGreaterThanBiggestListId_When_MissingIdsOfListHaveExistingUsersInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 6));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername("Ratsuchende_r 3")).thenReturn(Optional.of(USER));
-    when(userService.findUserByUsername("Ratsuchende_r 5")).thenReturn(Optional.of(USER));
-    when(userService.findUserByUsername("Ratsuchende_r 7")).thenReturn(Optional.empty());
+  void generateUniqueUsername_Should_SkipId_When_UsernameIsStillUsedByUser() {
+    when(userService.findUserByUsername("Ratsuchende_r 1")).thenReturn(Optional.of(USER));
 
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 7"));
+    assertThat(encodedUsername(), is("Ratsuchende_r 2"));
   }
 
   @Test
-  void
-      generateUniqueUsername_Should_GenerateUsernameWithIdGreaterThanBiggestListId_When_MissingIdsOfListHaveExistingConsultantsInDb() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 6));
-    setIdRegistryField(idRegistryListWithoutThree);
+  void generateUniqueUsername_Should_SkipId_When_UsernameIsStillUsedByConsultant() {
+    when(allocationRepository.findReleasedIds(any())).thenReturn(List.of(3), List.of());
+    when(allocationRepository.claimReleased(eq(3), any())).thenReturn(1);
     when(consultantService.getConsultantByUsername("Ratsuchende_r 3"))
         .thenReturn(Optional.of(CONSULTANT));
-    when(consultantService.getConsultantByUsername("Ratsuchende_r 5"))
-        .thenReturn(Optional.of(CONSULTANT));
-    when(consultantService.getConsultantByUsername("Ratsuchende_r 7")).thenReturn(Optional.empty());
 
     anonymousUsernameRegistry.generateUniqueUsername();
 
-    ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
-    verify(usernameTranscoder, times(1)).encodeUsername(argumentCaptor.capture());
-    assertThat(argumentCaptor.getValue(), is("Ratsuchende_r 7"));
+    assertThat(encodedUsername(), is("Ratsuchende_r 1"));
   }
 
   @Test
-  void
-      removeRegistryIdByUsername_Should_RemoveIdFromRegistry_When_UsernameMatchesUsernamePattern() {
-    String usernameToDelete = "Ratsuchende_r 2";
-
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-    when(usernameTranscoder.decodeUsername(anyString())).thenReturn(usernameToDelete);
+  void removeRegistryIdByUsername_Should_ReleaseId_When_UsernameMatchesUsernamePattern() {
+    var usernameToDelete = "Ratsuchende_r 2";
+    when(usernameTranscoder.decodeUsername(usernameToDelete)).thenReturn(usernameToDelete);
+    when(allocationRepository.release(eq(2), any())).thenReturn(1);
 
     anonymousUsernameRegistry.removeRegistryIdByUsername(usernameToDelete);
 
-    List<Integer> resultingRegistry = getIdRegistryField();
-    assertThat(resultingRegistry, is(List.of(1, 4, 5)));
-    verify(usernameTranscoder, times(1)).decodeUsername(usernameToDelete);
+    verify(allocationRepository).release(eq(2), any());
+    verify(allocationRepository, never()).insert(anyInt(), anyBoolean(), any());
   }
 
-  private List<Integer> getIdRegistryField() {
-    return getInternalState(AnonymousUsernameRegistry.class, "ID_REGISTRY");
+  @Test
+  void removeRegistryIdByUsername_Should_StoreReleasedId_When_IdHasNotBeenAllocatedByRegistry() {
+    var usernameToDelete = "Ratsuchende_r 7";
+    when(usernameTranscoder.decodeUsername(usernameToDelete)).thenReturn(usernameToDelete);
+    when(allocationRepository.release(eq(7), any())).thenReturn(0);
+
+    anonymousUsernameRegistry.removeRegistryIdByUsername(usernameToDelete);
+
+    verify(allocationRepository).insert(eq(7), eq(true), any());
   }
 
   @Test
-  void
-      removeRegistryIdByUsername_Should_NotModifyTheRegistry_When_UsernameDoesNotMatchUsernamePattern() {
-    String usernameNotMatchingPattern = "something else";
+  void removeRegistryIdByUsername_Should_IgnoreIdWhichIsAlreadyReleased() {
+    var usernameToDelete = "Ratsuchende_r 7";
+    when(usernameTranscoder.decodeUsername(usernameToDelete)).thenReturn(usernameToDelete);
+    when(allocationRepository.insert(eq(7), eq(true), any()))
+        .thenThrow(new DataIntegrityViolationException("duplicate"));
 
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-    when(usernameTranscoder.decodeUsername(anyString())).thenReturn(usernameNotMatchingPattern);
-
-    anonymousUsernameRegistry.removeRegistryIdByUsername(usernameNotMatchingPattern);
+    anonymousUsernameRegistry.removeRegistryIdByUsername(usernameToDelete);
 
-    List<Integer> resultingRegistry = getIdRegistryField();
-    assertThat(resultingRegistry, is(idRegistryListWithoutThree));
-    verify(usernameTranscoder, times(1)).decodeUsername(usernameNotMatchingPattern);
+    verify(allocationRepository).insert(eq(7), eq(true), any());
   }
 
   @Test
   void
-      removeRegistryIdByUsername_Should_NotModifyTheRegistry_When_UsernameDoesMatchUsernamePatternButHasNotExistingNumber() {
-    String usernameWithNotExistingId = "Ratsuchende_r 3";
-
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-    when(usernameTranscoder.decodeUsername(anyString())).thenReturn(usernameWithNotExistingId);
+      removeRegistryIdByUsername_Should_NotModifyTheRegistry_When_UsernameDoesNotMatchUsernamePattern() {
+    var usernameNotMatchingPattern = "something else";
+    when(usernameTranscoder.decodeUsername(usernameNotMatchingPattern))
+        .thenReturn(usernameNotMatchingPattern);
 
-    anonymousUsernameRegistry.removeRegistryIdByUsername(usernameWithNotExistingId);
+    anonymousUsernameRegistry.removeRegistryIdByUsername(usernameNotMatchingPattern);
 
-    List<Integer> resultingRegistry = getIdRegistryField();
-    assertThat(resultingRegistry, is(idRegistryListWithoutThree));
-    verify(usernameTranscoder, times(1)).decodeUsername(usernameWithNotExistingId);
+    verifyNoInteractions(allocationRepository);
   }
 
   @Test
   void removeRegistryIdByUsername_Should_NotModifyTheRegistry_When_EmptyValuePassed() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-
-    List<String> emptyStrings = List.of("", "   ");
-    emptyStrings.forEach(
-        emptyValue -> {
-          when(usernameTranscoder.decodeUsername(anyString())).thenReturn(emptyValue);
-          anonymousUsernameRegistry.removeRegistryIdByUsername(emptyValue);
-          List<Integer> resultingRegistry = getIdRegistryField();
-          assertThat(resultingRegistry, is(idRegistryListWithoutThree));
-        });
+    List.of("", "   ")
+        .forEach(
+            emptyValue -> {
+              when(usernameTranscoder.decodeUsername(emptyValue)).thenReturn(emptyValue);
+              anonymousUsernameRegistry.removeRegistryIdByUsername(emptyValue);
+            });
+
+    verifyNoInteractions(allocationRepository);
   }
 
   @Test
   void removeRegistryIdByUsername_Should_NotModifyTheRegistry_When_NullPassed() {
-    LinkedList<Integer> idRegistryListWithoutThree = new LinkedList<>(List.of(1, 2, 4, 5));
-    setIdRegistryField(idRegistryListWithoutThree);
-    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
-
     anonymousUsernameRegistry.removeRegistryIdByUsername(null);
-    List<Integer> resultingRegistry = getIdRegistryField();
-    assertThat(resultingRegistry, is(idRegistryListWithoutThree));
+
+    verifyNoInteractions(allocationRepository);
+  }
+
+  private String encodedUsername() {
+    var usernameCaptor = ArgumentCaptor.forClass(String.class);
+    verify(usernameTranscoder, times(1)).encodeUsername(usernameCaptor.capture());
+    return usernameCaptor.getValue();
   }
 }
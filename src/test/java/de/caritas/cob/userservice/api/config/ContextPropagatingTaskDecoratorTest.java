@@ -0,0 +1,90 @@
+package de.caritas.cob.userservice.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ContextPropagatingTaskDecoratorTest {
+
+  private final ContextPropagatingTaskDecorator taskDecorator =
+      new ContextPropagatingTaskDecorator();
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+    SecurityContextHolder.clearContext();
+    MDC.clear();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void decorate_Should_handContextOfSubmittingThreadOverToExecutingThread() {
+    var securityContext = new SecurityContextImpl();
+    var requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+    TenantContext.setCurrentTenant(1L);
+    SecurityContextHolder.setContext(securityContext);
+    MDC.put("CID", "correlation-id");
+    RequestContextHolder.setRequestAttributes(requestAttributes);
+    var tenantId = new AtomicReference<Long>();
+    var propagatedSecurityContext = new AtomicReference<Object>();
+    var correlationId = new AtomicReference<String>();
+    var propagatedRequestAttributes = new AtomicReference<Object>();
+
+    var task =
+        taskDecorator.decorate(
+            () -> {
+              tenantId.set(TenantContext.getCurrentTenant());
+              propagatedSecurityContext.set(SecurityContextHolder.getContext());
+              correlationId.set(MDC.get("CID"));
+              propagatedRequestAttributes.set(RequestContextHolder.getRequestAttributes());
+            });
+    var executor = Executors.newSingleThreadExecutor();
+    CompletableFuture.runAsync(task, executor).join();
+    executor.shutdown();
+
+    assertEquals(1L, tenantId.get());
+    assertSame(securityContext, propagatedSecurityContext.get());
+    assertEquals("correlation-id", correlationId.get());
+    assertSame(requestAttributes, propagatedRequestAttributes.get());
+  }
+
+  @Test
+  void decorate_Should_restoreFormerContext_When_submittingThreadRunsTheTask() {
+    var task = taskDecorator.decorate(() -> TenantContext.setCurrentTenant(2L));
+    TenantContext.setCurrentTenant(1L);
+    MDC.put("CID", "caller");
+
+    task.run();
+
+    assertEquals(1L, TenantContext.getCurrentTenant());
+    assertEquals("caller", MDC.get("CID"));
+  }
+
+  @Test
+  void decorate_Should_leaveNoContextBehind_When_executingThreadHadNone() {
+    TenantContext.setCurrentTenant(1L);
+    var task = taskDecorator.decorate(() -> {});
+    var tenantIdAfterTask = new AtomicReference<Long>(-1L);
+    var executor = Executors.newSingleThreadExecutor();
+
+    CompletableFuture.runAsync(task, executor)
+        .thenRunAsync(() -> tenantIdAfterTask.set(TenantContext.getCurrentTenant()), executor)
+        .join();
+    executor.shutdown();
+
+    assertNull(tenantIdAfterTask.get());
+  }
+}
@@ -0,0 +1,199 @@
+package de.caritas.cob.userservice.api.config.apiclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.caritas.cob.userservice.api.config.apiclient.UpstreamHttpClientConfig.PoolConfig;
+import de.caritas.cob.userservice.api.config.apiclient.UpstreamHttpClientConfig.UpstreamConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+class UpstreamClientHttpRequestFactoryTest {
+
+  private static final Duration SLOW_RESPONSE = Duration.ofMillis(1500);
+
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private final CountDownLatch slowRequestStarted = new CountDownLatch(1);
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private SimpleMeterRegistry meterRegistry;
+  private UpstreamClientHttpRequestFactory requestFactory;
+  private String baseUrl;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/fast", exchange -> respond(exchange, 200));
+    server.createContext("/missing", exchange -> respond(exchange, 404));
+    server.createContext(
+        "/slow",
+        exchange -> {
+          slowRequestStarted.countDown();
+          sleep(SLOW_RESPONSE);
+          respond(exchange, 200);
+        });
+    serverExecutor = Executors.newCachedThreadPool();
+    server.setExecutor(serverExecutor);
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void stopServer() throws IOException {
+    if (requestFactory != null) {
+      requestFactory.destroy();
+    }
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  void createRequest_Should_reuseConnection_When_requestsAreSentSequentially() {
+    var restTemplate = givenRestTemplate(poolConfig(Duration.ofSeconds(5), 5));
+
+    for (int i = 0; i < 10; i++) {
+      restTemplate.getForObject(baseUrl + "/fast", String.class);
+    }
+
+    assertThat(clientPorts).hasSize(1);
+    assertThat(requestCount("upstream", "SUCCESSFUL")).isEqualTo(10);
+  }
+
+  @Test
+  void createRequest_Should_failWithinReadTimeout_When_upstreamIsSlow() {
+    var restTemplate = givenRestTemplate(poolConfig(Duration.ofMillis(200), 5));
+    var start = System.nanoTime();
+
+    assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/slow", String.class))
+        .isInstanceOf(ResourceAccessException.class)
+        .hasCauseInstanceOf(SocketTimeoutException.class);
+
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(SLOW_RESPONSE);
+    assertThat(requestCount("upstream", "IO_ERROR")).isEqualTo(1);
+  }
+
+  @Test
+  void createRequest_Should_failWithinPoolAcquireTimeout_When_poolIsExhausted()
+      throws InterruptedException {
+    var restTemplate = givenRestTemplate(poolConfig(Duration.ofSeconds(5), 1));
+    var slowRequest =
+        CompletableFuture.runAsync(
+            () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+    assertThat(slowRequestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/fast", String.class))
+        .isInstanceOf(ResourceAccessException.class)
+        .hasCauseInstanceOf(ConnectionPoolTimeoutException.class);
+
+    assertThat(
+            meterRegistry
+                .get("upstream.http.pool.connections")
+                .tag("upstream", "upstream")
+                .tag("state", "leased")
+                .gauge()
+                .value())
+        .isEqualTo(1);
+    slowRequest.join();
+  }
+
+  @Test
+  void createRequest_Should_tagRequestsWithUpstreamOfLongestMatchingBaseUrl() {
+    var parent = upstreamConfig(baseUrl, poolConfig(Duration.ofSeconds(5), 5));
+    var child = upstreamConfig(baseUrl + "/missing", poolConfig(Duration.ofSeconds(5), 5));
+    var config = new UpstreamHttpClientConfig();
+    config.setDefaults(poolConfig(Duration.ofSeconds(5), 5));
+    config.getServices().put("parent", parent);
+    config.getServices().put("child", child);
+    requestFactory = new UpstreamClientHttpRequestFactory(config, meterRegistry);
+    var restTemplate = new RestTemplate(requestFactory);
+
+    restTemplate.getForObject(baseUrl + "/fast", String.class);
+    assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/missing", String.class))
+        .hasMessageContaining("404");
+    restTemplate.getForObject(
+        "http://127.0.0.1:" + server.getAddress().getPort() + "/fast", String.class);
+
+    assertThat(requestCount("parent", "SUCCESSFUL")).isEqualTo(1);
+    assertThat(requestCount("child", "CLIENT_ERROR")).isEqualTo(1);
+    assertThat(requestCount("default", "SUCCESSFUL")).isEqualTo(1);
+  }
+
+  private RestTemplate givenRestTemplate(PoolConfig poolConfig) {
+    var config = new UpstreamHttpClientConfig();
+    config.setDefaults(poolConfig);
+    config.getServices().put("upstream", upstreamConfig(baseUrl, new PoolConfig()));
+    requestFactory = new UpstreamClientHttpRequestFactory(config, meterRegistry);
+    return new RestTemplate(requestFactory);
+  }
+
+  private PoolConfig poolConfig(Duration readTimeout, int maxPerRoute) {
+    var poolConfig = new PoolConfig();
+    poolConfig.setMaxTotal(maxPerRoute);
+    poolConfig.setMaxPerRoute(maxPerRoute);
+    poolConfig.setConnectTimeout(Duration.ofSeconds(1));
+    poolConfig.setReadTimeout(readTimeout);
+    poolConfig.setPoolAcquireTimeout(Duration.ofMillis(200));
+    poolConfig.setKeepAlive(Duration.ofSeconds(30));
+    return poolConfig;
+  }
+
+  private UpstreamConfig upstreamConfig(String baseUrl, PoolConfig poolConfig) {
+    var upstreamConfig = new UpstreamConfig();
+    upstreamConfig.setBaseUrl(baseUrl);
+    upstreamConfig.setMaxTotal(poolConfig.getMaxTotal());
+    upstreamConfig.setMaxPerRoute(poolConfig.getMaxPerRoute());
+    upstreamConfig.setConnectTimeout(poolConfig.getConnectTimeout());
+    upstreamConfig.setReadTimeout(poolConfig.getReadTimeout());
+    upstreamConfig.setPoolAcquireTimeout(poolConfig.getPoolAcquireTimeout());
+    upstreamConfig.setKeepAlive(poolConfig.getKeepAlive());
+    return upstreamConfig;
+  }
+
+  private long requestCount(String upstream, String outcome) {
+    return meterRegistry
+        .get("upstream.http.requests")
+        .tag("upstream", upstream)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+
+  private void respond(HttpExchange exchange, int status) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    var body = "ok".getBytes(StandardCharsets.UTF_8);
+    exchange.getRequestBody().readAllBytes();
+    exchange.sendResponseHeaders(status, body.length);
+    try (var responseBody = exchange.getResponseBody()) {
+      responseBody.write(body);
+    }
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package de.caritas.cob.userservice.api.conversation.service.user.anonymous;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.helper.UsernameTranscoder;
+import de.caritas.cob.userservice.api.port.out.AnonymousUsernameAllocationRepository;
+import de.caritas.cob.userservice.api.service.ConsultantService;
+import de.caritas.cob.userservice.api.service.user.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Runs two registries, standing in for two instances of the cluster, against the same database. */
+@DataJpaTest
+@TestPropertySource(properties = "spring.profiles.active=testing")
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnonymousUsernameRegistryIT {
+
+  private static final String USERNAME_PREFIX = "Ratsuchende_r ";
+  private static final int THREADS_PER_INSTANCE = 8;
+  private static final int USERNAMES_PER_THREAD = 25;
+
+  @Autowired private AnonymousUsernameAllocationRepository allocationRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private final UsernameTranscoder usernameTranscoder = new UsernameTranscoder();
+
+  private AnonymousUsernameRegistry firstInstance;
+
+  private AnonymousUsernameRegistry secondInstance;
+
+  @BeforeEach
+  void setup() {
+    firstInstance = givenInstance();
+    secondInstance = givenInstance();
+  }
+
+  @AfterEach
+  void cleanDatabase() {
+    allocationRepository.deleteAll();
+  }
+
+  @Test
+  void
+      generateUniqueUsername_Should_handOutDistinctUsernames_When_calledConcurrentlyOnTwoInstances()
+          throws Exception {
+    var liveUsernames = ConcurrentHashMap.<String>newKeySet();
+    var duplicates = ConcurrentHashMap.<String>newKeySet();
+    var tasks = new ArrayList<Callable<Void>>();
+    for (var i = 0; i < THREADS_PER_INSTANCE; i++) {
+      tasks.add(generateAndRelease(firstInstance, liveUsernames, duplicates));
+      tasks.add(generateAndRelease(secondInstance, liveUsernames, duplicates));
+    }
+
+    var start = System.nanoTime();
+    runConcurrently(tasks);
+
+    assertThat(duplicates).isEmpty();
+    assertThat(liveUsernames).hasSize(tasks.size() * (USERNAMES_PER_THREAD - 1));
+    assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(30);
+  }
+
+  @Test
+  void generateUniqueUsername_Should_reuseReleasedNumber_When_releasedOnOtherInstance() {
+    var username = firstInstance.generateUniqueUsername();
+    secondInstance.generateUniqueUsername();
+
+    firstInstance.removeRegistryIdByUsername(username);
+
+    assertThat(secondInstance.generateUniqueUsername()).isEqualTo(username);
+  }
+
+  @Test
+  void generateUniqueUsername_Should_notHandOutNumberOfLegacyUsername_When_itHasBeenReleased() {
+    var legacyUsername = usernameTranscoder.encodeUsername(USERNAME_PREFIX + 1);
+    firstInstance.removeRegistryIdByUsername(legacyUsername);
+
+    var first = secondInstance.generateUniqueUsername();
+    var second = secondInstance.generateUniqueUsername();
+
+    assertThat(List.of(first, second)).containsOnlyOnce(legacyUsername).doesNotHaveDuplicates();
+  }
+
+  private Callable<Void> generateAndRelease(
+      AnonymousUsernameRegistry instance, Set<String> liveUsernames, Set<String> duplicates) {
+    return () -> {
+      String released = null;
+      for (var i = 0; i < USERNAMES_PER_THREAD; i++) {
+        var username = instance.generateUniqueUsername();
+        if (!liveUsernames.add(username)) {
+          duplicates.add(username);
+        }
+        if (i == USERNAMES_PER_THREAD / 2) {
+          released = username;
+        }
+      }
+      liveUsernames.remove(released);
+      instance.removeRegistryIdByUsername(released);
+      return null;
+    };
+  }
+
+  private static void runConcurrently(List<Callable<Void>> tasks)
+      throws InterruptedException, ExecutionException {
+    var executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private AnonymousUsernameRegistry givenInstance() {
+    var userService = mock(UserService.class);
+    when(userService.findUserByUsername(any())).thenReturn(Optional.empty());
+    var consultantService = mock(ConsultantService.class);
+    when(consultantService.getConsultantByUsername(any())).thenReturn(Optional.empty());
+    var registry =
+        new AnonymousUsernameRegistry(
+            userService, consultantService, allocationRepository, transactionManager, 5);
+    ReflectionTestUtils.setField(registry, "usernamePrefix", USERNAME_PREFIX);
+    return registry;
+  }
+}
@@ -27,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -35,17 +36,18 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.reflect.Whitebox.setInternalState;
 
-import com.google.api.client.util.Lists;
 import com.neovisionaries.i18n.LanguageCode;
 import de.caritas.cob.userservice.api.adapters.keycloak.KeycloakService;
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
 import de.caritas.cob.userservice.api.adapters.rocketchat.dto.group.GroupMemberDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.NotificationsSettingsDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.ReassignmentNotificationDTO;
 import de.caritas.cob.userservice.api.config.auth.UserRole;
 import de.caritas.cob.userservice.api.exception.EmailNotificationException;
 import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
 import de.caritas.cob.userservice.api.exception.httpresponses.NotFoundException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.helper.json.JsonSerializationUtils;
 import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
 import de.caritas.cob.userservice.api.model.Consultant;
@@ -62,12 +64,10 @@ import de.caritas.cob.userservice.api.service.agency.AgencyService;
 import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggle;
 import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggleService;
 import de.caritas.cob.userservice.api.service.emailsupplier.AssignEnquiryEmailSupplier;
-import de.caritas.cob.userservice.api.service.emailsupplier.NewDirectEnquiryEmailSupplier;
-import de.caritas.cob.userservice.api.service.emailsupplier.NewEnquiryEmailSupplier;
 import de.caritas.cob.userservice.api.service.emailsupplier.NewFeedbackEmailSupplier;
 import de.caritas.cob.userservice.api.service.emailsupplier.NewMessageEmailSupplier;
 import de.caritas.cob.userservice.api.service.emailsupplier.TenantTemplateSupplier;
-import de.caritas.cob.userservice.api.service.helper.MailService;
+import de.caritas.cob.userservice.api.service.helper.MailDispatcher;
 import de.caritas.cob.userservice.api.service.session.SessionService;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
 import de.caritas.cob.userservice.consultingtypeservice.generated.web.model.ExtendedConsultingTypeResponseDTO;
@@ -84,6 +84,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -91,7 +96,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -451,15 +455,8 @@ class EmailNotificationFacadeTest {
 
   @InjectMocks private EmailNotificationFacade emailNotificationFacade;
 
-  @Mock private NewEnquiryEmailSupplier newEnquiryEmailSupplier;
-
-  @SuppressWarnings("unused")
-  @Mock
-  private NewDirectEnquiryEmailSupplier newDirectEnquiryEmailSupplier;
-
-  @Spy private AssignEnquiryEmailSupplier assignEnquiryEmailSupplier;
   @Mock private ConsultantAgencyRepository consultantAgencyRepository;
-  @Mock private MailService mailService;
+  @Mock private MailDispatcher mailDispatcher;
   @Mock private AgencyService agencyService;
   @Mock SessionService sessionService;
   @Mock ConsultantAgencyService consultantAgencyService;
@@ -475,6 +472,7 @@ class EmailNotificationFacadeTest {
   KeycloakService keycloakService;
 
   @Mock TenantTemplateSupplier tenantTemplateSupplier;
+  @Mock RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   @BeforeEach
   void setup() throws NoSuchFieldException, SecurityException {
@@ -485,8 +483,6 @@ class EmailNotificationFacadeTest {
         FIELD_VALUE_ROCKET_CHAT_SYSTEM_USER_ID);
     ReflectionTestUtils.setField(
         emailNotificationFacade, APPLICATION_BASE_URL_FIELD_NAME, APPLICATION_BASE_URL);
-    ReflectionTestUtils.setField(
-        assignEnquiryEmailSupplier, "consultantService", consultantService);
     setInternalState(EmailNotificationFacade.class, "log", logger);
     setInternalState(AssignEnquiryEmailSupplier.class, "log", logger);
     setInternalState(NewFeedbackEmailSupplier.class, "log", logger);
@@ -503,7 +499,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewEnquiryEmailNotification(session, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -513,7 +509,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewEnquiryEmailNotification(session, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -525,7 +521,7 @@ class EmailNotificationFacadeTest {
     session.setTenantId(1L);
     emailNotificationFacade.sendNewEnquiryEmailNotification(session, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   private Session givenEnquirySession() {
@@ -535,21 +531,16 @@ class EmailNotificationFacadeTest {
   }
 
   private void givenNewEnquiryMailSupplierReturnNonEmptyMails() {
-    List<MailDTO> mails = getMailDTOS();
-    when(newEnquiryEmailSupplier.generateEmails()).thenReturn(mails);
-  }
-
-  private List<MailDTO> getMailDTOS() {
-    List<MailDTO> mails = Lists.newArrayList();
-    mails.add(new MailDTO());
-    return mails;
+    when(consultantAgencyRepository.findByAgencyIdAndDeleteDateIsNull(any()))
+        .thenReturn(List.of(CONSULTANT_AGENCY));
+    when(agencyService.getAgency(any())).thenReturn(new EasyRandom().nextObject(AgencyDTO.class));
   }
 
   @Test
   void sendNewEnquiryEmailNotification_ShouldNot_SendEmailWhenGeneratedEmailListIsEmpty() {
     emailNotificationFacade.sendNewEnquiryEmailNotification(SESSION, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -557,7 +548,8 @@ class EmailNotificationFacadeTest {
     var session = givenEnquirySession();
     EmailNotificationException emailNotificationException =
         new EmailNotificationException(new Exception());
-    when(newEnquiryEmailSupplier.generateEmails()).thenThrow(emailNotificationException);
+    when(consultantAgencyRepository.findByAgencyIdAndDeleteDateIsNull(any()))
+        .thenThrow(emailNotificationException);
 
     emailNotificationFacade.sendNewEnquiryEmailNotification(session, null);
 
@@ -578,7 +570,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
     verify(consultantAgencyService).findConsultantsByAgencyId(AGENCY_ID);
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -594,7 +586,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
     verify(consultantAgencyService).findConsultantsByAgencyId(AGENCY_ID);
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -609,7 +601,14 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
+  }
+
+  @Test
+  void sendNewMessageNotification_Should_EvictCachedRoomInformationOfGroup() {
+    emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
+
+    verify(rocketChatRoomInformationProvider).evictRocketChatInformationOfRoom(RC_GROUP_ID);
   }
 
   @Test
@@ -631,7 +630,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
     verify(logger, atLeastOnce()).error(anyString(), anyString(), anyString());
   }
 
@@ -644,7 +643,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
     verify(logger, atLeastOnce()).error(anyString(), anyString(), anyString());
   }
 
@@ -657,7 +656,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -669,7 +668,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -682,7 +681,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewMessageNotification(
         RC_GROUP_ID, CONSULTANT_ROLES, CONSULTANT_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
     verify(logger, atLeastOnce()).warn(anyString(), anyString(), anyString(), any(Exception.class));
   }
 
@@ -692,7 +691,7 @@ class EmailNotificationFacadeTest {
 
     when(sessionService.getSessionByGroupIdAndUser(RC_GROUP_ID, CONSULTANT_ID, CONSULTANT_ROLES))
         .thenReturn(SESSION_IN_PROGRESS);
-    doThrow(new NullPointerException()).when(mailService).sendEmailNotification(any());
+    doThrow(new NullPointerException()).when(mailDispatcher).dispatch(any());
 
     emailNotificationFacade.sendNewMessageNotification(
         RC_GROUP_ID, CONSULTANT_ROLES, CONSULTANT_ID, null);
@@ -711,7 +710,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewMessageNotification(
         RC_GROUP_ID, CONSULTANT_ROLES, CONSULTANT_ID, null);
 
-    verify(mailService, times(0)).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher, times(0)).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -724,7 +723,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewMessageNotification(
         RC_GROUP_ID, CONSULTANT_ROLES, CONSULTANT_ID, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any(MailsDTO.class));
+    verify(mailDispatcher).dispatch(Mockito.any(MailsDTO.class));
   }
 
   @Test
@@ -739,7 +738,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   @Test
@@ -753,7 +752,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendNewMessageNotification(RC_GROUP_ID, USER_ROLES, USER_ID, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   /** Method: sendNewFeedbackMessageNotification */
@@ -771,7 +770,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewFeedbackMessageNotification(
         RC_FEEDBACK_GROUP_ID, CONSULTANT_ID, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   @Test
@@ -784,7 +783,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewFeedbackMessageNotification(
         RC_FEEDBACK_GROUP_ID, CONSULTANT_ID_2, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   @Test
@@ -828,7 +827,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendAssignEnquiryEmailNotification(
         CONSULTANT, CONSULTANT_ID_2, USERNAME, null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   @Test
@@ -874,7 +873,7 @@ class EmailNotificationFacadeTest {
 
   @Test
   void sendAssignEnquiryEmailNotification_Should_LogError_When_MailServiceHelperThrowsException() {
-    doThrow(new RuntimeException("unexpected")).when(mailService).sendEmailNotification(any());
+    doThrow(new RuntimeException("unexpected")).when(mailDispatcher).dispatch(any());
     when(consultantService.getConsultant(any())).thenReturn(Optional.of(CONSULTANT));
     emailNotificationFacade.sendAssignEnquiryEmailNotification(CONSULTANT, USER_ID, NAME, null);
     verify(logger).error(anyString(), any(RuntimeException.class));
@@ -896,7 +895,7 @@ class EmailNotificationFacadeTest {
     emailNotificationFacade.sendNewEnquiryEmailNotification(
         new EasyRandom().nextObject(Session.class), null);
 
-    verifyNoInteractions(newEnquiryEmailSupplier);
+    verifyNoInteractions(consultantAgencyRepository, mailDispatcher);
   }
 
   @Test
@@ -911,7 +910,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignRequestNotification("id", null);
 
-    verify(mailService).sendEmailNotification(Mockito.any());
+    verify(mailDispatcher).dispatch(Mockito.any());
   }
 
   @Test
@@ -922,7 +921,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignRequestNotification("id", null);
 
-    verifyNoInteractions(mailService);
+    verifyNoInteractions(mailDispatcher);
   }
 
   @Test
@@ -941,7 +940,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignRequestNotification("id", null);
 
-    verifyNoInteractions(mailService);
+    verifyNoInteractions(mailDispatcher);
   }
 
   @Test
@@ -954,7 +953,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignConfirmationNotification(reassignmentNotification, null);
 
-    verifyAsync(a -> mailService.sendEmailNotification(Mockito.any()));
+    verifyAsync(a -> mailDispatcher.dispatch(Mockito.any()));
   }
 
   @Test
@@ -973,7 +972,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignConfirmationNotification(reassignmentNotification, null);
 
-    verifyAsync(a -> mailService.sendEmailNotification(Mockito.any()));
+    verifyAsync(a -> mailDispatcher.dispatch(Mockito.any()));
   }
 
   @Test
@@ -992,7 +991,7 @@ class EmailNotificationFacadeTest {
 
     emailNotificationFacade.sendReassignConfirmationNotification(reassignmentNotification, null);
 
-    verifyAsync(a -> mailService.sendEmailNotification(Mockito.any()));
+    verifyAsync(a -> mailDispatcher.dispatch(Mockito.any()));
   }
 
   @Test
@@ -1009,4 +1008,45 @@ class EmailNotificationFacadeTest {
               reassignmentNotification, null);
         });
   }
+
+  @Test
+  void
+      sendNewDirectEnquiryEmailNotification_Should_sendMailToRequestedConsultant_When_calledConcurrently()
+          throws InterruptedException {
+    when(consultantAgencyRepository.findByConsultantIdAndAgencyIdAndDeleteDateIsNull(
+            anyString(), any()))
+        .thenAnswer(
+            invocation -> {
+              var consultant = new Consultant();
+              consultant.setId(invocation.getArgument(0));
+              consultant.setEmail(invocation.getArgument(0) + "@domain.de");
+              consultant.setLanguageCode(LanguageCode.de);
+              var consultantAgency = new ConsultantAgency();
+              consultantAgency.setConsultant(consultant);
+              return List.of(consultantAgency);
+            });
+    var dispatchedMails = new ConcurrentLinkedQueue<MailDTO>();
+    doAnswer(invocation -> dispatchedMails.addAll(invocation.<MailsDTO>getArgument(0).getMails()))
+        .when(mailDispatcher)
+        .dispatch(any());
+    var consultantIds =
+        IntStream.range(0, 2000).mapToObj(String::valueOf).collect(Collectors.toList());
+
+    var callers = Executors.newFixedThreadPool(16);
+    consultantIds.forEach(
+        consultantId ->
+            callers.execute(
+                () ->
+                    emailNotificationFacade.sendNewDirectEnquiryEmailNotification(
+                        consultantId, AGENCY_ID, "12345", null)));
+    callers.shutdown();
+    assertThat(callers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(dispatchedMails)
+        .extracting(MailDTO::getEmail)
+        .containsExactlyInAnyOrderElementsOf(
+            consultantIds.stream()
+                .map(consultantId -> consultantId + "@domain.de")
+                .collect(Collectors.toList()));
+  }
 }
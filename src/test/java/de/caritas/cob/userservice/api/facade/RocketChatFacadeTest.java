@@ -18,6 +18,7 @@ import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatGetGroupMem
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatLeaveFromGroupException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatRemoveSystemMessagesException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatRemoveUserFromGroupException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -30,6 +31,7 @@ public class RocketChatFacadeTest {
   @InjectMocks private RocketChatFacade rocketChatFacade;
 
   @Mock private RocketChatService rocketChatService;
+  @Mock private RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   @Test
   public void addUserToRocketChatGroup_Should_addUserToGroup() throws Exception {
@@ -40,6 +42,13 @@ public class RocketChatFacadeTest {
     verify(this.rocketChatService, times(1)).leaveFromGroupAsTechnicalUser("group");
   }
 
+  @Test
+  public void addUserToRocketChatGroup_Should_evictCachedRoomInformationOfUser() {
+    this.rocketChatFacade.addUserToRocketChatGroup("user", "group");
+
+    verify(this.rocketChatRoomInformationProvider, times(1)).evictRocketChatInformation("user");
+  }
+
   @Test
   public void
       addUserToRocketChatGroup_Should_throwInternalServerErrorException_When_RocketChatAddUserToGroupExceptionIsThrown()
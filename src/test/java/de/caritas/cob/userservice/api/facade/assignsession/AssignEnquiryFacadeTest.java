@@ -51,7 +51,10 @@ import de.caritas.cob.userservice.api.service.statistics.event.AssignSessionStat
 import de.caritas.cob.userservice.api.tenant.TenantContext;
 import de.caritas.cob.userservice.api.tenant.TenantContextProvider;
 import de.caritas.cob.userservice.statisticsservice.generated.web.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executors;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jeasy.random.EasyRandom;
@@ -63,8 +66,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 class AssignEnquiryFacadeTest {
@@ -89,6 +94,13 @@ class AssignEnquiryFacadeTest {
   @Mock TenantContextProvider tenantContextProvider;
   @Mock HttpServletRequest httpServletRequest;
 
+  @Spy
+  AssignEnquiryTaskRunner assignEnquiryTaskRunner =
+      new AssignEnquiryTaskRunner(
+          new ConcurrentTaskExecutor(Executors.newCachedThreadPool()),
+          new SimpleMeterRegistry(),
+          Duration.ofSeconds(5));
+
   @BeforeEach
   public void setup() {
     setInternalState(LogService.class, "LOGGER", logger);
@@ -0,0 +1,160 @@
+package de.caritas.cob.userservice.api.facade.assignsession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.caritas.cob.userservice.api.config.AppConfig;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class AssignEnquiryTaskRunnerTest {
+
+  private static final int POOL_SIZE = 2;
+  private static final int QUEUE_CAPACITY = 2;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+  private ThreadPoolTaskExecutor assignEnquiryExecutor;
+  private AssignEnquiryTaskRunner assignEnquiryTaskRunner;
+
+  @BeforeEach
+  void setUp() {
+    assignEnquiryExecutor =
+        new AppConfig().assignEnquiryExecutor(POOL_SIZE, QUEUE_CAPACITY, meterRegistry);
+    assignEnquiryTaskRunner = givenRunner(Duration.ofSeconds(5));
+  }
+
+  @AfterEach
+  void tearDown() {
+    assignEnquiryExecutor.shutdown();
+    TenantContext.clear();
+  }
+
+  @Test
+  void runAsync_Should_runTaskOnAssignEnquiryExecutor_When_threadIsAvailable() throws Exception {
+    assignEnquiryTaskRunner.runAsync(this::recordThreadName).get(5, TimeUnit.SECONDS);
+
+    assertThat(threadNames).singleElement().asString().startsWith("AssignEnquiry-");
+  }
+
+  @Test
+  void runAsync_Should_handOverTenantToExecutingThread() throws Exception {
+    TenantContext.setCurrentTenant(42L);
+    var tenantOfTask = new CompletableFuture<Long>();
+
+    assignEnquiryTaskRunner
+        .runAsync(() -> tenantOfTask.complete(TenantContext.getCurrentTenant()))
+        .get(5, TimeUnit.SECONDS);
+
+    assertThat(tenantOfTask.get()).isEqualTo(42L);
+  }
+
+  @Test
+  void runAsync_Should_runTaskOnCallingThreadAndCountRejection_When_executorIsSaturated()
+      throws Exception {
+    var started = new CountDownLatch(POOL_SIZE);
+    var release = new CountDownLatch(1);
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    for (var i = 0; i < POOL_SIZE + QUEUE_CAPACITY; i++) {
+      futures.add(assignEnquiryTaskRunner.runAsync(() -> awaitAndRecord(started, release)));
+    }
+    assertThat(awaitQuietly(started)).isTrue();
+
+    assertThat(meterRegistry.get("executor.queued").tag("name", "assignEnquiry").gauge().value())
+        .isEqualTo(QUEUE_CAPACITY);
+    assertThat(meterRegistry.get("executor.active").tag("name", "assignEnquiry").gauge().value())
+        .isEqualTo(POOL_SIZE);
+
+    futures.add(assignEnquiryTaskRunner.runAsync(this::recordThreadName));
+    assertThat(threadNames).containsExactly(Thread.currentThread().getName());
+
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+    assertThat(
+            meterRegistry.get("executor.rejected").tag("name", "assignEnquiry").counter().count())
+        .isEqualTo(1);
+    assertThat(threadNames)
+        .allMatch(
+            name ->
+                name.startsWith("AssignEnquiry-") || name.equals(Thread.currentThread().getName()))
+        .noneMatch(name -> name.startsWith("ForkJoinPool"));
+  }
+
+  @Test
+  void runAsync_Should_completeExceptionallyAndInterruptTask_When_taskExceedsTimeout() {
+    var interrupted = new CountDownLatch(1);
+    var future =
+        givenRunner(Duration.ofMillis(100))
+            .runAsync(
+                () -> {
+                  try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                  } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                  }
+                });
+
+    assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+    assertThat(awaitQuietly(interrupted)).isTrue();
+    assertThat(meterRegistry.get(AssignEnquiryTaskRunner.TIMEOUT_METRIC).counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void runAsync_Should_notRunDependentStage_When_taskFails() {
+    var dependentStageRun = new CompletableFuture<Void>();
+
+    var future =
+        assignEnquiryTaskRunner
+            .runAsync(
+                () -> {
+                  throw new IllegalStateException("Rocket.Chat unavailable");
+                })
+            .thenRun(() -> dependentStageRun.complete(null));
+
+    assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(dependentStageRun).isNotDone();
+  }
+
+  private AssignEnquiryTaskRunner givenRunner(Duration timeout) {
+    return new AssignEnquiryTaskRunner(assignEnquiryExecutor, meterRegistry, timeout);
+  }
+
+  private void recordThreadName() {
+    threadNames.add(Thread.currentThread().getName());
+  }
+
+  private void awaitAndRecord(CountDownLatch started, CountDownLatch release) {
+    started.countDown();
+    awaitQuietly(release);
+    recordThreadName();
+  }
+
+  private static boolean awaitQuietly(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
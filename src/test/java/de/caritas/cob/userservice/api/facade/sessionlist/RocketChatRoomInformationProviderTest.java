@@ -1,5 +1,6 @@
 package de.caritas.cob.userservice.api.facade.sessionlist;
 
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.ROCKET_CHAT_ROOM_INFORMATION_CACHE;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_CREDENTIALS;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_CREDENTIALS_WITH_EMPTY_USER_VALUES;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_FEEDBACK_GROUP_ID;
@@ -14,28 +15,49 @@ import static de.caritas.cob.userservice.api.testHelper.TestConstants.SUBSCRIPTI
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.USERS_ROOMS_LIST;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.USER_DTO_3;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
 import de.caritas.cob.userservice.api.adapters.rocketchat.dto.room.RoomsUpdateDTO;
 import de.caritas.cob.userservice.api.container.RocketChatRoomInformation;
+import de.caritas.cob.userservice.api.exception.httpresponses.RocketChatUnauthorizedException;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Objects;
 import org.apache.commons.collections.CollectionUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 @ExtendWith(MockitoExtension.class)
 public class RocketChatRoomInformationProviderTest {
 
-  @InjectMocks private RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
+  private RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   @Mock private RocketChatService rocketChatService;
 
+  @BeforeEach
+  public void setup() {
+    var rocketChatRoomInformationCache =
+        new RocketChatRoomInformationCache(
+            new ConcurrentMapCacheManager(ROCKET_CHAT_ROOM_INFORMATION_CACHE));
+    rocketChatRoomInformationProvider =
+        new RocketChatRoomInformationProvider(
+            rocketChatService, rocketChatRoomInformationCache, Runnable::run);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    TenantContext.clear();
+  }
+
   @Test
   public void retrieveRocketChatInformation_Should_Return_CorrectMessagesReadMap() {
 
@@ -144,4 +166,73 @@ public class RocketChatRoomInformationProviderTest {
     assertNotNull(rocketChatRoomInformation.getGroupIdToLastMessageFallbackDate());
     assertTrue(rocketChatRoomInformation.getGroupIdToLastMessageFallbackDate().isEmpty());
   }
+
+  @Test
+  public void retrieveRocketChatInformation_Should_FetchSubscriptionsAndRoomsOnce_When_Cached() {
+    when(rocketChatService.getRoomsOfUser(RC_CREDENTIALS)).thenReturn(ROOMS_UPDATE_DTO_LIST);
+
+    var first = rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+    var second = rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+
+    assertSame(first, second);
+    verify(rocketChatService, times(1)).getSubscriptionsOfUser(RC_CREDENTIALS);
+    verify(rocketChatService, times(1)).getRoomsOfUser(RC_CREDENTIALS);
+  }
+
+  @Test
+  public void retrieveRocketChatInformation_Should_FetchAgain_When_TenantDiffers() {
+    TenantContext.setCurrentTenant(1L);
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+    TenantContext.setCurrentTenant(2L);
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+
+    verify(rocketChatService, times(2)).getSubscriptionsOfUser(RC_CREDENTIALS);
+    verify(rocketChatService, times(2)).getRoomsOfUser(RC_CREDENTIALS);
+  }
+
+  @Test
+  public void retrieveRocketChatInformation_Should_FetchAgain_When_UserHasBeenEvicted() {
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+    rocketChatRoomInformationProvider.evictRocketChatInformation(
+        RC_CREDENTIALS.getRocketChatUserId());
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+
+    verify(rocketChatService, times(2)).getSubscriptionsOfUser(RC_CREDENTIALS);
+    verify(rocketChatService, times(2)).getRoomsOfUser(RC_CREDENTIALS);
+  }
+
+  @Test
+  public void retrieveRocketChatInformation_Should_FetchAgain_When_RoomOfUserHasBeenEvicted() {
+    when(rocketChatService.getRoomsOfUser(RC_CREDENTIALS)).thenReturn(ROOMS_UPDATE_DTO_LIST);
+
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+    rocketChatRoomInformationProvider.evictRocketChatInformationOfRoom(USERS_ROOMS_LIST.get(0));
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+
+    verify(rocketChatService, times(2)).getRoomsOfUser(RC_CREDENTIALS);
+  }
+
+  @Test
+  public void retrieveRocketChatInformation_ShouldNot_FetchAgain_When_OtherRoomHasBeenEvicted() {
+    when(rocketChatService.getRoomsOfUser(RC_CREDENTIALS)).thenReturn(ROOMS_UPDATE_DTO_LIST);
+
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+    rocketChatRoomInformationProvider.evictRocketChatInformationOfRoom("otherRoom");
+    rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS);
+
+    verify(rocketChatService, times(1)).getRoomsOfUser(RC_CREDENTIALS);
+  }
+
+  @Test
+  public void retrieveRocketChatInformation_Should_ThrowOriginalException_When_SubscriptionsFail() {
+    var exception = new RocketChatUnauthorizedException("userId", new RuntimeException());
+    when(rocketChatService.getSubscriptionsOfUser(RC_CREDENTIALS)).thenThrow(exception);
+
+    var thrown =
+        assertThrows(
+            RocketChatUnauthorizedException.class,
+            () -> rocketChatRoomInformationProvider.retrieveRocketChatInformation(RC_CREDENTIALS));
+
+    assertSame(exception, thrown);
+  }
 }
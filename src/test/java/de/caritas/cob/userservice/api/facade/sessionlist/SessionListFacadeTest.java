@@ -11,6 +11,7 @@ import static de.caritas.cob.userservice.api.testHelper.TestConstants.OFFSET_0;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_CREDENTIALS;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_TOKEN;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.SESSION_STATUS_IN_PROGRESS;
+import static de.caritas.cob.userservice.api.testHelper.TestConstants.SESSION_STATUS_NEW;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.USER_ID;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.USER_SESSION_RESPONSE_SESSION_CHAT_DTO_LIST;
 import static java.util.Objects.nonNull;
@@ -287,6 +288,53 @@ public class SessionListFacadeTest {
     assertFalse(result.getSessions().get(0).getSession().getFeedbackRead());
   }
 
+  @Test
+  void
+      retrieveSessionsForAuthenticatedConsultant_Should_UseDatabasePage_When_SessionsInProgressAreRequested() {
+    var sessionListQueryParameter =
+        SessionListQueryParameter.builder()
+            .sessionStatus(SESSION_STATUS_IN_PROGRESS)
+            .offset(OFFSET_0)
+            .count(COUNT_10)
+            .sessionFilter(SessionFilter.ALL)
+            .build();
+    var page = new ConsultantSessionListResponseDTO();
+    when(consultantSessionListService.retrieveActiveSessionsPageForAuthenticatedConsultant(
+            CONSULTANT, sessionListQueryParameter))
+        .thenReturn(page);
+
+    var result =
+        sessionListFacade.retrieveSessionsDtoForAuthenticatedConsultant(
+            CONSULTANT, sessionListQueryParameter);
+
+    assertSame(page, result);
+    Mockito.verify(consultantSessionListService, Mockito.never())
+        .retrieveSessionsForAuthenticatedConsultant(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  void
+      retrieveSessionsForAuthenticatedConsultant_Should_FilterCompleteList_When_FeedbackFilterIsSetForSessionsInProgress() {
+    var sessionListQueryParameter =
+        SessionListQueryParameter.builder()
+            .sessionStatus(SESSION_STATUS_IN_PROGRESS)
+            .offset(OFFSET_0)
+            .count(COUNT_10)
+            .sessionFilter(SessionFilter.FEEDBACK)
+            .build();
+    when(consultantSessionListService.retrieveSessionsForAuthenticatedConsultant(
+            CONSULTANT, sessionListQueryParameter))
+        .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST_WITH_ONE_FEEDBACK);
+
+    var result =
+        sessionListFacade.retrieveSessionsDtoForAuthenticatedConsultant(
+            CONSULTANT, sessionListQueryParameter);
+
+    assertEquals(COUNT_1, result.getSessions().size());
+    Mockito.verify(consultantSessionListService, Mockito.never())
+        .retrieveActiveSessionsPageForAuthenticatedConsultant(Mockito.any(), Mockito.any());
+  }
+
   /** Method: retrieveTeamSessionsForAuthenticatedConsultant */
   @Test
   public void
@@ -409,7 +457,7 @@ public class SessionListFacadeTest {
   private SessionListQueryParameter createStandardSessionListQueryParameterObject(
       int offset, int count, SessionFilter sessionFilter) {
     return SessionListQueryParameter.builder()
-        .sessionStatus(SESSION_STATUS_IN_PROGRESS)
+        .sessionStatus(SESSION_STATUS_NEW)
         .offset(offset)
         .count(count)
         .sessionFilter(sessionFilter)
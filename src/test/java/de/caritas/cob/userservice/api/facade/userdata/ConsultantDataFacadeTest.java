@@ -9,24 +9,35 @@ import static de.caritas.cob.userservice.api.testHelper.TestConstants.GROUP_SESS
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.MESSAGE;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.USER_SESSION_RESPONSE_DTO;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.userservice.api.AccountManager;
+import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.GroupSessionListResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.GroupSessionResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.SessionConsultantForConsultantDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UserSessionListResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UserSessionResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.mapping.UserDtoMapper;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -98,7 +109,8 @@ public class ConsultantDataFacadeTest {
 
     Map<String, Object> map = Map.of("displayName", displayName);
     when(userDtoMapper.displayNameOf(map)).thenReturn(displayName);
-    when(accountManager.findConsultantByUsername(userName)).thenReturn(Optional.of(map));
+    when(accountManager.findConsultantsByUsernames(Set.of(userName)))
+        .thenReturn(Map.of(userName, map));
 
     consultantDataFacade.addConsultantDisplayNameToSessionList(response);
 
@@ -119,10 +131,52 @@ public class ConsultantDataFacadeTest {
 
     Map<String, Object> map = Map.of("displayName", displayName);
     when(userDtoMapper.displayNameOf(map)).thenReturn(displayName);
-    when(accountManager.findConsultantByUsername(userName)).thenReturn(Optional.of(map));
+    when(accountManager.findConsultantsByUsernames(Set.of(userName)))
+        .thenReturn(Map.of(userName, map));
 
     consultantDataFacade.addConsultantDisplayNameToSessionList(response);
 
     assertEquals(displayName, response.getSessions().get(0).getConsultant().getDisplayName());
   }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 50, 500})
+  public void
+      addConsultantDisplayNameToSessionList_ConsultantSessions_Should_LookUpAllConsultantsAtOnce(
+          int numberOfSessions) {
+    var sessions = new ArrayList<ConsultantSessionResponseDTO>();
+    var consultantMaps = new HashMap<String, Map<String, Object>>();
+    for (var i = 0; i < numberOfSessions; i++) {
+      var username = "consultant-" + i % 25;
+      sessions.add(
+          new ConsultantSessionResponseDTO()
+              .consultant(new SessionConsultantForConsultantDTO().username(username)));
+      consultantMaps.put(username, Map.of("displayName", "Display " + username));
+    }
+    sessions.add(new ConsultantSessionResponseDTO());
+    when(accountManager.findConsultantsByUsernames(anyCollection())).thenReturn(consultantMaps);
+    when(userDtoMapper.displayNameOf(anyMap()))
+        .thenAnswer(
+            invocation -> invocation.<Map<String, Object>>getArgument(0).get("displayName"));
+
+    consultantDataFacade.addConsultantDisplayNameToSessionList(sessions);
+
+    verify(accountManager).findConsultantsByUsernames(consultantMaps.keySet());
+    verify(accountManager, never()).findConsultantByUsername(anyString());
+    sessions.stream()
+        .map(ConsultantSessionResponseDTO::getConsultant)
+        .filter(Objects::nonNull)
+        .forEach(
+            consultant ->
+                assertEquals("Display " + consultant.getUsername(), consultant.getDisplayName()));
+  }
+
+  @Test
+  public void addConsultantDisplayNameToSessionList_Should_NotLookUpConsultants_When_NoneAreSet() {
+    var response = new UserSessionListResponseDTO().sessions(List.of(new UserSessionResponseDTO()));
+
+    consultantDataFacade.addConsultantDisplayNameToSessionList(response);
+
+    verifyNoInteractions(accountManager);
+  }
 }
@@ -0,0 +1,115 @@
+package de.caritas.cob.userservice.api.facade.userdata;
+
+import static de.caritas.cob.userservice.api.facade.userdata.UserDataUpstreamCalls.CALL_METRIC;
+import static de.caritas.cob.userservice.api.facade.userdata.UserDataUpstreamCalls.TIMEOUT_METRIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.caritas.cob.userservice.api.config.ContextPropagatingTaskDecorator;
+import de.caritas.cob.userservice.api.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class UserDataUpstreamCallsTest {
+
+  private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ThreadPoolTaskExecutor executor;
+  private UserDataUpstreamCalls userDataUpstreamCalls;
+
+  @BeforeEach
+  void setup() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(3);
+    executor.setMaxPoolSize(3);
+    executor.setQueueCapacity(0);
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    userDataUpstreamCalls = new UserDataUpstreamCalls(executor, meterRegistry, TIMEOUT);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+    TenantContext.clear();
+  }
+
+  @Test
+  void supply_Should_takeAboutAsLongAsTheSlowestCall_When_callsAreStartedTogether() {
+    var start = System.nanoTime();
+
+    var otp = userDataUpstreamCalls.supply("otp", delayed(200, "otp"), null);
+    var consultant = userDataUpstreamCalls.supply("consultant", delayed(300, "consultant"), null);
+    var availability = userDataUpstreamCalls.supply("availability", delayed(400, true), false);
+
+    assertEquals("otp", otp.join());
+    assertEquals("consultant", consultant.join());
+    assertTrue(availability.join());
+    var elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+    assertTrue(elapsedMillis < 800, "calls took " + elapsedMillis + " ms");
+    assertEquals(
+        1,
+        meterRegistry
+            .get(CALL_METRIC)
+            .tag("call", "otp")
+            .tag("outcome", "success")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void supply_Should_completeWithFallback_When_callTimesOut() {
+    var result =
+        userDataUpstreamCalls.supply("availability", delayed(TIMEOUT.toMillis() * 3, true), false);
+
+    assertEquals(false, result.join());
+    assertEquals(
+        1, meterRegistry.get(TIMEOUT_METRIC).tag("call", "availability").counter().count());
+  }
+
+  @Test
+  void supply_Should_completeWithFallback_When_callFails() {
+    var result =
+        userDataUpstreamCalls.<String>supply(
+            "otp",
+            () -> {
+              throw new IllegalStateException("identity provider unavailable");
+            },
+            null);
+
+    assertNull(result.join());
+    assertEquals(
+        1,
+        meterRegistry.get(CALL_METRIC).tag("call", "otp").tag("outcome", "error").timer().count());
+    assertNull(meterRegistry.find(TIMEOUT_METRIC).counter());
+  }
+
+  @Test
+  void supply_Should_runCallInTenantContextOfCaller() {
+    TenantContext.setCurrentTenant(42L);
+
+    var tenantId = userDataUpstreamCalls.supply("tenant", TenantContext::getCurrentTenant, null);
+
+    assertEquals(42L, tenantId.join());
+  }
+
+  private static <T> Supplier<T> delayed(long millis, T result) {
+    return () -> {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return result;
+    };
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantMobileToken;
+import java.util.List;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,34 @@ class ConsultantMobileTokenRepositoryIT {
     assertEquals(token.getConsultant(), foundToken.getConsultant());
   }
 
+  @Test
+  void findMobileAppTokensByConsultantIdsShouldReturnTokensOfGivenConsultants() {
+    givenAConsultant();
+    givenAValidToken();
+    underTest.save(token);
+
+    var tokens =
+        underTest.findMobileAppTokensByConsultantIds(List.of(consultant.getId(), "unknown"));
+
+    assertEquals(List.of(token.getMobileAppToken()), tokens);
+  }
+
+  @Test
+  void deleteByMobileAppTokensShouldDeleteOnlyGivenTokens() {
+    givenAConsultant();
+    givenAValidToken();
+    var invalidToken = underTest.save(token);
+    givenAValidToken();
+    var validToken = underTest.save(token);
+
+    var deleted = underTest.deleteByMobileAppTokens(List.of(invalidToken.getMobileAppToken()));
+
+    assertEquals(1, deleted);
+    assertEquals(
+        List.of(validToken.getMobileAppToken()),
+        underTest.findMobileAppTokensByConsultantIds(List.of(consultant.getId())));
+  }
+
   private void givenAValidToken() {
     token = new ConsultantMobileToken();
     token.setConsultant(consultant);
@@ -74,6 +74,16 @@ class ConsultantRepositoryIT {
     nonMatchingIds = new ArrayList<>();
   }
 
+  @Test
+  void findByRocketChatIdInAndDeleteDateIsNullShouldReturnConsultantsOfKnownRcUserIds() {
+    var consultants =
+        underTest.findByRocketChatIdInAndDeleteDateIsNull(
+            List.of(originalConsultant.getRocketChatId(), "unknownRcUserId"));
+
+    assertEquals(1, consultants.size());
+    assertEquals(originalConsultant.getId(), consultants.get(0).getId());
+  }
+
   @Test
   void deleteShouldDeleteConsultantAndAppointment() {
     givenACreatedConsultantWithAnAppointment();
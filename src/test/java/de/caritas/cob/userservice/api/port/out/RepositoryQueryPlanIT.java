@@ -0,0 +1,484 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neovisionaries.i18n.LanguageCode;
+import de.caritas.cob.userservice.api.model.Chat;
+import de.caritas.cob.userservice.api.model.ChatAgency;
+import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.ConsultantStatus;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.RegistrationType;
+import de.caritas.cob.userservice.api.model.Session.SessionStatus;
+import de.caritas.cob.userservice.api.model.User;
+import de.caritas.cob.userservice.api.model.UserAgency;
+import de.caritas.cob.userservice.api.model.UserChat;
+import de.caritas.cob.userservice.api.port.out.StatementRecorder.RecordedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs every query of the {@link SessionRepository} and the {@link ChatRepository} against a
+ * MariaDB migrated by Liquibase and seeded with a realistic amount of data, and fails if the plan
+ * of one of the executed statements contains a full table scan. Skipped if no Docker environment is
+ * available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(
+    properties = {
+      "spring.profiles.active=testing",
+      "spring.liquibase.enabled=true",
+      "spring.liquibase.change-log=classpath:db/changelog/userservice-local-master.xml",
+      "spring.jpa.hibernate.ddl-auto=none",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MariaDB103Dialect"
+    })
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(Lifecycle.PER_CLASS)
+@Import(RepositoryQueryPlanIT.StatementRecorderConfig.class)
+class RepositoryQueryPlanIT {
+
+  /** Tables with less estimated rows are cheaper to scan than to look up by index. */
+  private static final long FULL_SCAN_ROW_THRESHOLD = 100;
+
+  private static final int AGENCIES = 100;
+  private static final int CONSULTANTS = 50;
+  private static final int USERS = 2000;
+  private static final int SESSIONS_PER_USER = 3;
+  private static final int CHATS = 300;
+
+  /** Queries whose purpose is to read the whole table. */
+  private static final Set<String> FULL_SCAN_QUERIES = Set.of("findAll");
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2022, 6, 1, 12, 0);
+
+  @Container
+  private static final MariaDBContainer<?> MARIA_DB =
+      new MariaDBContainer<>("mariadb:10.6")
+          .withDatabaseName("userservice")
+          .withUsername("root")
+          .withPassword("userservice");
+
+  @DynamicPropertySource
+  static void datasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", MARIA_DB::getJdbcUrl);
+    registry.add("spring.datasource.username", MARIA_DB::getUsername);
+    registry.add("spring.datasource.password", MARIA_DB::getPassword);
+    registry.add("spring.datasource.driver-class-name", MARIA_DB::getDriverClassName);
+    registry.add("spring.liquibase.user", MARIA_DB::getUsername);
+    registry.add("spring.liquibase.password", MARIA_DB::getPassword);
+  }
+
+  @Autowired private SessionRepository sessionRepository;
+  @Autowired private ChatRepository chatRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private ConsultantRepository consultantRepository;
+  @Autowired private UserAgencyRepository userAgencyRepository;
+  @Autowired private ChatAgencyRepository chatAgencyRepository;
+  @Autowired private UserChatRepository userChatRepository;
+  @Autowired private StatementRecorder statementRecorder;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private Consultant consultant;
+  private User user;
+  private Session session;
+  private Chat chat;
+  private List<Long> agencyIds;
+
+  @BeforeAll
+  void seedDatabase() {
+    var consultants =
+        IntStream.range(0, CONSULTANTS)
+            .mapToObj(this::consultant)
+            .map(consultantRepository::save)
+            .collect(Collectors.toList());
+    var users =
+        IntStream.range(0, USERS)
+            .mapToObj(this::user)
+            .map(userRepository::save)
+            .collect(Collectors.toList());
+
+    var sessions = new ArrayList<Session>();
+    var userAgencies = new ArrayList<UserAgency>();
+    for (var i = 0; i < USERS; i++) {
+      userAgencies.add(new UserAgency(users.get(i), agencyId(i)));
+      for (var j = 0; j < SESSIONS_PER_USER; j++) {
+        var number = i * SESSIONS_PER_USER + j;
+        sessions.add(session(number, users.get(i), consultants.get(number % CONSULTANTS)));
+      }
+    }
+    sessionRepository.saveAll(sessions);
+    userAgencyRepository.saveAll(userAgencies);
+
+    var chats =
+        IntStream.range(0, CHATS)
+            .mapToObj(number -> chat(number, consultants.get(number % CONSULTANTS)))
+            .map(chatRepository::save)
+            .collect(Collectors.toList());
+    chats.forEach(
+        seededChat ->
+            chatAgencyRepository.save(
+                new ChatAgency(seededChat, agencyId(seededChat.getId().intValue()))));
+    IntStream.range(0, CHATS)
+        .forEach(
+            number ->
+                userChatRepository.save(
+                    UserChat.builder().chat(chats.get(number)).user(users.get(number)).build()));
+
+    jdbcTemplate.execute(
+        "ANALYZE TABLE session, chat, chat_agency, user_agency, user_chat, consultant_agency, "
+            + "session_data");
+
+    consultant = consultants.get(0);
+    user = users.get(0);
+    session = sessionRepository.findById(sessions.get(4).getId()).orElseThrow();
+    chat = chats.get(0);
+    agencyIds = List.of(agencyId(0), agencyId(1));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queries")
+  void query_Should_notScanWholeTables(String query, Consumer<RepositoryQueryPlanIT> execution) {
+    var statements = recordStatements(() -> execution.accept(this));
+
+    assertThat(statements).isNotEmpty();
+    if (FULL_SCAN_QUERIES.contains(query)) {
+      return;
+    }
+    assertThat(statements.stream().flatMap(this::fullScansOf))
+        .describedAs("full table scans of %s", query)
+        .isEmpty();
+  }
+
+  @Test
+  void queries_Should_coverEveryRepositoryQuery() {
+    var coveredQueries =
+        queries().map(arguments -> (String) arguments.get()[0]).collect(Collectors.toSet());
+
+    assertThat(
+            Stream.of(SessionRepository.class, ChatRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .map(method -> method.getName())
+                .collect(Collectors.toSet()))
+        .isSubsetOf(coveredQueries);
+  }
+
+  Stream<Arguments> queries() {
+    var statuses = List.of(SessionStatus.IN_PROGRESS, SessionStatus.DONE);
+    var page = PageRequest.of(0, 15);
+    return Stream.of(
+        query(
+            "findByConsultantAndStatus",
+            t -> sessions(t).findByConsultantAndStatus(t.consultant, SessionStatus.IN_PROGRESS)),
+        query(
+            "findByConsultantAndStatusIn",
+            t -> sessions(t).findByConsultantAndStatusIn(t.consultant, statuses)),
+        query(
+            "findByConsultantAndStatusInOrderByLastMessage",
+            t ->
+                sessions(t)
+                    .findByConsultantAndStatusInOrderByLastMessage(t.consultant, statuses, page)),
+        query(
+            "findByConsultantAndStatusInBefore",
+            t ->
+                sessions(t)
+                    .findByConsultantAndStatusInBefore(
+                        t.consultant, statuses, NOW, Long.MAX_VALUE, page)),
+        query(
+            "countByConsultantAndStatusIn",
+            t -> sessions(t).countByConsultantAndStatusIn(t.consultant, statuses)),
+        query(
+            "updateLastMessageDate",
+            t -> sessions(t).updateLastMessageDate(t.session.getGroupId(), NOW)),
+        query(
+            "findByConsultantAndStatusOrderByUpdateDateDesc",
+            t ->
+                sessions(t)
+                    .findByConsultantAndStatusOrderByUpdateDateDesc(
+                        t.consultant, SessionStatus.DONE)),
+        query(
+            "findByAgencyIdInAndConsultantIsNullAndStatusAndRegistrationTypeOrderByEnquiryMessageDateAsc",
+            t ->
+                sessions(t)
+                    .findByAgencyIdInAndConsultantIsNullAndStatusAndRegistrationTypeOrderByEnquiryMessageDateAsc(
+                        t.agencyIds, SessionStatus.NEW, RegistrationType.REGISTERED)),
+        query(
+            "findByAgencyIdInAndConsultantNotAndStatusAndTeamSessionOrderByEnquiryMessageDateAsc",
+            t ->
+                sessions(t)
+                    .findByAgencyIdInAndConsultantNotAndStatusAndTeamSessionOrderByEnquiryMessageDateAsc(
+                        t.agencyIds, t.consultant, SessionStatus.IN_PROGRESS, true)),
+        query(
+            "findByAgencyIdInAndConsultantNotAndStatusAndTeamSessionIsTrueOrderByUpdateDateDesc",
+            t ->
+                sessions(t)
+                    .findByAgencyIdInAndConsultantNotAndStatusAndTeamSessionIsTrueOrderByUpdateDateDesc(
+                        t.agencyIds, t.consultant, SessionStatus.IN_PROGRESS)),
+        query("findByUser", t -> sessions(t).findByUser(t.user)),
+        query(
+            "findByUserAndConsultingTypeId",
+            t -> sessions(t).findByUserAndConsultingTypeId(t.user, 1)),
+        query("findByUserUserId", t -> sessions(t).findByUserUserId(t.user.getUserId())),
+        query("findByUserUserId", t -> sessions(t).findByUserUserId(t.user.getUserId(), page)),
+        query(
+            "findByFeedbackGroupId",
+            t -> sessions(t).findByFeedbackGroupId(t.session.getFeedbackGroupId())),
+        query("findByGroupId", t -> sessions(t).findByGroupId(t.session.getGroupId())),
+        query(
+            "findByGroupOrFeedbackGroupIds",
+            t ->
+                sessions(t)
+                    .findByGroupOrFeedbackGroupIds(
+                        Set.of(t.session.getGroupId(), t.session.getFeedbackGroupId()))),
+        query(
+            "findByAgencyIdAndStatusAndConsultantIsNull",
+            t ->
+                sessions(t)
+                    .findByAgencyIdAndStatusAndConsultantIsNull(
+                        t.agencyIds.get(0), SessionStatus.NEW)),
+        query(
+            "findByAgencyIdAndStatusAndTeamSessionIsTrue",
+            t ->
+                sessions(t)
+                    .findByAgencyIdAndStatusAndTeamSessionIsTrue(
+                        t.agencyIds.get(0), SessionStatus.IN_PROGRESS)),
+        query("findByAgencyId", t -> sessions(t).findByAgencyId(t.agencyIds.get(0), page)),
+        query(
+            "findByConsultantId", t -> sessions(t).findByConsultantId(t.consultant.getId(), page)),
+        query("findByConsultingTypeId", t -> sessions(t).findByConsultingTypeId(7, page)),
+        query("findAll", t -> sessions(t).findAll(page)),
+        query(
+            "findByConsultingTypeIdInAndRegistrationTypeAndStatusOrderByCreateDateAsc",
+            t ->
+                sessions(t)
+                    .findByConsultingTypeIdInAndRegistrationTypeAndStatusOrderByCreateDateAsc(
+                        Set.of(7, 8), RegistrationType.ANONYMOUS, SessionStatus.NEW, page)),
+        query("findByStatus", t -> sessions(t).findByStatus(SessionStatus.INITIAL)),
+        query(
+            "countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId",
+            t ->
+                sessions(t)
+                    .countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId(
+                        SessionStatus.NEW, NOW)),
+        query(
+            "findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore",
+            t ->
+                sessions(t)
+                    .findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+                        Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS),
+                        RegistrationType.ANONYMOUS,
+                        NOW.minusMinutes(100),
+                        0L,
+                        page)),
+        query(
+            "findAllWithUserByIdIn",
+            t -> sessions(t).findAllWithUserByIdIn(List.of(t.session.getId()))),
+        query(
+            "updateStatus",
+            t ->
+                sessions(t)
+                    .updateStatus(
+                        List.of(t.session.getId()),
+                        Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS),
+                        SessionStatus.DONE)),
+        query(
+            "countByConsultantAndStatusInAndRegistrationType",
+            t ->
+                sessions(t)
+                    .countByConsultantAndStatusInAndRegistrationType(
+                        t.consultant, statuses, RegistrationType.REGISTERED)),
+        query(
+            "findByConsultantAndUserAndConsultingTypeId",
+            t ->
+                sessions(t)
+                    .findByConsultantAndUserAndConsultingTypeId(
+                        t.session.getConsultant(), t.user, 1)),
+        query(
+            "findByConsultantAndUser",
+            t -> sessions(t).findByConsultantAndUser(t.session.getConsultant(), t.user)),
+        query("findByUserId", t -> t.chatRepository.findByUserId(t.user.getUserId())),
+        query(
+            "findAssignedByUserId", t -> t.chatRepository.findAssignedByUserId(t.user.getUserId())),
+        query("findByAgencyIds", t -> t.chatRepository.findByAgencyIds(Set.copyOf(t.agencyIds))),
+        query("findByGroupId", t -> t.chatRepository.findByGroupId(t.chat.getGroupId())),
+        query("findByGroupIds", t -> t.chatRepository.findByGroupIds(Set.of(t.chat.getGroupId()))),
+        query("findByChatOwner", t -> t.chatRepository.findByChatOwner(t.consultant)),
+        query(
+            "findIdsOfActiveChatsEndedBefore",
+            t -> t.chatRepository.findIdsOfActiveChatsEndedBefore(NOW, 0L, page)));
+  }
+
+  private static Arguments query(String query, Consumer<RepositoryQueryPlanIT> execution) {
+    return Arguments.of(query, execution);
+  }
+
+  private static SessionRepository sessions(RepositoryQueryPlanIT test) {
+    return test.sessionRepository;
+  }
+
+  /** Runs the execution in a transaction which is rolled back to keep the seeded data intact. */
+  private List<RecordedStatement> recordStatements(Runnable execution) {
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    return statementRecorder.record(
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  execution.run();
+                  status.setRollbackOnly();
+                }));
+  }
+
+  private Stream<String> fullScansOf(RecordedStatement statement) {
+    return jdbcTemplate
+        .queryForList("EXPLAIN " + statement.getSql(), statement.getParameters().values().toArray())
+        .stream()
+        .filter(this::isFullScan)
+        .map(
+            row ->
+                String.format(
+                    "%s scans %s (%s rows)",
+                    statement.getSql(), row.get("table"), row.get("rows")));
+  }
+
+  private boolean isFullScan(Map<String, Object> planRow) {
+    var rows = planRow.get("rows");
+    return "ALL".equals(planRow.get("type"))
+        && rows instanceof Number
+        && ((Number) rows).longValue() >= FULL_SCAN_ROW_THRESHOLD;
+  }
+
+  private Consultant consultant(int number) {
+    return Consultant.builder()
+        .id("consultant-" + number)
+        .rocketChatId("consultantRcId-" + number)
+        .username("consultant-" + number)
+        .firstName("first name " + number)
+        .lastName("last name " + number)
+        .email("consultant-" + number + "@example.com")
+        .languageCode(LanguageCode.de)
+        .status(ConsultantStatus.CREATED)
+        .encourage2fa(true)
+        .notifyEnquiriesRepeating(true)
+        .notifyNewChatMessageFromAdviceSeeker(true)
+        .notifyNewFeedbackMessageFromAdviceSeeker(true)
+        .walkThroughEnabled(false)
+        .build();
+  }
+
+  private User user(int number) {
+    var seededUser =
+        new User(
+            "user-" + number, null, "user-" + number, "user-" + number + "@example.com", false);
+    seededUser.setRcUserId("userRcId-" + number);
+    return seededUser;
+  }
+
+  /**
+   * Most sessions are in progress or done and assigned to a consultant, a few are open enquiries
+   * and anonymous.
+   */
+  private Session session(int number, User sessionUser, Consultant sessionConsultant) {
+    var status = SessionStatus.values()[number % 20 == 0 ? 1 : 2 + number % 3];
+    var seededSession =
+        new Session(
+            sessionUser,
+            number % 10,
+            "12345",
+            agencyId(number / SESSIONS_PER_USER),
+            status,
+            number % 4 == 0);
+    seededSession.setConsultant(status == SessionStatus.NEW ? null : sessionConsultant);
+    seededSession.setRegistrationType(
+        number % 10 == 0 ? RegistrationType.ANONYMOUS : RegistrationType.REGISTERED);
+    seededSession.setLanguageCode(LanguageCode.de);
+    seededSession.setGroupId("group-" + number);
+    seededSession.setFeedbackGroupId(number % 4 == 0 ? "feedback-" + number : null);
+    seededSession.setIsConsultantDirectlySet(false);
+    seededSession.setEnquiryMessageDate(NOW.minusMinutes(number));
+    seededSession.setCreateDate(NOW.minusMinutes(number));
+    seededSession.setUpdateDate(NOW.minusMinutes(number));
+    return seededSession;
+  }
+
+  private Chat chat(int number, Consultant owner) {
+    return Chat.builder()
+        .topic("chat " + number)
+        .consultingTypeId(number % 10)
+        .initialStartDate(NOW.minusDays(number))
+        .startDate(NOW.minusDays(number))
+        .duration(60)
+        .repetitive(false)
+        .active(number % 50 == 0)
+        .maxParticipants(10)
+        .groupId("chat-group-" + number)
+        .chatOwner(owner)
+        .createDate(NOW.minusDays(number))
+        .updateDate(NOW.minusDays(number))
+        .build();
+  }
+
+  private static long agencyId(int number) {
+    return number % AGENCIES + 1L;
+  }
+
+  /**
+   * Imported explicitly instead of being annotated, the application scans the whole package tree
+   * and would otherwise wrap the data source of every other test context as well.
+   */
+  static class StatementRecorderConfig {
+
+    private static final StatementRecorder STATEMENT_RECORDER = new StatementRecorder();
+
+    @Bean
+    StatementRecorder statementRecorder() {
+      return STATEMENT_RECORDER;
+    }
+
+    @Bean
+    static BeanPostProcessor recordingDataSourcePostProcessor() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          return bean instanceof DataSource ? STATEMENT_RECORDER.wrap((DataSource) bean) : bean;
+        }
+      };
+    }
+  }
+}
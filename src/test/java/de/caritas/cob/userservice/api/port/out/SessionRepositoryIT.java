@@ -1,17 +1,25 @@
 package de.caritas.cob.userservice.api.port.out;
 
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.reverseOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.collect.Lists;
 import com.neovisionaries.i18n.LanguageCode;
+import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.Session.RegistrationType;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.SessionData;
 import de.caritas.cob.userservice.api.model.SessionData.SessionDataType;
 import de.caritas.cob.userservice.api.model.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.AfterEach;
@@ -20,6 +28,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 
 @DataJpaTest
@@ -28,20 +38,33 @@ import org.springframework.test.context.TestPropertySource;
 class SessionRepositoryIT {
 
   private static final EasyRandom easyRandom = new EasyRandom();
+  private static final List<SessionStatus> ACTIVE_STATUSES =
+      List.of(SessionStatus.IN_PROGRESS, SessionStatus.DONE);
+  private static final int KEYSET_FIXTURE_SIZE = 250;
+  private static final int PAGE_SIZE = 15;
 
   @Autowired private SessionRepository underTest;
 
   @Autowired private UserRepository userRepository;
 
+  @Autowired private ConsultantRepository consultantRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
   private User user;
 
   private Session session;
 
+  private Consultant consultant;
+
   @AfterEach
   public void reset() {
-    underTest.delete(session);
+    if (session != null) {
+      underTest.delete(session);
+    }
     session = null;
     user = null;
+    consultant = null;
   }
 
   @Test
@@ -63,6 +86,100 @@ class SessionRepositoryIT {
     assertFalse(foundSession.isPeerChat());
   }
 
+  @Test
+  void saveShouldInitializeLastMessageDate() {
+    givenAUser();
+    givenValidSession();
+
+    var persistedSession = underTest.save(session);
+    entityManager.flush();
+    entityManager.clear();
+
+    var foundSession = underTest.findById(persistedSession.getId()).orElseThrow();
+    assertNotNull(foundSession.getLastMessageDate());
+  }
+
+  @Test
+  void updateLastMessageDateShouldOnlyMoveForward() {
+    givenAUser();
+    givenValidSession();
+    session.setGroupId(RandomStringUtils.randomAlphanumeric(17));
+    session = underTest.save(session);
+    entityManager.flush();
+
+    var newer = LocalDateTime.now().plusDays(1).withNano(0);
+    assertEquals(1, underTest.updateLastMessageDate(session.getGroupId(), newer));
+    assertEquals(0, underTest.updateLastMessageDate(session.getGroupId(), newer.minusHours(1)));
+    entityManager.clear();
+
+    var foundSession = underTest.findById(session.getId()).orElseThrow();
+    assertEquals(newer, foundSession.getLastMessageDate());
+  }
+
+  @Test
+  void findByConsultantAndStatusInBeforeShouldWalkAllSessionsInLastMessageOrder() {
+    givenAUser();
+    givenAConsultant();
+    var sessions = givenActiveSessionsWithDistinctLastMessageDates(KEYSET_FIXTURE_SIZE);
+    var expectedIds =
+        underTest.findByConsultantAndStatusIn(consultant, ACTIVE_STATUSES).stream()
+            .sorted(
+                comparing(Session::getLastMessageDate, reverseOrder())
+                    .thenComparing(Session::getId, reverseOrder()))
+            .map(Session::getId)
+            .collect(Collectors.toList());
+
+    var walkedIds = new ArrayList<Long>();
+    var page =
+        underTest.findByConsultantAndStatusInOrderByLastMessage(
+            consultant, ACTIVE_STATUSES, PageRequest.of(0, PAGE_SIZE));
+    while (!page.isEmpty()) {
+      assertTrue(page.size() <= PAGE_SIZE);
+      page.forEach(pageSession -> walkedIds.add(pageSession.getId()));
+      var last = page.get(page.size() - 1);
+      page =
+          underTest.findByConsultantAndStatusInBefore(
+              consultant,
+              ACTIVE_STATUSES,
+              last.getLastMessageDate(),
+              last.getId(),
+              PageRequest.of(0, PAGE_SIZE));
+    }
+
+    assertEquals(expectedIds, walkedIds);
+    assertEquals(
+        expectedIds.size(), underTest.countByConsultantAndStatusIn(consultant, ACTIVE_STATUSES));
+    underTest.deleteAll(sessions);
+  }
+
+  private List<Session> givenActiveSessionsWithDistinctLastMessageDates(int amount) {
+    var sessions = new ArrayList<Session>();
+    for (int i = 0; i < amount; i++) {
+      givenValidSession();
+      session.setConsultant(consultant);
+      session.setStatus(i % 2 == 0 ? SessionStatus.IN_PROGRESS : SessionStatus.DONE);
+      session.setGroupId("keyset" + i);
+      session.setLanguageCode(LanguageCode.de);
+      session.setSessionData(null);
+      sessions.add(session);
+    }
+    session = null;
+    var savedSessions = Lists.newArrayList(underTest.saveAll(sessions));
+    entityManager.flush();
+
+    var now = LocalDateTime.now().withNano(0);
+    for (int i = 0; i < amount; i++) {
+      // every third session shares its date with its predecessor to cover the id tie-breaker
+      underTest.updateLastMessageDate("keyset" + i, now.plusMinutes(i - i % 3));
+    }
+    entityManager.clear();
+    return savedSessions;
+  }
+
+  private void givenAConsultant() {
+    consultant = consultantRepository.findAll().iterator().next();
+  }
+
   private void givenValidSession() {
     session = new Session();
     session.setUser(user);
@@ -71,6 +188,7 @@ class SessionRepositoryIT {
     session.setPostcode(RandomStringUtils.randomNumeric(5));
     session.setLanguageCode(easyRandom.nextObject(LanguageCode.class));
     session.setStatus(easyRandom.nextObject(SessionStatus.class));
+    session.setIsConsultantDirectlySet(false);
 
     var sessionData1 =
         new SessionData(
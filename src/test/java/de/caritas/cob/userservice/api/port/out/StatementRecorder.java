@@ -0,0 +1,121 @@
+package de.caritas.cob.userservice.api.port.out;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import lombok.Value;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Records the prepared statements executed through a wrapped {@link DataSource} together with their
+ * bound parameters, so that they can be replayed, e.g. with a leading EXPLAIN.
+ */
+class StatementRecorder {
+
+  private static final Set<String> EXECUTE_METHODS =
+      Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+  private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+  private volatile boolean recording;
+
+  /**
+   * Wraps the given {@link DataSource} so that statements executed on its connections are recorded
+   * while {@link #record(Runnable)} is running.
+   *
+   * @param dataSource the {@link DataSource} to wrap
+   * @return the recording {@link DataSource}
+   */
+  DataSource wrap(DataSource dataSource) {
+    return proxy(
+        dataSource,
+        (proxy, method, args) -> {
+          var result = invoke(dataSource, method, args);
+          return "getConnection".equals(method.getName())
+              ? wrapConnection((Connection) result)
+              : result;
+        });
+  }
+
+  /**
+   * Runs the given action and returns the statements it executed.
+   *
+   * @param action the action to run
+   * @return the executed statements in execution order
+   */
+  synchronized List<RecordedStatement> record(Runnable action) {
+    statements.clear();
+    recording = true;
+    try {
+      action.run();
+    } finally {
+      recording = false;
+    }
+    return new ArrayList<>(statements);
+  }
+
+  private Connection wrapConnection(Connection connection) {
+    return proxy(
+        connection,
+        (proxy, method, args) -> {
+          var result = invoke(connection, method, args);
+          if ("prepareStatement".equals(method.getName()) && args[0] instanceof String) {
+            return wrapStatement((PreparedStatement) result, (String) args[0]);
+          }
+          return result;
+        });
+  }
+
+  private PreparedStatement wrapStatement(PreparedStatement statement, String sql) {
+    var parameters = new TreeMap<Integer, Object>();
+    return proxy(
+        statement,
+        (proxy, method, args) -> {
+          var name = method.getName();
+          if (name.startsWith("set")
+              && args != null
+              && args.length >= 2
+              && args[0] instanceof Integer) {
+            parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+          } else if ("clearParameters".equals(name)) {
+            parameters.clear();
+          } else if (recording
+              && EXECUTE_METHODS.contains(name)
+              && (args == null || args.length == 0)) {
+            statements.add(new RecordedStatement(sql, new TreeMap<>(parameters)));
+          }
+          return invoke(statement, method, args);
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(T target, InvocationHandler handler) {
+    return (T)
+        Proxy.newProxyInstance(
+            StatementRecorder.class.getClassLoader(), ClassUtils.getAllInterfaces(target), handler);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  @Value
+  static class RecordedStatement {
+
+    String sql;
+    Map<Integer, Object> parameters;
+  }
+}
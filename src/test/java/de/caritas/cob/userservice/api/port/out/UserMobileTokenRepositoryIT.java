@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.model.UserMobileToken;
+import java.util.List;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,33 @@ class UserMobileTokenRepositoryIT {
     assertEquals(token.getUser(), foundToken.getUser());
   }
 
+  @Test
+  void findMobileAppTokensByUserIdsShouldReturnTokensOfGivenUsers() {
+    givenAUser();
+    givenAValidToken();
+    underTest.save(token);
+
+    var tokens = underTest.findMobileAppTokensByUserIds(List.of(user.getUserId(), "unknown"));
+
+    assertEquals(List.of(token.getMobileAppToken()), tokens);
+  }
+
+  @Test
+  void deleteByMobileAppTokensShouldDeleteOnlyGivenTokens() {
+    givenAUser();
+    givenAValidToken();
+    var invalidToken = underTest.save(token);
+    givenAValidToken();
+    var validToken = underTest.save(token);
+
+    var deleted = underTest.deleteByMobileAppTokens(List.of(invalidToken.getMobileAppToken()));
+
+    assertEquals(1, deleted);
+    assertEquals(
+        List.of(validToken.getMobileAppToken()),
+        underTest.findMobileAppTokensByUserIds(List.of(user.getUserId())));
+  }
+
   private void givenAValidToken() {
     token = new UserMobileToken();
     token.setUser(user);
@@ -39,6 +39,32 @@ class UserRepositoryIT {
     }
   }
 
+  @Test
+  void clearMobileTokensShouldRemoveGivenMobileTokensOfUsers() {
+    var userWithToken =
+        userRepository.findById("015d013d-95e7-4e91-85b5-12cdb3d317f3").orElseThrow();
+    userWithToken.setMobileToken("invalid-token");
+    userRepository.save(userWithToken);
+    var userIds = List.of(userWithToken.getUserId());
+    assertThat(userRepository.findMobileTokensByUserIds(userIds)).containsExactly("invalid-token");
+
+    var cleared = userRepository.clearMobileTokens(List.of("invalid-token"));
+
+    assertEquals(1, cleared);
+    assertThat(userRepository.findMobileTokensByUserIds(userIds)).isEmpty();
+  }
+
+  @Test
+  void findByRcUserIdInAndDeleteDateIsNullShouldReturnUsersOfKnownRcUserIds() {
+    var users =
+        userRepository.findByRcUserIdInAndDeleteDateIsNull(
+            List.of("dciScSDa9Qm8vmEBB", "unknownRcUserId"));
+
+    assertThat(users)
+        .extracting(User::getUserId)
+        .containsExactly("015d013d-95e7-4e91-85b5-12cdb3d317f3");
+  }
+
   @Test
   void
       findAllByDeleteDateNullAndNoRunningSessionsAndCreateDateOlderThanShouldReturnUserSubsetOnPastDate() {
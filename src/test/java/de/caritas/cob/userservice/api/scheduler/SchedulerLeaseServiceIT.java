@@ -0,0 +1,181 @@
+package de.caritas.cob.userservice.api.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.caritas.cob.userservice.api.model.SchedulerLease;
+import de.caritas.cob.userservice.api.port.out.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs two lease services, standing in for two instances of the cluster, against the same database.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.profiles.active=testing")
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLeaseServiceIT {
+
+  private static final String JOB = "job";
+  private static final Duration AT_MOST = Duration.ofMinutes(10);
+  private static final Duration AT_LEAST = Duration.ofMinutes(1);
+
+  @Autowired private SchedulerLeaseRepository schedulerLeaseRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private MutableClock clock;
+
+  private SchedulerLeaseService firstInstance;
+
+  private SchedulerLeaseService secondInstance;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock(Instant.parse("2022-10-01T10:00:00Z"));
+    firstInstance = givenInstance(Duration.ofMinutes(1));
+    secondInstance = givenInstance(Duration.ofMinutes(1));
+  }
+
+  @AfterEach
+  void cleanDatabase() {
+    firstInstance.shutdown();
+    secondInstance.shutdown();
+    schedulerLeaseRepository.deleteAll();
+  }
+
+  @Test
+  void runLocked_Should_skipJobOnSecondInstance_When_firstInstanceRunsIt() {
+    var secondRun = new AtomicBoolean();
+
+    var firstRun =
+        firstInstance.runLocked(
+            JOB,
+            AT_MOST,
+            AT_LEAST,
+            () -> secondRun.set(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})));
+
+    assertThat(firstRun).isTrue();
+    assertThat(secondRun).isFalse();
+  }
+
+  @Test
+  void runLocked_Should_holdLeaseForLockAtLeastFor_When_jobFinishedEarly() {
+    firstInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> clock.advance(Duration.ofSeconds(10)));
+
+    assertThat(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})).isFalse();
+
+    clock.advance(AT_LEAST);
+    assertThat(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})).isTrue();
+  }
+
+  @Test
+  void runLocked_Should_takeOverLease_When_holdingInstanceStoppedRenewingIt() {
+    var now = LocalDateTime.now(clock);
+    schedulerLeaseRepository.save(
+        new SchedulerLease(JOB, now.plus(AT_MOST), now, "crashed-instance"));
+
+    assertThat(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})).isFalse();
+
+    clock.advance(AT_MOST);
+    assertThat(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})).isTrue();
+    assertThat(schedulerLeaseRepository.findById(JOB).orElseThrow().getLockedBy())
+        .isNotEqualTo("crashed-instance");
+  }
+
+  @Test
+  void runLocked_Should_renewLease_When_jobRunsLongerThanHeartbeatInterval() {
+    firstInstance.shutdown();
+    firstInstance = givenInstance(Duration.ofMillis(50));
+    var initialLockedUntil = LocalDateTime.now(clock).plus(AT_MOST);
+    var renewed = new CountDownLatch(1);
+
+    firstInstance.runLocked(
+        JOB,
+        AT_MOST,
+        AT_LEAST,
+        () -> {
+          clock.advance(AT_MOST);
+          awaitRenewal(initialLockedUntil, renewed);
+          assertThat(secondInstance.runLocked(JOB, AT_MOST, AT_LEAST, () -> {})).isFalse();
+        });
+
+    assertThat(renewed.getCount()).isZero();
+  }
+
+  private void awaitRenewal(LocalDateTime initialLockedUntil, CountDownLatch renewed) {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (System.nanoTime() < deadline) {
+      var lockedUntil = schedulerLeaseRepository.findById(JOB).orElseThrow().getLockedUntil();
+      if (lockedUntil.isAfter(initialLockedUntil)) {
+        renewed.countDown();
+        return;
+      }
+      sleep();
+    }
+  }
+
+  private SchedulerLeaseService givenInstance(Duration heartbeatInterval) {
+    return new SchedulerLeaseService(
+        schedulerLeaseRepository,
+        transactionManager,
+        clock,
+        new SimpleMeterRegistry(),
+        heartbeatInterval);
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private volatile Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    private void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
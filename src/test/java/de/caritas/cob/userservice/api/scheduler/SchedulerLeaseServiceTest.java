@@ -0,0 +1,141 @@
+package de.caritas.cob.userservice.api.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.caritas.cob.userservice.api.port.out.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLeaseServiceTest {
+
+  private static final String JOB = "job";
+  private static final Instant NOW = Instant.parse("2022-10-01T10:00:00Z");
+  private static final LocalDateTime LOCKED_AT = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+  private static final Duration AT_MOST = Duration.ofMinutes(10);
+  private static final Duration AT_LEAST = Duration.ofMinutes(1);
+
+  @Mock private SchedulerLeaseRepository schedulerLeaseRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private SchedulerLeaseService schedulerLeaseService;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    schedulerLeaseService =
+        new SchedulerLeaseService(
+            schedulerLeaseRepository,
+            transactionManager,
+            Clock.fixed(NOW, ZoneOffset.UTC),
+            meterRegistry,
+            Duration.ofMinutes(1));
+  }
+
+  @AfterEach
+  void shutdown() {
+    schedulerLeaseService.shutdown();
+  }
+
+  @Test
+  void runLocked_Should_runJobAndHoldLeaseAtLeastForMinimumDuration_When_expiredLeaseIsAcquired() {
+    when(schedulerLeaseRepository.acquireExpired(
+            eq(JOB), anyString(), eq(LOCKED_AT), eq(LOCKED_AT.plus(AT_MOST))))
+        .thenReturn(1);
+    var jobRun = new AtomicBoolean();
+
+    var result = schedulerLeaseService.runLocked(JOB, AT_MOST, AT_LEAST, () -> jobRun.set(true));
+
+    assertThat(result).isTrue();
+    assertThat(jobRun).isTrue();
+    verify(schedulerLeaseRepository, never()).insert(any(), any(), any(), any());
+    verify(schedulerLeaseRepository)
+        .updateLockedUntil(eq(JOB), anyString(), eq(LOCKED_AT), eq(LOCKED_AT.plus(AT_LEAST)));
+    assertThat(meterRegistry.get("scheduler.lease.acquired").tag("job", JOB).counter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("scheduler.lease.duration").tag("job", JOB).timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void runLocked_Should_createLease_When_leaseDoesNotExistYet() {
+    when(schedulerLeaseRepository.existsById(JOB)).thenReturn(false);
+    when(schedulerLeaseRepository.insert(
+            eq(JOB), anyString(), eq(LOCKED_AT), eq(LOCKED_AT.plus(AT_MOST))))
+        .thenReturn(1);
+    var jobRun = new AtomicBoolean();
+
+    var result = schedulerLeaseService.runLocked(JOB, AT_MOST, AT_LEAST, () -> jobRun.set(true));
+
+    assertThat(result).isTrue();
+    assertThat(jobRun).isTrue();
+  }
+
+  @Test
+  void runLocked_Should_skipJob_When_leaseIsHeldByAnotherInstance() {
+    when(schedulerLeaseRepository.existsById(JOB)).thenReturn(true);
+    var jobRun = new AtomicBoolean();
+
+    var result = schedulerLeaseService.runLocked(JOB, AT_MOST, AT_LEAST, () -> jobRun.set(true));
+
+    assertThat(result).isFalse();
+    assertThat(jobRun).isFalse();
+    verify(schedulerLeaseRepository, never()).updateLockedUntil(any(), any(), any(), any());
+    assertThat(meterRegistry.get("scheduler.lease.skipped").tag("job", JOB).counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void runLocked_Should_skipJob_When_leaseHasBeenCreatedConcurrently() {
+    when(schedulerLeaseRepository.insert(any(), any(), any(), any()))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+    var jobRun = new AtomicBoolean();
+
+    var result = schedulerLeaseService.runLocked(JOB, AT_MOST, AT_LEAST, () -> jobRun.set(true));
+
+    assertThat(result).isFalse();
+    assertThat(jobRun).isFalse();
+  }
+
+  @Test
+  void runLocked_Should_releaseLeaseAndRethrow_When_jobFails() {
+    when(schedulerLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(1);
+
+    assertThatThrownBy(
+            () ->
+                schedulerLeaseService.runLocked(
+                    JOB,
+                    AT_MOST,
+                    AT_LEAST,
+                    () -> {
+                      throw new IllegalStateException("job failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    verify(schedulerLeaseRepository)
+        .updateLockedUntil(eq(JOB), anyString(), eq(LOCKED_AT), eq(LOCKED_AT.plus(AT_LEAST)));
+  }
+}
@@ -32,6 +32,7 @@ import de.caritas.cob.userservice.api.port.out.ConsultantMobileTokenRepository;
 import de.caritas.cob.userservice.api.port.out.ConsultantRepository;
 import de.caritas.cob.userservice.api.service.user.UserAccountService;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
@@ -77,6 +78,16 @@ class ConsultantServiceTest {
     assertEquals(CONSULTANT, result.get());
   }
 
+  @Test
+  void findConsultantsByRcUserIds_Should_ReturnConsultantsOfRepository() {
+    when(consultantRepository.findByRocketChatIdInAndDeleteDateIsNull(List.of(RC_USER_ID)))
+        .thenReturn(List.of(CONSULTANT));
+
+    var result = consultantService.findConsultantsByRcUserIds(List.of(RC_USER_ID));
+
+    assertEquals(List.of(CONSULTANT), result);
+  }
+
   @Test
   void getConsultantByEmail_Should_ReturnConsultant_WhenFound() {
     when(consultantRepository.findByEmailAndDeleteDateIsNull(EMAIL))
@@ -1,8 +1,23 @@
 package de.caritas.cob.userservice.api.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 import de.caritas.cob.userservice.api.exception.CustomCryptoException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -65,4 +80,116 @@ public class DecryptionServiceTest {
       assertTrue(true, "Expected BadPaddingException thrown");
     }
   }
+
+  @Test
+  public void decrypt_Should_ReturnSameResultAsUncachedDecryption_When_SecretsRepeat()
+      throws Exception {
+    for (int i = 0; i < 200; i++) {
+      var secret = "room" + (i % 20);
+      var message = encrypt("message " + i, KEY_MASTER, secret);
+
+      assertEquals(
+          decryptUncached(message, KEY_MASTER, secret), encryptionService.decrypt(message, secret));
+    }
+  }
+
+  @Test
+  public void decrypt_Should_UseNewMasterKey_When_MasterKeyIsUpdatedAfterCaching()
+      throws Exception {
+    var newMasterKey = "NewMasterKeyTestKey";
+    encryptionService.decrypt(MESSAGE_ENCRYPTED, KEY_SESSION);
+
+    encryptionService.updateMasterKey(newMasterKey);
+
+    assertThrows(
+        CustomCryptoException.class,
+        () -> encryptionService.decrypt(MESSAGE_ENCRYPTED, KEY_SESSION));
+    assertEquals(
+        MESSAGE_PLAIN,
+        encryptionService.decrypt(encrypt(MESSAGE_PLAIN, newMasterKey, KEY_SESSION), KEY_SESSION));
+  }
+
+  @Test
+  public void decrypt_Should_ReturnCorrectResults_When_CalledConcurrently() throws Exception {
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<Boolean>> decryptions =
+          IntStream.range(0, 400)
+              .mapToObj(
+                  i ->
+                      (Callable<Boolean>)
+                          () -> {
+                            var plain = "message " + i;
+                            var secret = "room" + (i % 7);
+                            return plain.equals(
+                                encryptionService.decrypt(
+                                    encrypt(plain, KEY_MASTER, secret), secret));
+                          })
+              .collect(Collectors.toList());
+
+      for (Future<Boolean> result : executor.invokeAll(decryptions)) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void decrypt_Should_ReturnDecryptedText_When_KeyCacheIsFull() throws Exception {
+    ReflectionTestUtils.setField(encryptionService, "keyCacheMaxEntries", 2);
+
+    for (int i = 0; i < 10; i++) {
+      var secret = "room" + i;
+      assertEquals(
+          MESSAGE_PLAIN,
+          encryptionService.decrypt(encrypt(MESSAGE_PLAIN, KEY_MASTER, secret), secret));
+    }
+    assertEquals(MESSAGE_PLAIN, encryptionService.decrypt(MESSAGE_ENCRYPTED, KEY_SESSION));
+  }
+
+  @Test
+  public void decryptAll_Should_ReturnDecryptedMessagesByRoomIdInGivenOrder() throws Exception {
+    var messagesByRoomId = new LinkedHashMap<String, String>();
+    messagesByRoomId.put("room2", encrypt("second", KEY_MASTER, "room2"));
+    messagesByRoomId.put("room1", encrypt("first", KEY_MASTER, "room1"));
+    messagesByRoomId.put("room3", "not encrypted");
+    messagesByRoomId.put("room4", null);
+
+    Map<String, String> result = encryptionService.decryptAll(messagesByRoomId);
+
+    assertThat(result.keySet()).containsExactly("room2", "room1", "room3", "room4");
+    assertThat(result.values()).containsExactly("second", "first", "not encrypted", null);
+  }
+
+  @Test
+  public void decryptAll_Should_ThrowCustomCryptoException_When_OneMessageCannotBeDecrypted() {
+    var messagesByRoomId = new LinkedHashMap<String, String>();
+    messagesByRoomId.put(KEY_SESSION, MESSAGE_ENCRYPTED);
+    messagesByRoomId.put(KEY_SESSION_WRONG, MESSAGE_ENCRYPTED);
+
+    assertThrows(CustomCryptoException.class, () -> encryptionService.decryptAll(messagesByRoomId));
+  }
+
+  private String encrypt(String message, String masterKey, String secret) throws Exception {
+    var cipher = Cipher.getInstance("AES/ECB/PKCS5PADDING");
+    cipher.init(Cipher.ENCRYPT_MODE, keySpec(masterKey, secret));
+    return "enc:"
+        + Base64.getEncoder()
+            .encodeToString(cipher.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private String decryptUncached(String message, String masterKey, String secret) throws Exception {
+    var cipher = Cipher.getInstance("AES/ECB/PKCS5PADDING");
+    cipher.init(Cipher.DECRYPT_MODE, keySpec(masterKey, secret));
+    return new String(
+        cipher.doFinal(Base64.getDecoder().decode(message.substring("enc:".length()))));
+  }
+
+  private SecretKeySpec keySpec(String masterKey, String secret) throws Exception {
+    var keyBytes =
+        MessageDigest.getInstance("SHA-1")
+            .digest((masterKey + secret + KEY_APPLICATION).getBytes(StandardCharsets.UTF_8));
+    return new SecretKeySpec(Arrays.copyOf(keyBytes, 16), "AES");
+  }
 }
@@ -39,12 +39,14 @@ import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.reflect.Whitebox.setInternalState;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
@@ -89,7 +91,9 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.bson.Document;
 import org.bson.conversions.Bson;
@@ -743,6 +747,71 @@ class RocketChatServiceTest {
     assertEquals("a", result.get(0).get_id());
   }
 
+  @Test
+  void findUsers_Should_QueryTheUsersCollectionOnceAndMapTheDisplayNames() {
+    var user = new Document("_id", "chatUserId").append("username", "enc.user").append("name", "A");
+    when(mongoCursor.hasNext()).thenReturn(true, false);
+    when(mongoCursor.next()).thenReturn(user);
+    when(findIterable.iterator()).thenReturn(mongoCursor);
+    when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+    when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+    when(mockedMongoClient.getDatabase("rocketchat")).thenReturn(mongoDatabase);
+    when(mongoDatabase.getCollection("users")).thenReturn(mongoCollection);
+
+    var users = rocketChatService.findUsers(List.of("chatUserId", "unknownChatUserId"));
+
+    verify(mongoCollection).find(any(Bson.class));
+    assertEquals(
+        Map.of(
+            "chatUserId", Map.of("id", "chatUserId", "username", "enc.user", "displayName", "A")),
+        users);
+  }
+
+  @Test
+  void findUsers_Should_NotQueryRocketChat_When_NoUserIdsAreGiven() {
+    assertTrue(rocketChatService.findUsers(List.of()).isEmpty());
+
+    verifyNoInteractions(mockedMongoClient);
+  }
+
+  @Test
+  void findLoggedInUserIds_Should_QueryTheStatusOfAllUsersOnce() {
+    when(mongoCursor.hasNext()).thenReturn(true, true, false);
+    when(mongoCursor.next())
+        .thenReturn(new Document("_id", "onlineUserId"), new Document("_id", "awayUserId"));
+    when(findIterable.iterator()).thenReturn(mongoCursor);
+    when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+    when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+    when(mockedMongoClient.getDatabase("rocketchat")).thenReturn(mongoDatabase);
+    when(mongoDatabase.getCollection("users")).thenReturn(mongoCollection);
+
+    var loggedInUserIds =
+        rocketChatService.findLoggedInUserIds(
+            List.of("onlineUserId", "awayUserId", "offlineUserId"));
+
+    verify(mongoCollection).find(any(Bson.class));
+    assertEquals(Set.of("onlineUserId", "awayUserId"), loggedInUserIds);
+  }
+
+  @Test
+  void findLoggedInUserIds_Should_ReturnNoUser_When_QueryFails() {
+    when(findIterable.iterator()).thenThrow(new MongoException("unavailable"));
+    when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+    when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+    when(mockedMongoClient.getDatabase("rocketchat")).thenReturn(mongoDatabase);
+    when(mongoDatabase.getCollection("users")).thenReturn(mongoCollection);
+
+    assertTrue(rocketChatService.findLoggedInUserIds(List.of("chatUserId")).isEmpty());
+    verify(logger).error(anyString(), any(MongoException.class));
+  }
+
+  @Test
+  void findLoggedInUserIds_Should_NotQueryRocketChat_When_NoUserIdsAreGiven() {
+    assertTrue(rocketChatService.findLoggedInUserIds(List.of()).isEmpty());
+
+    verifyNoInteractions(mockedMongoClient);
+  }
+
   /** Method: getUserInfo */
   @Test
   void getUserInfo_Should_ThrowInternalServerExceptionException_WhenAPICallFails()
@@ -1,25 +1,36 @@
 package de.caritas.cob.userservice.api.service.agency;
 
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.AGENCIES_BY_CONSULTING_TYPE_CACHE;
+import static de.caritas.cob.userservice.api.config.CacheManagerConfig.AGENCY_CACHE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Lists;
 import de.caritas.cob.userservice.agencyserivce.generated.ApiClient;
 import de.caritas.cob.userservice.agencyserivce.generated.web.AgencyControllerApi;
+import de.caritas.cob.userservice.agencyserivce.generated.web.model.AgencyResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
 import de.caritas.cob.userservice.api.config.apiclient.AgencyServiceApiControllerFactory;
 import de.caritas.cob.userservice.api.service.httpheader.HttpHeadersResolver;
 import de.caritas.cob.userservice.api.service.httpheader.SecurityHeaderSupplier;
 import de.caritas.cob.userservice.api.service.httpheader.TenantHeaderSupplier;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -28,7 +39,9 @@ class AgencyServiceTest {
 
   private static final String ORIGIN_URL = "subdomain.onlineberatung.net";
 
-  @InjectMocks AgencyService agencyService;
+  AgencyService agencyService;
+
+  SimpleMeterRegistry meterRegistry;
 
   @Mock AgencyControllerApi agencyControllerApi;
 
@@ -40,6 +53,26 @@ class AgencyServiceTest {
 
   @Mock ApiClient apiClient;
 
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    var agencyCache =
+        new AgencyCache(
+            new ConcurrentMapCacheManager(AGENCY_CACHE, AGENCIES_BY_CONSULTING_TYPE_CACHE),
+            meterRegistry);
+    agencyService =
+        new AgencyService(
+            securityHeaderSupplier,
+            tenantHeaderSupplier,
+            agencyServiceApiControllerFactory,
+            agencyCache);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
   @ParameterizedTest
   @NullAndEmptySource
   void getAgenciesFromAgencyService_Should_returnEmptyList_When_nullPassed(List<Long> emptyIds) {
@@ -58,7 +91,8 @@ class AgencyServiceTest {
     when(this.agencyControllerApi.getApiClient()).thenReturn(apiClient);
     var agencyDTOS =
         Lists.newArrayList(
-            new de.caritas.cob.userservice.agencyserivce.generated.web.model.AgencyResponseDTO());
+            new de.caritas.cob.userservice.agencyserivce.generated.web.model.AgencyResponseDTO()
+                .id(1L));
     when(agencyServiceApiControllerFactory.createControllerApi()).thenReturn(agencyControllerApi);
     when(this.agencyControllerApi.getAgenciesByIds(Lists.newArrayList(1L))).thenReturn(agencyDTOS);
 
@@ -67,4 +101,125 @@ class AgencyServiceTest {
     assertThat(headers.get("tenantId").get(0)).isEqualTo("1");
     TenantContext.clear();
   }
+
+  @Test
+  void getAgencies_Should_requestOnlyMissingAgencies_When_idSetsOverlap() {
+    givenAgencyServiceApi();
+    when(agencyControllerApi.getAgenciesByIds(List.of(1L, 2L)))
+        .thenReturn(List.of(agencyResponse(1L), agencyResponse(2L)));
+    when(agencyControllerApi.getAgenciesByIds(List.of(3L))).thenReturn(List.of(agencyResponse(3L)));
+
+    agencyService.getAgencies(List.of(1L, 2L));
+    var result = agencyService.getAgencies(List.of(2L, 1L, 3L));
+
+    assertThat(ids(result)).containsExactly(2L, 1L, 3L);
+    verify(agencyControllerApi).getAgenciesByIds(List.of(1L, 2L));
+    verify(agencyControllerApi).getAgenciesByIds(List.of(3L));
+    verify(agencyControllerApi, times(2)).getAgenciesByIds(anyList());
+    assertThat(meterRegistry.counter("agency.cache.requests", "result", "hit").count())
+        .isEqualTo(2);
+    assertThat(meterRegistry.counter("agency.cache.requests", "result", "miss").count())
+        .isEqualTo(3);
+  }
+
+  @Test
+  void getAgencies_Should_returnAgenciesInInputOrder_When_upstreamReturnsOtherOrder() {
+    givenAgencyServiceApi();
+    when(agencyControllerApi.getAgenciesByIds(List.of(3L, 1L, 2L)))
+        .thenReturn(List.of(agencyResponse(1L), agencyResponse(2L), agencyResponse(3L)));
+
+    var result = agencyService.getAgencies(List.of(3L, 1L, 3L, 2L));
+
+    assertThat(ids(result)).containsExactly(3L, 1L, 2L);
+  }
+
+  @Test
+  void getAgency_Should_notRequestAgencyService_When_agencyIsCachedByListRequest() {
+    givenAgencyServiceApi();
+    when(agencyControllerApi.getAgenciesByIds(List.of(1L, 2L)))
+        .thenReturn(List.of(agencyResponse(1L), agencyResponse(2L)));
+
+    agencyService.getAgencies(List.of(1L, 2L));
+    var result = agencyService.getAgency(2L);
+
+    assertThat(result.getId()).isEqualTo(2L);
+    verify(agencyControllerApi).getAgenciesByIds(anyList());
+  }
+
+  @Test
+  void getAgencies_Should_requestAgenciesAgain_When_tenantDiffers() {
+    givenAgencyServiceApi();
+    when(agencyControllerApi.getAgenciesByIds(List.of(1L))).thenReturn(List.of(agencyResponse(1L)));
+
+    TenantContext.setCurrentTenant(1L);
+    agencyService.getAgencies(List.of(1L));
+    TenantContext.setCurrentTenant(2L);
+    agencyService.getAgencies(List.of(1L));
+    agencyService.getAgencies(List.of(1L));
+
+    verify(agencyControllerApi, times(2)).getAgenciesByIds(List.of(1L));
+  }
+
+  @Test
+  void getAgenciesByConsultingType_Should_cacheAgenciesOfConsultingTypeAndSingleAgencies() {
+    givenAgencyServiceApi();
+    when(agencyControllerApi.getAgenciesByConsultingType(5))
+        .thenReturn(List.of(agencyResponse(1L), agencyResponse(2L)));
+
+    agencyService.getAgenciesByConsultingType(5);
+    var result = agencyService.getAgenciesByConsultingType(5);
+    var agency = agencyService.getAgency(1L);
+
+    assertThat(ids(result)).containsExactly(1L, 2L);
+    assertThat(agency.getId()).isEqualTo(1L);
+    verify(agencyControllerApi).getAgenciesByConsultingType(5);
+    verify(agencyControllerApi, never()).getAgenciesByIds(anyList());
+  }
+
+  @Test
+  void getAgenciesWithoutCaching_Should_mapAllFieldsOfAgencyResponse() {
+    givenAgencyServiceApi();
+    var agencyResponse =
+        agencyResponse(1L)
+            .name("name")
+            .postcode("12345")
+            .city("city")
+            .description("description")
+            .teamAgency(true)
+            .offline(false)
+            .consultingType(2)
+            .tenantId(3L)
+            .topicIds(List.of(4L, 5L));
+    when(agencyControllerApi.getAgenciesByIds(List.of(1L))).thenReturn(List.of(agencyResponse));
+
+    var result = agencyService.getAgenciesWithoutCaching(List.of(1L)).get(0);
+
+    assertThat(result)
+        .isEqualTo(
+            new AgencyDTO()
+                .id(1L)
+                .name("name")
+                .postcode("12345")
+                .city("city")
+                .description("description")
+                .teamAgency(true)
+                .offline(false)
+                .consultingType(2)
+                .tenantId(3L)
+                .topicIds(List.of(4L, 5L)));
+  }
+
+  private void givenAgencyServiceApi() {
+    when(securityHeaderSupplier.getCsrfHttpHeaders()).thenAnswer(invocation -> new HttpHeaders());
+    when(agencyControllerApi.getApiClient()).thenReturn(apiClient);
+    when(agencyServiceApiControllerFactory.createControllerApi()).thenReturn(agencyControllerApi);
+  }
+
+  private AgencyResponseDTO agencyResponse(Long id) {
+    return new AgencyResponseDTO().id(id);
+  }
+
+  private List<Long> ids(List<AgencyDTO> agencies) {
+    return agencies.stream().map(AgencyDTO::getId).collect(Collectors.toList());
+  }
 }
@@ -41,10 +41,13 @@ public class NewDirectEnquiryEmailSupplierTest {
   @BeforeEach
   public void setup() {
     newDirectEnquiryEmailSupplier =
-        new NewDirectEnquiryEmailSupplier(consultantAgencyRepository, null, releaseToggleService);
-    newDirectEnquiryEmailSupplier.setAgencyId(AGENCY_ID);
-    newDirectEnquiryEmailSupplier.setConsultantId(MAIN_CONSULTANT_ID);
-    newDirectEnquiryEmailSupplier.setPostCode(POSTCODE);
+        NewDirectEnquiryEmailSupplier.builder()
+            .agencyId(AGENCY_ID)
+            .consultantId(MAIN_CONSULTANT_ID)
+            .postCode(POSTCODE)
+            .consultantAgencyRepository(consultantAgencyRepository)
+            .releaseToggleService(releaseToggleService)
+            .build();
   }
 
   @Test
@@ -17,6 +17,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.reflect.Whitebox.setInternalState;
@@ -25,12 +27,14 @@ import de.caritas.cob.userservice.api.config.auth.UserRole;
 import de.caritas.cob.userservice.api.exception.httpresponses.InternalServerErrorException;
 import de.caritas.cob.userservice.api.manager.consultingtype.ConsultingTypeManager;
 import de.caritas.cob.userservice.api.model.Consultant;
+import de.caritas.cob.userservice.api.model.ConsultantAgency;
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.port.out.MessageClient;
 import de.caritas.cob.userservice.api.service.ConsultantAgencyService;
 import de.caritas.cob.userservice.api.service.ConsultantService;
+import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggle;
 import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggleService;
 import de.caritas.cob.userservice.api.tenant.TenantContext;
 import de.caritas.cob.userservice.api.tenant.TenantData;
@@ -45,10 +49,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -271,11 +279,12 @@ public class NewMessageEmailSupplierTest {
     when(session.getConsultant()).thenReturn(CONSULTANT);
     when(session.getUser()).thenReturn(USER);
     when(session.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
-    when(messageClient.isLoggedIn(anyString())).thenReturn(Optional.of(false));
+    when(messageClient.findLoggedInUserIds(any())).thenReturn(Set.of());
 
     var generatedMails = newMessageEmailSupplier.generateEmails();
 
     assertThat(generatedMails, hasSize(1));
+    verify(messageClient).findLoggedInUserIds(Set.of(CONSULTANT.getRocketChatId()));
   }
 
   @Test
@@ -284,13 +293,52 @@ public class NewMessageEmailSupplierTest {
     when(session.getConsultant()).thenReturn(CONSULTANT);
     when(session.getUser()).thenReturn(USER);
     when(session.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
-    when(messageClient.isLoggedIn(anyString())).thenReturn(Optional.of(true));
+    when(messageClient.findLoggedInUserIds(any())).thenReturn(Set.of(CONSULTANT.getRocketChatId()));
 
     var generatedMails = newMessageEmailSupplier.generateEmails();
 
     assertThat(generatedMails, empty());
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {5, 500})
+  public void generateEmails_Should_CallUpstreamServicesOnce_When_TeamSessionHasManyConsultants(
+      int consultantCount) {
+    givenATeamSessionInformingAllConsultants();
+    when(releaseToggleService.isToggleEnabled(ReleaseToggle.NEW_EMAIL_NOTIFICATIONS))
+        .thenReturn(true);
+    var consultantAgencies = givenConsultantAgencies(consultantCount);
+    when(consultantAgencyService.findConsultantsByAgencyId(any())).thenReturn(consultantAgencies);
+    when(messageClient.findLoggedInUserIds(any())).thenReturn(Set.of("rcId0", "rcId1"));
+
+    var generatedMails = newMessageEmailSupplier.generateEmails();
+
+    assertThat(generatedMails, hasSize(consultantCount - 2));
+    verify(messageClient, times(1)).findLoggedInUserIds(any());
+    verify(messageClient, never()).isLoggedIn(any());
+    verify(consultingTypeManager, times(1)).getConsultingTypeSettings(anyInt());
+    verify(releaseToggleService, times(1)).isToggleEnabled(any());
+  }
+
+  @Test
+  public void generateEmails_Should_ReturnNoEmailToConsultant_When_NewMessageNotificationIsOff() {
+    givenATeamSessionInformingAllConsultants();
+    when(releaseToggleService.isToggleEnabled(ReleaseToggle.NEW_EMAIL_NOTIFICATIONS))
+        .thenReturn(true);
+    var consultantAgencies = givenConsultantAgencies(2);
+    consultantAgencies
+        .get(1)
+        .getConsultant()
+        .setNotificationsSettings("{\"newChatMessageNotificationEnabled\":false}");
+    when(consultantAgencyService.findConsultantsByAgencyId(any())).thenReturn(consultantAgencies);
+
+    var generatedMails = newMessageEmailSupplier.generateEmails();
+
+    assertThat(generatedMails, hasSize(1));
+    assertThat(generatedMails.get(0).getEmail(), is("consultant0@email.com"));
+    verify(messageClient).findLoggedInUserIds(Set.of("rcId0"));
+  }
+
   @Test
   public void
       generateEmails_Should_ReturnExpectedEmailToAsker_When_ConsultantWritesToValidReceiver() {
@@ -387,6 +435,37 @@ public class NewMessageEmailSupplierTest {
         });
   }
 
+  private void givenATeamSessionInformingAllConsultants() {
+    ExtendedConsultingTypeResponseDTO settings = mock(ExtendedConsultingTypeResponseDTO.class);
+    NewMessageDTO newMessageDTO = new NewMessageDTO().allTeamConsultants(true);
+    TeamSessionsDTO teamSessionsDTO = new TeamSessionsDTO().newMessage(newMessageDTO);
+    when(settings.getNotifications())
+        .thenReturn(new NotificationsDTO().teamSessions(teamSessionsDTO));
+    when(consultingTypeManager.getConsultingTypeSettings(anyInt())).thenReturn(settings);
+    when(roles.contains(UserRole.USER.getValue())).thenReturn(true);
+    when(session.isTeamSession()).thenReturn(true);
+    when(session.getUser()).thenReturn(USER);
+    when(session.getStatus()).thenReturn(SessionStatus.IN_PROGRESS);
+  }
+
+  private List<ConsultantAgency> givenConsultantAgencies(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(
+            i -> {
+              var consultant = new Consultant();
+              consultant.setId("consultantId" + i);
+              consultant.setRocketChatId("rcId" + i);
+              consultant.setEmail("consultant" + i + "@email.com");
+              consultant.setLanguageCode(com.neovisionaries.i18n.LanguageCode.de);
+              consultant.setNotificationsEnabled(true);
+              consultant.setNotificationsSettings("{\"newChatMessageNotificationEnabled\":true}");
+              var consultantAgency = new ConsultantAgency();
+              consultantAgency.setConsultant(consultant);
+              return consultantAgency;
+            })
+        .collect(Collectors.toList());
+  }
+
   private void givenCurrentTenantDataIsSet() {
     var tenantData = new TenantData();
     tenantData.setTenantId(1L);
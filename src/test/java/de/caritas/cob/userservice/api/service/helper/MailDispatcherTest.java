@@ -0,0 +1,208 @@
+package de.caritas.cob.userservice.api.service.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.reflect.Whitebox.setInternalState;
+
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherTest {
+
+  private static final Duration FLUSH_WINDOW = Duration.ofMillis(200);
+  private static final int BATCH_SIZE = 3;
+
+  @Mock private MailService mailService;
+  @Mock private Logger logger;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private MailDispatcher mailDispatcher;
+
+  @BeforeEach
+  void setUp() {
+    setInternalState(MailDispatcher.class, "log", logger);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mailDispatcher.shutdown();
+  }
+
+  @Test
+  void dispatch_Should_sendMailsInOneBatch_When_dispatchedWithinFlushWindow() {
+    mailDispatcher = dispatcher(1, 10, BATCH_SIZE, FLUSH_WINDOW);
+
+    mailDispatcher.dispatch(mails("a@mail.de"));
+    mailDispatcher.dispatch(mails("b@mail.de"));
+
+    verify(mailService, timeout(5000)).sendEmailNotification(mails("a@mail.de", "b@mail.de"));
+  }
+
+  @Test
+  void dispatch_Should_splitMailsIntoBatches_When_moreMailsThanBatchSizeAreQueued() {
+    mailDispatcher = dispatcher(1, 10, BATCH_SIZE, FLUSH_WINDOW);
+
+    mailDispatcher.dispatch(mails("a@mail.de", "b@mail.de", "c@mail.de", "d@mail.de"));
+
+    verify(mailService, timeout(5000))
+        .sendEmailNotification(mails("a@mail.de", "b@mail.de", "c@mail.de"));
+    verify(mailService, timeout(5000)).sendEmailNotification(mails("d@mail.de"));
+  }
+
+  @Test
+  void dispatch_Should_sendMailsInCallingThread_When_queueIsFull() throws InterruptedException {
+    var sendStarted = new CountDownLatch(1);
+    var releaseWorker = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              if (Thread.currentThread().getName().startsWith("MailDispatcher")) {
+                sendStarted.countDown();
+                releaseWorker.await(5, TimeUnit.SECONDS);
+              }
+              return null;
+            })
+        .when(mailService)
+        .sendEmailNotification(any());
+    mailDispatcher = dispatcher(1, 1, BATCH_SIZE, Duration.ZERO);
+
+    mailDispatcher.dispatch(mails("a@mail.de"));
+    assertThat(sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    mailDispatcher.dispatch(mails("b@mail.de", "c@mail.de"));
+
+    verify(mailService).sendEmailNotification(mails("c@mail.de"));
+    assertThat(meterRegistry.get("mail.dispatch.rejected").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("mail.dispatch.queue.depth").gauge().value()).isEqualTo(1);
+    releaseWorker.countDown();
+    verify(mailService, timeout(5000)).sendEmailNotification(mails("b@mail.de"));
+  }
+
+  @Test
+  void dispatch_Should_sendMailsInCallingThread_When_dispatcherIsShutDown() {
+    mailDispatcher = dispatcher(1, 10, BATCH_SIZE, FLUSH_WINDOW);
+    mailDispatcher.shutdown();
+
+    mailDispatcher.dispatch(mails("a@mail.de"));
+
+    verify(mailService).sendEmailNotification(mails("a@mail.de"));
+    assertThat(meterRegistry.get("mail.dispatch.rejected").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shutdown_Should_sendQueuedMails() {
+    mailDispatcher = dispatcher(1, 10, 100, Duration.ofMinutes(1));
+
+    mailDispatcher.dispatch(mails("a@mail.de", "b@mail.de"));
+    mailDispatcher.shutdown();
+
+    verify(mailService).sendEmailNotification(mails("a@mail.de", "b@mail.de"));
+    assertThat(meterRegistry.get("mail.dispatch.queue.depth").gauge().value()).isZero();
+  }
+
+  @Test
+  void dispatch_Should_recordLatencyOfEverySentMail() {
+    mailDispatcher = dispatcher(1, 10, BATCH_SIZE, FLUSH_WINDOW);
+
+    mailDispatcher.dispatch(mails("a@mail.de", "b@mail.de"));
+    mailDispatcher.shutdown();
+
+    assertThat(meterRegistry.get("mail.dispatch.latency").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  void dispatch_Should_logErrorAndContinue_When_mailServiceFails() {
+    doThrow(new RuntimeException("unavailable"))
+        .doNothing()
+        .when(mailService)
+        .sendEmailNotification(any());
+    mailDispatcher = dispatcher(1, 10, BATCH_SIZE, Duration.ZERO);
+
+    mailDispatcher.dispatch(mails("a@mail.de"));
+    verify(logger, timeout(5000))
+        .error(any(String.class), any(Object.class), any(RuntimeException.class));
+    mailDispatcher.dispatch(mails("b@mail.de"));
+
+    verify(mailService, timeout(5000)).sendEmailNotification(mails("b@mail.de"));
+  }
+
+  @Test
+  void dispatch_Should_sendEveryMailExactlyOnce_When_calledConcurrently()
+      throws InterruptedException {
+    var sentAddresses = new ConcurrentLinkedQueue<String>();
+    doAnswer(
+            invocation -> {
+              MailsDTO mailsDTO = invocation.getArgument(0);
+              mailsDTO.getMails().forEach(mail -> sentAddresses.add(mail.getEmail()));
+              return null;
+            })
+        .when(mailService)
+        .sendEmailNotification(any());
+    mailDispatcher = dispatcher(4, 10000, 500, FLUSH_WINDOW);
+    var addresses =
+        IntStream.range(0, 5000)
+            .mapToObj(i -> "consultant" + i + "@mail.de")
+            .collect(Collectors.toList());
+
+    var callers = Executors.newFixedThreadPool(16);
+    addresses.forEach(address -> callers.execute(() -> mailDispatcher.dispatch(mails(address))));
+    callers.shutdown();
+    assertThat(callers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    mailDispatcher.shutdown();
+
+    assertThat(sentAddresses)
+        .hasSameSizeAs(addresses)
+        .containsExactlyInAnyOrderElementsOf(addresses);
+    assertThat(meterRegistry.get("mail.dispatch.latency").timer().count()).isEqualTo(5000);
+  }
+
+  @Test
+  void dispatch_Should_neverExceedBatchSize() {
+    mailDispatcher = dispatcher(2, 100, BATCH_SIZE, FLUSH_WINDOW);
+
+    mailDispatcher.dispatch(
+        mails(IntStream.range(0, 10).mapToObj(i -> i + "@mail.de").toArray(String[]::new)));
+    mailDispatcher.shutdown();
+
+    var mailsCaptor = ArgumentCaptor.forClass(MailsDTO.class);
+    verify(mailService, times(4)).sendEmailNotification(mailsCaptor.capture());
+    assertThat(mailsCaptor.getAllValues())
+        .allSatisfy(
+            mailsDTO -> assertThat(mailsDTO.getMails()).hasSizeLessThanOrEqualTo(BATCH_SIZE));
+  }
+
+  private MailDispatcher dispatcher(
+      int workers, int queueCapacity, int batchSize, Duration flushWindow) {
+    return new MailDispatcher(
+        mailService, meterRegistry, workers, queueCapacity, batchSize, flushWindow);
+  }
+
+  private MailsDTO mails(String... addresses) {
+    List<MailDTO> mails =
+        List.of(addresses).stream()
+            .map(address -> new MailDTO().template("template").email(address))
+            .collect(Collectors.toList());
+    return new MailsDTO().mails(mails);
+  }
+}
@@ -0,0 +1,160 @@
+package de.caritas.cob.userservice.api.service.liveevents;
+
+import static de.caritas.cob.userservice.liveservice.generated.web.model.EventType.ANONYMOUSCONVERSATIONFINISHED;
+import static de.caritas.cob.userservice.liveservice.generated.web.model.EventType.DIRECTMESSAGE;
+import static de.caritas.cob.userservice.liveservice.generated.web.model.EventType.NEWANONYMOUSENQUIRY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.powermock.reflect.Whitebox.setInternalState;
+
+import de.caritas.cob.userservice.api.config.apiclient.LiveServiceApiControllerFactory;
+import de.caritas.cob.userservice.liveservice.generated.ApiException;
+import de.caritas.cob.userservice.liveservice.generated.web.LiveControllerApi;
+import de.caritas.cob.userservice.liveservice.generated.web.model.LiveEventMessage;
+import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource;
+import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource.FinishConversationPhaseEnum;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+@ExtendWith(MockitoExtension.class)
+class LiveEventDispatcherTest {
+
+  private static final Duration COALESCING_WINDOW = Duration.ofMillis(200);
+  private static final int CAPACITY = 3;
+
+  @Mock private LiveServiceApiControllerFactory liveServiceApiControllerFactory;
+  @Mock private LiveControllerApi liveControllerApi;
+  @Mock private Logger logger;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private LiveEventDispatcher liveEventDispatcher;
+
+  @BeforeEach
+  void setUp() {
+    setInternalState(LiveEventDispatcher.class, "log", logger);
+    lenient()
+        .when(liveServiceApiControllerFactory.createControllerApi())
+        .thenReturn(liveControllerApi);
+    liveEventDispatcher =
+        new LiveEventDispatcher(
+            liveServiceApiControllerFactory, meterRegistry, COALESCING_WINDOW, CAPACITY);
+  }
+
+  @AfterEach
+  void tearDown() {
+    liveEventDispatcher.shutdown();
+  }
+
+  @Test
+  void dispatch_Should_sendIdenticalEventsOnlyOncePerRecipient_When_dispatchedWithinWindow()
+      throws ApiException {
+    liveEventDispatcher.dispatch(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1")));
+    liveEventDispatcher.dispatch(
+        new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1", "2")));
+
+    assertThat(meterRegistry.get("live.event.pending").gauge().value()).isEqualTo(2);
+    verify(liveControllerApi, timeout(5000))
+        .sendLiveEvent(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1", "2")));
+    assertThat(meterRegistry.get("live.event.coalesced").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("live.event.pending").gauge().value()).isZero();
+  }
+
+  @Test
+  void dispatch_Should_sendEventsSeparately_When_typeOrContentDiffers() throws ApiException {
+    var inProgress =
+        new StatusSource().finishConversationPhase(FinishConversationPhaseEnum.IN_PROGRESS);
+    var newEnquiry = new StatusSource().finishConversationPhase(FinishConversationPhaseEnum.NEW);
+    liveEventDispatcher.dispatch(
+        new LiveEventMessage()
+            .eventType(ANONYMOUSCONVERSATIONFINISHED)
+            .eventContent(inProgress)
+            .userIds(ids("1")));
+    liveEventDispatcher.dispatch(
+        new LiveEventMessage()
+            .eventType(ANONYMOUSCONVERSATIONFINISHED)
+            .eventContent(newEnquiry)
+            .userIds(ids("1")));
+    liveEventDispatcher.dispatch(
+        new LiveEventMessage().eventType(NEWANONYMOUSENQUIRY).userIds(ids("1")));
+
+    var captor = ArgumentCaptor.forClass(LiveEventMessage.class);
+    verify(liveControllerApi, timeout(5000).times(3)).sendLiveEvent(captor.capture());
+    assertThat(captor.getAllValues())
+        .extracting(LiveEventMessage::getEventContent)
+        .containsExactlyInAnyOrder(inProgress, newEnquiry, null);
+  }
+
+  @Test
+  void dispatch_Should_sendEventOnCallingThread_When_capacityIsExceeded() throws ApiException {
+    liveEventDispatcher.dispatch(
+        new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1", "2")));
+    var overflow = new LiveEventMessage().eventType(NEWANONYMOUSENQUIRY).userIds(ids("3", "4"));
+
+    liveEventDispatcher.dispatch(overflow);
+
+    verify(liveControllerApi, times(1)).sendLiveEvent(overflow);
+    assertThat(meterRegistry.get("live.event.rejected").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void dispatch_Should_logError_When_apiCallFails() throws Exception {
+    doThrow(new ApiException("")).when(liveControllerApi).sendLiveEvent(any());
+
+    liveEventDispatcher.dispatch(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1")));
+
+    verify(logger, timeout(5000)).error(anyString(), anyString(), any(ApiException.class));
+    assertThat(awaitSentTimer("error").count()).isEqualTo(1);
+  }
+
+  @Test
+  void shutdown_Should_sendPendingEvents() throws ApiException {
+    liveEventDispatcher.dispatch(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1")));
+
+    liveEventDispatcher.shutdown();
+
+    verify(liveControllerApi, timeout(5000))
+        .sendLiveEvent(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1")));
+  }
+
+  @Test
+  void dispatch_Should_sendNothing_When_windowHasNotElapsed() {
+    liveEventDispatcher.dispatch(new LiveEventMessage().eventType(DIRECTMESSAGE).userIds(ids("1")));
+
+    verifyNoInteractions(liveControllerApi);
+  }
+
+  private Timer awaitSentTimer(String outcome) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    var search =
+        meterRegistry
+            .find("live.event.sent")
+            .tag("type", DIRECTMESSAGE.toString())
+            .tag("outcome", outcome);
+    while (search.timer() == null && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return search.timer();
+  }
+
+  private static List<String> ids(String... ids) {
+    return List.of(ids);
+  }
+}
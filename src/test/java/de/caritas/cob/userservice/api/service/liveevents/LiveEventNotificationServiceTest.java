@@ -8,25 +8,18 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import static org.powermock.reflect.Whitebox.setInternalState;
 
-import de.caritas.cob.userservice.api.config.apiclient.LiveServiceApiControllerFactory;
 import de.caritas.cob.userservice.api.helper.AuthenticatedUser;
 import de.caritas.cob.userservice.api.service.mobilepushmessage.MobilePushNotificationService;
-import de.caritas.cob.userservice.liveservice.generated.ApiException;
-import de.caritas.cob.userservice.liveservice.generated.web.LiveControllerApi;
 import de.caritas.cob.userservice.liveservice.generated.web.model.EventType;
 import de.caritas.cob.userservice.liveservice.generated.web.model.LiveEventMessage;
 import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource;
 import de.caritas.cob.userservice.liveservice.generated.web.model.StatusSource.FinishConversationPhaseEnum;
 import java.util.List;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -35,7 +28,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.slf4j.Logger;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -45,8 +37,6 @@ public class LiveEventNotificationServiceTest {
 
   @InjectMocks private LiveEventNotificationService liveEventNotificationService;
 
-  @Mock private LiveControllerApi liveControllerApi;
-
   @Mock private UserIdsProviderFactory userIdsProviderFactory;
 
   @Mock private RelevantUserAccountIdsBySessionProvider bySessionProvider;
@@ -57,26 +47,18 @@ public class LiveEventNotificationServiceTest {
 
   @Mock private MobilePushNotificationService mobilePushNotificationService;
 
-  @Mock private Logger logger;
-
-  @Mock private LiveServiceApiControllerFactory liveServiceApiControllerFactory;
-
-  @BeforeEach
-  public void setup() {
-    setInternalState(LiveEventNotificationService.class, "log", logger);
-    when(liveServiceApiControllerFactory.createControllerApi()).thenReturn(liveControllerApi);
-  }
+  @Mock private LiveEventDispatcher liveEventDispatcher;
 
   @Test
-  public void sendLiveDirectMessageEventToUsers_Should_callFactoryAndLiveApi_When_rcGroupIdIsValid()
-      throws ApiException {
+  public void
+      sendLiveDirectMessageEventToUsers_Should_callFactoryAndLiveApi_When_rcGroupIdIsValid() {
     when(this.bySessionProvider.collectUserIds(any())).thenReturn(asList("1", "2"));
     when(this.userIdsProviderFactory.byRocketChatGroup(any())).thenReturn(bySessionProvider);
 
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("valid");
 
     verify(userIdsProviderFactory, times(1)).byRocketChatGroup("valid");
-    verify(liveControllerApi, times(1)).sendLiveEvent(MESSAGE.userIds(asList("1", "2")));
+    verify(liveEventDispatcher, times(1)).dispatch(MESSAGE.userIds(asList("1", "2")));
   }
 
   @Test
@@ -84,7 +66,7 @@ public class LiveEventNotificationServiceTest {
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("");
 
     verifyNoInteractions(userIdsProviderFactory);
-    verifyNoInteractions(liveControllerApi);
+    verifyNoInteractions(liveEventDispatcher);
     verifyNoInteractions(mobilePushNotificationService);
   }
 
@@ -93,24 +75,12 @@ public class LiveEventNotificationServiceTest {
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers(null);
 
     verifyNoInteractions(userIdsProviderFactory);
-    verifyNoInteractions(liveControllerApi);
-  }
-
-  @Test
-  public void sendLiveDirectMessageEventToUsers_Should_logError_When_apiCallFails()
-      throws ApiException {
-    when(this.userIdsProviderFactory.byRocketChatGroup(any())).thenReturn(bySessionProvider);
-    when(this.bySessionProvider.collectUserIds(any())).thenReturn(singletonList("test"));
-    doThrow(new ApiException("")).when(this.liveControllerApi).sendLiveEvent(any());
-
-    this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("group id");
-
-    verify(logger).error(anyString(), anyString(), any(ApiException.class));
+    verifyNoInteractions(liveEventDispatcher);
   }
 
   @Test
-  public void sendLiveDirectMessageEventToUsers_Should_sendEventToAllUsersInsteadOfInitiatingUser()
-      throws ApiException {
+  public void
+      sendLiveDirectMessageEventToUsers_Should_sendEventToAllUsersInsteadOfInitiatingUser() {
     List<String> userIds = asList("id1", "id2", "id3", "id4");
     when(this.byChatProvider.collectUserIds(any())).thenReturn(userIds);
     when(this.userIdsProviderFactory.byRocketChatGroup(any())).thenReturn(this.byChatProvider);
@@ -119,7 +89,7 @@ public class LiveEventNotificationServiceTest {
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("group id");
 
     List<String> expectedIds = asList("id1", "id3", "id4");
-    verify(this.liveControllerApi, times(1)).sendLiveEvent(MESSAGE.userIds(expectedIds));
+    verify(this.liveEventDispatcher, times(1)).dispatch(MESSAGE.userIds(expectedIds));
   }
 
   @Test
@@ -128,13 +98,12 @@ public class LiveEventNotificationServiceTest {
 
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("group id");
 
-    verifyNoInteractions(this.liveControllerApi);
+    verifyNoInteractions(this.liveEventDispatcher);
   }
 
   @Test
   public void
-      sendLiveDirectMessageEventToUsers_Should_sendEventToAllUsers_When_initiatingUserIsAnother()
-          throws ApiException {
+      sendLiveDirectMessageEventToUsers_Should_sendEventToAllUsers_When_initiatingUserIsAnother() {
     List<String> userIds = asList("id1", "id2", "id3", "id4");
     when(this.byChatProvider.collectUserIds(any())).thenReturn(userIds);
     when(this.userIdsProviderFactory.byRocketChatGroup(any())).thenReturn(this.byChatProvider);
@@ -142,18 +111,18 @@ public class LiveEventNotificationServiceTest {
 
     this.liveEventNotificationService.sendLiveDirectMessageEventToUsers("group id");
 
-    verify(this.liveControllerApi, times(1)).sendLiveEvent(MESSAGE.userIds(userIds));
+    verify(this.liveEventDispatcher, times(1)).dispatch(MESSAGE.userIds(userIds));
   }
 
   @Test
-  public void sendLiveNewAnonymousEnquiryEventToUsers_Should_TriggerLiveEventWithCorrectEventType()
-      throws ApiException {
+  public void
+      sendLiveNewAnonymousEnquiryEventToUsers_Should_TriggerLiveEventWithCorrectEventType() {
     List<String> userIds = List.of("1", "2");
 
     this.liveEventNotificationService.sendLiveNewAnonymousEnquiryEventToUsers(userIds, 1L);
 
     ArgumentCaptor<LiveEventMessage> captor = ArgumentCaptor.forClass(LiveEventMessage.class);
-    verify(liveControllerApi, times(1)).sendLiveEvent(captor.capture());
+    verify(liveEventDispatcher, times(1)).dispatch(captor.capture());
     assertEquals(EventType.NEWANONYMOUSENQUIRY, captor.getValue().getEventType());
   }
 
@@ -161,23 +130,22 @@ public class LiveEventNotificationServiceTest {
   public void sendAcceptAnonymousEnquiryEventToUser_Should_doNothing_When_userIdIsNull() {
     this.liveEventNotificationService.sendAcceptAnonymousEnquiryEventToUser(null);
 
-    verifyNoInteractions(this.liveControllerApi);
+    verifyNoInteractions(this.liveEventDispatcher);
   }
 
   @Test
   public void sendAcceptAnonymousEnquiryEventToUser_Should_doNothing_When_userIdIsEmpty() {
     this.liveEventNotificationService.sendAcceptAnonymousEnquiryEventToUser("");
 
-    verifyNoInteractions(this.liveControllerApi);
+    verifyNoInteractions(this.liveEventDispatcher);
   }
 
   @Test
-  public void sendAcceptAnonymousEnquiryEventToUser_Should_triggerLiveEvent_When_userIdIsValid()
-      throws ApiException {
+  public void sendAcceptAnonymousEnquiryEventToUser_Should_triggerLiveEvent_When_userIdIsValid() {
     this.liveEventNotificationService.sendAcceptAnonymousEnquiryEventToUser("userId");
 
-    verify(this.liveControllerApi, times(1))
-        .sendLiveEvent(
+    verify(this.liveEventDispatcher, times(1))
+        .dispatch(
             new LiveEventMessage()
                 .eventType(ANONYMOUSENQUIRYACCEPTED)
                 .userIds(singletonList("userId")));
@@ -187,7 +155,7 @@ public class LiveEventNotificationServiceTest {
   public void sendLiveFinishedAnonymousConversationToUsers_Should_doNothing_When_userIdIsNull() {
     this.liveEventNotificationService.sendLiveFinishedAnonymousConversationToUsers(null, null);
 
-    verifyNoInteractions(this.liveControllerApi);
+    verifyNoInteractions(this.liveEventDispatcher);
   }
 
   @Test
@@ -195,18 +163,17 @@ public class LiveEventNotificationServiceTest {
     this.liveEventNotificationService.sendLiveFinishedAnonymousConversationToUsers(
         emptyList(), null);
 
-    verifyNoInteractions(this.liveControllerApi);
+    verifyNoInteractions(this.liveEventDispatcher);
   }
 
   @Test
   public void
-      sendLiveFinishedAnonymousConversationToUsers_Should_triggerLiveEvent_When_userIdIsValid()
-          throws ApiException {
+      sendLiveFinishedAnonymousConversationToUsers_Should_triggerLiveEvent_When_userIdIsValid() {
     this.liveEventNotificationService.sendLiveFinishedAnonymousConversationToUsers(
         singletonList("userId"), FinishConversationPhaseEnum.IN_PROGRESS);
 
-    verify(this.liveControllerApi, times(1))
-        .sendLiveEvent(
+    verify(this.liveEventDispatcher, times(1))
+        .dispatch(
             new LiveEventMessage()
                 .eventType(ANONYMOUSCONVERSATIONFINISHED)
                 .userIds(singletonList("userId"))
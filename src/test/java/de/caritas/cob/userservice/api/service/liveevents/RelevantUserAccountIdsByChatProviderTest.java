@@ -2,10 +2,17 @@ package de.caritas.cob.userservice.api.service.liveevents;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
@@ -14,12 +21,14 @@ import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.service.ConsultantService;
 import de.caritas.cob.userservice.api.service.user.UserService;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.RandomStringUtils;
-import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -30,8 +39,6 @@ import org.mockito.quality.Strictness;
 @MockitoSettings(strictness = Strictness.LENIENT)
 class RelevantUserAccountIdsByChatProviderTest {
 
-  private static final EasyRandom easyRandom = new EasyRandom();
-
   @InjectMocks private RelevantUserAccountIdsByChatProvider byChatProvider;
 
   @Mock private RocketChatService rocketChatService;
@@ -45,12 +52,10 @@ class RelevantUserAccountIdsByChatProviderTest {
     List<GroupMemberDTO> groupMembers =
         asList(memberDTOWithRcId("rc1"), memberDTOWithRcId("rc2"), memberDTOWithRcId("rc3"));
     when(this.rocketChatService.getChatUsers(any())).thenReturn(groupMembers);
-    when(this.consultantService.getConsultantByRcUserId(eq("rc1")))
-        .thenReturn(Optional.of(consultantWithId("consultant1")));
-    when(this.userService.findUserByRcUserId(eq("rc2")))
-        .thenReturn(Optional.of(userWithId("user1")));
-    when(this.userService.findUserByRcUserId(eq("rc3")))
-        .thenReturn(Optional.of(userWithId("user2")));
+    when(this.userService.findUsersByRcUserIds(anyCollection()))
+        .thenReturn(List.of(userWithId("user2", "rc3"), userWithId("user1", "rc2")));
+    when(this.consultantService.findConsultantsByRcUserIds(anyCollection()))
+        .thenReturn(List.of(consultantWithId("consultant1", "rc1")));
 
     List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
 
@@ -60,19 +65,92 @@ class RelevantUserAccountIdsByChatProviderTest {
     assertThat(collectedUserIds.get(2), is("user2"));
   }
 
+  @Test
+  void
+      collectUserIds_Should_returnAllMergedDependingIdsInsteadOfNotAvailableUser_When_rcGroupHasMembers() {
+    List<GroupMemberDTO> groupMembers =
+        asList(memberDTOWithRcId("rc1"), memberDTOWithRcId("rc2"), memberDTOWithRcId("rc3"));
+    when(this.rocketChatService.getChatUsers(any())).thenReturn(groupMembers);
+    when(this.userService.findUsersByRcUserIds(anyCollection()))
+        .thenReturn(List.of(userWithId("user2", "rc3")));
+    when(this.consultantService.findConsultantsByRcUserIds(anyCollection()))
+        .thenReturn(List.of(consultantWithId("consultant1", "rc1")));
+
+    List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
+
+    assertThat(collectedUserIds, hasSize(2));
+    assertThat(collectedUserIds.get(0), is("consultant1"));
+    assertThat(collectedUserIds.get(1), is("user2"));
+  }
+
+  @Test
+  void collectUserIds_Should_resolveAllMembersWithOneQueryPerAccountType_When_groupHas500Members() {
+    var rcUserIds =
+        IntStream.range(0, 500).mapToObj(number -> "rc" + number).collect(Collectors.toList());
+    when(this.rocketChatService.getChatUsers(any()))
+        .thenReturn(rcUserIds.stream().map(this::memberDTOWithRcId).collect(Collectors.toList()));
+    when(this.userService.findUsersByRcUserIds(anyCollection()))
+        .thenReturn(
+            IntStream.range(0, 500)
+                .filter(number -> number % 2 == 0)
+                .mapToObj(number -> userWithId("user" + number, "rc" + number))
+                .collect(Collectors.toList()));
+    when(this.consultantService.findConsultantsByRcUserIds(anyCollection()))
+        .thenReturn(
+            IntStream.range(0, 500)
+                .filter(number -> number % 2 == 1)
+                .mapToObj(number -> consultantWithId("consultant" + number, "rc" + number))
+                .collect(Collectors.toList()));
+
+    List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
+
+    assertThat(collectedUserIds, hasSize(500));
+    assertThat(collectedUserIds.subList(0, 2), contains("user0", "consultant1"));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<String>> consultantQuery = ArgumentCaptor.forClass(Collection.class);
+    verify(this.userService, times(1)).findUsersByRcUserIds(rcUserIds);
+    verify(this.consultantService, times(1)).findConsultantsByRcUserIds(consultantQuery.capture());
+    assertThat(consultantQuery.getValue(), hasSize(250));
+    verify(this.userService, never()).findUserByRcUserId(anyString());
+    verify(this.consultantService, never()).getConsultantByRcUserId(anyString());
+  }
+
+  @Test
+  void collectUserIds_Should_notQueryConsultants_When_allMembersAreUsers() {
+    when(this.rocketChatService.getChatUsers(any())).thenReturn(List.of(memberDTOWithRcId("rc1")));
+    when(this.userService.findUsersByRcUserIds(anyCollection()))
+        .thenReturn(List.of(userWithId("user1", "rc1")));
+
+    List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
+
+    assertThat(collectedUserIds, contains("user1"));
+    verifyNoInteractions(this.consultantService);
+  }
+
+  @Test
+  void collectUserIds_Should_notQueryAccounts_When_rcGroupHasNoMembers() {
+    when(this.rocketChatService.getChatUsers(any())).thenReturn(List.of());
+
+    List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
+
+    assertThat(collectedUserIds, is(empty()));
+    verifyNoInteractions(this.userService, this.consultantService);
+  }
+
   private GroupMemberDTO memberDTOWithRcId(String rcId) {
     GroupMemberDTO groupMemberDTO = new GroupMemberDTO();
     groupMemberDTO.set_id(rcId);
     return groupMemberDTO;
   }
 
-  private Consultant consultantWithId(String consultantId) {
+  private Consultant consultantWithId(String consultantId, String rcId) {
     Consultant consultant = new Consultant();
     consultant.setId(consultantId);
+    consultant.setRocketChatId(rcId);
     return consultant;
   }
 
-  private User userWithId(String userId) {
+  private User userWithId(String userId, String rcId) {
     var username = RandomStringUtils.randomAlphabetic(8);
     var email =
         RandomStringUtils.randomAlphabetic(4, 8)
@@ -80,24 +158,8 @@ class RelevantUserAccountIdsByChatProviderTest {
             + RandomStringUtils.randomAlphabetic(4, 8)
             + ".com";
 
-    return new User(userId, null, username, email, false);
-  }
-
-  @Test
-  void
-      collectUserIds_Should_returnAllMergedDependingIdsInsteadOfNotAvailableUser_When_rcGroupHasMembers() {
-    List<GroupMemberDTO> groupMembers =
-        asList(memberDTOWithRcId("rc1"), memberDTOWithRcId("rc2"), memberDTOWithRcId("rc3"));
-    when(this.rocketChatService.getChatUsers(any())).thenReturn(groupMembers);
-    when(this.consultantService.getConsultantByRcUserId(eq("rc1")))
-        .thenReturn(Optional.of(consultantWithId("consultant1")));
-    when(this.userService.findUserByRcUserId(eq("rc3")))
-        .thenReturn(Optional.of(userWithId("user2")));
-
-    List<String> collectedUserIds = this.byChatProvider.collectUserIds("groupId");
-
-    assertThat(collectedUserIds, hasSize(2));
-    assertThat(collectedUserIds.get(0), is("consultant1"));
-    assertThat(collectedUserIds.get(1), is("user2"));
+    var user = new User(userId, null, username, email, false);
+    user.setRcUserId(rcId);
+    return user;
   }
 }
@@ -30,6 +30,7 @@ import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostFurther
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostMessageException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatPostWelcomeMessageException;
 import de.caritas.cob.userservice.api.exception.rocketchat.RocketChatUserNotInitializedException;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.helper.UserHelper;
 import de.caritas.cob.userservice.api.service.httpheader.SecurityHeaderSupplier;
 import de.caritas.cob.userservice.api.service.httpheader.TenantHeaderSupplier;
@@ -74,6 +75,7 @@ class MessageServiceProviderTest {
   private final RestClientException restClientException = new RestClientException(ERROR);
 
   @Mock private MessageServiceApiControllerFactory messageServiceApiControllerFactory;
+  @Mock private RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
 
   @BeforeEach
   void setUp() {
@@ -123,6 +125,20 @@ class MessageServiceProviderTest {
     assertThat(captor.getValue().getMessage(), is(MESSAGE));
   }
 
+  @Test
+  void postEnquiryMessage_Should_EvictCachedRoomInformationOfSender()
+      throws RocketChatPostMessageException {
+    HttpHeaders headers = mock(HttpHeaders.class);
+    when(securityHeaderSupplier.getKeycloakAndCsrfHttpHeaders()).thenReturn(headers);
+    var rocketChatData = new RocketChatData(MESSAGE, RC_CREDENTIALS, RC_GROUP_ID);
+
+    this.messageServiceProvider.postEnquiryMessage(
+        rocketChatData, mock(CreateEnquiryExceptionInformation.class));
+
+    verify(rocketChatRoomInformationProvider)
+        .evictRocketChatInformation(RC_CREDENTIALS.getRocketChatUserId());
+  }
+
   @Test
   void postWelcomeMessageIfConfigured_ShouldNot_CallMessageService_When_NoWelcomeMessageConfigured()
       throws RocketChatPostWelcomeMessageException {
@@ -1,5 +1,11 @@
 package de.caritas.cob.userservice.api.service.mobilepushmessage;
 
+import static de.caritas.cob.userservice.api.service.mobilepushmessage.FirebasePushMessageService.MULTICAST_TOKEN_LIMIT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -13,12 +19,21 @@ import static org.powermock.reflect.Whitebox.setInternalState;
 import static org.springframework.test.util.ReflectionTestUtils.getField;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.SendResponse;
 import de.caritas.cob.userservice.api.service.LogService;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -60,33 +75,123 @@ public class FirebasePushMessageServiceTest {
   }
 
   @Test
-  public void pushMessage_Should_pushFirebaseMessage() throws FirebaseMessagingException {
-    setField(this.firebasePushMessageService, "isEnabled", true);
+  public void pushNewMessageEvent_Should_sendOneMulticast_When_singleTokenIsGiven()
+      throws FirebaseMessagingException {
+    givenFirebaseRespondsWith(tokens -> null);
 
-    this.firebasePushMessageService.pushNewMessageEvent("registrationToken");
+    this.firebasePushMessageService.pushNewMessageEvent(givenTokens(1));
 
-    verify(this.firebaseMessaging, times(1)).send(any());
+    verify(this.firebaseMessaging, times(1)).sendMulticast(any());
     verifyNoMoreInteractions(logger);
   }
 
   @Test
-  public void pushMessage_Should_logWarning_When_sendFails() throws FirebaseMessagingException {
+  public void pushNewMessageEvent_Should_sendOneMulticast_When_tokensFitIntoOneBatch()
+      throws FirebaseMessagingException {
+    givenFirebaseRespondsWith(tokens -> null);
+
+    this.firebasePushMessageService.pushNewMessageEvent(givenTokens(MULTICAST_TOKEN_LIMIT));
+
+    assertThat(sentBatches(1), contains(givenTokens(MULTICAST_TOKEN_LIMIT)));
+  }
+
+  @Test
+  public void pushNewMessageEvent_Should_sendTokensInBatches_When_tokensExceedMulticastLimit()
+      throws FirebaseMessagingException {
+    givenFirebaseRespondsWith(tokens -> null);
+    var tokens = givenTokens(5000);
+
+    this.firebasePushMessageService.pushNewMessageEvent(tokens);
+
+    var batches = sentBatches(10);
+    batches.forEach(batch -> assertThat(batch, hasSize(MULTICAST_TOKEN_LIMIT)));
+    assertThat(batches.stream().flatMap(List::stream).collect(Collectors.toList()), is(tokens));
+  }
+
+  @Test
+  public void pushNewMessageEvent_Should_returnInvalidTokens_When_firebaseRejectsThem()
+      throws FirebaseMessagingException {
+    givenFirebaseRespondsWith(
+        token -> {
+          switch (token) {
+            case "token 1":
+              return MessagingErrorCode.UNREGISTERED;
+            case "token 3":
+              return MessagingErrorCode.INVALID_ARGUMENT;
+            case "token 4":
+              return MessagingErrorCode.UNAVAILABLE;
+            default:
+              return null;
+          }
+        });
+
+    var invalidTokens = this.firebasePushMessageService.pushNewMessageEvent(givenTokens(5));
+
+    assertThat(invalidTokens, contains("token 1", "token 3"));
+  }
+
+  @Test
+  public void pushNewMessageEvent_Should_logWarning_When_sendFails()
+      throws FirebaseMessagingException {
     setField(this.firebasePushMessageService, "isEnabled", true);
     FirebaseMessagingException exception = mock(FirebaseMessagingException.class);
-    when(this.firebaseMessaging.send(any())).thenThrow(exception);
+    when(this.firebaseMessaging.sendMulticast(any())).thenThrow(exception);
 
-    this.firebasePushMessageService.pushNewMessageEvent("registrationToken");
+    var invalidTokens = this.firebasePushMessageService.pushNewMessageEvent(givenTokens(1));
 
     verify(logger, times(1)).warn(anyString());
+    assertThat(invalidTokens, is(empty()));
   }
 
   @Test
-  public void pushMessage_Should_notSendNotification_When_firebaseIsDisabled()
-      throws FirebaseMessagingException {
+  public void pushNewMessageEvent_Should_notSendNotification_When_firebaseIsDisabled() {
     setField(this.firebasePushMessageService, "isEnabled", false);
 
-    this.firebasePushMessageService.pushNewMessageEvent("registrationToken");
+    var invalidTokens = this.firebasePushMessageService.pushNewMessageEvent(givenTokens(1));
 
     verifyNoMoreInteractions(this.firebaseMessaging);
+    assertThat(invalidTokens, is(empty()));
+  }
+
+  private void givenFirebaseRespondsWith(Function<String, MessagingErrorCode> errorCodeByToken)
+      throws FirebaseMessagingException {
+    setField(this.firebasePushMessageService, "isEnabled", true);
+    when(this.firebaseMessaging.sendMulticast(any()))
+        .thenAnswer(
+            invocation -> {
+              var batchResponse = mock(BatchResponse.class);
+              var responses =
+                  tokensOf(invocation.getArgument(0)).stream()
+                      .map(token -> sendResponse(errorCodeByToken.apply(token)))
+                      .collect(Collectors.toList());
+              when(batchResponse.getResponses()).thenReturn(responses);
+              return batchResponse;
+            });
+  }
+
+  private SendResponse sendResponse(MessagingErrorCode errorCode) {
+    var response = mock(SendResponse.class);
+    when(response.isSuccessful()).thenReturn(errorCode == null);
+    if (errorCode != null) {
+      var exception = mock(FirebaseMessagingException.class);
+      when(exception.getMessagingErrorCode()).thenReturn(errorCode);
+      when(response.getException()).thenReturn(exception);
+    }
+    return response;
+  }
+
+  private List<List<String>> sentBatches(int expectedBatches) throws FirebaseMessagingException {
+    var messageCaptor = ArgumentCaptor.forClass(MulticastMessage.class);
+    verify(this.firebaseMessaging, times(expectedBatches)).sendMulticast(messageCaptor.capture());
+    return messageCaptor.getAllValues().stream().map(this::tokensOf).collect(Collectors.toList());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> tokensOf(MulticastMessage message) {
+    return (List<String>) getField(message, "tokens");
+  }
+
+  private List<String> givenTokens(int count) {
+    return IntStream.range(0, count).mapToObj(i -> "token " + i).collect(Collectors.toList());
   }
 }
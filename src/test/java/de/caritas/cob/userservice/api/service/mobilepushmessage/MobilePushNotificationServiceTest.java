@@ -1,166 +1,169 @@
 package de.caritas.cob.userservice.api.service.mobilepushmessage;
 
+import static de.caritas.cob.userservice.api.service.mobilepushmessage.MobilePushNotificationService.QUERY_CHUNK_SIZE;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import de.caritas.cob.userservice.api.model.Consultant;
-import de.caritas.cob.userservice.api.model.ConsultantMobileToken;
-import de.caritas.cob.userservice.api.model.User;
-import de.caritas.cob.userservice.api.model.UserMobileToken;
-import de.caritas.cob.userservice.api.service.ConsultantService;
-import de.caritas.cob.userservice.api.service.user.UserService;
+import de.caritas.cob.userservice.api.port.out.ConsultantMobileTokenRepository;
+import de.caritas.cob.userservice.api.port.out.UserMobileTokenRepository;
+import de.caritas.cob.userservice.api.port.out.UserRepository;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.jeasy.random.EasyRandom;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class MobilePushNotificationServiceTest {
 
-  @InjectMocks private MobilePushNotificationService mobilePushNotificationService;
+  private MobilePushNotificationService mobilePushNotificationService;
 
-  @Mock private UserService userService;
+  @Mock private UserRepository userRepository;
 
-  @Mock private ConsultantService consultantService;
+  @Mock private UserMobileTokenRepository userMobileTokenRepository;
 
-  @Mock private FirebasePushMessageService firebasePushMessageService;
-
-  @Test
-  void sendLiveDirectMessageEventToUsers_Should_sendPushMessage_When_usersHaveMobileToken() {
-    var user = new User();
-    user.setMobileToken("mobileToken");
-    when(this.userService.getUser(anyString())).thenReturn(Optional.of(user));
+  @Mock private ConsultantMobileTokenRepository consultantMobileTokenRepository;
 
-    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
+  @Mock private FirebasePushMessageService firebasePushMessageService;
 
-    verify(this.firebasePushMessageService, times(2)).pushNewMessageEvent("mobileToken");
+  @Mock private Executor mobilePushExecutor;
+
+  @BeforeEach
+  void setup() {
+    this.mobilePushNotificationService =
+        new MobilePushNotificationService(
+            userRepository,
+            userMobileTokenRepository,
+            consultantMobileTokenRepository,
+            firebasePushMessageService,
+            Runnable::run);
+    when(this.firebasePushMessageService.isEnabled()).thenReturn(true);
+    when(this.firebasePushMessageService.pushNewMessageEvent(anyList())).thenReturn(emptyList());
   }
 
   @Test
-  void sendLiveDirectMessageEventToUsers_Should_sendPushMessageOnlyToUsersWithMobileToken() {
-    var user = new User();
-    user.setMobileToken("mobileToken");
-    when(this.userService.getUser("1")).thenReturn(Optional.of(user));
-    when(this.userService.getUser("2")).thenReturn(Optional.of(new User()));
-
-    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
-
-    verify(this.firebasePushMessageService, times(1)).pushNewMessageEvent("mobileToken");
+  void triggerMobilePushNotification_Should_sendPushMessageToTokensOfAllSources() {
+    when(this.userRepository.findMobileTokensByUserIds(any())).thenReturn(List.of("user token"));
+    when(this.userMobileTokenRepository.findMobileAppTokensByUserIds(any()))
+        .thenReturn(List.of("user app token", "user token"));
+    when(this.consultantMobileTokenRepository.findMobileAppTokensByConsultantIds(any()))
+        .thenReturn(List.of("consultant app token", " "));
+
+    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2", "1"));
+
+    verify(this.userRepository).findMobileTokensByUserIds(List.of("1", "2"));
+    assertThat(
+        pushedTokens(), containsInAnyOrder("user token", "user app token", "consultant app token"));
   }
 
   @Test
-  void sendLiveDirectMessageEventToUsers_Should_notSendPushMessage_When_noUserHasMobileToken() {
-    when(this.userService.getUser(any())).thenReturn(Optional.of(new User()));
-
+  void triggerMobilePushNotification_Should_notSendPushMessage_When_noUserHasMobileToken() {
     this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
 
-    verifyNoInteractions(this.firebasePushMessageService);
+    verify(this.firebasePushMessageService, never()).pushNewMessageEvent(anyList());
   }
 
   @Test
-  void sendLiveDirectMessageEventToUsers_Should_notSendPushMessage_When_userIdsAreEmpty() {
+  void triggerMobilePushNotification_Should_notSendPushMessage_When_userIdsAreEmpty() {
     this.mobilePushNotificationService.triggerMobilePushNotification(emptyList());
 
-    verifyNoInteractions(this.firebasePushMessageService);
+    verifyNoInteractions(this.userRepository, this.firebasePushMessageService);
   }
 
   @Test
-  void
-      sendLiveDirectMessageEventToUsers_Should_sendPushMessageToAllDevices_When_usersHaveMultipleMobileTokensIncludingU25MobileTOken() {
-    var user = new EasyRandom().nextObject(User.class);
-    var allUserMobileTokens =
-        Stream.concat(
-                Stream.of(user.getMobileToken()),
-                user.getUserMobileTokens().stream().map(UserMobileToken::getMobileAppToken))
-            .collect(Collectors.toList());
-    when(this.userService.getUser(anyString())).thenReturn(Optional.of(user));
-
-    this.mobilePushNotificationService.triggerMobilePushNotification(List.of("user id"));
-
-    verify(this.firebasePushMessageService, times(allUserMobileTokens.size()))
-        .pushNewMessageEvent(anyString());
+  void triggerMobilePushNotification_Should_notQueryTokens_When_firebaseIsDisabled() {
+    when(this.firebasePushMessageService.isEnabled()).thenReturn(false);
+
+    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
+
+    verifyNoInteractions(
+        this.userRepository, this.userMobileTokenRepository, this.consultantMobileTokenRepository);
+    verify(this.firebasePushMessageService, never()).pushNewMessageEvent(anyList());
   }
 
   @Test
-  void
-      sendLiveDirectMessageEventToUsers_Should_sendPushMessageToAllDevices_When_usersHaveMultipleMobileTokens() {
-    var user = new EasyRandom().nextObject(User.class);
-    user.setMobileToken(null);
-    var allUserMobileTokens =
-        user.getUserMobileTokens().stream()
-            .map(UserMobileToken::getMobileAppToken)
-            .collect(Collectors.toList());
-    when(this.userService.getUser(anyString())).thenReturn(Optional.of(user));
-
-    this.mobilePushNotificationService.triggerMobilePushNotification(List.of("user id"));
-
-    verify(this.firebasePushMessageService, times(allUserMobileTokens.size()))
-        .pushNewMessageEvent(anyString());
+  void triggerMobilePushNotification_Should_queryTokensInChunks_When_manyUsersAreNotified() {
+    var userIds = IntStream.range(0, 5000).mapToObj(String::valueOf).collect(Collectors.toList());
+    when(this.userRepository.findMobileTokensByUserIds(any()))
+        .thenAnswer(invocation -> tokensOf(invocation.getArgument(0)));
+
+    this.mobilePushNotificationService.triggerMobilePushNotification(userIds);
+
+    var expectedChunks = 5000 / QUERY_CHUNK_SIZE;
+    verify(this.userRepository, times(expectedChunks)).findMobileTokensByUserIds(any());
+    verify(this.userMobileTokenRepository, times(expectedChunks))
+        .findMobileAppTokensByUserIds(any());
+    verify(this.consultantMobileTokenRepository, times(expectedChunks))
+        .findMobileAppTokensByConsultantIds(any());
+    verify(this.firebasePushMessageService, times(1)).pushNewMessageEvent(tokensOf(userIds));
   }
 
   @Test
-  void sendLiveDirectMessageEventToUsers_Should_sendPushMessage_When_consultantsHaveMobileToken() {
-    var consultant = new Consultant();
-    var consultantMobileToken = new ConsultantMobileToken();
-    consultantMobileToken.setMobileAppToken("mobileToken");
-    consultant.setConsultantMobileTokens(Set.of(consultantMobileToken));
-    when(this.consultantService.getConsultant(anyString())).thenReturn(Optional.of(consultant));
+  void triggerMobilePushNotification_Should_removeInvalidTokens_When_firebaseRejectsThem() {
+    when(this.userRepository.findMobileTokensByUserIds(any()))
+        .thenReturn(List.of("valid token", "invalid token"));
+    when(this.firebasePushMessageService.pushNewMessageEvent(anyList()))
+        .thenReturn(List.of("invalid token"));
 
-    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
+    this.mobilePushNotificationService.triggerMobilePushNotification(List.of("1"));
 
-    verify(this.firebasePushMessageService, times(2)).pushNewMessageEvent("mobileToken");
+    verify(this.userRepository).clearMobileTokens(List.of("invalid token"));
+    verify(this.userMobileTokenRepository).deleteByMobileAppTokens(List.of("invalid token"));
+    verify(this.consultantMobileTokenRepository).deleteByMobileAppTokens(List.of("invalid token"));
   }
 
   @Test
-  void sendLiveDirectMessageEventToUsers_Should_sendPushMessageOnlyToConsultantsWithMobileToken() {
-    var consultant = new Consultant();
-    var consultantMobileToken = new ConsultantMobileToken();
-    consultantMobileToken.setMobileAppToken("mobileToken");
-    consultant.setConsultantMobileTokens(Set.of(consultantMobileToken));
-    when(this.consultantService.getConsultant("1")).thenReturn(Optional.of(consultant));
-    when(this.consultantService.getConsultant("2")).thenReturn(Optional.of(new Consultant()));
+  void triggerMobilePushNotification_Should_notRemoveTokens_When_allTokensAreValid() {
+    when(this.userRepository.findMobileTokensByUserIds(any())).thenReturn(List.of("valid token"));
 
-    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
+    this.mobilePushNotificationService.triggerMobilePushNotification(List.of("1"));
 
-    verify(this.firebasePushMessageService, times(1)).pushNewMessageEvent("mobileToken");
+    verify(this.userRepository, never()).clearMobileTokens(any());
+    verify(this.userMobileTokenRepository, never()).deleteByMobileAppTokens(any());
+    verify(this.consultantMobileTokenRepository, never()).deleteByMobileAppTokens(any());
   }
 
   @Test
-  void
-      sendLiveDirectMessageEventToUsers_Should_notSendPushMessage_When_noConsultantHasMobileToken() {
-    when(this.consultantService.getConsultant(any())).thenReturn(Optional.of(new Consultant()));
-
-    this.mobilePushNotificationService.triggerMobilePushNotification(asList("1", "2"));
+  void triggerMobilePushNotification_Should_sendPushMessagesInBackground() {
+    var asyncService =
+        new MobilePushNotificationService(
+            userRepository,
+            userMobileTokenRepository,
+            consultantMobileTokenRepository,
+            firebasePushMessageService,
+            mobilePushExecutor);
+
+    asyncService.triggerMobilePushNotification(List.of("1"));
+
+    verify(this.mobilePushExecutor).execute(any());
+    verifyNoInteractions(this.userRepository);
+  }
 
-    verifyNoInteractions(this.firebasePushMessageService);
+  @SuppressWarnings("unchecked")
+  private List<String> pushedTokens() {
+    ArgumentCaptor<List<String>> tokensCaptor = ArgumentCaptor.forClass(List.class);
+    verify(this.firebasePushMessageService).pushNewMessageEvent(tokensCaptor.capture());
+    return tokensCaptor.getValue();
   }
 
-  @Test
-  void
-      sendLiveDirectMessageEventToUsers_Should_sendPushMessageToAllDevices_When_consultantsHaveMultipleMobileTokens() {
-    var consultant = new EasyRandom().nextObject(Consultant.class);
-    var allConsultantMobileTokens =
-        consultant.getConsultantMobileTokens().stream()
-            .map(ConsultantMobileToken::getMobileAppToken)
-            .collect(Collectors.toList());
-    when(this.consultantService.getConsultant(anyString())).thenReturn(Optional.of(consultant));
-
-    this.mobilePushNotificationService.triggerMobilePushNotification(List.of("consultant id"));
-
-    verify(this.firebasePushMessageService, times(allConsultantMobileTokens.size()))
-        .pushNewMessageEvent(anyString());
+  private List<String> tokensOf(List<String> userIds) {
+    return userIds.stream().map(userId -> "token " + userId).collect(Collectors.toList());
   }
 }
@@ -12,22 +12,29 @@ import static de.caritas.cob.userservice.api.testHelper.TestConstants.RC_TOKEN;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.SESSION_STATUS_IN_PROGRESS;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.SESSION_STATUS_NEW;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.nonNull;
 import static org.jsoup.helper.Validate.fail;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatCredentials;
 import de.caritas.cob.userservice.api.adapters.web.dto.ConsultantSessionResponseDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.SessionDTO;
+import de.caritas.cob.userservice.api.adapters.web.dto.UserChatDTO;
+import de.caritas.cob.userservice.api.container.RocketChatRoomInformation;
 import de.caritas.cob.userservice.api.container.SessionListQueryParameter;
+import de.caritas.cob.userservice.api.facade.sessionlist.RocketChatRoomInformationProvider;
 import de.caritas.cob.userservice.api.service.ChatService;
 import de.caritas.cob.userservice.api.service.session.SessionFilter;
 import de.caritas.cob.userservice.api.service.session.SessionService;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,6 +53,8 @@ class ConsultantSessionListServiceTest {
   @Mock private ConsultantSessionEnricher consultantSessionEnricher;
   @Mock private ConsultantChatEnricher consultantChatEnricher;
   @Mock private RocketChatCredentials rocketChatCredentials;
+  @Mock private RocketChatRoomInformationProvider rocketChatRoomInformationProvider;
+  @Mock private RocketChatRoomInformation rocketChatRoomInformation;
 
   @BeforeEach
   void setup() {}
@@ -56,8 +65,10 @@ class ConsultantSessionListServiceTest {
 
     when(sessionService.getRegisteredEnquiriesForConsultant(Mockito.any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(rocketChatRoomInformation);
     when(this.consultantSessionEnricher.updateRequiredConsultantSessionValues(
-            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(), any()))
+            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(RocketChatRoomInformation.class), any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
     when(rocketChatCredentials.getRocketChatToken()).thenReturn(RC_TOKEN);
 
@@ -78,8 +89,10 @@ class ConsultantSessionListServiceTest {
   void retrieveSessionsForAuthenticatedConsultant_ShouldNot_SendChatsInEnquiryList() {
     when(sessionService.getRegisteredEnquiriesForConsultant(Mockito.any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(rocketChatRoomInformation);
     when(this.consultantSessionEnricher.updateRequiredConsultantSessionValues(
-            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(), any()))
+            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(RocketChatRoomInformation.class), any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
     when(rocketChatCredentials.getRocketChatToken()).thenReturn(RC_TOKEN);
 
@@ -94,11 +107,15 @@ class ConsultantSessionListServiceTest {
   @Test
   void retrieveSessionsForAuthenticatedConsultant_Should_MergeSessionsAndChats() {
 
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(rocketChatRoomInformation);
     when(this.consultantSessionEnricher.updateRequiredConsultantSessionValues(
-            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(), any()))
+            eq(CONSULTANT_SESSION_RESPONSE_DTO_LIST), any(RocketChatRoomInformation.class), any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
     when(this.consultantChatEnricher.updateRequiredConsultantChatValues(
-            eq(List.of(CONSULTANT_SESSION_RESPONSE_DTO_WITH_ENCRYPTED_CHAT_MESSAGE)), any(), any()))
+            eq(List.of(CONSULTANT_SESSION_RESPONSE_DTO_WITH_ENCRYPTED_CHAT_MESSAGE)),
+            any(RocketChatRoomInformation.class),
+            any()))
         .thenReturn(List.of(CONSULTANT_SESSION_RESPONSE_DTO_WITH_ENCRYPTED_CHAT_MESSAGE));
     when(chatService.getChatsForConsultant(Mockito.any()))
         .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST_WITH_ENCRYPTED_CHAT_MESSAGE);
@@ -144,6 +161,88 @@ class ConsultantSessionListServiceTest {
     }
   }
 
+  @Test
+  void
+      retrieveSessionsForAuthenticatedConsultant_Should_RetrieveRocketChatInformationOnce_When_SessionsAndChatsAreMerged() {
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(rocketChatRoomInformation);
+    when(chatService.getChatsForConsultant(Mockito.any()))
+        .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST_WITH_ENCRYPTED_CHAT_MESSAGE);
+    when(sessionService.getActiveAndDoneSessionsForConsultant(Mockito.any()))
+        .thenReturn(CONSULTANT_SESSION_RESPONSE_DTO_LIST);
+    when(rocketChatCredentials.getRocketChatToken()).thenReturn(RC_TOKEN);
+
+    consultantSessionListService.retrieveSessionsForAuthenticatedConsultant(
+        CONSULTANT, createStandardSessionListQueryParameterObject(SESSION_STATUS_IN_PROGRESS));
+
+    verify(rocketChatRoomInformationProvider, times(1)).retrieveRocketChatInformation(any());
+    verify(consultantSessionEnricher)
+        .updateRequiredConsultantSessionValues(
+            CONSULTANT_SESSION_RESPONSE_DTO_LIST, rocketChatRoomInformation, CONSULTANT);
+    verify(consultantChatEnricher)
+        .updateRequiredConsultantChatValues(
+            CONSULTANT_SESSION_RESPONSE_DTO_LIST_WITH_ENCRYPTED_CHAT_MESSAGE,
+            rocketChatRoomInformation,
+            CONSULTANT);
+  }
+
+  @Test
+  void
+      retrieveSessionsForAuthenticatedConsultant_ShouldNot_RetrieveRocketChatInformation_When_NoSessionsAndChatsExist() {
+    consultantSessionListService.retrieveSessionsForAuthenticatedConsultant(
+        CONSULTANT, createStandardSessionListQueryParameterObject(SESSION_STATUS_IN_PROGRESS));
+
+    verify(rocketChatRoomInformationProvider, never()).retrieveRocketChatInformation(any());
+  }
+
+  @Test
+  void
+      retrieveActiveSessionsPageForAuthenticatedConsultant_Should_LoadOnlySessionsNeededForRequestedPage() {
+    var sessions = List.of(sessionWithLatestMessage(1L, 50), sessionWithLatestMessage(2L, 40));
+    var chats = List.of(chatWithLatestMessage(45));
+    when(rocketChatRoomInformationProvider.retrieveRocketChatInformation(any()))
+        .thenReturn(rocketChatRoomInformation);
+    when(sessionService.getLatestActiveAndDoneSessionsForConsultant(CONSULTANT, 3))
+        .thenReturn(sessions);
+    when(sessionService.countActiveAndDoneSessionsForConsultant(CONSULTANT)).thenReturn(1000L);
+    when(chatService.getChatsForConsultant(CONSULTANT)).thenReturn(chats);
+    when(consultantSessionEnricher.updateRequiredConsultantSessionValues(
+            sessions, rocketChatRoomInformation, CONSULTANT))
+        .thenReturn(sessions);
+    when(consultantChatEnricher.updateRequiredConsultantChatValues(
+            chats, rocketChatRoomInformation, CONSULTANT))
+        .thenReturn(chats);
+    when(rocketChatCredentials.getRocketChatToken()).thenReturn(RC_TOKEN);
+
+    var result =
+        consultantSessionListService.retrieveActiveSessionsPageForAuthenticatedConsultant(
+            CONSULTANT, createSessionListQueryParameterObject(1, 2));
+
+    assertEquals(1, result.getOffset());
+    assertEquals(2, result.getCount());
+    assertEquals(1001, result.getTotal());
+    assertEquals(chats.get(0), result.getSessions().get(0));
+    assertEquals(sessions.get(1), result.getSessions().get(1));
+    verify(sessionService, never()).getActiveAndDoneSessionsForConsultant(any());
+  }
+
+  @Test
+  void
+      retrieveActiveSessionsPageForAuthenticatedConsultant_Should_ReturnEmptyPage_When_OffsetIsGreaterThanTotal() {
+    when(sessionService.getLatestActiveAndDoneSessionsForConsultant(CONSULTANT, 15))
+        .thenReturn(emptyList());
+    when(chatService.getChatsForConsultant(CONSULTANT)).thenReturn(emptyList());
+
+    var result =
+        consultantSessionListService.retrieveActiveSessionsPageForAuthenticatedConsultant(
+            CONSULTANT, createSessionListQueryParameterObject(5, 10));
+
+    assertTrue(result.getSessions().isEmpty());
+    assertEquals(0, result.getCount());
+    assertEquals(0, result.getTotal());
+    verify(rocketChatRoomInformationProvider, never()).retrieveRocketChatInformation(any());
+  }
+
   @Test
   void
       retrieveTeamSessionsForAuthenticatedConsultant_Should_ReturnFilteredSessionList_WhenFeedbackFilter() {
@@ -184,6 +283,27 @@ class ConsultantSessionListServiceTest {
     assertEquals(0, result.size());
   }
 
+  private ConsultantSessionResponseDTO sessionWithLatestMessage(Long sessionId, int minutes) {
+    return new ConsultantSessionResponseDTO()
+        .session(new SessionDTO().id(sessionId))
+        .latestMessage(new Date(minutes * 60_000L));
+  }
+
+  private ConsultantSessionResponseDTO chatWithLatestMessage(int minutes) {
+    return new ConsultantSessionResponseDTO()
+        .chat(new UserChatDTO())
+        .latestMessage(new Date(minutes * 60_000L));
+  }
+
+  private SessionListQueryParameter createSessionListQueryParameterObject(int offset, int count) {
+    return SessionListQueryParameter.builder()
+        .sessionStatus(SESSION_STATUS_IN_PROGRESS)
+        .offset(offset)
+        .count(count)
+        .sessionFilter(SessionFilter.ALL)
+        .build();
+  }
+
   private SessionListQueryParameter createStandardSessionListQueryParameterObject(
       int sessionStatus) {
     return SessionListQueryParameter.builder()
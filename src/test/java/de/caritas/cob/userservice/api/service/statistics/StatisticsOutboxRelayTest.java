@@ -0,0 +1,179 @@
+package de.caritas.cob.userservice.api.service.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.powermock.reflect.Whitebox.setInternalState;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import de.caritas.cob.userservice.api.model.StatisticsOutboxEvent;
+import de.caritas.cob.userservice.api.port.out.StatisticsOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsOutboxRelayTest {
+
+  private static final String EXCHANGE_NAME = "exchange";
+  private static final int BATCH_SIZE = 2;
+  private static final Duration INITIAL_BACK_OFF = Duration.ofSeconds(5);
+  private static final Instant NOW = Instant.parse("2022-01-01T10:00:00Z");
+
+  @Mock private StatisticsOutboxEventRepository statisticsOutboxEventRepository;
+  @Mock private RabbitTemplate rabbitTemplate;
+  @Mock private RabbitOperations rabbitOperations;
+  @Mock private Clock clock;
+  @Mock private Logger logger;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private StatisticsOutboxRelay statisticsOutboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    setInternalState(StatisticsOutboxRelay.class, "log", logger);
+    statisticsOutboxRelay =
+        new StatisticsOutboxRelay(
+            statisticsOutboxEventRepository,
+            rabbitTemplate,
+            meterRegistry,
+            clock,
+            INITIAL_BACK_OFF,
+            Duration.ofMinutes(1));
+    setField(statisticsOutboxRelay, "statisticsEnabled", true);
+    setField(statisticsOutboxRelay, "rabbitMqExchangeName", EXCHANGE_NAME);
+    setField(statisticsOutboxRelay, "batchSize", BATCH_SIZE);
+    setField(statisticsOutboxRelay, "confirmTimeout", Duration.ofSeconds(1));
+    lenient().when(clock.instant()).thenReturn(NOW);
+    lenient()
+        .when(rabbitTemplate.invoke(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<OperationsCallback<?>>getArgument(0).doInRabbit(rabbitOperations));
+  }
+
+  @Test
+  void relayEvents_Should_sendEventsInBatchesAndRemoveThemFromOutbox() {
+    when(statisticsOutboxEventRepository.findAllByOrderByIdAsc(any()))
+        .thenReturn(events(1, 2), events(3));
+
+    statisticsOutboxRelay.relayEvents();
+
+    verify(rabbitTemplate, times(2)).invoke(any());
+    verify(rabbitOperations, times(3)).send(eq(EXCHANGE_NAME), anyString(), any(Message.class));
+    verify(rabbitOperations, times(2)).waitForConfirmsOrDie(anyLong());
+    verify(statisticsOutboxEventRepository).deleteByIds(List.of(1L, 2L));
+    verify(statisticsOutboxEventRepository).deleteByIds(List.of(3L));
+    assertThat(meterRegistry.get("statistics.outbox.relayed").counter().count()).isEqualTo(3);
+    var pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+    verify(statisticsOutboxEventRepository, times(2))
+        .findAllByOrderByIdAsc(pageableCaptor.capture());
+    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(BATCH_SIZE);
+  }
+
+  @Test
+  void relayEvents_Should_sendEventWithTypeAsRoutingKeyAndMessageId() {
+    when(statisticsOutboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(events(1));
+
+    statisticsOutboxRelay.relayEvents();
+
+    var messageCaptor = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitOperations).send(eq(EXCHANGE_NAME), eq("ASSIGN_SESSION"), messageCaptor.capture());
+    var message = messageCaptor.getValue();
+    assertThat(message.getMessageProperties().getMessageId()).isEqualTo("message-1");
+    assertThat(message.getMessageProperties().getContentType()).isEqualTo("application/json");
+    assertThat(new String(message.getBody())).isEqualTo("payload-1");
+  }
+
+  @Test
+  void relayEvents_Should_notQueryOutbox_When_statisticsAreDisabled() {
+    setField(statisticsOutboxRelay, "statisticsEnabled", false);
+
+    statisticsOutboxRelay.relayEvents();
+
+    verifyNoInteractions(statisticsOutboxEventRepository, rabbitTemplate);
+  }
+
+  @Test
+  void relayEvents_Should_keepEventsAndBackOff_When_brokerIsUnavailable() {
+    when(statisticsOutboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(events(1));
+    doThrow(new AmqpConnectException(new RuntimeException("connection refused")))
+        .doReturn(null)
+        .when(rabbitTemplate)
+        .invoke(any());
+
+    statisticsOutboxRelay.relayEvents();
+
+    verify(statisticsOutboxEventRepository, never()).deleteByIds(any());
+    assertThat(meterRegistry.get("statistics.outbox.failed").counter().count()).isEqualTo(1);
+
+    when(clock.instant()).thenReturn(NOW.plus(INITIAL_BACK_OFF).minusMillis(1));
+    statisticsOutboxRelay.relayEvents();
+    verify(rabbitTemplate, times(1)).invoke(any());
+
+    when(clock.instant()).thenReturn(NOW.plus(INITIAL_BACK_OFF));
+    statisticsOutboxRelay.relayEvents();
+    verify(rabbitTemplate, times(2)).invoke(any());
+    verify(statisticsOutboxEventRepository).deleteByIds(List.of(1L));
+  }
+
+  @Test
+  void relayEvents_Should_increaseBackOff_When_brokerStaysUnavailable() {
+    when(statisticsOutboxEventRepository.findAllByOrderByIdAsc(any())).thenReturn(events(1));
+    doThrow(new AmqpConnectException(new RuntimeException("connection refused")))
+        .when(rabbitTemplate)
+        .invoke(any());
+
+    statisticsOutboxRelay.relayEvents();
+    var secondAttempt = NOW.plus(INITIAL_BACK_OFF);
+    when(clock.instant()).thenReturn(secondAttempt);
+    statisticsOutboxRelay.relayEvents();
+
+    when(clock.instant()).thenReturn(secondAttempt.plus(INITIAL_BACK_OFF));
+    statisticsOutboxRelay.relayEvents();
+    verify(rabbitTemplate, times(2)).invoke(any());
+
+    when(clock.instant()).thenReturn(secondAttempt.plus(INITIAL_BACK_OFF.multipliedBy(2)));
+    statisticsOutboxRelay.relayEvents();
+    verify(rabbitTemplate, times(3)).invoke(any());
+  }
+
+  private List<StatisticsOutboxEvent> events(long... ids) {
+    return LongStream.of(ids)
+        .mapToObj(
+            id ->
+                StatisticsOutboxEvent.builder()
+                    .id(id)
+                    .messageId("message-" + id)
+                    .eventType("ASSIGN_SESSION")
+                    .payload("payload-" + id)
+                    .build())
+        .collect(Collectors.toList());
+  }
+}
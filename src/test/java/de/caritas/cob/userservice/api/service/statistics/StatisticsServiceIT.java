@@ -2,11 +2,17 @@ package de.caritas.cob.userservice.api.service.statistics;
 
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.CONSULTANT_ID;
 import static de.caritas.cob.userservice.api.testHelper.TestConstants.SESSION_ID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.apache.commons.codec.CharEncoding.UTF_8;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import de.caritas.cob.userservice.api.UserServiceApplication;
+import de.caritas.cob.userservice.api.port.out.StatisticsOutboxEventRepository;
 import de.caritas.cob.userservice.api.service.statistics.event.AssignSessionStatisticsEvent;
 import de.caritas.cob.userservice.api.testConfig.RabbitMqTestConfig;
 import de.caritas.cob.userservice.statisticsservice.generated.web.model.EventType;
@@ -14,7 +20,9 @@ import de.caritas.cob.userservice.statisticsservice.generated.web.model.UserRole
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.HashSet;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.core.Message;
@@ -32,8 +40,18 @@ public class StatisticsServiceIT {
   private static final long MAX_TIMEOUT_MILLIS = 5000;
 
   @Autowired StatisticsService statisticsService;
+  @Autowired StatisticsOutboxRelay statisticsOutboxRelay;
+  @Autowired StatisticsOutboxEventRepository statisticsOutboxEventRepository;
   @Autowired AmqpTemplate amqpTemplate;
 
+  @BeforeEach
+  public void setup() {
+    relayAllEvents();
+    while (amqpTemplate.receive(RabbitMqTestConfig.QUEUE_NAME_ASSIGN_SESSION) != null) {
+      // discard events of other tests
+    }
+  }
+
   @Test
   public void fireEvent_Should_Send_ExpectedAssignSessionStatisticsEventMessageToQueue()
       throws IOException {
@@ -42,6 +60,7 @@ public class StatisticsServiceIT {
         new AssignSessionStatisticsEvent(CONSULTANT_ID, UserRole.CONSULTANT, SESSION_ID);
 
     statisticsService.fireEvent(assignSessionStatisticsEvent);
+    relayAllEvents();
     Message message =
         amqpTemplate.receive(RabbitMqTestConfig.QUEUE_NAME_ASSIGN_SESSION, MAX_TIMEOUT_MILLIS);
     assert message != null;
@@ -71,6 +90,38 @@ public class StatisticsServiceIT {
             .whenIgnoringPaths("timestamp", "requestReferer", "requestUri", "requestUserId"));
   }
 
+  @Test
+  public void fireEvent_Should_SendEveryEventExactlyOnce_When_ManyEventsAreFired() {
+    var eventCount = 2000;
+    for (var i = 0; i < eventCount; i++) {
+      statisticsService.fireEvent(
+          new AssignSessionStatisticsEvent(CONSULTANT_ID, UserRole.CONSULTANT, (long) i));
+    }
+
+    relayAllEvents();
+
+    var messageIds = new HashSet<String>();
+    for (var i = 0; i < eventCount; i++) {
+      var message = amqpTemplate.receive(RabbitMqTestConfig.QUEUE_NAME_ASSIGN_SESSION);
+      assertNotNull(message);
+      messageIds.add(message.getMessageProperties().getMessageId());
+    }
+    assertEquals(eventCount, messageIds.size());
+    assertNull(amqpTemplate.receive(RabbitMqTestConfig.QUEUE_NAME_ASSIGN_SESSION));
+    assertEquals(0, statisticsOutboxEventRepository.count());
+  }
+
+  private void relayAllEvents() {
+    // the scheduled relay may hold the lease, in which case the call is skipped
+    await()
+        .atMost(MAX_TIMEOUT_MILLIS, MILLISECONDS)
+        .until(
+            () -> {
+              statisticsOutboxRelay.relayEvents();
+              return statisticsOutboxEventRepository.count() == 0;
+            });
+  }
+
   private String extractBodyFromAmpQMessage(Message message) throws IOException {
     return IOUtils.toString(message.getBody(), UTF_8);
   }
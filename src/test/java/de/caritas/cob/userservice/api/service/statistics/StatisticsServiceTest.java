@@ -1,20 +1,23 @@
 package de.caritas.cob.userservice.api.service.statistics;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.reflect.Whitebox.setInternalState;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import de.caritas.cob.userservice.api.model.StatisticsOutboxEvent;
+import de.caritas.cob.userservice.api.port.out.StatisticsOutboxEventRepository;
 import de.caritas.cob.userservice.api.service.statistics.event.AssignSessionStatisticsEvent;
 import de.caritas.cob.userservice.statisticsservice.generated.web.model.EventType;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -22,24 +25,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.slf4j.Logger;
-import org.springframework.amqp.core.AmqpTemplate;
-import org.springframework.amqp.core.MessageBuilder;
-import org.springframework.amqp.core.MessageProperties;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class StatisticsServiceTest {
 
   private static final String FIELD_NAME_STATISTICS_ENABLED = "statisticsEnabled";
-  private static final String FIELD_NAME_RABBIT_EXCHANGE_NAME = "rabbitMqExchangeName";
-  private static final String RABBIT_EXCHANGE_NAME = "exchange";
   private static final String PAYLOAD = "payload";
 
   private AssignSessionStatisticsEvent assignSessionStatisticsEvent;
   private final EventType eventType = EventType.ASSIGN_SESSION;
 
   @InjectMocks private StatisticsService statisticsService;
-  @Mock private AmqpTemplate amqpTemplate;
+  @Mock private StatisticsOutboxEventRepository statisticsOutboxEventRepository;
   @Mock Logger logger;
 
   @BeforeEach
@@ -48,28 +46,29 @@ class StatisticsServiceTest {
     when(assignSessionStatisticsEvent.getEventType()).thenReturn(eventType);
     when(assignSessionStatisticsEvent.getPayload()).thenReturn(Optional.of(PAYLOAD));
     setInternalState(StatisticsService.class, "log", logger);
-    setField(statisticsService, FIELD_NAME_RABBIT_EXCHANGE_NAME, RABBIT_EXCHANGE_NAME);
   }
 
   @Test
-  void fireEvent_Should_NotSendStatisticsMessage_WhenStatisticsIsDisabled() {
+  void fireEvent_Should_NotStoreStatisticsEvent_WhenStatisticsIsDisabled() {
 
     setField(statisticsService, FIELD_NAME_STATISTICS_ENABLED, false);
     statisticsService.fireEvent(assignSessionStatisticsEvent);
-    verify(amqpTemplate, times(0))
-        .convertAndSend(eq(RABBIT_EXCHANGE_NAME), anyString(), anyString());
+    verifyNoInteractions(statisticsOutboxEventRepository);
   }
 
   @Test
-  void fireEvent_Should_SendStatisticsMessage_WhenStatisticsIsEnabled() {
+  void fireEvent_Should_StoreStatisticsEventInOutbox_WhenStatisticsIsEnabled() {
 
     setField(statisticsService, FIELD_NAME_STATISTICS_ENABLED, true);
-    when(assignSessionStatisticsEvent.getEventType()).thenReturn(eventType);
-    when(assignSessionStatisticsEvent.getPayload()).thenReturn(Optional.of(PAYLOAD));
-
     statisticsService.fireEvent(assignSessionStatisticsEvent);
-    verify(amqpTemplate, times(1))
-        .convertAndSend(eq(RABBIT_EXCHANGE_NAME), anyString(), eq(buildPayloadMessage()));
+
+    var outboxEventCaptor = ArgumentCaptor.forClass(StatisticsOutboxEvent.class);
+    verify(statisticsOutboxEventRepository).save(outboxEventCaptor.capture());
+    var outboxEvent = outboxEventCaptor.getValue();
+    assertThat(outboxEvent.getEventType()).isEqualTo(eventType.toString());
+    assertThat(outboxEvent.getPayload()).isEqualTo(PAYLOAD);
+    assertThat(outboxEvent.getMessageId()).isNotBlank();
+    assertThat(outboxEvent.getCreateDate()).isNotNull();
   }
 
   @Test
@@ -79,20 +78,20 @@ class StatisticsServiceTest {
     when(assignSessionStatisticsEvent.getPayload()).thenReturn(Optional.empty());
     statisticsService.fireEvent(assignSessionStatisticsEvent);
     verify(logger).warn(anyString(), anyString());
+    verifyNoInteractions(statisticsOutboxEventRepository);
   }
 
   @Test
-  void fireEvent_Should_UseEventTypeAsTopicAndSendPayloadOfEvent() {
+  void fireEvent_Should_AssignUniqueMessageIdToEveryEvent() {
 
     setField(statisticsService, FIELD_NAME_STATISTICS_ENABLED, true);
     statisticsService.fireEvent(assignSessionStatisticsEvent);
-    verify(amqpTemplate, times(1))
-        .convertAndSend(RABBIT_EXCHANGE_NAME, eventType.toString(), buildPayloadMessage());
-  }
+    statisticsService.fireEvent(assignSessionStatisticsEvent);
 
-  private org.springframework.amqp.core.Message buildPayloadMessage() {
-    return MessageBuilder.withBody(PAYLOAD.getBytes(StandardCharsets.UTF_8))
-        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-        .build();
+    var outboxEventCaptor = ArgumentCaptor.forClass(StatisticsOutboxEvent.class);
+    verify(statisticsOutboxEventRepository, times(2)).save(outboxEventCaptor.capture());
+    assertThat(outboxEventCaptor.getAllValues())
+        .extracting(StatisticsOutboxEvent::getMessageId)
+        .doesNotHaveDuplicates();
   }
 }
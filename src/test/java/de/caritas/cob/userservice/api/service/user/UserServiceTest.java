@@ -29,6 +29,7 @@ import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.model.UserMobileToken;
 import de.caritas.cob.userservice.api.port.out.UserMobileTokenRepository;
 import de.caritas.cob.userservice.api.port.out.UserRepository;
+import java.util.List;
 import java.util.Optional;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
@@ -124,6 +125,16 @@ class UserServiceTest {
     assertEquals(USER, result.get());
   }
 
+  @Test
+  void findUsersByRcUserIds_Should_ReturnUsersOfRepository() {
+    when(userRepository.findByRcUserIdInAndDeleteDateIsNull(List.of(RC_USER_ID)))
+        .thenReturn(List.of(USER));
+
+    var result = userService.findUsersByRcUserIds(List.of(RC_USER_ID));
+
+    assertEquals(List.of(USER), result);
+  }
+
   @Test
   void updateRocketChatIdInDatabase_Should_UpdateUserObjectAndSaveToDb() {
     userService.updateRocketChatIdInDatabase(USER_NO_RC_USER_ID, RC_USER_ID);
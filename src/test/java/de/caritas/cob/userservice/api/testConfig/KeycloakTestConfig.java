@@ -4,6 +4,7 @@ import com.google.common.collect.Maps;
 import de.caritas.cob.userservice.api.adapters.keycloak.KeycloakClient;
 import de.caritas.cob.userservice.api.adapters.keycloak.KeycloakMapper;
 import de.caritas.cob.userservice.api.adapters.keycloak.KeycloakService;
+import de.caritas.cob.userservice.api.adapters.keycloak.KeycloakUserRolesCache;
 import de.caritas.cob.userservice.api.adapters.keycloak.dto.KeycloakCreateUserResponseDTO;
 import de.caritas.cob.userservice.api.adapters.keycloak.dto.KeycloakLoginResponseDTO;
 import de.caritas.cob.userservice.api.adapters.web.dto.UserDTO;
@@ -33,7 +34,8 @@ public class KeycloakTestConfig {
       IdentityClientConfig identityClientConfig,
       KeycloakClient keycloakClient,
       KeycloakMapper keycloakMapper,
-      UserHelper userHelper) {
+      UserHelper userHelper,
+      KeycloakUserRolesCache userRolesCache) {
 
     return new KeycloakService(
         restTemplate,
@@ -42,7 +44,8 @@ public class KeycloakTestConfig {
         identityClientConfig,
         keycloakClient,
         keycloakMapper,
-        userHelper) {
+        userHelper,
+        userRolesCache) {
       @Override
       public boolean changePassword(String userId, String password) {
         return super.changePassword(userId, password);
@@ -0,0 +1,191 @@
+package de.caritas.cob.userservice.api.workflow.deactivate.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import de.caritas.cob.userservice.api.actions.registry.ActionContainer;
+import de.caritas.cob.userservice.api.actions.registry.ActionsRegistry;
+import de.caritas.cob.userservice.api.actions.session.PostConversationFinishedAliasMessageActionCommand;
+import de.caritas.cob.userservice.api.actions.session.SendFinishedAnonymousConversationEventActionCommand;
+import de.caritas.cob.userservice.api.actions.session.SetRocketChatRoomReadOnlyActionCommand;
+import de.caritas.cob.userservice.api.actions.user.DeactivateKeycloakUserActionCommand;
+import de.caritas.cob.userservice.api.adapters.rocketchat.RocketChatService;
+import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.User;
+import de.caritas.cob.userservice.api.port.out.IdentityClient;
+import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.profiles.active=testing")
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeactivateAnonymousUserServiceIT {
+
+  private static final int STALE_SESSIONS = 10_000;
+  private static final int FRESH_SESSIONS = 2_000;
+  private static final int CHUNK_SIZE = 500;
+  private static final int POOL_SIZE = 4;
+  private static final long FIRST_SESSION_ID = 3_000_000L;
+  private static final String USER_ID_PREFIX = "anonymous-user-";
+
+  @Autowired private SessionRepository sessionRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final IdentityClient identityClient = mock(IdentityClient.class);
+
+  private final RocketChatService rocketChatService = mock(RocketChatService.class);
+
+  private final ActionsRegistry actionsRegistry = mock(ActionsRegistry.class);
+
+  private final AtomicInteger runningCalls = new AtomicInteger();
+
+  private final AtomicInteger maxRunningCalls = new AtomicInteger();
+
+  private final AtomicInteger callsBeforeCommit = new AtomicInteger();
+
+  private ThreadPoolTaskExecutor executor;
+
+  private DeactivateAnonymousUserService underTest;
+
+  @BeforeEach
+  void setup() throws Exception {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(POOL_SIZE);
+    executor.setMaxPoolSize(POOL_SIZE);
+    executor.setQueueCapacity(0);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    underTest =
+        new DeactivateAnonymousUserService(
+            sessionRepository, actionsRegistry, transactionManager, executor, CHUNK_SIZE);
+    setField(underTest, "deactivatePeriodMinutes", 360L);
+
+    when(actionsRegistry.buildContainerForType(User.class))
+        .thenReturn(
+            new ActionContainer<>(Set.of(new DeactivateKeycloakUserActionCommand(identityClient))));
+    when(actionsRegistry.buildContainerForType(Session.class))
+        .thenReturn(
+            new ActionContainer<>(
+                Set.of(
+                    new SetRocketChatRoomReadOnlyActionCommand(rocketChatService),
+                    mock(PostConversationFinishedAliasMessageActionCommand.class),
+                    mock(SendFinishedAnonymousConversationEventActionCommand.class))));
+    doAnswer(this::deactivateUserInKeycloak).when(identityClient).deactivateUser(anyString());
+    doAnswer(this::setRoomReadOnlyInRocketChat).when(rocketChatService).setRoomReadOnly(any());
+
+    givenAnonymousSessions();
+  }
+
+  @AfterEach
+  void cleanup() {
+    executor.shutdown();
+    jdbcTemplate.update("DELETE FROM session WHERE id >= ?", FIRST_SESSION_ID);
+    jdbcTemplate.update("DELETE FROM user WHERE user_id LIKE ?", USER_ID_PREFIX + "%");
+  }
+
+  @Test
+  void
+      deactivateStaleAnonymousUsers_Should_deactivateEveryStaleUserOnceWithBoundedParallelism_When_manySessionsAreStale() {
+    underTest.deactivateStaleAnonymousUsers();
+
+    assertThat(countSeededSessionsInStatus(3)).isEqualTo(STALE_SESSIONS);
+    assertThat(countSeededSessionsInStatus(2)).isEqualTo(FRESH_SESSIONS);
+    assertThat(deactivatedUserIds()).hasSize(STALE_SESSIONS).doesNotHaveDuplicates();
+    assertThat(mockingDetails(rocketChatService).getInvocations()).hasSize(STALE_SESSIONS);
+    assertThat(callsBeforeCommit.get()).isZero();
+    assertThat(maxRunningCalls.get()).isBetween(2, POOL_SIZE + 1);
+  }
+
+  private Object deactivateUserInKeycloak(InvocationOnMock invocation) {
+    return callStandIn(
+        "SELECT status FROM session WHERE user_id = ?", invocation.getArgument(0, String.class));
+  }
+
+  private Object setRoomReadOnlyInRocketChat(InvocationOnMock invocation) {
+    return callStandIn(
+        "SELECT status FROM session WHERE rc_group_id = ?",
+        invocation.getArgument(0, String.class));
+  }
+
+  /** Checks that the status update has been committed before the external call is made. */
+  private Object callStandIn(String statusQuery, String argument) {
+    maxRunningCalls.accumulateAndGet(runningCalls.incrementAndGet(), Math::max);
+    try {
+      if (jdbcTemplate.queryForObject(statusQuery, Integer.class, argument) != 3) {
+        callsBeforeCommit.incrementAndGet();
+      }
+      return null;
+    } finally {
+      runningCalls.decrementAndGet();
+    }
+  }
+
+  private List<String> deactivatedUserIds() {
+    return mockingDetails(identityClient).getInvocations().stream()
+        .map(invocation -> invocation.getArgument(0, String.class))
+        .collect(Collectors.toList());
+  }
+
+  private int countSeededSessionsInStatus(int status) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM session WHERE id >= ? AND status = ?",
+        Integer.class,
+        FIRST_SESSION_ID,
+        status);
+  }
+
+  /** Every user has one session, the first ones are stale, the last ones are updated recently. */
+  private void givenAnonymousSessions() {
+    var sessions = STALE_SESSIONS + FRESH_SESSIONS;
+    jdbcTemplate.update(
+        "INSERT INTO user (user_id, username, email, language_formal, encourage_2fa, "
+            + "language_code, notifications_enabled) "
+            + "SELECT CONCAT(?, X), CONCAT(?, X), 'anonymous@user.de', 0, true, 'de', 0 "
+            + "FROM SYSTEM_RANGE(1, ?)",
+        USER_ID_PREFIX,
+        USER_ID_PREFIX,
+        sessions);
+    jdbcTemplate.update(
+        "INSERT INTO session (id, user_id, consulting_type, registration_type, postcode, "
+            + "language_code, status, rc_group_id, update_date, is_team_session, is_peer_chat, "
+            + "is_consultant_directly_set) "
+            + "SELECT ? + X, CONCAT(?, X), 0, 'ANONYMOUS', '00000', 'de', 1 + MOD(X, 2), "
+            + "CONCAT('anonymous-group-', X), "
+            + "CASEWHEN(X <= ?, DATEADD('HOUR', -7, NOW()), DATEADD('HOUR', -1, NOW())), "
+            + "0, 0, false FROM SYSTEM_RANGE(1, ?)",
+        FIRST_SESSION_ID,
+        USER_ID_PREFIX,
+        STALE_SESSIONS,
+        sessions);
+    jdbcTemplate.update(
+        "UPDATE session SET status = 2 WHERE id > ?", FIRST_SESSION_ID + STALE_SESSIONS);
+  }
+}
@@ -1,15 +1,20 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import de.caritas.cob.userservice.api.actions.ActionCommandMockProvider;
-import de.caritas.cob.userservice.api.actions.registry.ActionContainer;
 import de.caritas.cob.userservice.api.actions.registry.ActionsRegistry;
 import de.caritas.cob.userservice.api.actions.session.DeactivateSessionActionCommand;
 import de.caritas.cob.userservice.api.actions.session.PostConversationFinishedAliasMessageActionCommand;
@@ -22,206 +27,217 @@ import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
 import de.caritas.cob.userservice.api.port.out.SessionRepository;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class DeactivateAnonymousUserServiceTest {
 
   private static final int DEACTIVATE_PERIOD_MINUTES = 360;
+  private static final int CHUNK_SIZE = 2;
+  private static final Set<SessionStatus> ACTIVE_STATUSES =
+      Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS);
 
-  @InjectMocks private DeactivateAnonymousUserService deactivateAnonymousUserService;
+  private DeactivateAnonymousUserService deactivateAnonymousUserService;
 
   @Mock private SessionRepository sessionRepository;
 
   @Mock private ActionsRegistry actionsRegistry;
 
+  @Mock private PlatformTransactionManager transactionManager;
+
   private final ActionCommandMockProvider commandMockProvider = new ActionCommandMockProvider();
 
   @BeforeEach
   public void setUp() {
-    ReflectionTestUtils.setField(
-        deactivateAnonymousUserService, "deactivatePeriodMinutes", DEACTIVATE_PERIOD_MINUTES);
+    deactivateAnonymousUserService =
+        new DeactivateAnonymousUserService(
+            sessionRepository, actionsRegistry, transactionManager, Runnable::run, CHUNK_SIZE);
+    setField(deactivateAnonymousUserService, "deactivatePeriodMinutes", DEACTIVATE_PERIOD_MINUTES);
+    when(this.actionsRegistry.buildContainerForType(User.class))
+        .thenReturn(this.commandMockProvider.getActionContainer(User.class));
+    when(this.actionsRegistry.buildContainerForType(Session.class))
+        .thenReturn(this.commandMockProvider.getActionContainer(Session.class));
   }
 
   @Test
-  void deactivateStaleAnonymousUsers_Should_notUseServices_When_noSessionIsAvailable() {
+  void deactivateStaleAnonymousUsers_Should_notUseServices_When_noSessionIsStale() {
     this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(User.class);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(Session.class);
+    verifyNoInteractions(this.actionsRegistry, this.transactionManager);
+    verify(this.sessionRepository, never()).updateStatus(any(), any(), any());
   }
 
   @Test
-  void deactivateStaleAnonymousUsers_Should_notPerformAnyDeactivation_When_noSessionIsInProgress() {
-    whenSessionRepositoryFindByStatus_ThenReturnUserSessionsWithStatus(
-        getAnyStatusWhichIsNotInProgress());
-    var deactivateUserAction = mock(DeactivateKeycloakUserActionCommand.class);
-
-    when(this.actionsRegistry.buildContainerForType(User.class))
-        .thenReturn(new ActionContainer<>(Set.of(deactivateUserAction)));
-    var deactivateSessionAction = mock(DeactivateSessionActionCommand.class);
-    when(this.actionsRegistry.buildContainerForType(Session.class))
-        .thenReturn(new ActionContainer<>(Set.of(deactivateSessionAction)));
-
+  void deactivateStaleAnonymousUsers_Should_selectActiveAnonymousSessionsOutsideOfPeriod() {
     this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-    verify(this.sessionRepository, times(1))
-        .findByStatusInAndRegistrationType(
-            Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS), RegistrationType.ANONYMOUS);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(User.class);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(Session.class);
-    verifyNoMoreInteractions(deactivateUserAction, deactivateSessionAction);
+    var updateDateCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(this.sessionRepository)
+        .findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+            eq(ACTIVE_STATUSES),
+            eq(RegistrationType.ANONYMOUS),
+            updateDateCaptor.capture(),
+            eq(0L),
+            eq(PageRequest.of(0, CHUNK_SIZE)));
+    assertThat(updateDateCaptor.getValue())
+        .isCloseTo(
+            LocalDateTime.now().minusMinutes(DEACTIVATE_PERIOD_MINUTES),
+            within(1, ChronoUnit.MINUTES));
   }
 
-  private SessionStatus[] getAnyStatusWhichIsNotInProgress() {
-    List<SessionStatus> anyStatusNotInProgress = new ArrayList<>(List.of(SessionStatus.values()));
-    anyStatusNotInProgress.remove(SessionStatus.IN_PROGRESS);
-    return anyStatusNotInProgress.toArray(SessionStatus[]::new);
-  }
+  @Test
+  void
+      deactivateStaleAnonymousUsers_Should_callUserAndSessionActionsAfterCommit_When_sessionIsStale() {
+    var session = session(1L, user("user id"), SessionStatus.IN_PROGRESS);
+    givenStaleSessions(session);
 
-  private void whenSessionRepositoryFindByStatus_ThenReturnUserSessionsWithStatus(
-      SessionStatus... sessionStatus) {
-    var user = new User();
-    var userSessions =
-        Stream.of(sessionStatus)
-            .map(createSessionForUserWithUpdateDateNow(user))
-            .collect(Collectors.toSet());
-    user.setSessions(userSessions);
-
-    when(this.sessionRepository.findByStatusInAndRegistrationType(any(), any()))
-        .thenReturn(new ArrayList<>(userSessions));
-  }
+    this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-  private Function<SessionStatus, Session> createSessionForUserWithUpdateDateNow(User user) {
-    return createSessionForUserWithUpdateDate(user, LocalDateTime.now());
+    var keycloakAction =
+        this.commandMockProvider.getActionMock(DeactivateKeycloakUserActionCommand.class);
+    var inOrder = inOrder(this.sessionRepository, this.transactionManager, keycloakAction);
+    inOrder
+        .verify(this.sessionRepository)
+        .updateStatus(List.of(1L), ACTIVE_STATUSES, SessionStatus.DONE);
+    inOrder.verify(this.transactionManager).commit(any());
+    inOrder.verify(keycloakAction).execute(session.getUser());
+    verify(
+            this.commandMockProvider.getActionMock(
+                PostConversationFinishedAliasMessageActionCommand.class))
+        .execute(session);
+    verify(this.commandMockProvider.getActionMock(SetRocketChatRoomReadOnlyActionCommand.class))
+        .execute(session);
+    verify(
+            this.commandMockProvider.getActionMock(
+                SendFinishedAnonymousConversationEventActionCommand.class))
+        .execute(session);
+    verifyNoInteractions(
+        this.commandMockProvider.getActionMock(DeactivateSessionActionCommand.class));
+    assertThat(session.getStatus()).isEqualTo(SessionStatus.DONE);
   }
 
-  private Function<SessionStatus, Session> createSessionForUserWithUpdateDate(
-      User user, LocalDateTime sessionUpdateDate) {
-    return (sessionStatus) -> createSessionForUser(user, sessionUpdateDate, sessionStatus);
-  }
+  @Test
+  void deactivateStaleAnonymousUsers_Should_skipSession_When_itHasBeenFinishedMeanwhile() {
+    var activeSession = session(1L, user("user 1"), SessionStatus.NEW);
+    var finishedSession = session(2L, user("user 2"), SessionStatus.DONE);
+    givenStaleSessions(activeSession, finishedSession);
 
-  private Session createSessionForUser(
-      User user, LocalDateTime updateDate, SessionStatus sessionStatus) {
-    Session session = new Session();
-    session.setId((long) sessionStatus.getValue());
-    session.setUpdateDate(updateDate);
-    session.setStatus(sessionStatus);
-    session.setUser(user);
-    session.setRegistrationType(RegistrationType.ANONYMOUS);
-    return session;
+    this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
+
+    verify(this.sessionRepository).updateStatus(List.of(1L), ACTIVE_STATUSES, SessionStatus.DONE);
+    verify(this.commandMockProvider.getActionMock(DeactivateKeycloakUserActionCommand.class))
+        .execute(activeSession.getUser());
+    verify(
+            this.commandMockProvider.getActionMock(DeactivateKeycloakUserActionCommand.class),
+            never())
+        .execute(finishedSession.getUser());
+    verify(
+            this.commandMockProvider.getActionMock(SetRocketChatRoomReadOnlyActionCommand.class),
+            never())
+        .execute(finishedSession);
   }
 
-  @ParameterizedTest
-  @MethodSource("createUpdateDatesWithinDeactivationPeriod")
-  void
-      deactivateStaleAnonymousUsers_Should_notPerformAnyDeactivation_When_sessionsAreInProgressWithinDeactivatePeriod(
-          LocalDateTime updateDate) {
-    var user = createUserWithSingleSession(updateDate);
-    when(this.sessionRepository.findByStatusInAndRegistrationType(any(), any()))
-        .thenReturn(new ArrayList<>(user.getSessions()));
-    var deactivateUserAction = mock(DeactivateKeycloakUserActionCommand.class);
-    when(this.actionsRegistry.buildContainerForType(User.class))
-        .thenReturn(new ActionContainer<>(Set.of(deactivateUserAction)));
-    var deactivateSessionAction = mock(DeactivateSessionActionCommand.class);
-    when(this.actionsRegistry.buildContainerForType(Session.class))
-        .thenReturn(new ActionContainer<>(Set.of(deactivateSessionAction)));
+  @Test
+  void deactivateStaleAnonymousUsers_Should_deactivateUserOnce_When_userHasSeveralStaleSessions() {
+    var user = user("user id");
+    givenStaleSessions(
+        session(1L, user, SessionStatus.NEW), session(2L, user, SessionStatus.IN_PROGRESS));
 
     this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-    verify(this.sessionRepository, times(1))
-        .findByStatusInAndRegistrationType(
-            Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS), RegistrationType.ANONYMOUS);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(User.class);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(Session.class);
-    verifyNoMoreInteractions(deactivateUserAction, deactivateSessionAction);
+    verify(
+            this.commandMockProvider.getActionMock(DeactivateKeycloakUserActionCommand.class),
+            times(1))
+        .execute(user);
+    verify(
+            this.commandMockProvider.getActionMock(SetRocketChatRoomReadOnlyActionCommand.class),
+            times(2))
+        .execute(any());
   }
 
-  private static List<LocalDateTime> createUpdateDatesWithinDeactivationPeriod() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime oneSecondWithinDeletionPeriod =
-        now.minusMinutes(DEACTIVATE_PERIOD_MINUTES).plusSeconds(10);
-    LocalDateTime timeInTheFuture = now.plusSeconds(20);
+  @Test
+  void deactivateStaleAnonymousUsers_Should_deactivateSessionsChunkByChunk() {
+    var sessions =
+        Stream.of(1L, 2L, 3L, 4L, 5L)
+            .map(id -> session(id, user("user " + id), SessionStatus.IN_PROGRESS))
+            .collect(Collectors.toList());
+    when(this.sessionRepository.findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+            any(), any(), any(), anyLong(), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+    when(this.sessionRepository.findAllWithUserByIdIn(any()))
+        .thenReturn(sessions.subList(0, 2), sessions.subList(2, 4), sessions.subList(4, 5));
 
-    return List.of(now, oneSecondWithinDeletionPeriod, timeInTheFuture);
-  }
+    this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-  private User createUserWithSingleSession(LocalDateTime updateDate) {
-    var user = new User();
-    user.setUserId("user id");
-    var userSessions = Set.of(createSessionForUser(user, updateDate, SessionStatus.IN_PROGRESS));
-    user.setSessions(userSessions);
-    return user;
+    var afterIdCaptor = ArgumentCaptor.forClass(Long.class);
+    verify(this.sessionRepository, times(3))
+        .findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+            any(), any(), any(), afterIdCaptor.capture(), any(Pageable.class));
+    assertThat(afterIdCaptor.getAllValues()).containsExactly(0L, 2L, 4L);
+    verify(this.transactionManager, times(3)).commit(any());
+    sessions.forEach(
+        session ->
+            verify(
+                    this.commandMockProvider.getActionMock(
+                        DeactivateKeycloakUserActionCommand.class))
+                .execute(session.getUser()));
   }
 
-  @ParameterizedTest
-  @MethodSource("createOverdueUpdateDates")
-  void
-      deactivateStaleAnonymousUsers_Should_callUserAndSessionDeactivateActions_When_userSessionsAreInProgressForTooLong(
-          LocalDateTime overdueUpdateDate) {
-    var user = createUserWithSingleSession(overdueUpdateDate);
-
-    when(this.sessionRepository.findByStatusInAndRegistrationType(any(), any()))
-        .thenReturn(new ArrayList<>(user.getSessions()));
-
-    var deactivateUserAction = mock(DeactivateKeycloakUserActionCommand.class);
-    when(this.actionsRegistry.buildContainerForType(User.class))
-        .thenReturn(new ActionContainer<>(Set.of(deactivateUserAction)));
-    when(this.actionsRegistry.buildContainerForType(Session.class))
-        .thenReturn(this.commandMockProvider.getActionContainer(Session.class));
+  @Test
+  void deactivateStaleAnonymousUsers_Should_continueWithOtherUsers_When_anActionFails() {
+    var failingSession = session(1L, user("user 1"), SessionStatus.IN_PROGRESS);
+    var session = session(2L, user("user 2"), SessionStatus.IN_PROGRESS);
+    givenStaleSessions(failingSession, session);
+    var keycloakAction =
+        this.commandMockProvider.getActionMock(DeactivateKeycloakUserActionCommand.class);
+    doThrow(new RuntimeException("unavailable"))
+        .when(keycloakAction)
+        .execute(failingSession.getUser());
 
     this.deactivateAnonymousUserService.deactivateStaleAnonymousUsers();
 
-    verify(this.sessionRepository, times(1))
-        .findByStatusInAndRegistrationType(
-            Set.of(SessionStatus.NEW, SessionStatus.IN_PROGRESS), RegistrationType.ANONYMOUS);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(User.class);
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(Session.class);
-    verify(deactivateUserAction, times(1)).execute(user);
-    user.getSessions()
-        .forEach(
-            session -> {
-              verify(
-                      this.commandMockProvider.getActionMock(DeactivateSessionActionCommand.class),
-                      times(1))
-                  .execute(session);
-              verify(
-                      this.commandMockProvider.getActionMock(
-                          SetRocketChatRoomReadOnlyActionCommand.class),
-                      times(1))
-                  .execute(session);
-              verify(
-                      this.commandMockProvider.getActionMock(
-                          SendFinishedAnonymousConversationEventActionCommand.class),
-                      times(1))
-                  .execute(session);
-              verify(
-                      this.commandMockProvider.getActionMock(
-                          PostConversationFinishedAliasMessageActionCommand.class),
-                      times(1))
-                  .execute(session);
-            });
+    verify(keycloakAction).execute(session.getUser());
+    verify(this.commandMockProvider.getActionMock(SetRocketChatRoomReadOnlyActionCommand.class))
+        .execute(failingSession);
+  }
+
+  private void givenStaleSessions(Session... sessions) {
+    var sessionIds = Stream.of(sessions).map(Session::getId).collect(Collectors.toList());
+    when(this.sessionRepository.findIdsByStatusInAndRegistrationTypeAndUpdateDateBefore(
+            any(), any(), any(), anyLong(), any(Pageable.class)))
+        .thenReturn(sessionIds, List.of());
+    when(this.sessionRepository.findAllWithUserByIdIn(sessionIds)).thenReturn(List.of(sessions));
   }
 
-  private static List<LocalDateTime> createOverdueUpdateDates() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime oneDeletionPeriodAgo = now.minusMinutes(DEACTIVATE_PERIOD_MINUTES);
-    LocalDateTime timeLongInThePast = oneDeletionPeriodAgo.minusMinutes(10);
+  private User user(String userId) {
+    var user = new User();
+    user.setUserId(userId);
+    return user;
+  }
 
-    return List.of(oneDeletionPeriodAgo, timeLongInThePast);
+  private Session session(Long id, User user, SessionStatus sessionStatus) {
+    Session session = new Session();
+    session.setId(id);
+    session.setUpdateDate(LocalDateTime.now().minusMinutes(DEACTIVATE_PERIOD_MINUTES + 10));
+    session.setStatus(sessionStatus);
+    session.setUser(user);
+    session.setRegistrationType(RegistrationType.ANONYMOUS);
+    return session;
   }
 }
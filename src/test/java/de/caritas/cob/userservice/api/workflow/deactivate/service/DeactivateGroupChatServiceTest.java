@@ -1,10 +1,15 @@
 package de.caritas.cob.userservice.api.workflow.deactivate.service;
 
-import static java.util.Collections.emptyList;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
@@ -13,102 +18,146 @@ import de.caritas.cob.userservice.api.actions.chat.StopChatActionCommand;
 import de.caritas.cob.userservice.api.actions.registry.ActionsRegistry;
 import de.caritas.cob.userservice.api.model.Chat;
 import de.caritas.cob.userservice.api.port.out.ChatRepository;
+import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class DeactivateGroupChatServiceTest {
 
   private static final int DEACTIVATE_PERIOD_MINUTES = 180;
+  private static final int CHUNK_SIZE = 2;
 
-  @InjectMocks private DeactivateGroupChatService deactivateGroupChatService;
+  private DeactivateGroupChatService deactivateGroupChatService;
 
   @Mock private ChatRepository chatRepository;
 
   @Mock private ActionsRegistry actionsRegistry;
 
+  @Mock private PlatformTransactionManager transactionManager;
+
   private final ActionCommandMockProvider commandMockProvider = new ActionCommandMockProvider();
 
   @BeforeEach
   public void setUp() {
+    deactivateGroupChatService =
+        new DeactivateGroupChatService(
+            chatRepository, actionsRegistry, transactionManager, Runnable::run, CHUNK_SIZE);
     setField(deactivateGroupChatService, "deactivatePeriodMinutes", DEACTIVATE_PERIOD_MINUTES);
+    when(this.actionsRegistry.buildContainerForType(Chat.class))
+        .thenReturn(commandMockProvider.getActionContainer(Chat.class));
   }
 
   @Test
-  void deactivateStaleGroupChats_Should_notUseServices_When_noChatIsAvailable() {
+  void deactivateStaleGroupChats_Should_notUseServices_When_noChatIsStale() {
     this.deactivateGroupChatService.deactivateStaleGroupChats();
 
-    verifyNoMoreInteractions(this.actionsRegistry);
+    verifyNoInteractions(this.actionsRegistry, this.transactionManager);
   }
 
   @Test
-  void deactivateStaleGroupChats_Should_notPerformAnyDeactivation_When_noChatIsActive() {
-    when(this.chatRepository.findAllByActiveIsTrue()).thenReturn(emptyList());
+  void deactivateStaleGroupChats_Should_selectChatsEndedBeforeDeactivatePeriod() {
+    this.deactivateGroupChatService.deactivateStaleGroupChats();
+
+    var deactivationDateCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(this.chatRepository)
+        .findIdsOfActiveChatsEndedBefore(
+            deactivationDateCaptor.capture(), eq(0L), eq(PageRequest.of(0, CHUNK_SIZE)));
+    assertThat(deactivationDateCaptor.getValue())
+        .isCloseTo(
+            LocalDateTime.now().minusMinutes(DEACTIVATE_PERIOD_MINUTES),
+            within(1, ChronoUnit.MINUTES));
+  }
+
+  @Test
+  void deactivateStaleGroupChats_Should_callStopChatActionInTransaction_When_chatIsStale() {
+    var chat = chat(1L, true);
+    givenStaleChats(chat);
 
     this.deactivateGroupChatService.deactivateStaleGroupChats();
 
-    verifyNoMoreInteractions(this.actionsRegistry);
+    verify(this.commandMockProvider.getActionMock(StopChatActionCommand.class), times(1))
+        .execute(chat);
+    verify(this.transactionManager).commit(any());
   }
 
-  @ParameterizedTest
-  @MethodSource("createUpdateDatesWithinDeactivationPeriod")
-  void
-      deactivateStaleGroupChats_Should_notPerformAnyDeactivation_When_chatsAreActiveWithinDeactivatePeriod(
-          LocalDateTime updateDate) {
-    var chat = new Chat();
-    chat.setDuration(120);
-    chat.setActive(true);
-    chat.setUpdateDate(updateDate);
-    when(this.chatRepository.findAllByActiveIsTrue()).thenReturn(List.of(chat));
+  @Test
+  void deactivateStaleGroupChats_Should_notStopChat_When_itHasBeenStoppedMeanwhile() {
+    givenStaleChats(chat(1L, false));
 
     this.deactivateGroupChatService.deactivateStaleGroupChats();
 
-    verifyNoMoreInteractions(
-        this.actionsRegistry, this.commandMockProvider.getActionMock(StopChatActionCommand.class));
+    verify(this.commandMockProvider.getActionMock(StopChatActionCommand.class), never())
+        .execute(any());
   }
 
-  private static List<LocalDateTime> createUpdateDatesWithinDeactivationPeriod() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime oneSecondWithinDeletionPeriod =
-        now.minusMinutes(DEACTIVATE_PERIOD_MINUTES).plusSeconds(10);
-    LocalDateTime timeInTheFuture = now.plusSeconds(20);
+  @Test
+  void deactivateStaleGroupChats_Should_stopChatsChunkByChunk() {
+    var chats = List.of(chat(1L, true), chat(2L, true), chat(3L, true));
+    when(this.chatRepository.findIdsOfActiveChatsEndedBefore(any(), anyLong(), any(Pageable.class)))
+        .thenReturn(List.of(1L, BigInteger.valueOf(2L)), List.of(3L));
+    chats.forEach(
+        chat -> when(this.chatRepository.findById(chat.getId())).thenReturn(Optional.of(chat)));
+
+    this.deactivateGroupChatService.deactivateStaleGroupChats();
 
-    return List.of(now, oneSecondWithinDeletionPeriod, timeInTheFuture);
+    var afterIdCaptor = ArgumentCaptor.forClass(Long.class);
+    verify(this.chatRepository, times(2))
+        .findIdsOfActiveChatsEndedBefore(any(), afterIdCaptor.capture(), any(Pageable.class));
+    assertThat(afterIdCaptor.getAllValues()).containsExactly(0L, 2L);
+    chats.forEach(
+        chat ->
+            verify(this.commandMockProvider.getActionMock(StopChatActionCommand.class))
+                .execute(chat));
   }
 
-  @ParameterizedTest
-  @MethodSource("createOverdueUpdateDates")
-  void deactivateStaleGroupChats_Should_callStopChatAction_When_chatIsActiveTooLong(
-      LocalDateTime overdueUpdateDate) {
-    var chat = new Chat();
-    chat.setDuration(120);
-    chat.setActive(true);
-    chat.setUpdateDate(overdueUpdateDate);
-    when(this.chatRepository.findAllByActiveIsTrue()).thenReturn(List.of(chat));
-    when(this.actionsRegistry.buildContainerForType(Chat.class))
-        .thenReturn(commandMockProvider.getActionContainer(Chat.class));
+  @Test
+  void deactivateStaleGroupChats_Should_stopOtherChats_When_stoppingAChatFails() {
+    var failingChat = chat(1L, true);
+    var chat = chat(2L, true);
+    givenStaleChats(failingChat, chat);
+    var stopChatAction = this.commandMockProvider.getActionMock(StopChatActionCommand.class);
+    doThrow(new RuntimeException("Rocket.Chat unavailable"))
+        .when(stopChatAction)
+        .execute(failingChat);
 
     this.deactivateGroupChatService.deactivateStaleGroupChats();
 
-    verify(this.actionsRegistry, atLeastOnce()).buildContainerForType(Chat.class);
-    verify(this.commandMockProvider.getActionMock(StopChatActionCommand.class), times(1))
-        .execute(chat);
+    verify(stopChatAction).execute(chat);
+    verify(this.transactionManager).rollback(any());
+    verify(this.transactionManager).commit(any());
   }
 
-  private static List<LocalDateTime> createOverdueUpdateDates() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime oneDeletionPeriodAgo =
-        now.minusMinutes(DEACTIVATE_PERIOD_MINUTES).minusMinutes(120);
-    LocalDateTime timeLongInThePast = oneDeletionPeriodAgo.minusMinutes(10);
+  private void givenStaleChats(Chat... chats) {
+    when(this.chatRepository.findIdsOfActiveChatsEndedBefore(any(), anyLong(), any(Pageable.class)))
+        .thenReturn(
+            List.of(chats).stream().map(Chat::getId).collect(Collectors.toList()), List.of());
+    for (var chat : chats) {
+      when(this.chatRepository.findById(chat.getId())).thenReturn(Optional.of(chat));
+    }
+  }
 
-    return List.of(oneDeletionPeriodAgo, timeLongInThePast);
+  private Chat chat(Long id, boolean active) {
+    var chat = new Chat();
+    chat.setId(id);
+    chat.setDuration(120);
+    chat.setActive(active);
+    chat.setUpdateDate(LocalDateTime.now().minusMinutes(DEACTIVATE_PERIOD_MINUTES + 130));
+    return chat;
   }
 }
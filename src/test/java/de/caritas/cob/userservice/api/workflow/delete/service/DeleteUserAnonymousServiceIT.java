@@ -0,0 +1,142 @@
+package de.caritas.cob.userservice.api.workflow.delete.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import de.caritas.cob.userservice.api.model.User;
+import de.caritas.cob.userservice.api.port.out.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DataJpaTest
+@TestPropertySource(
+    properties = {
+      "spring.profiles.active=testing",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+class DeleteUserAnonymousServiceIT {
+
+  private static final int DONE_USERS = 100_000;
+  private static final int CHUNK_SIZE = 1_000;
+  private static final String USER_ID_PREFIX = "done-user-";
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final DeleteUserAccountService deleteUserAccountService =
+      mock(DeleteUserAccountService.class);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private DeleteUserAnonymousService underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest =
+        new DeleteUserAnonymousService(
+            userRepository,
+            deleteUserAccountService,
+            mock(WorkflowErrorMailService.class),
+            transactionManager,
+            entityManager,
+            meterRegistry,
+            CHUNK_SIZE);
+    setField(underTest, "deletionPeriodMinutes", 60);
+    givenUsersWithDoneSessions();
+  }
+
+  @Test
+  void
+      deleteInactiveAnonymousUsers_Should_keepPersistenceContextAndStatementsPerChunkBounded_When_manyUsersAreDone() {
+    var maxManagedEntities = new AtomicInteger();
+    when(deleteUserAccountService.performUserDeletion(any()))
+        .thenAnswer(
+            invocation -> {
+              var managedEntities =
+                  entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+              maxManagedEntities.accumulateAndGet(managedEntities, Math::max);
+              return List.of();
+            });
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    underTest.deleteInactiveAnonymousUsers();
+
+    var chunks = meterRegistry.get("user.anonymous.deletion.chunk").timer().count();
+    var deletedUsers =
+        meterRegistry.get("user.anonymous.deletion.users").tag("result", "deleted").counter();
+    assertThat(chunks).isGreaterThanOrEqualTo(DONE_USERS / CHUNK_SIZE);
+    assertThat(deletedUsers.count()).isGreaterThanOrEqualTo(DONE_USERS);
+    // one id query and one fetch join per chunk, plus the id query finding no further users
+    assertThat(statistics.getPrepareStatementCount()).isBetween(2 * chunks, 2 * chunks + 1);
+    // a user and its session, plus the consultants of some sessions
+    assertThat(maxManagedEntities.get()).isLessThanOrEqualTo(3 * CHUNK_SIZE);
+  }
+
+  @Test
+  void deleteInactiveAnonymousUsers_Should_skipUsers_When_aSessionIsStillInProgress() {
+    jdbcTemplate.update(
+        "UPDATE session SET status = 2 WHERE user_id IN (?, ?)",
+        USER_ID_PREFIX + 1,
+        USER_ID_PREFIX + 2);
+
+    underTest.deleteInactiveAnonymousUsers();
+
+    assertThat(deletedUserIds().filter(userId -> userId.startsWith(USER_ID_PREFIX)))
+        .hasSize(DONE_USERS - 2)
+        .doesNotContain(USER_ID_PREFIX + 1, USER_ID_PREFIX + 2);
+  }
+
+  private Stream<String> deletedUserIds() {
+    return mockingDetails(deleteUserAccountService).getInvocations().stream()
+        .map(invocation -> invocation.<User>getArgument(0))
+        .map(User::getUserId);
+  }
+
+  private void givenUsersWithDoneSessions() {
+    jdbcTemplate.update(
+        "INSERT INTO user (user_id, username, email, language_formal, encourage_2fa, "
+            + "language_code, notifications_enabled) "
+            + "SELECT CONCAT(?, X), CONCAT(?, X), 'done@user.de', 0, true, 'de', 0 "
+            + "FROM SYSTEM_RANGE(1, ?)",
+        USER_ID_PREFIX,
+        USER_ID_PREFIX,
+        DONE_USERS);
+    jdbcTemplate.update(
+        "INSERT INTO session (id, user_id, consulting_type, registration_type, postcode, "
+            + "language_code, status, update_date, is_team_session, is_peer_chat, "
+            + "is_consultant_directly_set) "
+            + "SELECT 2000000 + X, CONCAT(?, X), 0, 'ANONYMOUS', '12345', 'de', 3, "
+            + "DATEADD('DAY', -2, CURRENT_TIMESTAMP), 0, 0, false FROM SYSTEM_RANGE(1, ?)",
+        USER_ID_PREFIX,
+        DONE_USERS);
+  }
+}
@@ -1,113 +1,108 @@
 package de.caritas.cob.userservice.api.workflow.delete.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import de.caritas.cob.userservice.api.model.Session;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.model.User;
-import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.port.out.UserRepository;
 import de.caritas.cob.userservice.api.workflow.delete.model.DeletionWorkflowError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class DeleteUserAnonymousServiceTest {
 
   private static final int DELETION_PERIOD_MINUTES = 1200;
+  private static final int CHUNK_SIZE = 2;
 
-  @InjectMocks private DeleteUserAnonymousService deleteUserAnonymousService;
+  private DeleteUserAnonymousService deleteUserAnonymousService;
 
-  @Mock private SessionRepository sessionRepository;
+  @Mock private UserRepository userRepository;
 
   @Mock private DeleteUserAccountService deleteUserAccountService;
 
   @Mock private WorkflowErrorMailService workflowErrorMailService;
 
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private EntityManager entityManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @BeforeEach
   public void setUp() {
+    deleteUserAnonymousService =
+        new DeleteUserAnonymousService(
+            userRepository,
+            deleteUserAccountService,
+            workflowErrorMailService,
+            transactionManager,
+            entityManager,
+            meterRegistry,
+            CHUNK_SIZE);
     ReflectionTestUtils.setField(
         deleteUserAnonymousService, "deletionPeriodMinutes", DELETION_PERIOD_MINUTES);
   }
 
   @Test
-  void deleteInactiveAnonymousUsers_Should_notPerformAnyDeletion_When_noSessionIsAvailable() {
+  void deleteInactiveAnonymousUsers_Should_notPerformAnyDeletion_When_noUserIsFound() {
     this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
 
     verifyNoMoreInteractions(this.workflowErrorMailService);
     verifyNoMoreInteractions(this.deleteUserAccountService);
+    verifyNoInteractions(this.transactionManager);
   }
 
   @Test
-  void deleteInactiveAnonymousUsers_Should_notPerformAnyDeletion_When_noSessionIsDone() {
-    whenSessionRepositoryFindByStatus_ThenReturnUserSessionsWithStatus(
-        getAnyStatusWhichIsNotDone());
-
+  void deleteInactiveAnonymousUsers_Should_selectUsersWithAllSessionsDoneBeforeDeletionPeriod() {
     this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
 
-    verifyNoMoreInteractions(this.workflowErrorMailService);
-    verifyNoMoreInteractions(this.deleteUserAccountService);
-  }
-
-  private SessionStatus[] getAnyStatusWhichIsNotDone() {
-    List<SessionStatus> anyStatusNotDone = new ArrayList<>(List.of(SessionStatus.values()));
-    anyStatusNotDone.remove(SessionStatus.DONE);
-    return anyStatusNotDone.toArray(SessionStatus[]::new);
-  }
-
-  private void whenSessionRepositoryFindByStatus_ThenReturnUserSessionsWithStatus(
-      SessionStatus... sessionStatus) {
-    User user = new User();
-    Set<Session> userSessions =
-        Stream.of(sessionStatus)
-            .map(createSessionForUserWithUpdateDateNow(user))
-            .collect(Collectors.toSet());
-    user.setSessions(userSessions);
-
-    when(this.sessionRepository.findByStatus(any())).thenReturn(new ArrayList<>(userSessions));
-  }
-
-  private Function<SessionStatus, Session> createSessionForUserWithUpdateDateNow(User user) {
-    return createSessionForUserWithUpdateDate(user, LocalDateTime.now());
-  }
-
-  private Function<SessionStatus, Session> createSessionForUserWithUpdateDate(
-      User user, LocalDateTime sessionUpdateDate) {
-    return (sessionStatus) -> createSessionForUser(user, sessionUpdateDate, sessionStatus);
-  }
-
-  private Session createSessionForUser(
-      User user, LocalDateTime updateDate, SessionStatus sessionStatus) {
-    Session session = new Session();
-    session.setId((long) sessionStatus.getValue());
-    session.setUpdateDate(updateDate);
-    session.setStatus(sessionStatus);
-    session.setUser(user);
-    return session;
+    var updateDateCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(this.userRepository)
+        .findUserIdsWithAllSessionsInStatusUpdatedBefore(
+            eq(SessionStatus.DONE),
+            updateDateCaptor.capture(),
+            eq(""),
+            eq(PageRequest.of(0, CHUNK_SIZE)));
+    assertThat(updateDateCaptor.getValue())
+        .isCloseTo(
+            LocalDateTime.now().minusMinutes(DELETION_PERIOD_MINUTES),
+            within(1, ChronoUnit.MINUTES));
   }
 
   @Test
   void deleteInactiveAnonymousUsers_Should_notPerformAnyDeletion_When_notAllSessionsAreDone() {
-    whenSessionRepositoryFindByStatus_ThenReturnUserSessionsWithStatus(
-        SessionStatus.IN_PROGRESS, SessionStatus.DONE);
+    givenUsersFound(userWithSessions(overdueDate(), SessionStatus.IN_PROGRESS, SessionStatus.DONE));
 
     this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
 
@@ -120,11 +115,7 @@ class DeleteUserAnonymousServiceTest {
   void
       deleteInactiveAnonymousUsers_Should_notPerformAnyDeletion_When_sessionsAreDoneWithinDeletionPeriod(
           LocalDateTime updateDate) {
-    User user = new User();
-    Set<Session> userSessions = Set.of(createSessionForUser(user, updateDate, SessionStatus.DONE));
-    user.setSessions(userSessions);
-
-    when(this.sessionRepository.findByStatus(any())).thenReturn(new ArrayList<>(userSessions));
+    givenUsersFound(userWithSessions(updateDate, SessionStatus.DONE));
 
     this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
 
@@ -145,17 +136,17 @@ class DeleteUserAnonymousServiceTest {
   @MethodSource("createOverdueUpdateDates")
   void deleteInactiveAnonymousUsers_Should_performAskerDeletion_When_userSessionsAreDoneAndOverdue(
       LocalDateTime overdueUpdateDate) {
-    User user = new User();
-    Set<Session> userSessions =
-        Set.of(createSessionForUser(user, overdueUpdateDate, SessionStatus.DONE));
-    user.setSessions(userSessions);
-
-    when(this.sessionRepository.findByStatus(any())).thenReturn(new ArrayList<>(userSessions));
+    var user = userWithSessions(overdueUpdateDate, SessionStatus.DONE);
+    givenUsersFound(user);
 
     this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
 
     verifyNoMoreInteractions(this.workflowErrorMailService);
     verify(this.deleteUserAccountService, times(1)).performUserDeletion(user);
+    assertThat(
+            meterRegistry.get("user.anonymous.deletion.users").tag("result", "deleted").counter())
+        .extracting(counter -> counter.count())
+        .isEqualTo(1.0);
   }
 
   private static List<LocalDateTime> createOverdueUpdateDates() {
@@ -168,12 +159,8 @@ class DeleteUserAnonymousServiceTest {
 
   @Test
   void deleteInactiveAnonymousUsers_Should_sendErrorMails_When_someActionsFail() {
-    User user = new User();
-    Set<Session> userSessions =
-        Set.of(createSessionForUser(user, createOverdueUpdateDates().get(0), SessionStatus.DONE));
-    user.setSessions(userSessions);
-
-    when(this.sessionRepository.findByStatus(any())).thenReturn(new ArrayList<>(userSessions));
+    var user = userWithSessions(overdueDate(), SessionStatus.DONE);
+    givenUsersFound(user);
 
     DeletionWorkflowError error = mock(DeletionWorkflowError.class);
     when(this.deleteUserAccountService.performUserDeletion(any())).thenReturn(List.of(error));
@@ -182,5 +169,73 @@ class DeleteUserAnonymousServiceTest {
 
     verify(this.workflowErrorMailService, times(1)).buildAndSendErrorMail(List.of(error));
     verify(this.deleteUserAccountService, times(1)).performUserDeletion(user);
+    assertThat(meterRegistry.get("user.anonymous.deletion.users").tag("result", "failed").counter())
+        .extracting(counter -> counter.count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void deleteInactiveAnonymousUsers_Should_deleteUsersChunkByChunk() {
+    var users =
+        Stream.of("1", "2", "3", "4", "5")
+            .map(
+                userId -> {
+                  var user = userWithSessions(overdueDate(), SessionStatus.DONE);
+                  user.setUserId(userId);
+                  return user;
+                })
+            .collect(Collectors.toList());
+    when(userRepository.findUserIdsWithAllSessionsInStatusUpdatedBefore(
+            any(), any(), anyString(), any(Pageable.class)))
+        .thenReturn(List.of("1", "2"), List.of("3", "4"), List.of("5"));
+    when(userRepository.findAllWithSessionsByUserIdIn(any()))
+        .thenReturn(users.subList(0, 2), users.subList(2, 4), users.subList(4, 5));
+
+    this.deleteUserAnonymousService.deleteInactiveAnonymousUsers();
+
+    var afterUserIdCaptor = ArgumentCaptor.forClass(String.class);
+    verify(userRepository, times(3))
+        .findUserIdsWithAllSessionsInStatusUpdatedBefore(
+            any(), any(), afterUserIdCaptor.capture(), any(Pageable.class));
+    assertThat(afterUserIdCaptor.getAllValues()).containsExactly("", "2", "4");
+    verify(userRepository).findAllWithSessionsByUserIdIn(List.of("1", "2"));
+    verify(userRepository).findAllWithSessionsByUserIdIn(List.of("3", "4"));
+    verify(userRepository).findAllWithSessionsByUserIdIn(List.of("5"));
+    users.forEach(user -> verify(deleteUserAccountService).performUserDeletion(user));
+    verify(entityManager, times(3)).clear();
+    assertThat(meterRegistry.get("user.anonymous.deletion.chunk").timer().count()).isEqualTo(3);
+  }
+
+  private void givenUsersFound(User... users) {
+    var userIds = Arrays.stream(users).map(User::getUserId).collect(Collectors.toList());
+    when(userRepository.findUserIdsWithAllSessionsInStatusUpdatedBefore(
+            any(), any(), anyString(), any(Pageable.class)))
+        .thenReturn(userIds);
+    when(userRepository.findAllWithSessionsByUserIdIn(userIds)).thenReturn(List.of(users));
+  }
+
+  private User userWithSessions(LocalDateTime updateDate, SessionStatus... sessionStatus) {
+    User user = new User();
+    user.setUserId("userId");
+    Set<Session> userSessions =
+        Stream.of(sessionStatus)
+            .map(status -> createSessionForUser(user, updateDate, status))
+            .collect(Collectors.toSet());
+    user.setSessions(userSessions);
+    return user;
+  }
+
+  private Session createSessionForUser(
+      User user, LocalDateTime updateDate, SessionStatus sessionStatus) {
+    Session session = new Session();
+    session.setId((long) sessionStatus.getValue());
+    session.setUpdateDate(updateDate);
+    session.setStatus(sessionStatus);
+    session.setUser(user);
+    return session;
+  }
+
+  private LocalDateTime overdueDate() {
+    return LocalDateTime.now().minusMinutes(DELETION_PERIOD_MINUTES + 10);
   }
 }
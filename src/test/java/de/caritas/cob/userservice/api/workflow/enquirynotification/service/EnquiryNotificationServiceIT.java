@@ -0,0 +1,173 @@
+package de.caritas.cob.userservice.api.workflow.enquirynotification.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
+import de.caritas.cob.userservice.api.adapters.web.mapping.UserDtoMapper;
+import de.caritas.cob.userservice.api.port.in.AccountManaging;
+import de.caritas.cob.userservice.api.port.out.ConsultantAgencyRepository;
+import de.caritas.cob.userservice.api.port.out.SessionRepository;
+import de.caritas.cob.userservice.api.service.ConsultantAgencyService;
+import de.caritas.cob.userservice.api.service.agency.AgencyService;
+import de.caritas.cob.userservice.api.service.consultingtype.ReleaseToggleService;
+import de.caritas.cob.userservice.api.service.helper.MailService;
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
+import de.caritas.cob.userservice.mailservice.generated.web.model.MailsDTO;
+import de.caritas.cob.userservice.mailservice.generated.web.model.TemplateDataDTO;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@TestPropertySource(
+    properties = {
+      "spring.profiles.active=testing",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@AutoConfigureTestDatabase(replace = Replace.ANY)
+class EnquiryNotificationServiceIT {
+
+  private static final int OPEN_ENQUIRIES = 50_000;
+  private static final int AGENCIES = 50;
+  private static final long FIRST_AGENCY_ID = 9_000L;
+  private static final String CONSULTANT_ID = "473f7c4b-f011-4fc2-847c-ceb636a5b399";
+  private static final String AGENCY_NAME = "open-enquiry-agency-";
+  private static final String USER_ID = "015d013d-95e7-4e91-85b5-12cdb3d317f3";
+
+  @Autowired private SessionRepository sessionRepository;
+
+  @Autowired private ConsultantAgencyRepository consultantAgencyRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private final MailService mailService = mock(MailService.class);
+
+  private final ReleaseToggleService releaseToggleService = mock(ReleaseToggleService.class);
+
+  private final AgencyService agencyService = mock(AgencyService.class);
+
+  private EnquiryNotificationService underTest;
+
+  @BeforeEach
+  void setup() {
+    var consultantAgencyService =
+        new ConsultantAgencyService(
+            consultantAgencyRepository,
+            agencyService,
+            mock(AccountManaging.class),
+            mock(UserDtoMapper.class));
+    underTest =
+        new EnquiryNotificationService(
+            mailService,
+            sessionRepository,
+            consultantAgencyService,
+            agencyService,
+            releaseToggleService,
+            Runnable::run);
+    setField(underTest, "openEnquiryCheckHours", 12L);
+    setField(underTest, "mailBatchSize", 100);
+    setField(underTest, "applicationBaseUrl", "base/url");
+    when(agencyService.getAgencies(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Long>>getArgument(0).stream()
+                    .filter(agencyId -> agencyId >= FIRST_AGENCY_ID)
+                    .map(agencyId -> new AgencyDTO().id(agencyId).name(AGENCY_NAME + agencyId))
+                    .collect(Collectors.toList()));
+    givenOpenEnquiriesOfNewAgencies();
+  }
+
+  @Test
+  void
+      sendEmailNotificationsForOpenEnquiries_Should_useFixedNumberOfStatements_When_manyEnquiriesAreOpen() {
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    underTest.sendEmailNotificationsForOpenEnquiries();
+
+    // one aggregate query for the open enquiries and one for the consultants of their agencies
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(openEnquiriesPerAgencyOfMails())
+        .hasSize(AGENCIES)
+        .allSatisfy(
+            (agencyName, openEnquiries) ->
+                assertThat(openEnquiries).isEqualTo(String.valueOf(OPEN_ENQUIRIES / AGENCIES)));
+  }
+
+  @Test
+  void sendEmailNotificationsForOpenEnquiries_Should_ignoreEnquiries_When_youngerThanCheckHours() {
+    jdbcTemplate.update(
+        "UPDATE session SET message_date = DATEADD('HOUR', -11, CURRENT_TIMESTAMP) "
+            + "WHERE agency_id = ?",
+        FIRST_AGENCY_ID);
+
+    underTest.sendEmailNotificationsForOpenEnquiries();
+
+    assertThat(openEnquiriesPerAgencyOfMails()).hasSize(AGENCIES - 1);
+  }
+
+  private void givenOpenEnquiriesOfNewAgencies() {
+    jdbcTemplate.update(
+        "INSERT INTO session (id, user_id, consulting_type, registration_type, postcode, "
+            + "agency_id, language_code, status, message_date, is_team_session, is_peer_chat, "
+            + "is_consultant_directly_set) "
+            + "SELECT 1000000 + X, ?, 0, 'REGISTERED', '12345', ? + MOD(X, ?), 'de', 1, "
+            + "DATEADD('HOUR', -13, CURRENT_TIMESTAMP), 0, 0, false FROM SYSTEM_RANGE(1, ?)",
+        USER_ID,
+        FIRST_AGENCY_ID,
+        AGENCIES,
+        OPEN_ENQUIRIES);
+    jdbcTemplate.update(
+        "INSERT INTO consultant_agency (id, consultant_id, agency_id, create_date, update_date) "
+            + "SELECT 1000000 + X, ?, ? + X, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+            + "FROM SYSTEM_RANGE(0, ?)",
+        CONSULTANT_ID,
+        FIRST_AGENCY_ID,
+        AGENCIES - 1);
+    jdbcTemplate.update(
+        "UPDATE consultant SET notify_enquiries_repeating = true WHERE consultant_id = ?",
+        CONSULTANT_ID);
+  }
+
+  private Map<String, String> openEnquiriesPerAgencyOfMails() {
+    var mailsCaptor = ArgumentCaptor.forClass(MailsDTO.class);
+    verify(mailService, atLeastOnce()).sendEmailNotification(mailsCaptor.capture());
+    return mailsCaptor.getAllValues().stream()
+        .map(MailsDTO::getMails)
+        .flatMap(Collection::stream)
+        .map(MailDTO::getTemplateData)
+        .filter(templateData -> templateValue(templateData, "agency_name").startsWith(AGENCY_NAME))
+        .collect(
+            Collectors.toMap(
+                templateData -> templateValue(templateData, "agency_name"),
+                templateData -> templateValue(templateData, "enquiries")));
+  }
+
+  private String templateValue(List<TemplateDataDTO> templateData, String key) {
+    return templateData.stream()
+        .filter(data -> key.equals(data.getKey()))
+        .map(TemplateDataDTO::getValue)
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -4,7 +4,13 @@ import static de.caritas.cob.userservice.api.helper.CustomLocalDateTime.nowInUtc
 import static de.caritas.cob.userservice.api.service.emailsupplier.EmailSupplier.TEMPLATE_DAILY_ENQUIRY_NOTIFICATION;
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -15,7 +21,7 @@ import com.neovisionaries.i18n.LanguageCode;
 import de.caritas.cob.userservice.api.adapters.web.dto.AgencyDTO;
 import de.caritas.cob.userservice.api.model.Consultant;
 import de.caritas.cob.userservice.api.model.ConsultantAgency;
-import de.caritas.cob.userservice.api.model.Session;
+import de.caritas.cob.userservice.api.model.Session.OpenEnquiriesOfAgency;
 import de.caritas.cob.userservice.api.model.Session.SessionStatus;
 import de.caritas.cob.userservice.api.port.out.SessionRepository;
 import de.caritas.cob.userservice.api.service.ConsultantAgencyService;
@@ -26,22 +32,19 @@ import de.caritas.cob.userservice.mailservice.generated.web.model.MailDTO;
 import de.caritas.cob.userservice.mailservice.generated.web.model.MailsDTO;
 import de.caritas.cob.userservice.mailservice.generated.web.model.TemplateDataDTO;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 class EnquiryNotificationServiceTest {
 
-  @InjectMocks private EnquiryNotificationService enquiryNotificationService;
+  private EnquiryNotificationService enquiryNotificationService;
 
   @Mock private MailService mailService;
 
@@ -55,35 +58,35 @@ class EnquiryNotificationServiceTest {
 
   @BeforeEach
   public void setup() {
+    enquiryNotificationService =
+        new EnquiryNotificationService(
+            mailService,
+            sessionRepository,
+            consultantAgencyService,
+            agencyService,
+            releaseToggleService,
+            Runnable::run);
     setField(enquiryNotificationService, "openEnquiryCheckHours", 12L);
+    setField(enquiryNotificationService, "mailBatchSize", 100);
     setField(enquiryNotificationService, "applicationBaseUrl", "base/url");
   }
 
   @Test
   void
       sendEmailNotificationsForOpenEnquiries_Should_sendExpectedMailsToConsultantsOfAgency_When_agencyHasOpenEnquiries() {
-    var openEnquiries = openEnquiriesForAgency(1L, nowInUtc().minusHours(13L), 3);
-    openEnquiries.addAll(openEnquiriesForAgency(2L, nowInUtc().minusHours(13L), 2));
-    openEnquiries.addAll(openEnquiriesForAgency(3L, nowInUtc().minusHours(13L), 1));
-    openEnquiries.addAll(openEnquiriesForAgency(4L, nowInUtc().minusHours(11L), 5));
-    when(sessionRepository.findByStatus(SessionStatus.NEW)).thenReturn(openEnquiries);
-    when(consultantAgencyService.findConsultantsByAgencyId(1L))
+    givenOpenEnquiries(
+        openEnquiriesOfAgency(1L, 3), openEnquiriesOfAgency(2L, 2), openEnquiriesOfAgency(3L, 1));
+    when(consultantAgencyService.getConsultantAgenciesWithConsultants(asList(1L, 2L, 3L)))
         .thenReturn(
             List.of(
                 createConsultantAgencyWithConsultantsMailAddress(
-                    "consultant1", "firstname1 lastname1"),
+                    1L, "consultant1", "firstname1 lastname1"),
                 createConsultantAgencyWithConsultantsMailAddress(
-                    "consultant2", "firstname2 lastname2")));
-    when(consultantAgencyService.findConsultantsByAgencyId(2L))
-        .thenReturn(
-            List.of(
+                    1L, "consultant2", "firstname2 lastname2"),
                 createConsultantAgencyWithConsultantsMailAddress(
-                    "consultant3", "firstname3 lastname3")));
-    when(consultantAgencyService.findConsultantsByAgencyId(3L))
-        .thenReturn(
-            List.of(
+                    2L, "consultant3", "firstname3 lastname3"),
                 createConsultantAgencyWithConsultantsMailAddress(
-                    "consultant4", "firstname4 lastname4")));
+                    3L, "consultant4", "firstname4 lastname4")));
     var agencies =
         asList(
             createAgency(1L, "Blue Agency"),
@@ -100,41 +103,65 @@ class EnquiryNotificationServiceTest {
             buildExpectedMail("consultant3", "firstname3 lastname3", "Red Agency", 2L),
             buildExpectedMail("consultant4", "firstname4 lastname4", "Yellow Agency", 1L));
     var argumentCaptor = ArgumentCaptor.forClass(MailsDTO.class);
-    verify(mailService, times(3)).sendEmailNotification(argumentCaptor.capture());
-    var resultMailsDTO =
-        argumentCaptor.getAllValues().stream()
-            .map(MailsDTO::getMails)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-    assertThat(resultMailsDTO, containsInAnyOrder(expectedMailsDTO.toArray()));
+    verify(mailService).sendEmailNotification(argumentCaptor.capture());
+    assertThat(
+        argumentCaptor.getValue().getMails(), containsInAnyOrder(expectedMailsDTO.toArray()));
   }
 
   @Test
   void
-      sendEmailNotificationsForOpenEnquiries_Should_sendNoMails_When_agencyHasOpenEnquiriesYoungerThanCheckTime() {
-    var openEnquiries = openEnquiriesForAgency(1L, nowInUtc().minusHours(11L), 3);
-    when(sessionRepository.findByStatus(SessionStatus.NEW)).thenReturn(openEnquiries);
+      sendEmailNotificationsForOpenEnquiries_Should_queryEnquiriesOlderThanCheckHours_When_notificationsAreSent() {
+    enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
+
+    var dateCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(sessionRepository)
+        .countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId(
+            eq(SessionStatus.NEW), dateCaptor.capture());
+    var expectedDate = nowInUtc().minusHours(12L);
+    assertThat(
+        dateCaptor.getValue(),
+        is(
+            both(greaterThan(expectedDate.minusMinutes(1)))
+                .and(lessThan(expectedDate.plusMinutes(1)))));
+  }
+
+  @Test
+  void
+      sendEmailNotificationsForOpenEnquiries_Should_sendMailsInBatches_When_moreMailsThanBatchSizeExist() {
+    setField(enquiryNotificationService, "mailBatchSize", 2);
+    givenOpenEnquiries(openEnquiriesOfAgency(1L, 3));
+    when(consultantAgencyService.getConsultantAgenciesWithConsultants(List.of(1L)))
+        .thenReturn(
+            List.of(
+                createConsultantAgencyWithConsultantsMailAddress(
+                    1L, "consultant1", "firstname1 lastname1"),
+                createConsultantAgencyWithConsultantsMailAddress(
+                    1L, "consultant2", "firstname2 lastname2"),
+                createConsultantAgencyWithConsultantsMailAddress(
+                    1L, "consultant3", "firstname3 lastname3")));
 
     enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
 
-    verifyNoInteractions(mailService);
+    var argumentCaptor = ArgumentCaptor.forClass(MailsDTO.class);
+    verify(mailService, times(2)).sendEmailNotification(argumentCaptor.capture());
+    var batchSizes =
+        argumentCaptor.getAllValues().stream()
+            .map(mailsDTO -> mailsDTO.getMails().size())
+            .collect(Collectors.toList());
+    assertThat(batchSizes, containsInAnyOrder(2, 1));
   }
 
   @Test
   void sendEmailNotificationsForOpenEnquiries_Should_sendNoMails_When_noOpenEnquiriesExists() {
     enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
 
-    verifyNoInteractions(mailService);
+    verifyNoInteractions(mailService, agencyService, consultantAgencyService);
   }
 
   @Test
   void
       sendEmailNotificationsForOpenEnquiries_Should_sendNoMails_When_agenciesWithOpenEnquiriesHaveNoConsultants() {
-    var openEnquiries = openEnquiriesForAgency(1L, nowInUtc().minusHours(13L), 3);
-    openEnquiries.addAll(openEnquiriesForAgency(1L, nowInUtc().minusHours(13L), 2));
-    openEnquiries.addAll(openEnquiriesForAgency(2L, nowInUtc().minusHours(13L), 1));
-    openEnquiries.addAll(openEnquiriesForAgency(3L, nowInUtc().minusHours(11L), 5));
-    when(sessionRepository.findByStatus(SessionStatus.NEW)).thenReturn(openEnquiries);
+    givenOpenEnquiries(openEnquiriesOfAgency(1L, 5), openEnquiriesOfAgency(2L, 1));
 
     enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
 
@@ -144,48 +171,50 @@ class EnquiryNotificationServiceTest {
   @Test
   void
       sendEmailNotificationsForOpenEnquiries_Should_sendNoMails_When_agenciesWithOpenEnquiriesAreNotToBeNotified() {
-    var openEnquiries = openEnquiriesForAgency(2L, nowInUtc().minusHours(13L), 1);
-    when(consultantAgencyService.findConsultantsByAgencyId(2L))
+    givenOpenEnquiries(openEnquiriesOfAgency(2L, 1));
+    when(consultantAgencyService.getConsultantAgenciesWithConsultants(List.of(2L)))
         .thenReturn(
             List.of(
                 createConsultantAgencyWithConsultantsMailAddress(
-                    "consultant3", "firstname3 lastname3", false)));
-    when(sessionRepository.findByStatus(SessionStatus.NEW)).thenReturn(openEnquiries);
+                    2L, "consultant3", "firstname3 lastname3", false)));
 
     enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
 
     verifyNoInteractions(mailService);
   }
 
-  @Test
-  void sendEmailNotificationsForOpenEnquiries_Should_sendNoMails_When_enquiryDateDoesNotExist() {
-    var openEnquiries = openEnquiriesForAgency(1L, null, 3);
-    when(sessionRepository.findByStatus(SessionStatus.NEW)).thenReturn(openEnquiries);
-
-    enquiryNotificationService.sendEmailNotificationsForOpenEnquiries();
-
-    verifyNoInteractions(mailService);
+  private void givenOpenEnquiries(OpenEnquiriesOfAgency... openEnquiries) {
+    when(sessionRepository.countByStatusAndEnquiryMessageDateBeforeGroupByAgencyId(
+            eq(SessionStatus.NEW), any()))
+        .thenReturn(asList(openEnquiries));
   }
 
-  private List<Session> openEnquiriesForAgency(
-      Long agencyId, LocalDateTime enquiryDate, int amount) {
-    var enquiries = new ArrayList<Session>();
-    for (int i = 0; i < amount; i++) {
-      var session = new Session();
-      session.setAgencyId(agencyId);
-      session.setEnquiryMessageDate(enquiryDate);
-      enquiries.add(session);
-    }
-    return enquiries;
+  private OpenEnquiriesOfAgency openEnquiriesOfAgency(Long agencyId, long amount) {
+    return new OpenEnquiriesOfAgency() {
+      @Override
+      public Long getAgencyId() {
+        return agencyId;
+      }
+
+      @Override
+      public Long getAmountOfOpenEnquiries() {
+        return amount;
+      }
+
+      @Override
+      public LocalDateTime getOldestEnquiryMessageDate() {
+        return nowInUtc().minusHours(13L);
+      }
+    };
   }
 
   private ConsultantAgency createConsultantAgencyWithConsultantsMailAddress(
-      String mail, String fullName) {
-    return createConsultantAgencyWithConsultantsMailAddress(mail, fullName, true);
+      Long agencyId, String mail, String fullName) {
+    return createConsultantAgencyWithConsultantsMailAddress(agencyId, mail, fullName, true);
   }
 
   private ConsultantAgency createConsultantAgencyWithConsultantsMailAddress(
-      String mail, String fullName, boolean notifyEnqRep) {
+      Long agencyId, String mail, String fullName, boolean notifyEnqRep) {
     var consultant = new Consultant();
     String[] firstNameLastName = fullName.split(" ");
     consultant.setFirstName(firstNameLastName[0]);
@@ -194,6 +223,7 @@ class EnquiryNotificationServiceTest {
     consultant.setLanguageCode(LanguageCode.de);
     consultant.setNotifyEnquiriesRepeating(notifyEnqRep);
     var consultantAgency = new ConsultantAgency();
+    consultantAgency.setAgencyId(agencyId);
     consultantAgency.setConsultant(consultant);
 
     return consultantAgency;
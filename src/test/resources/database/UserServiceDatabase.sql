@@ -2,6 +2,7 @@ CREATE sequence if not exists sequence_session;
 CREATE sequence if not exists sequence_session_topic;
 CREATE sequence if not exists sequence_consultant_agency;
 CREATE sequence if not exists sequence_admin_agency;
+CREATE sequence if not exists sequence_anonymous_username_block START WITH 0 MINVALUE 0;
 
 ALTER SEQUENCE sequence_session RESTART WITH 100000;
 ALTER SEQUENCE sequence_session_topic RESTART WITH 100000;